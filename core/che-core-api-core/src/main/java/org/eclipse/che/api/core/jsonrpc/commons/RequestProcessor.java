@@ -18,4 +18,16 @@ public interface RequestProcessor {
    * @param runnable runnable to be called for processing of a request
    */
   void process(Runnable runnable);
+
+  /**
+   * Process a runnable interface that handles a request of the specified method, implementation
+   * may use method name to schedule processing.
+   *
+   * @param method name of the requested method
+   * @param runnable runnable to be called for processing of a request
+   * @throws JsonRpcException if request can not be accepted for processing
+   */
+  default void process(String method, Runnable runnable) {
+    process(runnable);
+  }
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.BasicWebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+
+/**
+ * Coalesces JSON RPC messages transmitted to an endpoint within a short time window into a single
+ * JSON RPC batch array, which reduces number of WEB SOCKET frames when there are many small
+ * messages, e.g. process output or file watcher events.
+ *
+ * <p>Only sessions that opted in with {@code batch=true} query parameter get batches, other
+ * sessions get messages one by one as before. A batch is transmitted when the window since its
+ * first message elapses or its size reaches the limit. Order of messages is preserved, messages
+ * of an endpoint are transmitted one by one by one of the calling threads, but never while state of
+ * endpoints is locked.
+ */
+@Singleton
+public class BatchingWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
+  private static final Logger LOG = getLogger(BatchingWebSocketMessageTransmitter.class);
+
+  /** Query parameter that session uses to opt in for batches. */
+  public static final String BATCH_QUERY_PARAMETER = "batch";
+
+  private final WebSocketMessageTransmitter transmitter;
+  private final WebSocketSessionRegistry registry;
+  private final long windowMs;
+  private final int maxBatchSize;
+  private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+
+  private final AtomicLong batchedMessages = new AtomicLong();
+  private final AtomicLong transmittedBatches = new AtomicLong();
+
+  /**
+   * @param transmitter transmitter of messages and batches
+   * @param registry registry of sessions
+   * @param windowMs time in milliseconds during which messages are collected into a batch,
+   *     batching is disabled if it is not positive
+   * @param maxBatchSize max size of batch in characters
+   */
+  @Inject
+  public BatchingWebSocketMessageTransmitter(
+      BasicWebSocketMessageTransmitter transmitter,
+      WebSocketSessionRegistry registry,
+      @Named("che.websocket.jsonrpc.batch_window_ms") long windowMs,
+      @Named("che.websocket.jsonrpc.batch_max_size") int maxBatchSize) {
+    this((WebSocketMessageTransmitter) transmitter, registry, windowMs, maxBatchSize);
+  }
+
+  BatchingWebSocketMessageTransmitter(
+      WebSocketMessageTransmitter transmitter,
+      WebSocketSessionRegistry registry,
+      long windowMs,
+      int maxBatchSize) {
+    this.transmitter = transmitter;
+    this.registry = registry;
+    this.windowMs = windowMs;
+    this.maxBatchSize = maxBatchSize;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("JsonRpcBatchTransmitter-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+  }
+
+  @Override
+  public void transmit(String endpointId, String message) {
+    if (windowMs <= 0) {
+      transmitter.transmit(endpointId, message);
+      return;
+    }
+
+    // frames are only queued inside of compute and transmitted after it returns by a single
+    // caller at a time, so messages of an endpoint keep their order
+    final boolean[] sender = new boolean[1];
+    endpoints.compute(
+        endpointId,
+        (id, endpoint) -> {
+          if (endpoint == null) {
+            endpoint = new Endpoint(acceptsBatches(id));
+          }
+          if (!endpoint.batching) {
+            endpoint.frames.add(message);
+            sender[0] = endpoint.claim();
+            return endpoint;
+          }
+          if (endpoint.batch == null) {
+            final Batch batch = new Batch();
+            if (!schedule(id, batch)) {
+              batch.add(message);
+              endpoint.ready(batch);
+              sender[0] = endpoint.claim();
+              return endpoint;
+            }
+            endpoint.batch = batch;
+          }
+          endpoint.batch.add(message);
+          if (endpoint.batch.size >= maxBatchSize) {
+            endpoint.ready(endpoint.batch);
+            sender[0] = endpoint.claim();
+          }
+          return endpoint;
+        });
+    if (sender[0]) {
+      transmitFrames(endpointId);
+    }
+  }
+
+  /** Returns number of messages transmitted within batches. */
+  public long getBatchedMessages() {
+    return batchedMessages.get();
+  }
+
+  /** Returns number of batches transmitted, each of them is a single WEB SOCKET frame. */
+  public long getTransmittedBatches() {
+    return transmittedBatches.get();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+    for (String endpointId : endpoints.keySet()) {
+      flush(endpointId, null);
+    }
+    LOG.debug(
+        "{} messages were transmitted within {} batches",
+        batchedMessages.get(),
+        transmittedBatches.get());
+  }
+
+  /** Schedules transmission of the batch, returns {@code false} if it can't be scheduled. */
+  private boolean schedule(String endpointId, Batch batch) {
+    try {
+      scheduler.schedule(() -> flush(endpointId, batch), windowMs, MILLISECONDS);
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Transmits the batch if it is still collected for the endpoint, any collected batch is
+   * transmitted if expected one is {@code null}.
+   */
+  private void flush(String endpointId, Batch expected) {
+    final boolean[] sender = new boolean[1];
+    endpoints.computeIfPresent(
+        endpointId,
+        (id, endpoint) -> {
+          if (endpoint.batch != null && (expected == null || endpoint.batch == expected)) {
+            endpoint.ready(endpoint.batch);
+            sender[0] = endpoint.claim();
+          }
+          return endpoint;
+        });
+    if (sender[0]) {
+      transmitFrames(endpointId);
+    }
+  }
+
+  /**
+   * Transmits queued frames of the endpoint until there are none left, must be called only by the
+   * caller that claimed sending.
+   */
+  private void transmitFrames(String endpointId) {
+    String frame;
+    while ((frame = nextFrame(endpointId)) != null) {
+      try {
+        transmitter.transmit(endpointId, frame);
+      } catch (RuntimeException e) {
+        LOG.error("Error while transmitting message to endpoint {}", endpointId, e);
+      }
+    }
+  }
+
+  /**
+   * Returns next queued frame of the endpoint or {@code null} if there are no frames left, in this
+   * case sending is released and the endpoint is removed if it doesn't collect a batch.
+   */
+  private String nextFrame(String endpointId) {
+    final String[] next = new String[1];
+    endpoints.computeIfPresent(
+        endpointId,
+        (id, endpoint) -> {
+          next[0] = endpoint.frames.poll();
+          if (next[0] != null) {
+            return endpoint;
+          }
+          endpoint.sending = false;
+          return endpoint.batch == null ? null : endpoint;
+        });
+    return next[0];
+  }
+
+  private boolean acceptsBatches(String endpointId) {
+    final Optional<Session> session = registry.get(endpointId);
+    if (!session.isPresent()) {
+      return false;
+    }
+    final List<String> values = session.get().getRequestParameterMap().get(BATCH_QUERY_PARAMETER);
+    return values != null && values.contains("true");
+  }
+
+  /** State of an endpoint, accessed only inside of {@code endpoints} methods. */
+  private final class Endpoint {
+    private final boolean batching;
+    private final Queue<String> frames = new ArrayDeque<>();
+    private Batch batch;
+    private boolean sending;
+
+    private Endpoint(boolean batching) {
+      this.batching = batching;
+    }
+
+    /** Queues the batch for transmission, it is not collected anymore. */
+    private void ready(Batch ready) {
+      batchedMessages.addAndGet(ready.messages.size());
+      transmittedBatches.incrementAndGet();
+      frames.add(ready.toMessage());
+      if (ready == batch) {
+        batch = null;
+      }
+    }
+
+    /** Returns {@code true} if the caller has to transmit queued frames. */
+    private boolean claim() {
+      if (sending) {
+        return false;
+      }
+      sending = true;
+      return true;
+    }
+  }
+
+  private static final class Batch {
+    private final List<String> messages = new ArrayList<>();
+    private int size;
+
+    private void add(String message) {
+      messages.add(message);
+      size += message.length() + 1;
+    }
+
+    private String toMessage() {
+      if (messages.size() == 1) {
+        return messages.get(0);
+      }
+      final StringBuilder sb = new StringBuilder(size + 1).append('[');
+      for (int i = 0; i < messages.size(); i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        sb.append(messages.get(i));
+      }
+      return sb.append(']').toString();
+    }
+  }
+}
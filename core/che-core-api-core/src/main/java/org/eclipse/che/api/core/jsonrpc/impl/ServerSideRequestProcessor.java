@@ -10,50 +10,345 @@
  */
 package org.eclipse.che.api.core.jsonrpc.impl;
 
-import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
-import java.util.concurrent.ExecutorService;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
 
+/**
+ * Processes requests on a bounded pool of threads. Requests of interactive methods, e.g. editor
+ * requests, are taken from the queue ahead of other requests. Number of concurrently processed
+ * requests of a method may be limited, the rest of requests of such method wait without occupying
+ * threads of the pool. When too many requests wait for processing new requests are rejected.
+ *
+ * <p>Time requests spend in the queue and time of their processing are collected per method.
+ */
 @Singleton
 public class ServerSideRequestProcessor implements RequestProcessor {
-  private ExecutorService executorService;
+  private static final Logger LOG = getLogger(ServerSideRequestProcessor.class);
+
+  private static final String UNKNOWN_METHOD = "";
+
+  private final int poolSize;
+  private final int queueCapacity;
+  private final Map<String, Integer> methodLimits;
+  private final List<String> interactiveMethods;
+
+  private final ConcurrentMap<String, MethodState> methods = new ConcurrentHashMap<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicLong sequence = new AtomicLong();
+
+  private ThreadPoolExecutor executor;
+
+  /**
+   * @param poolSize max number of threads that process requests
+   * @param queueCapacity max number of requests that wait for processing
+   * @param methodLimits comma separated pairs {@code method=limit} of max number of concurrently
+   *     processed requests of a method
+   * @param interactiveMethods comma separated names or prefixes of names of methods which requests
+   *     are processed ahead of other requests
+   */
+  @Inject
+  public ServerSideRequestProcessor(
+      @Named("che.core.jsonrpc.processor_max_pool_size") int poolSize,
+      @Named("che.core.jsonrpc.processor_queue_capacity") int queueCapacity,
+      @Named("che.core.jsonrpc.processor_method_limits") String methodLimits,
+      @Named("che.core.jsonrpc.processor_interactive_methods") String interactiveMethods) {
+    this.poolSize = poolSize;
+    this.queueCapacity = queueCapacity;
+    this.methodLimits = parseMethodLimits(methodLimits);
+    this.interactiveMethods =
+        Splitter.on(',').trimResults().omitEmptyStrings().splitToList(interactiveMethods);
+  }
 
   @PostConstruct
-  private void postConstruct() {
+  void postConstruct() {
     ThreadFactory factory =
         new ThreadFactoryBuilder()
             .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
-            .setNameFormat(ServerSideRequestProcessor.class.getSimpleName())
+            .setNameFormat(ServerSideRequestProcessor.class.getSimpleName() + "-%d")
             .setDaemon(true)
             .build();
 
-    executorService = newCachedThreadPool(factory);
+    executor =
+        new ThreadPoolExecutor(
+            poolSize, poolSize, 60, SECONDS, new PriorityBlockingQueue<>(), factory);
+    executor.allowCoreThreadTimeOut(true);
   }
 
   @PreDestroy
-  private void preDestroy() {
-    executorService.shutdown();
+  void preDestroy() {
+    executor.shutdown();
     try {
-      if (executorService.awaitTermination(5, SECONDS)) {
-        executorService.shutdownNow();
-        executorService.awaitTermination(5, SECONDS);
+      if (!executor.awaitTermination(5, SECONDS)) {
+        executor.shutdownNow();
+        executor.awaitTermination(5, SECONDS);
       }
     } catch (InterruptedException ie) {
-      executorService.shutdownNow();
+      executor.shutdownNow();
       Thread.currentThread().interrupt();
     }
+    for (MethodStatistics statistics : getStatistics().values()) {
+      LOG.debug("JSON RPC requests statistics: {}", statistics);
+    }
   }
 
   @Override
   public void process(Runnable runnable) {
-    executorService.execute(runnable);
+    process(UNKNOWN_METHOD, runnable);
+  }
+
+  @Override
+  public void process(String method, Runnable runnable) {
+    if (queued.incrementAndGet() > queueCapacity) {
+      queued.decrementAndGet();
+      methodState(method).rejected.incrementAndGet();
+      throw new JsonRpcException(-32000, "Too many requests are waiting for processing");
+    }
+    final MethodState state = methodState(method);
+    final Task task = new Task(state, runnable, isInteractive(method), sequence.incrementAndGet());
+    synchronized (state) {
+      if (state.limit > 0 && state.running >= state.limit) {
+        state.waiting.add(task);
+        return;
+      }
+      state.running++;
+    }
+    executor.execute(task);
+  }
+
+  /** Returns statistics of requests processing per method name. */
+  public Map<String, MethodStatistics> getStatistics() {
+    final Map<String, MethodStatistics> statistics = new HashMap<>();
+    methods.forEach((method, state) -> statistics.put(method, state.toStatistics()));
+    return statistics;
+  }
+
+  /** Returns number of requests that wait for processing. */
+  public int getQueueSize() {
+    return queued.get();
+  }
+
+  private MethodState methodState(String method) {
+    final String key = method == null ? UNKNOWN_METHOD : method;
+    return methods.computeIfAbsent(key, m -> new MethodState(m, methodLimits.getOrDefault(m, 0)));
+  }
+
+  private boolean isInteractive(String method) {
+    if (method == null) {
+      return false;
+    }
+    for (String interactiveMethod : interactiveMethods) {
+      if (method.startsWith(interactiveMethod)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void afterExecute(MethodState state) {
+    final Task next;
+    synchronized (state) {
+      next = state.waiting.poll();
+      if (next == null) {
+        state.running--;
+      }
+    }
+    if (next != null) {
+      executor.execute(next);
+    }
+  }
+
+  private static Map<String, Integer> parseMethodLimits(String methodLimits) {
+    final ImmutableMap.Builder<String, Integer> limits = ImmutableMap.builder();
+    Splitter.on(',')
+        .trimResults()
+        .omitEmptyStrings()
+        .withKeyValueSeparator('=')
+        .split(methodLimits)
+        .forEach((method, limit) -> limits.put(method.trim(), Integer.parseInt(limit.trim())));
+    return limits.build();
+  }
+
+  /** Request that waits for processing, interactive requests go first then in order of arrival. */
+  private final class Task implements Runnable, Comparable<Task> {
+    private final MethodState state;
+    private final Runnable runnable;
+    private final boolean interactive;
+    private final long sequence;
+    private final long created = System.nanoTime();
+
+    private Task(MethodState state, Runnable runnable, boolean interactive, long sequence) {
+      this.state = state;
+      this.runnable = runnable;
+      this.interactive = interactive;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public void run() {
+      queued.decrementAndGet();
+      final long start = System.nanoTime();
+      state.queueTime.add(start - created);
+      try {
+        runnable.run();
+      } finally {
+        state.executionTime.add(System.nanoTime() - start);
+        afterExecute(state);
+      }
+    }
+
+    @Override
+    public int compareTo(Task that) {
+      if (interactive != that.interactive) {
+        return interactive ? -1 : 1;
+      }
+      return Long.compare(sequence, that.sequence);
+    }
+  }
+
+  private static final class MethodState {
+    private final String method;
+    private final int limit;
+    private final ArrayDeque<Task> waiting = new ArrayDeque<>();
+    private final Timer queueTime = new Timer();
+    private final Timer executionTime = new Timer();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private int running;
+
+    private MethodState(String method, int limit) {
+      this.method = method;
+      this.limit = limit;
+    }
+
+    private MethodStatistics toStatistics() {
+      return new MethodStatistics(
+          method,
+          executionTime.count.get(),
+          rejected.get(),
+          queueTime.average(),
+          queueTime.max.get(),
+          executionTime.average(),
+          executionTime.max.get());
+    }
+  }
+
+  private static final class Timer {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    private void add(long nanos) {
+      count.incrementAndGet();
+      total.addAndGet(nanos);
+      max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private long average() {
+      final long n = count.get();
+      return n == 0 ? 0 : total.get() / n;
+    }
+  }
+
+  /** Statistics of processing of requests of a single method. */
+  public static final class MethodStatistics {
+    private final String method;
+    private final long processed;
+    private final long rejected;
+    private final long averageQueueTimeNanos;
+    private final long maxQueueTimeNanos;
+    private final long averageExecutionTimeNanos;
+    private final long maxExecutionTimeNanos;
+
+    private MethodStatistics(
+        String method,
+        long processed,
+        long rejected,
+        long averageQueueTimeNanos,
+        long maxQueueTimeNanos,
+        long averageExecutionTimeNanos,
+        long maxExecutionTimeNanos) {
+      this.method = method;
+      this.processed = processed;
+      this.rejected = rejected;
+      this.averageQueueTimeNanos = averageQueueTimeNanos;
+      this.maxQueueTimeNanos = maxQueueTimeNanos;
+      this.averageExecutionTimeNanos = averageExecutionTimeNanos;
+      this.maxExecutionTimeNanos = maxExecutionTimeNanos;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    /** Returns number of processed requests. */
+    public long getProcessed() {
+      return processed;
+    }
+
+    /** Returns number of requests rejected because queue was full. */
+    public long getRejected() {
+      return rejected;
+    }
+
+    public long getAverageQueueTime(TimeUnit unit) {
+      return unit.convert(averageQueueTimeNanos, NANOSECONDS);
+    }
+
+    public long getMaxQueueTime(TimeUnit unit) {
+      return unit.convert(maxQueueTimeNanos, NANOSECONDS);
+    }
+
+    public long getAverageExecutionTime(TimeUnit unit) {
+      return unit.convert(averageExecutionTimeNanos, NANOSECONDS);
+    }
+
+    public long getMaxExecutionTime(TimeUnit unit) {
+      return unit.convert(maxExecutionTimeNanos, NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "{method='"
+          + method
+          + "', processed="
+          + processed
+          + ", rejected="
+          + rejected
+          + ", averageQueueTimeMs="
+          + getAverageQueueTime(TimeUnit.MILLISECONDS)
+          + ", maxQueueTimeMs="
+          + getMaxQueueTime(TimeUnit.MILLISECONDS)
+          + ", averageExecutionTimeMs="
+          + getAverageExecutionTime(TimeUnit.MILLISECONDS)
+          + ", maxExecutionTimeMs="
+          + getMaxExecutionTime(TimeUnit.MILLISECONDS)
+          + '}';
+    }
   }
 }
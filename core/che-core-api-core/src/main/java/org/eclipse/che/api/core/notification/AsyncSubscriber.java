@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link EventSubscriber} which receives events asynchronously, apart from the thread which
+ * publishes them. Events are delivered to such subscriber in order of publishing, one at a time.
+ *
+ * @see EventService#subscribeAsync(EventSubscriber, Class, java.util.function.Function)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface AsyncSubscriber {}
@@ -10,19 +10,40 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +61,17 @@ import org.slf4j.LoggerFactory;
  *     bus.publish(new MyEvent());
  * </pre>
  *
+ * <p>Subscribers are called on the thread which publishes event unless they are subscribed with
+ * {@link #subscribeAsync(EventSubscriber, Class, Function)} or annotated with {@link
+ * AsyncSubscriber}. Events for such subscribers are put to a bounded queue of the subscriber and
+ * delivered by a shared pool of threads. Events with the same ordering key, e.g. workspace id, are
+ * delivered to the subscriber in order of publishing, one at a time. When the queue of subscriber
+ * is full publisher waits for space in it, events are never dropped. Threads of the pool don't wait
+ * as they free queues themselves, events they publish are queued beyond capacity.
+ *
+ * <p>Time of publishing and, per subscriber, time of processing of events, size of queue and
+ * number of slow calls are collected, see {@link #getSubscriberStatistics()}.
+ *
  * @author andrew00x
  */
 @Singleton
@@ -49,9 +81,35 @@ public class EventService {
   private static final int CACHE_NUM = 1 << 2;
   private static final int CACHE_MASK = CACHE_NUM - 1;
   private static final int SEG_SIZE = 32;
+  /** Max number of events delivered by a pool thread to a subscriber before switching to others. */
+  private static final int DRAIN_BATCH_SIZE = 64;
+  /** Whether the current thread delivers events to asynchronous subscribers. */
+  private static final ThreadLocal<Boolean> DELIVERING = ThreadLocal.withInitial(() -> false);
+
+  public static final String ASYNC_POOL_SIZE_PROPERTY = "che.core.event_service.async_pool_size";
+  public static final String ASYNC_QUEUE_CAPACITY_PROPERTY =
+      "che.core.event_service.async_queue_capacity";
+  public static final String SLOW_SUBSCRIBER_THRESHOLD_MS_PROPERTY =
+      "che.core.event_service.slow_subscriber_threshold_ms";
+
+  @Inject(optional = true)
+  @Named(ASYNC_POOL_SIZE_PROPERTY)
+  private int asyncPoolSize = 4;
+
+  @Inject(optional = true)
+  @Named(ASYNC_QUEUE_CAPACITY_PROPERTY)
+  private int asyncQueueCapacity = 10_000;
+
+  @Inject(optional = true)
+  @Named(SLOW_SUBSCRIBER_THRESHOLD_MS_PROPERTY)
+  private long slowSubscriberThresholdMs = 1_000;
 
   private final LoadingCache<Class<?>, Set<Class<?>>>[] typeCache;
-  private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+  private final ConcurrentMap<Class<?>, Set<Subscription>> subscribersByEventType;
+  private final Timer publishTime = new Timer();
+
+  private ThreadPoolExecutor asyncExecutor;
+  private volatile boolean stopped;
 
   @SuppressWarnings("unchecked")
   public EventService() {
@@ -86,6 +144,13 @@ public class EventService {
     }
   }
 
+  EventService(int asyncPoolSize, int asyncQueueCapacity, long slowSubscriberThresholdMs) {
+    this();
+    this.asyncPoolSize = asyncPoolSize;
+    this.asyncQueueCapacity = asyncQueueCapacity;
+    this.slowSubscriberThresholdMs = slowSubscriberThresholdMs;
+  }
+
   /**
    * Publish event {@code event}.
    *
@@ -97,20 +162,22 @@ public class EventService {
     if (event == null) {
       throw new IllegalArgumentException("Null event.");
     }
+    final long start = System.nanoTime();
     final Class<?> eventClass = event.getClass();
     for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-      final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-      if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-        for (EventSubscriber eventSubscriber : eventSubscribers) {
+      final Set<Subscription> subscriptions = subscribersByEventType.get(clazz);
+      if (subscriptions != null && !subscriptions.isEmpty()) {
+        for (Subscription subscription : subscriptions) {
           try {
-            LOG.debug("Publish event {} for {}", event, eventSubscriber);
-            eventSubscriber.onEvent(event);
+            LOG.debug("Publish event {} for {}", event, subscription.subscriber);
+            subscription.deliver(event);
           } catch (RuntimeException e) {
             LOG.error(e.getMessage(), e);
           }
         }
       }
     }
+    publishTime.add(System.nanoTime() - start);
     return event;
   }
 
@@ -122,7 +189,7 @@ public class EventService {
    */
   public void subscribe(EventSubscriber<?> subscriber) {
     final Class<?> eventType = getEventType(subscriber);
-    doSubscribe(subscriber, eventType);
+    doSubscribe(subscriber, eventType, null);
   }
 
   /**
@@ -133,19 +200,42 @@ public class EventService {
    * @param eventType The event to subscribe to.
    */
   public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-    doSubscribe(subscriber, eventType);
+    doSubscribe(subscriber, eventType, null);
+  }
+
+  /**
+   * Subscribe to an event asynchronously. The given subscriber is called by a pool thread, so
+   * publisher is not blocked by it. Events with equal ordering keys are delivered to the subscriber
+   * in order of publishing and one at a time, events with different keys may be delivered
+   * concurrently.
+   *
+   * @param subscriber the subscriber to call when an event is published
+   * @param eventType the event to subscribe to
+   * @param orderingKey returns ordering key of an event, e.g. workspace id. If it is {@code null}
+   *     or returns {@code null} events are delivered in order of publishing
+   */
+  public <T> void subscribeAsync(
+      EventSubscriber<? extends T> subscriber,
+      Class<T> eventType,
+      Function<? super T, ?> orderingKey) {
+    doSubscribe(subscriber, eventType, orderingKey == null ? event -> null : orderingKey);
   }
 
-  private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-    Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+  @SuppressWarnings("unchecked")
+  private void doSubscribe(
+      EventSubscriber<?> subscriber, Class<?> eventType, Function<?, ?> orderingKey) {
+    if (orderingKey == null && subscriber.getClass().isAnnotationPresent(AsyncSubscriber.class)) {
+      orderingKey = event -> null;
+    }
+    Set<Subscription> entries = subscribersByEventType.get(eventType);
     if (entries == null) {
-      Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
+      Set<Subscription> newEntries = new CopyOnWriteArraySet<>();
       entries = subscribersByEventType.putIfAbsent(eventType, newEntries);
       if (entries == null) {
         entries = newEntries;
       }
     }
-    entries.add(subscriber);
+    entries.add(new Subscription(subscriber, eventType, (Function<Object, ?>) orderingKey));
   }
 
   /**
@@ -163,17 +253,97 @@ public class EventService {
   }
 
   private void doUnsubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-    final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+    final Set<Subscription> entries = subscribersByEventType.get(eventType);
     if (entries != null && !entries.isEmpty()) {
-      boolean changed = entries.remove(subscriber);
-      if (changed) {
-        if (entries.isEmpty()) {
-          subscribersByEventType.remove(eventType);
+      for (Subscription subscription : entries) {
+        if (subscription.subscriber.equals(subscriber) && entries.remove(subscription)) {
+          subscription.cancelled = true;
+          if (entries.isEmpty()) {
+            subscribersByEventType.remove(eventType);
+          }
         }
       }
     }
   }
 
+  /** Returns number of published events. */
+  public long getPublishedEvents() {
+    return publishTime.count.get();
+  }
+
+  /** Returns average time spent by publishers in {@link #publish(Object)}. */
+  public long getAveragePublishTime(TimeUnit unit) {
+    return unit.convert(publishTime.average(), NANOSECONDS);
+  }
+
+  /** Returns max time spent by a publisher in {@link #publish(Object)}. */
+  public long getMaxPublishTime(TimeUnit unit) {
+    return unit.convert(publishTime.max.get(), NANOSECONDS);
+  }
+
+  /**
+   * Returns statistics of current subscribers, subscribers with the longest processing of an
+   * event go first.
+   */
+  public List<SubscriberStatistics> getSubscriberStatistics() {
+    final List<SubscriberStatistics> statistics = new ArrayList<>();
+    for (Set<Subscription> subscriptions : subscribersByEventType.values()) {
+      for (Subscription subscription : subscriptions) {
+        statistics.add(subscription.toStatistics());
+      }
+    }
+    statistics.sort(
+        Comparator.comparingLong((SubscriberStatistics s) -> s.maxExecutionTimeNanos).reversed());
+    return statistics;
+  }
+
+  /** Stops delivering of events to asynchronous subscribers. */
+  @PreDestroy
+  public void stop() {
+    final ThreadPoolExecutor executor;
+    synchronized (this) {
+      executor = asyncExecutor;
+      stopped = true;
+    }
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        if (!executor.awaitTermination(5, SECONDS)) {
+          executor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+    LOG.info(
+        "Published events: {}, average publish time: {} ms",
+        getPublishedEvents(),
+        getAveragePublishTime(MILLISECONDS));
+    for (SubscriberStatistics statistics : getSubscriberStatistics()) {
+      LOG.info("Event subscriber statistics: {}", statistics);
+    }
+  }
+
+  private synchronized ThreadPoolExecutor getAsyncExecutor() {
+    if (asyncExecutor == null) {
+      asyncExecutor =
+          new ThreadPoolExecutor(
+              asyncPoolSize,
+              asyncPoolSize,
+              60,
+              SECONDS,
+              new LinkedBlockingQueue<>(),
+              new ThreadFactoryBuilder()
+                  .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                  .setNameFormat("EventService-%d")
+                  .setDaemon(true)
+                  .build());
+      asyncExecutor.allowCoreThreadTimeOut(true);
+    }
+    return asyncExecutor;
+  }
+
   private Class<?> getEventType(EventSubscriber<?> subscriber) {
     Class<?> eventType = null;
     Class<?> clazz = subscriber.getClass();
@@ -200,4 +370,336 @@ public class EventService {
     }
     return eventType;
   }
+
+  /** Subscriber registered for a type of events. */
+  private final class Subscription {
+    private final EventSubscriber subscriber;
+    private final Class<?> eventType;
+    private final Function<Object, ?> orderingKey;
+    private final Lane[] lanes;
+    private final Semaphore capacity;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer queueTime = new Timer();
+    private final Timer executionTime = new Timer();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+
+    private volatile boolean cancelled;
+
+    private Subscription(
+        EventSubscriber subscriber, Class<?> eventType, Function<Object, ?> orderingKey) {
+      this.subscriber = subscriber;
+      this.eventType = eventType;
+      this.orderingKey = orderingKey;
+      if (orderingKey == null) {
+        lanes = null;
+        capacity = null;
+      } else {
+        capacity = new Semaphore(asyncQueueCapacity);
+        lanes = new Lane[Math.max(asyncPoolSize, 1)];
+        for (int i = 0; i < lanes.length; i++) {
+          lanes[i] = new Lane(this);
+        }
+      }
+    }
+
+    private void deliver(Object event) {
+      if (lanes == null) {
+        invoke(event);
+        return;
+      }
+      final Object key = orderingKey.apply(event);
+      final boolean acquired = acquireCapacity(event);
+      queued.incrementAndGet();
+      lanes[key == null ? 0 : Math.floorMod(key.hashCode(), lanes.length)]
+          .add(new QueuedEvent(event, acquired));
+    }
+
+    /**
+     * Takes a place in the queue waiting for it if the queue is full. Returns {@code false} if the
+     * event is queued beyond capacity: when it is published by a thread of the pool, the service is
+     * stopped or the publisher is interrupted.
+     */
+    private boolean acquireCapacity(Object event) {
+      if (capacity.tryAcquire()) {
+        return true;
+      }
+      if (DELIVERING.get()) {
+        return false;
+      }
+      blocked.incrementAndGet();
+      LOG.warn("Queue of event subscriber {} is full, event {} waits for space", subscriber, event);
+      try {
+        while (!capacity.tryAcquire(1, SECONDS)) {
+          if (stopped) {
+            return false;
+          }
+        }
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invoke(Object event) {
+      final long start = System.nanoTime();
+      try {
+        subscriber.onEvent(event);
+      } catch (RuntimeException e) {
+        failed.incrementAndGet();
+        LOG.error(e.getMessage(), e);
+      } finally {
+        final long nanos = System.nanoTime() - start;
+        executionTime.add(nanos);
+        final long millis = NANOSECONDS.toMillis(nanos);
+        if (slowSubscriberThresholdMs > 0 && millis >= slowSubscriberThresholdMs) {
+          slow.incrementAndGet();
+          LOG.warn("Event subscriber {} processed event {} in {} ms", subscriber, event, millis);
+        }
+      }
+    }
+
+    private SubscriberStatistics toStatistics() {
+      return new SubscriberStatistics(
+          subscriber.toString(),
+          eventType,
+          lanes != null,
+          executionTime.count.get(),
+          failed.get(),
+          slow.get(),
+          blocked.get(),
+          queued.get(),
+          queueTime.average(),
+          queueTime.max.get(),
+          executionTime.average(),
+          executionTime.max.get());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Subscription && subscriber.equals(((Subscription) obj).subscriber);
+    }
+
+    @Override
+    public int hashCode() {
+      return subscriber.hashCode();
+    }
+  }
+
+  /** Events of asynchronous subscriber which are delivered one at a time in order of adding. */
+  private final class Lane implements Runnable {
+    private final Subscription subscription;
+    private final ArrayDeque<QueuedEvent> events = new ArrayDeque<>();
+
+    private boolean scheduled;
+
+    private Lane(Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    private void add(QueuedEvent event) {
+      synchronized (this) {
+        events.add(event);
+        if (scheduled) {
+          return;
+        }
+        scheduled = true;
+      }
+      getAsyncExecutor().execute(this);
+    }
+
+    @Override
+    public void run() {
+      DELIVERING.set(true);
+      try {
+        for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+          final QueuedEvent next;
+          synchronized (this) {
+            next = events.poll();
+            if (next == null) {
+              scheduled = false;
+              return;
+            }
+          }
+          subscription.queued.decrementAndGet();
+          if (next.acquired) {
+            subscription.capacity.release();
+          }
+          subscription.queueTime.add(System.nanoTime() - next.created);
+          if (!subscription.cancelled) {
+            subscription.invoke(next.event);
+          }
+        }
+      } finally {
+        DELIVERING.set(false);
+      }
+      // let other subscribers use the thread
+      try {
+        getAsyncExecutor().execute(this);
+      } catch (RejectedExecutionException e) {
+        LOG.warn(
+            "Event service is stopped, events of subscriber {} are not delivered",
+            subscription.subscriber);
+      }
+    }
+  }
+
+  private static final class QueuedEvent {
+    private final Object event;
+    private final boolean acquired;
+    private final long created = System.nanoTime();
+
+    private QueuedEvent(Object event, boolean acquired) {
+      this.event = event;
+      this.acquired = acquired;
+    }
+  }
+
+  private static final class Timer {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    private void add(long nanos) {
+      count.incrementAndGet();
+      total.addAndGet(nanos);
+      max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private long average() {
+      final long n = count.get();
+      return n == 0 ? 0 : total.get() / n;
+    }
+  }
+
+  /** Statistics of processing of events by a single subscriber. */
+  public static final class SubscriberStatistics {
+    private final String subscriber;
+    private final Class<?> eventType;
+    private final boolean async;
+    private final long processed;
+    private final long failed;
+    private final long slow;
+    private final long blocked;
+    private final int queueSize;
+    private final long averageQueueTimeNanos;
+    private final long maxQueueTimeNanos;
+    private final long averageExecutionTimeNanos;
+    private final long maxExecutionTimeNanos;
+
+    private SubscriberStatistics(
+        String subscriber,
+        Class<?> eventType,
+        boolean async,
+        long processed,
+        long failed,
+        long slow,
+        long blocked,
+        int queueSize,
+        long averageQueueTimeNanos,
+        long maxQueueTimeNanos,
+        long averageExecutionTimeNanos,
+        long maxExecutionTimeNanos) {
+      this.subscriber = subscriber;
+      this.eventType = eventType;
+      this.async = async;
+      this.processed = processed;
+      this.failed = failed;
+      this.slow = slow;
+      this.blocked = blocked;
+      this.queueSize = queueSize;
+      this.averageQueueTimeNanos = averageQueueTimeNanos;
+      this.maxQueueTimeNanos = maxQueueTimeNanos;
+      this.averageExecutionTimeNanos = averageExecutionTimeNanos;
+      this.maxExecutionTimeNanos = maxExecutionTimeNanos;
+    }
+
+    public String getSubscriber() {
+      return subscriber;
+    }
+
+    public Class<?> getEventType() {
+      return eventType;
+    }
+
+    /** Returns {@code true} if events are delivered to the subscriber asynchronously. */
+    public boolean isAsync() {
+      return async;
+    }
+
+    /** Returns number of events processed by the subscriber. */
+    public long getProcessed() {
+      return processed;
+    }
+
+    /** Returns number of events processing of which failed with exception. */
+    public long getFailed() {
+      return failed;
+    }
+
+    /** Returns number of events processing of which took longer than slow subscriber threshold. */
+    public long getSlow() {
+      return slow;
+    }
+
+    /** Returns number of events publishers of which waited for space in queue of the subscriber. */
+    public long getBlocked() {
+      return blocked;
+    }
+
+    /** Returns number of events which wait for delivery to the subscriber. */
+    public int getQueueSize() {
+      return queueSize;
+    }
+
+    public long getAverageQueueTime(TimeUnit unit) {
+      return unit.convert(averageQueueTimeNanos, NANOSECONDS);
+    }
+
+    public long getMaxQueueTime(TimeUnit unit) {
+      return unit.convert(maxQueueTimeNanos, NANOSECONDS);
+    }
+
+    public long getAverageExecutionTime(TimeUnit unit) {
+      return unit.convert(averageExecutionTimeNanos, NANOSECONDS);
+    }
+
+    public long getMaxExecutionTime(TimeUnit unit) {
+      return unit.convert(maxExecutionTimeNanos, NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "SubscriberStatistics{"
+          + "subscriber='"
+          + subscriber
+          + '\''
+          + ", eventType="
+          + eventType.getName()
+          + ", async="
+          + async
+          + ", processed="
+          + processed
+          + ", failed="
+          + failed
+          + ", slow="
+          + slow
+          + ", blocked="
+          + blocked
+          + ", queueSize="
+          + queueSize
+          + ", averageQueueTimeMs="
+          + NANOSECONDS.toMillis(averageQueueTimeNanos)
+          + ", maxQueueTimeMs="
+          + NANOSECONDS.toMillis(maxQueueTimeNanos)
+          + ", averageExecutionTimeMs="
+          + NANOSECONDS.toMillis(averageExecutionTimeNanos)
+          + ", maxExecutionTimeMs="
+          + NANOSECONDS.toMillis(maxExecutionTimeNanos)
+          + '}';
+    }
+  }
 }
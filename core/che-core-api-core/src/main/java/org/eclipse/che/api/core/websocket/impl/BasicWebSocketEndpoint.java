@@ -61,8 +61,8 @@ public abstract class BasicWebSocketEndpoint {
 
     session.setMaxIdleTimeout(0);
 
-    registry.add(combinedEndpointId, session);
-    reSender.resend(combinedEndpointId);
+    // pending messages are re-sent before session is registered to keep them ahead of new ones
+    reSender.resend(combinedEndpointId, session, () -> registry.add(combinedEndpointId, session));
   }
 
   @OnMessage
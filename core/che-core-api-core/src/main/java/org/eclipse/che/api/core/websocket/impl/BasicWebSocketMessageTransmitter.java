@@ -12,12 +12,16 @@ package org.eclipse.che.api.core.websocket.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.OutboundMessageQueue.OverflowPolicy;
 import org.slf4j.Logger;
 
 /**
@@ -25,6 +29,10 @@ import org.slf4j.Logger;
  * session is not opened adds messages to re-sender to try to send them when session will be opened
  * again.
  *
+ * <p>Messages are not sent on the calling thread. Each endpoint has its own bounded queue which is
+ * drained with asynchronous remote, so a slow or stalled client affects only its own messages. When
+ * queue of endpoint is full the configured {@link OverflowPolicy} is applied.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
@@ -33,16 +41,26 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
 
   private final WebSocketSessionRegistry registry;
   private final MessagesReSender reSender;
+  private final int queueCapacity;
+  private final OverflowPolicy overflowPolicy;
+  private final ConcurrentMap<String, OutboundMessageQueue> queues = new ConcurrentHashMap<>();
 
   @Inject
   public BasicWebSocketMessageTransmitter(
-      WebSocketSessionRegistry registry, MessagesReSender reSender) {
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      @Named("che.websocket.outbound_queue_size") int queueCapacity,
+      @Named("che.websocket.outbound_overflow_policy") String overflowPolicy) {
     this.registry = registry;
     this.reSender = reSender;
+    this.queueCapacity = queueCapacity;
+    this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+
+    registry.addRemovalListener(this::onSessionRemoved);
   }
 
   @Override
-  public synchronized void transmit(String endpointId, String message) {
+  public void transmit(String endpointId, String message) {
     final Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
@@ -50,13 +68,86 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
 
       reSender.add(endpointId, message);
     } else {
-      LOG.debug("Session registered and open, sending message");
+      LOG.debug("Session registered and open, queueing message");
 
-      try {
-        sessionOptional.get().getBasicRemote().sendText(message);
-      } catch (IOException e) {
-        LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
+      final Session session = sessionOptional.get();
+      while (!getQueue(endpointId, session).offer(message)) {
+        // queue was closed concurrently, a new one is created on next attempt
+        if (!session.isOpen()) {
+          reSender.add(endpointId, message);
+          return;
+        }
       }
     }
   }
+
+  /**
+   * Returns number of messages that wait to be sent to the endpoint or {@code 0} if there are no
+   * such messages.
+   */
+  public int getQueueDepth(String endpointId) {
+    final OutboundMessageQueue queue = queues.get(endpointId);
+    return queue == null ? 0 : queue.getDepth();
+  }
+
+  /** Returns number of messages dropped because queue of the endpoint was full. */
+  public long getDroppedMessages(String endpointId) {
+    final OutboundMessageQueue queue = queues.get(endpointId);
+    return queue == null ? 0 : queue.getDroppedMessages();
+  }
+
+  /** Returns average time between start and completion of send of a message to the endpoint. */
+  public long getAverageSendLatency(String endpointId, TimeUnit unit) {
+    final OutboundMessageQueue queue = queues.get(endpointId);
+    return queue == null ? 0 : queue.getAverageSendLatency(unit);
+  }
+
+  /** Returns max time between start and completion of send of a message to the endpoint. */
+  public long getMaxSendLatency(String endpointId, TimeUnit unit) {
+    final OutboundMessageQueue queue = queues.get(endpointId);
+    return queue == null ? 0 : queue.getMaxSendLatency(unit);
+  }
+
+  /** Returns {@code true} if there is an outbound queue for the endpoint. */
+  boolean hasQueue(String endpointId) {
+    return queues.containsKey(endpointId);
+  }
+
+  private OutboundMessageQueue getQueue(String endpointId, Session session) {
+    return queues.compute(
+        endpointId,
+        (id, queue) -> {
+          if (queue != null && queue.getSession() == session && !queue.isClosed()) {
+            return queue;
+          }
+          return new OutboundMessageQueue(
+              id,
+              session,
+              queueCapacity,
+              overflowPolicy,
+              reSender::add,
+              reSender::addFirst,
+              this::release);
+        });
+  }
+
+  /** Queue of closed session is released, messages that wait to be sent are passed to re-sender. */
+  private void onSessionRemoved(String endpointId, Session session) {
+    final OutboundMessageQueue queue = queues.get(endpointId);
+    if (queue != null && queue.getSession() == session) {
+      queue.close();
+    }
+  }
+
+  private void release(OutboundMessageQueue queue) {
+    final String endpointId = queue.getEndpointId();
+    if (queues.remove(endpointId, queue)) {
+      LOG.debug(
+          "Released outbound queue of endpoint {}, sent: {}, dropped: {}, max latency: {} ms",
+          endpointId,
+          queue.getSentMessages(),
+          queue.getDroppedMessages(),
+          queue.getMaxSendLatency(TimeUnit.MILLISECONDS));
+    }
+  }
 }
@@ -10,19 +10,44 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.stream.Collectors.toList;
+
 import com.google.inject.Injector;
+import java.util.List;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.websocket.Extension;
 import javax.websocket.server.ServerEndpointConfig;
 
 /**
- * Allows inject Guice instances on WEB SOCKET endpoint creation.
+ * Allows inject Guice instances on WEB SOCKET endpoint creation. Also controls whether
+ * permessage-deflate compression is negotiated with clients.
  *
  * @author Dmitry Kuleshov
  */
 public class GuiceInjectorEndpointConfigurator extends ServerEndpointConfig.Configurator {
+  private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
   @Inject private static Injector injector;
 
+  @Inject
+  @Named("che.websocket.permessage_deflate")
+  private static boolean permessageDeflate;
+
   public <T> T getEndpointInstance(Class<T> endpointClass) {
     return injector.getInstance(endpointClass);
   }
+
+  @Override
+  public List<Extension> getNegotiatedExtensions(
+      List<Extension> installed, List<Extension> requested) {
+    final List<Extension> negotiated = super.getNegotiatedExtensions(installed, requested);
+    if (permessageDeflate) {
+      return negotiated;
+    }
+    return negotiated
+        .stream()
+        .filter(extension -> !PERMESSAGE_DEFLATE.equals(extension.getName()))
+        .collect(toList());
+  }
 }
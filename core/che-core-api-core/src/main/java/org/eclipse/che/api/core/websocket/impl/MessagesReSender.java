@@ -10,76 +10,435 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.websocket.CloseReason;
 import javax.websocket.Session;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.slf4j.Logger;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period when WEB
  * SOCKET session was closed. If session is closed during re-send process it stops and left messages
- * will be re-sent as WEB SOCKET session becomes open again.
+ * will be re-sent as WEB SOCKET session becomes open again. If sending fails while session is open
+ * the session is closed to let the client reconnect.
+ *
+ * <p>Messages are kept per endpoint until their time to live expires. Size of messages kept in
+ * memory for an endpoint is limited, when the limit is exceeded the oldest messages are moved to a
+ * spill file if spill directory is configured or dropped otherwise. Messages are re-sent in the
+ * order they were added.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
-  private static final int MAX_MESSAGES = 100;
+  private static final Logger LOG = getLogger(MessagesReSender.class);
+
+  private static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+  private static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(10);
 
   private final WebSocketSessionRegistry registry;
+  private final long maxBytes;
+  private final long ttlMs;
+  private final Path spillDirectory;
+  private final long maxSpillBytes;
 
-  private final Map<String, List<String>> messagesMap = new HashMap<>();
+  private final ConcurrentMap<String, PendingMessages> messagesMap = new ConcurrentHashMap<>();
+  private final AtomicLong spillFileCounter = new AtomicLong();
+  private final AtomicLong lastSweep = new AtomicLong();
 
-  @Inject
   public MessagesReSender(WebSocketSessionRegistry registry) {
+    this(registry, DEFAULT_MAX_BYTES, DEFAULT_TTL_MS, null, 0);
+  }
+
+  /**
+   * @param registry registry of sessions
+   * @param maxBytes max size of messages kept in memory for a single endpoint
+   * @param ttlMs time in milliseconds during which message may be re-sent
+   * @param spillDirectory directory for files of messages that do not fit in memory, spilling is
+   *     disabled if it is {@code null}
+   * @param maxSpillBytes max size of spill file of a single endpoint
+   */
+  @Inject
+  public MessagesReSender(
+      WebSocketSessionRegistry registry,
+      @Named("che.websocket.resend.max_bytes") long maxBytes,
+      @Named("che.websocket.resend.ttl_ms") long ttlMs,
+      @Nullable @Named("che.websocket.resend.spill_dir") String spillDirectory,
+      @Named("che.websocket.resend.max_spill_bytes") long maxSpillBytes) {
     this.registry = registry;
+    this.maxBytes = maxBytes;
+    this.ttlMs = ttlMs;
+    this.maxSpillBytes = maxSpillBytes;
+    this.spillDirectory = createSpillDirectory(spillDirectory);
   }
 
   public void add(String endpointId, String message) {
-    List<String> messages = messagesMap.get(endpointId);
+    final long now = System.currentTimeMillis();
+    sweepExpired(now);
 
-    if (messages == null) {
-      messages = new LinkedList<>();
-      messagesMap.put(endpointId, messages);
-    }
+    update(endpointId, messages -> messages.add(message, now));
+  }
 
-    if (messages.size() <= MAX_MESSAGES) {
-      messages.add(message);
-    }
+  /**
+   * Adds message ahead of messages kept for the endpoint, e.g. a message which send failed after
+   * messages following it were already added.
+   */
+  public void addFirst(String endpointId, String message) {
+    putBack(endpointId, singletonList(new PendingMessage(message, System.currentTimeMillis())));
   }
 
   public void resend(String endpointId) {
-    final List<String> messages = messagesMap.remove(endpointId);
+    final Optional<Session> sessionOptional = registry.get(endpointId);
 
-    if (messages == null || messages.isEmpty()) {
+    if (!sessionOptional.isPresent()) {
       return;
     }
 
-    final Optional<Session> sessionOptional = registry.get(endpointId);
+    resend(endpointId, sessionOptional.get(), () -> {});
+  }
 
-    if (!sessionOptional.isPresent()) {
+  /**
+   * Re-sends messages of the endpoint to the session without waiting for them to be sent, each
+   * message is sent when sending of the previous one is completed. Messages added while re-sending
+   * are re-sent as well. When there are no messages left {@code onResent} is called atomically with
+   * respect to {@link #add(String, String)}, so if it registers the session no other message can be
+   * sent to the session in between re-sent messages. Messages that were not sent are kept with the
+   * time they were added at.
+   */
+  public void resend(String endpointId, Session session, Runnable onResent) {
+    new Resend(endpointId, session, onResent).sendNext();
+  }
+
+  /** Returns number of endpoints which have messages to re-send. */
+  public int getEndpointsCount() {
+    return messagesMap.size();
+  }
+
+  /** Puts messages that were not re-sent back to the head of endpoint's messages. */
+  private void putBack(String endpointId, Collection<PendingMessage> notSent) {
+    final long notBefore = System.currentTimeMillis() - ttlMs;
+    update(endpointId, messages -> messages.addFirst(notSent, notBefore));
+  }
+
+  /**
+   * Applies the action to messages of the endpoint, spill file is accessed by the action outside of
+   * {@code messagesMap} methods.
+   */
+  private void update(String endpointId, Consumer<PendingMessages> action) {
+    while (true) {
+      final PendingMessages messages =
+          messagesMap.computeIfAbsent(endpointId, PendingMessages::new);
+      synchronized (messages) {
+        if (!messages.removed) {
+          action.accept(messages);
+          return;
+        }
+      }
+    }
+  }
+
+  /** Removes messages of endpoints that have not got messages during time to live. */
+  private void sweepExpired(long now) {
+    final long last = lastSweep.get();
+    if (now - last < ttlMs || !lastSweep.compareAndSet(last, now)) {
       return;
     }
+    for (PendingMessages messages : messagesMap.values()) {
+      synchronized (messages) {
+        if (messages.removed || messages.lastAdded >= now - ttlMs) {
+          continue;
+        }
+        messages.removed = true;
+        messagesMap.remove(messages.endpointId, messages);
+      }
+      LOG.debug("Messages of endpoint {} are expired", messages.endpointId);
+      messages.discard();
+    }
+  }
+
+  private static Path createSpillDirectory(String spillDirectory) {
+    if (spillDirectory == null) {
+      return null;
+    }
+    try {
+      final Path directory = Files.createDirectories(Paths.get(spillDirectory));
+      // files left by previous run can not be re-sent as their endpoints are unknown
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.messages")) {
+        for (Path file : files) {
+          Files.delete(file);
+        }
+      }
+      return directory;
+    } catch (IOException e) {
+      LOG.error("Unable to create directory for messages to re-send, spilling is disabled", e);
+      return null;
+    }
+  }
+
+  private static long sizeOf(String message) {
+    return 2L * message.length();
+  }
 
-    final Session session = sessionOptional.get();
+  /**
+   * Re-sending of messages of a single endpoint, messages are taken from {@code messagesMap} when
+   * all previously taken messages are sent.
+   */
+  private final class Resend {
+    private final String endpointId;
+    private final Session session;
+    private final Runnable onResent;
+    private final ArrayDeque<PendingMessage> messages = new ArrayDeque<>();
+
+    private Resend(String endpointId, Session session, Runnable onResent) {
+      this.endpointId = endpointId;
+      this.session = session;
+      this.onResent = onResent;
+    }
+
+    /**
+     * Sends messages while sending completes immediately, otherwise returns and sending is
+     * continued by the handler of the pending message.
+     */
+    private void sendNext() {
+      while (true) {
+        final PendingMessage message = next();
+        if (message == null) {
+          return;
+        }
+        final AtomicBoolean handedOver = new AtomicBoolean();
+        try {
+          session
+              .getAsyncRemote()
+              .sendText(
+                  message.message,
+                  result -> {
+                    if (!result.isOK()) {
+                      onFailure(message, result.getException());
+                    } else if (!handedOver.compareAndSet(false, true)) {
+                      sendNext();
+                    }
+                  });
+        } catch (RuntimeException e) {
+          onFailure(message, e);
+          return;
+        }
+        if (handedOver.compareAndSet(false, true)) {
+          return;
+        }
+      }
+    }
 
-    final List<String> backing = new ArrayList<>(messages);
-    messages.clear();
+    /** Returns next message or {@code null} if session is closed or all messages are sent. */
+    private PendingMessage next() {
+      if (!session.isOpen()) {
+        if (!messages.isEmpty()) {
+          putBack(endpointId, messages);
+        }
+        return null;
+      }
+      while (messages.isEmpty()) {
+        final PendingMessages added = messagesMap.remove(endpointId);
+        if (added != null) {
+          messages.addAll(added.take(System.currentTimeMillis() - ttlMs));
+        } else if (complete()) {
+          return null;
+        }
+      }
+      return messages.pollFirst();
+    }
 
-    for (String message : backing) {
+    /** Calls {@code onResent} if no message was added since messages were taken last time. */
+    private boolean complete() {
+      final AtomicBoolean completed = new AtomicBoolean();
+      messagesMap.compute(
+          endpointId,
+          (id, added) -> {
+            if (added == null) {
+              onResent.run();
+              completed.set(true);
+            }
+            return added;
+          });
+      return completed.get();
+    }
 
+    /**
+     * Keeps messages that were not sent. If session is still open it is closed, otherwise it would
+     * stay connected without being registered and neither the kept messages nor new ones would be
+     * sent to it, the client reconnects and re-sending starts again.
+     */
+    private void onFailure(PendingMessage message, Throwable error) {
+      LOG.warn("Unable to re-send messages to endpoint {}: {}", endpointId, error.getMessage());
+      messages.addFirst(message);
+      putBack(endpointId, messages);
       if (session.isOpen()) {
-        session.getAsyncRemote().sendText(message);
-      } else {
-        messages.add(message);
+        try {
+          session.close(
+              new CloseReason(
+                  CloseReason.CloseCodes.TRY_AGAIN_LATER, "Unable to re-send pending messages"));
+        } catch (IOException e) {
+          LOG.error("Error while closing session of endpoint {}", endpointId, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Messages of a single endpoint. Access is guarded by the instance, once messages are removed
+   * from {@code messagesMap} they are accessed only by the remover.
+   */
+  private final class PendingMessages {
+    private final String endpointId;
+    private final ArrayDeque<PendingMessage> messages = new ArrayDeque<>();
+
+    private SpillFile spillFile;
+    private long bytes;
+    private long lastAdded;
+    private long dropped;
+    private boolean removed;
+
+    private PendingMessages(String endpointId) {
+      this.endpointId = endpointId;
+    }
+
+    private void add(String message, long timestamp) {
+      lastAdded = Math.max(lastAdded, timestamp);
+      while (!messages.isEmpty() && messages.peekFirst().timestamp < timestamp - ttlMs) {
+        bytes -= sizeOf(messages.pollFirst().message);
+      }
+
+      messages.addLast(new PendingMessage(message, timestamp));
+      bytes += sizeOf(message);
+
+      while (bytes > maxBytes && !messages.isEmpty()) {
+        final PendingMessage oldest = messages.pollFirst();
+        bytes -= sizeOf(oldest.message);
+        if (!spill(oldest) && dropped++ == 0) {
+          LOG.warn("Too many messages to re-send to endpoint {}, oldest are dropped", endpointId);
+        }
+      }
+    }
+
+    /** Adds messages ahead of the present ones keeping the time they were added at. */
+    private void addFirst(Collection<PendingMessage> notSent, long notBefore) {
+      final List<PendingMessage> present = removeAll(notBefore);
+      notSent.forEach(it -> add(it.message, it.timestamp));
+      present.forEach(it -> add(it.message, it.timestamp));
+    }
+
+    private boolean spill(PendingMessage pendingMessage) {
+      if (spillDirectory == null) {
+        return false;
       }
+      final byte[] message = pendingMessage.message.getBytes(UTF_8);
+      if (spillFile == null) {
+        spillFile =
+            new SpillFile(spillDirectory.resolve(spillFileCounter.incrementAndGet() + ".messages"));
+      }
+      if (spillFile.size() + SpillFile.recordSize(message) > maxSpillBytes) {
+        return false;
+      }
+      try {
+        spillFile.append(pendingMessage.timestamp, message);
+        return true;
+      } catch (IOException e) {
+        LOG.error("Unable to spill message of endpoint {} to file", endpointId, e);
+        return false;
+      }
+    }
+
+    /**
+     * Marks messages as removed from {@code messagesMap} by the caller and returns messages which
+     * were added not before {@code notBefore} in order they were added. Returns nothing if messages
+     * are already removed as expired.
+     */
+    private List<PendingMessage> take(long notBefore) {
+      synchronized (this) {
+        if (removed) {
+          return emptyList();
+        }
+        removed = true;
+      }
+      if (dropped > 0) {
+        LOG.warn("{} messages to endpoint {} were dropped", dropped, endpointId);
+      }
+      return removeAll(notBefore);
+    }
+
+    /**
+     * Returns messages which were added not before {@code notBefore} in order they were added and
+     * removes all messages including spilled ones.
+     */
+    private List<PendingMessage> removeAll(long notBefore) {
+      final List<PendingMessage> result = new ArrayList<>();
+      if (spillFile != null) {
+        try {
+          spillFile.read(
+              notBefore, (message, time) -> result.add(new PendingMessage(message, time)));
+        } catch (IOException e) {
+          LOG.error("Unable to read spilled messages of endpoint {}", endpointId, e);
+        }
+        deleteSpillFile();
+      }
+      for (PendingMessage pendingMessage : messages) {
+        if (pendingMessage.timestamp >= notBefore) {
+          result.add(pendingMessage);
+        }
+      }
+      messages.clear();
+      bytes = 0;
+      return result;
+    }
+
+    /** Removes all messages without reading spilled ones. */
+    private void discard() {
+      if (spillFile != null) {
+        deleteSpillFile();
+      }
+      messages.clear();
+      bytes = 0;
+    }
+
+    private void deleteSpillFile() {
+      try {
+        spillFile.delete();
+      } catch (IOException e) {
+        LOG.error("Unable to delete spilled messages of endpoint {}", endpointId, e);
+      }
+      spillFile = null;
     }
+  }
 
-    messagesMap.put(endpointId, messages);
+  private static final class PendingMessage {
+    private final String message;
+    private final long timestamp;
+
+    private PendingMessage(String message, long timestamp) {
+      this.message = message;
+      this.timestamp = timestamp;
+    }
   }
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.slf4j.Logger;
+
+/**
+ * Bounded queue of outbound messages of a single WEB SOCKET session. Messages are sent with
+ * asynchronous remote one by one: a message offered while there is no message in flight is sent on
+ * the calling thread, the following ones are sent by the thread that completes send of the previous
+ * one. A slow session holds only its own messages and threads that transmit messages to it wait
+ * only for the asynchronous remote to accept a message, not for the message to be delivered. Order
+ * of messages is preserved, also when they are passed to the pending messages handler.
+ *
+ * <p>When queue is full only JSON RPC notifications may be dropped, requests and responses which
+ * have an {@code id} are never lost: if there is no notification to drop, session is disconnected
+ * and queued messages are passed to the pending messages handler.
+ */
+class OutboundMessageQueue {
+  private static final Logger LOG = getLogger(OutboundMessageQueue.class);
+
+  /** Queue which {@code sendText} is called by the current thread, used to detect inline sends. */
+  private static final ThreadLocal<OutboundMessageQueue> SENDING = new ThreadLocal<>();
+
+  /** Defines what happens with a new message when queue of a session is full. */
+  enum OverflowPolicy {
+    /** The oldest queued JSON RPC notification is dropped. */
+    DROP_OLDEST,
+    /**
+     * Queued JSON RPC notification with the same method as the new one is replaced since only the
+     * latest state is interesting for a client, if there is no such notification the oldest queued
+     * notification is dropped.
+     */
+    COALESCE,
+    /** Session is closed, queued messages are passed to the pending messages handler. */
+    DISCONNECT
+  }
+
+  private final String endpointId;
+  private final Session session;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final BiConsumer<String, String> pendingMessagesHandler;
+  private final BiConsumer<String, String> handBackHandler;
+  private final Consumer<OutboundMessageQueue> releaseCallback;
+
+  private final ArrayDeque<Message> messages = new ArrayDeque<>();
+  private final AtomicLong sentMessages = new AtomicLong();
+  private final AtomicLong droppedMessages = new AtomicLong();
+  private final AtomicLong totalSendLatencyNanos = new AtomicLong();
+  private final AtomicLong maxSendLatencyNanos = new AtomicLong();
+
+  private boolean inFlight;
+  private boolean closed;
+  private boolean released;
+  private long sendSequence;
+  private long inlineCompletedSend = -1;
+
+  /**
+   * @param endpointId identifier of endpoint that session belongs to
+   * @param session session to send messages to
+   * @param capacity max number of messages that wait to be sent
+   * @param overflowPolicy policy applied when queue is full
+   * @param pendingMessagesHandler handles messages which can not be sent because session is closed
+   * @param handBackHandler handles message in flight which send failed after the queued messages
+   *     were passed to the pending messages handler, it must be put in front of them
+   * @param releaseCallback called when queue is closed and must not be used any more
+   */
+  OutboundMessageQueue(
+      String endpointId,
+      Session session,
+      int capacity,
+      OverflowPolicy overflowPolicy,
+      BiConsumer<String, String> pendingMessagesHandler,
+      BiConsumer<String, String> handBackHandler,
+      Consumer<OutboundMessageQueue> releaseCallback) {
+    this.endpointId = endpointId;
+    this.session = session;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.pendingMessagesHandler = pendingMessagesHandler;
+    this.handBackHandler = handBackHandler;
+    this.releaseCallback = releaseCallback;
+  }
+
+  String getEndpointId() {
+    return endpointId;
+  }
+
+  Session getSession() {
+    return session;
+  }
+
+  /** Returns {@code true} if queue does not accept messages any more. */
+  synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Adds message to queue and starts sending if there is no message in flight.
+   *
+   * @return {@code false} if queue is already closed and message was not accepted
+   */
+  boolean offer(String text) {
+    final Message message = new Message(text);
+    final Message first;
+    final boolean overflow;
+    synchronized (this) {
+      if (closed) {
+        return false;
+      }
+      overflow = messages.size() >= capacity && !handleOverflow(message);
+      messages.addLast(message);
+      if (overflow) {
+        closed = true;
+        first = null;
+      } else if (!inFlight) {
+        inFlight = true;
+        first = messages.pollFirst();
+      } else {
+        first = null;
+      }
+    }
+    if (overflow) {
+      disconnect();
+    } else if (first != null) {
+      sendAll(first);
+    }
+    return true;
+  }
+
+  /**
+   * Closes queue, messages that wait to be sent are passed to the pending messages handler. Message
+   * in flight is handed back in front of them if its send fails.
+   */
+  void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    releasePending();
+  }
+
+  /** Returns number of messages that wait to be sent, message in flight is not counted. */
+  synchronized int getDepth() {
+    return messages.size();
+  }
+
+  long getSentMessages() {
+    return sentMessages.get();
+  }
+
+  long getDroppedMessages() {
+    return droppedMessages.get();
+  }
+
+  long getAverageSendLatency(TimeUnit unit) {
+    final long sent = sentMessages.get();
+    return sent == 0 ? 0 : unit.convert(totalSendLatencyNanos.get() / sent, TimeUnit.NANOSECONDS);
+  }
+
+  long getMaxSendLatency(TimeUnit unit) {
+    return unit.convert(maxSendLatencyNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Makes room for a new message according to overflow policy. Only notifications are dropped.
+   *
+   * @return {@code false} if session must be disconnected
+   */
+  private boolean handleOverflow(Message message) {
+    if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+      return false;
+    }
+    if (overflowPolicy == OverflowPolicy.COALESCE && message.isNotification()) {
+      for (Iterator<Message> it = messages.iterator(); it.hasNext(); ) {
+        final Message queued = it.next();
+        if (queued.isNotification() && message.getMethod().equals(queued.getMethod())) {
+          it.remove();
+          droppedMessages.incrementAndGet();
+          return true;
+        }
+      }
+    }
+    for (Iterator<Message> it = messages.iterator(); it.hasNext(); ) {
+      if (it.next().isNotification()) {
+        it.remove();
+        droppedMessages.incrementAndGet();
+        LOG.debug("Outbound queue of endpoint {} is full, dropping notification", endpointId);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sends messages one by one while sends complete on the calling thread. If send completes on
+   * another thread, that thread continues to send the rest of messages.
+   */
+  private void sendAll(Message first) {
+    Message message = first;
+    while (message != null) {
+      final long send;
+      synchronized (this) {
+        send = ++sendSequence;
+      }
+      final long start = System.nanoTime();
+      final String text = message.text;
+      SENDING.set(this);
+      try {
+        session.getAsyncRemote().sendText(text, result -> onSent(send, text, start, result));
+      } catch (RuntimeException e) {
+        onSent(send, text, start, new SendResult(e));
+      } finally {
+        SENDING.remove();
+      }
+      synchronized (this) {
+        if (inlineCompletedSend != send) {
+          return;
+        }
+        message = nextOrIdle();
+      }
+    }
+  }
+
+  private void onSent(long send, String text, long start, SendResult result) {
+    final long latency = System.nanoTime() - start;
+    totalSendLatencyNanos.addAndGet(latency);
+    maxSendLatencyNanos.accumulateAndGet(latency, Math::max);
+    sentMessages.incrementAndGet();
+
+    if (!result.isOK()) {
+      final boolean handBack;
+      final boolean closing;
+      synchronized (this) {
+        handBack = released;
+        closing = !released && (closed || !session.isOpen());
+        if (closing) {
+          // queued messages are not released yet, so the message goes out in front of them
+          closed = true;
+          messages.addFirst(new Message(text));
+        }
+      }
+      if (handBack) {
+        LOG.debug("Queue of endpoint {} is released, handing message in flight back", endpointId);
+        handBackHandler.accept(endpointId, text);
+      } else if (closing) {
+        LOG.debug("Session of endpoint {} is closed, adding messages to pending", endpointId);
+        releasePending();
+      } else {
+        LOG.error(
+            "Error while trying to send a message to a websocket remote endpoint",
+            result.getException());
+      }
+    }
+
+    final Message next;
+    synchronized (this) {
+      if (SENDING.get() == this) {
+        inlineCompletedSend = send;
+        return;
+      }
+      next = nextOrIdle();
+    }
+    if (next != null) {
+      sendAll(next);
+    }
+  }
+
+  /** Must be called with lock held. */
+  private Message nextOrIdle() {
+    final Message next = closed ? null : messages.pollFirst();
+    if (next == null) {
+      inFlight = false;
+    }
+    return next;
+  }
+
+  private void disconnect() {
+    LOG.warn(
+        "Outbound queue of endpoint {} is full, closing session to let client reconnect",
+        endpointId);
+    try {
+      session.close(
+          new CloseReason(
+              CloseReason.CloseCodes.TRY_AGAIN_LATER, "Client does not keep up with messages"));
+    } catch (IOException e) {
+      LOG.error("Error while closing session of endpoint {}", endpointId, e);
+    }
+    releasePending();
+  }
+
+  /** Passes queued messages of closed queue to the pending messages handler, only once. */
+  private void releasePending() {
+    final List<Message> pending;
+    synchronized (this) {
+      if (released) {
+        return;
+      }
+      released = true;
+      pending = new ArrayList<>(messages);
+      messages.clear();
+    }
+    pending.forEach(it -> pendingMessagesHandler.accept(endpointId, it.text));
+    releaseCallback.accept(this);
+  }
+
+  /** Must be used with lock of queue held. */
+  private static final class Message {
+    private final String text;
+
+    private boolean parsed;
+    private String method;
+
+    private Message(String text) {
+      this.text = Objects.requireNonNull(text);
+    }
+
+    /** Returns {@code true} if message is JSON RPC notification, i.e. has method and no id. */
+    boolean isNotification() {
+      return getMethod() != null;
+    }
+
+    /** Returns method of JSON RPC notification or {@code null} if message is not a notification. */
+    String getMethod() {
+      if (!parsed) {
+        parsed = true;
+        try {
+          final JsonElement element = new JsonParser().parse(text);
+          if (element.isJsonObject()) {
+            final JsonObject object = element.getAsJsonObject();
+            if (!object.has("id") && object.has("method")) {
+              method = object.get("method").getAsString();
+            }
+          }
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+          LOG.debug("Unable to get method of message", e);
+        }
+      }
+      return method;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Append only file of messages that do not fit into memory buffer of {@link MessagesReSender}. Each
+ * record consists of time when message was added, length of message and UTF-8 bytes of message.
+ * File is read at once with memory mapping when messages are re-sent. Not thread safe.
+ */
+class SpillFile {
+  private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final Path path;
+
+  private FileChannel channel;
+  private long size;
+
+  SpillFile(Path path) {
+    this.path = path;
+  }
+
+  /** Returns size of file in bytes. */
+  long size() {
+    return size;
+  }
+
+  /** Returns number of bytes that record of message takes in file. */
+  static long recordSize(byte[] message) {
+    return HEADER_SIZE + message.length;
+  }
+
+  void append(long timestamp, byte[] message) throws IOException {
+    if (channel == null) {
+      channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + message.length);
+    buffer.putLong(timestamp).putInt(message.length).put(message).flip();
+    while (buffer.hasRemaining()) {
+      size += channel.write(buffer, size);
+    }
+  }
+
+  /**
+   * Passes messages which were added not before {@code notBefore} with time they were added at to
+   * the consumer in the order they were added.
+   */
+  void read(long notBefore, ObjLongConsumer<String> consumer) throws IOException {
+    if (channel == null || size == 0) {
+      return;
+    }
+    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    while (buffer.remaining() >= HEADER_SIZE) {
+      final long timestamp = buffer.getLong();
+      final byte[] message = new byte[buffer.getInt()];
+      buffer.get(message);
+      if (timestamp >= notBefore) {
+        consumer.accept(new String(message, UTF_8), timestamp);
+      }
+    }
+  }
+
+  /** Closes and removes file, file may be used again after that. */
+  void delete() throws IOException {
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+    size = 0;
+    Files.deleteIfExists(path);
+  }
+}
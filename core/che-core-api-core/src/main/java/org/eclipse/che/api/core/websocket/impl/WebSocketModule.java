@@ -12,6 +12,7 @@ package org.eclipse.che.api.core.websocket.impl;
 
 import com.google.inject.AbstractModule;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMessageReceiver;
+import org.eclipse.che.api.core.jsonrpc.impl.BatchingWebSocketMessageTransmitter;
 import org.eclipse.che.api.core.websocket.commons.WebSocketMessageReceiver;
 import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
 
@@ -21,6 +22,6 @@ public class WebSocketModule extends AbstractModule {
     requestStaticInjection(GuiceInjectorEndpointConfigurator.class);
 
     bind(WebSocketMessageReceiver.class).to(JsonRpcMessageReceiver.class);
-    bind(WebSocketMessageTransmitter.class).to(BasicWebSocketMessageTransmitter.class);
+    bind(WebSocketMessageTransmitter.class).to(BatchingWebSocketMessageTransmitter.class);
   }
 }
@@ -14,10 +14,13 @@ import static java.util.stream.Collectors.toSet;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.slf4j.Logger;
@@ -32,6 +35,7 @@ public class WebSocketSessionRegistry {
   private static final Logger LOG = getLogger(WebSocketSessionRegistry.class);
 
   private final Map<String, Session> sessionsMap = new ConcurrentHashMap<>();
+  private final List<BiConsumer<String, Session>> removalListeners = new CopyOnWriteArrayList<>();
 
   public void add(String endpointId, Session session) {
     LOG.debug("Registering session with endpoint {}", session.getId(), endpointId);
@@ -42,11 +46,21 @@ public class WebSocketSessionRegistry {
   public Optional<Session> remove(String endpointId) {
     LOG.debug("Cancelling registration for session with endpoint {}", endpointId);
 
-    return Optional.ofNullable(sessionsMap.remove(endpointId));
+    final Optional<Session> removed = Optional.ofNullable(sessionsMap.remove(endpointId));
+    removed.ifPresent(session -> notifyRemoved(endpointId, session));
+    return removed;
   }
 
   public Optional<Session> remove(Session session) {
-    return get(session).flatMap(id -> Optional.ofNullable(sessionsMap.remove(id)));
+    return get(session).flatMap(this::remove);
+  }
+
+  /**
+   * Adds a listener that is notified with endpoint identifier and session each time registration
+   * of a session is cancelled.
+   */
+  public void addRemovalListener(BiConsumer<String, Session> listener) {
+    removalListeners.add(listener);
   }
 
   public Optional<Session> get(String endpointId) {
@@ -74,4 +88,14 @@ public class WebSocketSessionRegistry {
   public Set<Session> getSessions() {
     return new HashSet<>(sessionsMap.values());
   }
+
+  private void notifyRemoved(String endpointId, Session session) {
+    for (BiConsumer<String, Session> listener : removalListeners) {
+      try {
+        listener.accept(endpointId, session);
+      } catch (RuntimeException e) {
+        LOG.error("Error while notifying about removal of session of endpoint {}", endpointId, e);
+      }
+    }
+  }
 }
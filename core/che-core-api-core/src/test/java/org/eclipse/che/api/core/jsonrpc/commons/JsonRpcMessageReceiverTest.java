@@ -13,10 +13,13 @@ package org.eclipse.che.api.core.jsonrpc.commons;
 import static java.util.Collections.singletonList;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -87,8 +90,29 @@ public class JsonRpcMessageReceiverTest {
     when(jsonRpcQualifier.isJsonRpcResponse(MESSAGE)).thenReturn(false);
     when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
 
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest("id", "method", null));
+
+    jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
+
+    verify(requestProcessor).process(eq("method"), any());
+  }
+
+  @Test
+  public void shouldTransmitErrorIfRequestIsRejectedByProcessor() throws Exception {
+    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
+    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest("id", "method", null));
+    doThrow(new JsonRpcException(-32000, "busy"))
+        .when(requestProcessor)
+        .process(eq("method"), any());
+
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(requestProcessor).process(any());
+    ArgumentCaptor<JsonRpcException> captor = ArgumentCaptor.forClass(JsonRpcException.class);
+    verify(errorTransmitter).transmit(eq(ENDPOINT_ID), captor.capture());
+    assertEquals(captor.getValue().getCode(), -32000);
+    assertEquals(captor.getValue().getId(), "id");
   }
 }
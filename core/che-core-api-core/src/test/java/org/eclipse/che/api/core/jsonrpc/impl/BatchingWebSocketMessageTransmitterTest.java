@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link BatchingWebSocketMessageTransmitter} */
+@Listeners(MockitoTestNGListener.class)
+public class BatchingWebSocketMessageTransmitterTest {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(BatchingWebSocketMessageTransmitterTest.class);
+
+  private static final String ENDPOINT_ID = "endpoint-id";
+  private static final long WINDOW_MS = 50;
+
+  @Mock private WebSocketSessionRegistry registry;
+  @Mock private Session session;
+
+  private List<String> frames;
+  private BatchingWebSocketMessageTransmitter transmitter;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
+    when(session.getRequestParameterMap())
+        .thenReturn(singletonMap("batch", singletonList("true")));
+
+    frames = Collections.synchronizedList(new ArrayList<>());
+    transmitter = transmitter(WINDOW_MS, 64 * 1024);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    transmitter.shutdown();
+  }
+
+  @Test
+  public void shouldTransmitMessagesOneByOneIfSessionDidNotOptInForBatches() throws Exception {
+    when(session.getRequestParameterMap()).thenReturn(emptyMap());
+
+    transmitter.transmit(ENDPOINT_ID, notification(1));
+    transmitter.transmit(ENDPOINT_ID, notification(2));
+
+    assertEquals(frames, asList(notification(1), notification(2)));
+  }
+
+  @Test
+  public void shouldTransmitMessagesOneByOneIfBatchingIsDisabled() throws Exception {
+    transmitter = transmitter(0, 64 * 1024);
+
+    transmitter.transmit(ENDPOINT_ID, notification(1));
+
+    assertEquals(frames, singletonList(notification(1)));
+  }
+
+  @Test
+  public void shouldTransmitMessagesOfWindowAsSingleBatch() throws Exception {
+    transmitter.transmit(ENDPOINT_ID, notification(1));
+    transmitter.transmit(ENDPOINT_ID, notification(2));
+    transmitter.transmit(ENDPOINT_ID, notification(3));
+    assertTrue(frames.isEmpty());
+
+    awaitFrames(1);
+
+    assertEquals(frames.size(), 1);
+    assertEquals(
+        new GsonJsonRpcUnmarshaller(new JsonParser()).unmarshalArray(frames.get(0)),
+        asList(notification(1), notification(2), notification(3)));
+  }
+
+  @Test
+  public void shouldTransmitSingleMessageOfWindowAsIs() throws Exception {
+    transmitter.transmit(ENDPOINT_ID, notification(1));
+
+    awaitFrames(1);
+
+    assertEquals(frames, singletonList(notification(1)));
+  }
+
+  @Test
+  public void shouldTransmitBatchImmediatelyWhenItReachesMaxSize() throws Exception {
+    transmitter = transmitter(60_000, notification(1).length() * 2);
+
+    transmitter.transmit(ENDPOINT_ID, notification(1));
+    transmitter.transmit(ENDPOINT_ID, notification(2));
+    transmitter.transmit(ENDPOINT_ID, notification(3));
+
+    assertEquals(frames, singletonList("[" + notification(1) + "," + notification(2) + "]"));
+  }
+
+  @Test
+  public void shouldTransmitOutsideOfBatchUpdateSoThatDelegateMayTransmitToTheSameEndpoint()
+      throws Exception {
+    final WebSocketMessageTransmitter delegate =
+        (endpointId, message) -> {
+          frames.add(message);
+          if (message.equals(notification(1))) {
+            transmitter.transmit(endpointId, notification(2));
+          }
+        };
+    transmitter = new BatchingWebSocketMessageTransmitter(delegate, registry, 60_000, 1);
+
+    transmitter.transmit(ENDPOINT_ID, notification(1));
+
+    assertEquals(frames, asList(notification(1), notification(2)));
+  }
+
+  @Test
+  public void shouldReduceFramesAndCompressedBytesUnderHeavyOutput() throws Exception {
+    final int messages = Integer.getInteger("che.test.jsonrpc.messages", 20_000);
+
+    for (int i = 0; i < messages; i++) {
+      transmitter.transmit(ENDPOINT_ID, outputLine(i));
+    }
+    transmitter.shutdown();
+
+    final List<String> received = new ArrayList<>();
+    final GsonJsonRpcUnmarshaller unmarshaller = new GsonJsonRpcUnmarshaller(new JsonParser());
+    for (String frame : frames) {
+      received.addAll(unmarshaller.unmarshalArray(frame));
+    }
+    assertEquals(received.size(), messages);
+    for (int i = 0; i < messages; i++) {
+      assertEquals(received.get(i), outputLine(i));
+    }
+
+    long rawBytes = 0;
+    for (int i = 0; i < messages; i++) {
+      rawBytes += outputLine(i).getBytes(UTF_8).length;
+    }
+    final long batchedCompressedBytes = deflatedSize(frames);
+    LOG.info(
+        "{} messages ({} bytes) were transmitted as {} frames, {} bytes with permessage-deflate",
+        messages,
+        rawBytes,
+        frames.size(),
+        batchedCompressedBytes);
+
+    assertTrue(frames.size() * 10 <= messages, "frames: " + frames.size());
+    assertTrue(batchedCompressedBytes * 10 <= rawBytes, "bytes: " + batchedCompressedBytes);
+  }
+
+  private BatchingWebSocketMessageTransmitter transmitter(long windowMs, int maxSize) {
+    final WebSocketMessageTransmitter delegate = (endpointId, message) -> frames.add(message);
+    return new BatchingWebSocketMessageTransmitter(delegate, registry, windowMs, maxSize);
+  }
+
+  private void awaitFrames(int count) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + WINDOW_MS * 100;
+    while (frames.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(WINDOW_MS / 5);
+    }
+  }
+
+  /** Size of frames compressed like permessage-deflate does with context takeover. */
+  private static long deflatedSize(List<String> frames) {
+    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    final byte[] buffer = new byte[64 * 1024];
+    long size = 0;
+    for (String frame : frames) {
+      deflater.setInput(frame.getBytes(UTF_8));
+      int written;
+      while ((written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+        size += written;
+      }
+    }
+    deflater.end();
+    return size;
+  }
+
+  private static String notification(int param) {
+    return "{\"jsonrpc\":\"2.0\",\"method\":\"event\",\"params\":" + param + "}";
+  }
+
+  private static String outputLine(int line) {
+    return "{\"jsonrpc\":\"2.0\",\"method\":\"process_stdout\",\"params\":{\"pid\":42,"
+        + "\"text\":\"[INFO] Compiling 120 source files to /projects/console-java/target/classes "
+        + line
+        + "\",\"time\":\"2017-08-01T10:00:00Z\"}}";
+  }
+}
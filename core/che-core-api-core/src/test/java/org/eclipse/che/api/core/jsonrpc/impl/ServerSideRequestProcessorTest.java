@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.impl.ServerSideRequestProcessor.MethodStatistics;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ServerSideRequestProcessor} */
+public class ServerSideRequestProcessorTest {
+
+  private ServerSideRequestProcessor processor;
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    if (processor != null) {
+      processor.preDestroy();
+    }
+  }
+
+  @Test
+  public void shouldLimitNumberOfConcurrentlyProcessedRequestsOfMethod() throws Exception {
+    processor = processor(4, 100, "search=2", "");
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(6);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    for (int i = 0; i < 6; i++) {
+      processor.process(
+          "search",
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            await(release);
+            running.decrementAndGet();
+            done.countDown();
+          });
+    }
+    Thread.sleep(100);
+    assertEquals(running.get(), 2);
+    release.countDown();
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(maxRunning.get(), 2);
+  }
+
+  @Test
+  public void shouldNotOccupyThreadsWithRequestsThatExceedMethodLimit() throws Exception {
+    processor = processor(2, 100, "search=1", "");
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch otherDone = new CountDownLatch(1);
+
+    processor.process("search", () -> await(release));
+    processor.process("search", () -> await(release));
+    processor.process("hover", otherDone::countDown);
+
+    assertTrue(otherDone.await(10, TimeUnit.SECONDS));
+    release.countDown();
+  }
+
+  @Test
+  public void shouldProcessInteractiveRequestsAheadOfOthers() throws Exception {
+    processor = processor(1, 100, "", "textDocument/");
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(4);
+    List<String> order = new CopyOnWriteArrayList<>();
+
+    processor.process("build", () -> await(release));
+    for (String method : asList("build/1", "build/2", "textDocument/hover")) {
+      processor.process(
+          method,
+          () -> {
+            order.add(method);
+            done.countDown();
+          });
+    }
+    processor.process(
+        "textDocument/completion",
+        () -> {
+          order.add("textDocument/completion");
+          done.countDown();
+        });
+    release.countDown();
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(
+        order, asList("textDocument/hover", "textDocument/completion", "build/1", "build/2"));
+  }
+
+  @Test
+  public void shouldRejectRequestsWhenQueueIsFull() throws Exception {
+    processor = processor(1, 1, "", "");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    processor.process(
+        "method",
+        () -> {
+          started.countDown();
+          await(release);
+        });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    processor.process("method", () -> {});
+    try {
+      processor.process("method", () -> {});
+      fail("Request must be rejected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), -32000);
+    } finally {
+      release.countDown();
+    }
+
+    assertEquals(processor.getStatistics().get("method").getRejected(), 1);
+  }
+
+  @Test
+  public void shouldCollectStatisticsPerMethod() throws Exception {
+    processor = processor(1, 100, "", "");
+    CountDownLatch done = new CountDownLatch(3);
+
+    processor.process("a", () -> sleep(20, done));
+    processor.process("a", () -> sleep(20, done));
+    processor.process("b", () -> sleep(0, done));
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    Thread.sleep(50);
+
+    MethodStatistics a = processor.getStatistics().get("a");
+    MethodStatistics b = processor.getStatistics().get("b");
+    assertEquals(a.getProcessed(), 2);
+    assertEquals(b.getProcessed(), 1);
+    assertTrue(a.getMaxExecutionTime(TimeUnit.MILLISECONDS) >= 20);
+    assertTrue(b.getMaxQueueTime(TimeUnit.MILLISECONDS) >= 20);
+    assertEquals(processor.getQueueSize(), 0);
+  }
+
+  private static ServerSideRequestProcessor processor(
+      int poolSize, int queueCapacity, String methodLimits, String interactiveMethods) {
+    ServerSideRequestProcessor processor =
+        new ServerSideRequestProcessor(poolSize, queueCapacity, methodLimits, interactiveMethods);
+    processor.postConstruct();
+    return processor;
+  }
+
+  private static void sleep(long millis, CountDownLatch done) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    done.countDown();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -10,10 +10,21 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.api.core.notification.EventService.SubscriberStatistics;
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -23,7 +34,12 @@ public class EventServiceTest {
 
   @BeforeMethod
   public void setUp() {
-    bus = new EventService();
+    bus = new EventService(4, 10_000, 1_000);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    bus.stop();
   }
 
   @Test
@@ -219,4 +235,192 @@ public class EventServiceTest {
       super("message");
     }
   }
+
+  @Test
+  public void shouldNotBlockPublisherByAsyncSubscriber() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch delivered = new CountDownLatch(2);
+    bus.subscribeAsync(
+        event -> {
+          try {
+            release.await(10, SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          delivered.countDown();
+        },
+        String.class,
+        null);
+
+    bus.publish("first");
+    bus.publish("second");
+    release.countDown();
+
+    Assert.assertTrue(delivered.await(10, SECONDS));
+  }
+
+  @Test
+  public void shouldDeliverEventsWithTheSameOrderingKeyInOrderOfPublishing() throws Exception {
+    final int keys = 8;
+    final int eventsPerKey = 200;
+    final CountDownLatch delivered = new CountDownLatch(keys * eventsPerKey);
+    final Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+    final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+    final AtomicInteger concurrentCalls = new AtomicInteger();
+    bus.subscribeAsync(
+        (KeyedEvent event) -> {
+          final AtomicInteger counter =
+              running.computeIfAbsent(event.key, k -> new AtomicInteger());
+          if (counter.incrementAndGet() > 1) {
+            concurrentCalls.incrementAndGet();
+          }
+          received
+              .computeIfAbsent(event.key, k -> new CopyOnWriteArrayList<>())
+              .add(event.sequence);
+          counter.decrementAndGet();
+          delivered.countDown();
+        },
+        KeyedEvent.class,
+        event -> event.key);
+
+    for (int i = 0; i < eventsPerKey; i++) {
+      for (int k = 0; k < keys; k++) {
+        bus.publish(new KeyedEvent("key-" + k, i));
+      }
+    }
+
+    Assert.assertTrue(delivered.await(10, SECONDS));
+    Assert.assertEquals(concurrentCalls.get(), 0);
+    Assert.assertEquals(received.size(), keys);
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < eventsPerKey; i++) {
+      expected.add(i);
+    }
+    for (List<Integer> sequences : received.values()) {
+      Assert.assertEquals(sequences, expected);
+    }
+  }
+
+  @Test
+  public void shouldBlockPublisherWhenQueueOfAsyncSubscriberIsFull() throws Exception {
+    bus = new EventService(1, 2, 1_000);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> events = new CopyOnWriteArrayList<>();
+    bus.subscribeAsync(
+        event -> {
+          started.countDown();
+          try {
+            release.await(10, SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          events.add(event);
+        },
+        String.class,
+        null);
+
+    bus.publish("first");
+    Assert.assertTrue(started.await(10, SECONDS));
+    bus.publish("second");
+    bus.publish("third");
+    final CountDownLatch published = new CountDownLatch(1);
+    final Thread publisher =
+        new Thread(
+            () -> {
+              bus.publish("fourth");
+              published.countDown();
+            });
+    publisher.start();
+
+    Assert.assertFalse(published.await(200, MILLISECONDS));
+    final SubscriberStatistics statistics = bus.getSubscriberStatistics().get(0);
+    Assert.assertTrue(statistics.isAsync());
+    Assert.assertEquals(statistics.getQueueSize(), 2);
+    Assert.assertEquals(statistics.getBlocked(), 1);
+    release.countDown();
+    Assert.assertTrue(published.await(10, SECONDS));
+    bus.stop();
+    Assert.assertEquals(events, asList("first", "second", "third", "fourth"));
+  }
+
+  @Test
+  public void shouldNotBlockAsyncSubscriberWhichPublishesToFullQueue() throws Exception {
+    bus = new EventService(1, 1, 1_000);
+    final CountDownLatch delivered = new CountDownLatch(3);
+    bus.subscribeAsync(
+        (Integer event) -> {
+          for (int i = 0; i < 3; i++) {
+            bus.publish("event " + i);
+          }
+        },
+        Integer.class,
+        null);
+    bus.subscribeAsync(event -> delivered.countDown(), String.class, null);
+
+    bus.publish(1);
+
+    Assert.assertTrue(delivered.await(10, SECONDS));
+  }
+
+  @Test
+  public void shouldDeliverEventsToAnnotatedSubscriberAsynchronously() throws Exception {
+    final AsyncListener listener = new AsyncListener();
+    bus.subscribe(listener);
+
+    bus.publish("hello");
+
+    Assert.assertTrue(listener.delivered.await(10, SECONDS));
+    Assert.assertNotEquals(listener.thread, Thread.currentThread());
+  }
+
+  @Test
+  public void shouldCollectStatisticsOfSlowSubscribers() throws Exception {
+    bus = new EventService(1, 10, 10);
+    final EventSubscriber<String> slowSubscriber =
+        event -> {
+          try {
+            Thread.sleep(20);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+    bus.subscribe(slowSubscriber, String.class);
+    bus.subscribe(event -> {}, Long.class);
+
+    bus.publish("hello");
+    bus.publish(1L);
+
+    Assert.assertEquals(bus.getPublishedEvents(), 2);
+    Assert.assertTrue(bus.getMaxPublishTime(MILLISECONDS) >= 20);
+    final List<SubscriberStatistics> statistics = bus.getSubscriberStatistics();
+    Assert.assertEquals(statistics.size(), 2);
+    Assert.assertEquals(statistics.get(0).getSubscriber(), slowSubscriber.toString());
+    Assert.assertEquals(statistics.get(0).getEventType(), String.class);
+    Assert.assertEquals(statistics.get(0).getProcessed(), 1);
+    Assert.assertEquals(statistics.get(0).getSlow(), 1);
+    Assert.assertEquals(statistics.get(1).getSlow(), 0);
+  }
+
+  static class KeyedEvent {
+    final String key;
+    final int sequence;
+
+    KeyedEvent(String key, int sequence) {
+      this.key = key;
+      this.sequence = sequence;
+    }
+  }
+
+  @AsyncSubscriber
+  static class AsyncListener implements EventSubscriber<String> {
+    final CountDownLatch delivered = new CountDownLatch(1);
+    volatile Thread thread;
+
+    @Override
+    public void onEvent(String event) {
+      thread = Thread.currentThread();
+      delivered.countDown();
+    }
+  }
 }
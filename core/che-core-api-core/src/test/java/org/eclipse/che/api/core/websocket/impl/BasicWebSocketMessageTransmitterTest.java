@@ -10,21 +10,43 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javax.websocket.CloseReason;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
@@ -35,42 +57,319 @@ import org.testng.annotations.Test;
  */
 @Listeners(MockitoTestNGListener.class)
 public class BasicWebSocketMessageTransmitterTest {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(BasicWebSocketMessageTransmitterTest.class);
+
   private static final String MESSAGE = "message";
   private static final String ENDPOINT_ID = "id";
+  private static final int QUEUE_SIZE = 3;
 
   @Mock private WebSocketSessionRegistry registry;
   @Mock private MessagesReSender reSender;
-  @InjectMocks private BasicWebSocketMessageTransmitter transmitter;
 
   @Mock private Session session;
-  @Mock private RemoteEndpoint.Basic remote;
+  @Mock private RemoteEndpoint.Async remote;
+
+  private BasicWebSocketMessageTransmitter transmitter;
 
   @BeforeMethod
   public void setUp() throws Exception {
-    when(session.getBasicRemote()).thenReturn(remote);
+    when(session.getAsyncRemote()).thenReturn(remote);
     when(session.isOpen()).thenReturn(true);
+    completeSendsImmediately(remote);
 
     when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
     when(registry.getSessions()).thenReturn(emptySet());
+
+    transmitter = transmitter("drop_oldest");
   }
 
   @Test
-  public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws IOException {
+  public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws Exception {
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session).getBasicRemote();
-    verify(remote).sendText(MESSAGE);
+    verify(session).getAsyncRemote();
+    verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
     verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
   }
 
   @Test
-  public void shouldAddMessageToPendingIfSessionIsNotOpenedAndEndpointIsSet() throws IOException {
+  public void shouldAddMessageToPendingIfSessionIsNotOpenedAndEndpointIsSet() throws Exception {
     when(session.isOpen()).thenReturn(false);
 
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session, never()).getBasicRemote();
-    verify(remote, never()).sendText(MESSAGE);
+    verify(session, never()).getAsyncRemote();
     verify(reSender).add(ENDPOINT_ID, MESSAGE);
   }
+
+  @Test
+  public void shouldSendMessagesOneByOneInOrder() throws Exception {
+    List<SendHandler> handlers = stallSends(remote);
+
+    transmitter.transmit(ENDPOINT_ID, "1");
+    transmitter.transmit(ENDPOINT_ID, "2");
+
+    verify(remote).sendText(eq("1"), any(SendHandler.class));
+    verify(remote, never()).sendText(eq("2"), any(SendHandler.class));
+    assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), 1);
+
+    handlers.get(0).onResult(new SendResult());
+
+    verify(remote).sendText(eq("2"), any(SendHandler.class));
+    assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), 0);
+  }
+
+  @Test
+  public void shouldDropOldestMessagesWhenQueueIsFull() throws Exception {
+    List<String> sent = new ArrayList<>();
+    List<SendHandler> handlers = stallSends(remote, sent);
+
+    for (int i = 0; i < 6; i++) {
+      transmitter.transmit(ENDPOINT_ID, notification("progress", i));
+    }
+    assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), QUEUE_SIZE);
+    assertEquals(transmitter.getDroppedMessages(ENDPOINT_ID), 2);
+
+    for (int i = 0; i < handlers.size(); i++) {
+      handlers.get(i).onResult(new SendResult());
+    }
+
+    assertEquals(
+        sent,
+        asList(
+            notification("progress", 0),
+            notification("progress", 3),
+            notification("progress", 4),
+            notification("progress", 5)));
+  }
+
+  @Test
+  public void shouldDropNotificationsButNotResponsesWhenQueueIsFull() throws Exception {
+    List<String> sent = new ArrayList<>();
+    List<SendHandler> handlers = stallSends(remote, sent);
+
+    transmitter.transmit(ENDPOINT_ID, response(0));
+    transmitter.transmit(ENDPOINT_ID, response(1));
+    transmitter.transmit(ENDPOINT_ID, notification("progress", 2));
+    transmitter.transmit(ENDPOINT_ID, response(3));
+    transmitter.transmit(ENDPOINT_ID, response(4));
+
+    for (int i = 0; i < handlers.size(); i++) {
+      handlers.get(i).onResult(new SendResult());
+    }
+
+    assertEquals(sent, asList(response(0), response(1), response(3), response(4)));
+    verify(session, never()).close(any(CloseReason.class));
+  }
+
+  @Test(dataProvider = "overflowPolicies")
+  public void shouldNotLoseResponsesWhenQueueIsFull(String overflowPolicy) throws Exception {
+    transmitter = transmitter(overflowPolicy);
+    List<SendHandler> handlers = stallSends(remote);
+
+    for (int i = 0; i < QUEUE_SIZE + 2; i++) {
+      transmitter.transmit(ENDPOINT_ID, response(i));
+    }
+    when(session.isOpen()).thenReturn(false);
+    handlers.get(0).onResult(new SendResult(new IllegalStateException("closed")));
+
+    verify(session).close(any(CloseReason.class));
+    for (int i = 0; i < QUEUE_SIZE + 2; i++) {
+      verify(reSender).add(ENDPOINT_ID, response(i));
+    }
+    assertFalse(transmitter.hasQueue(ENDPOINT_ID));
+  }
+
+  @DataProvider
+  public Object[][] overflowPolicies() {
+    return new Object[][] {{"drop_oldest"}, {"coalesce"}, {"disconnect"}};
+  }
+
+  @Test
+  public void shouldCoalesceNotificationsWithTheSameMethodWhenQueueIsFull() throws Exception {
+    transmitter = transmitter("coalesce");
+    List<String> sent = new ArrayList<>();
+    List<SendHandler> handlers = stallSends(remote, sent);
+
+    transmitter.transmit(ENDPOINT_ID, notification("a", 0));
+    transmitter.transmit(ENDPOINT_ID, notification("progress", 1));
+    transmitter.transmit(ENDPOINT_ID, notification("b", 2));
+    transmitter.transmit(ENDPOINT_ID, notification("c", 3));
+    transmitter.transmit(ENDPOINT_ID, notification("progress", 4));
+
+    for (int i = 0; i < handlers.size(); i++) {
+      handlers.get(i).onResult(new SendResult());
+    }
+
+    assertEquals(
+        sent,
+        asList(
+            notification("a", 0),
+            notification("b", 2),
+            notification("c", 3),
+            notification("progress", 4)));
+  }
+
+  @Test
+  public void shouldDisconnectSessionWhenQueueIsFull() throws Exception {
+    transmitter = transmitter("disconnect");
+    stallSends(remote);
+
+    for (int i = 0; i < QUEUE_SIZE + 2; i++) {
+      transmitter.transmit(ENDPOINT_ID, String.valueOf(i));
+    }
+
+    verify(session).close(any(CloseReason.class));
+    for (int i = 1; i < QUEUE_SIZE + 2; i++) {
+      verify(reSender).add(ENDPOINT_ID, String.valueOf(i));
+    }
+  }
+
+  @Test
+  public void shouldHandMessageInFlightBackInFrontOfQueuedOnesWhenItFailsAfterDisconnect()
+      throws Exception {
+    transmitter = transmitter("disconnect");
+    List<SendHandler> handlers = stallSends(remote);
+    for (int i = 0; i < QUEUE_SIZE + 2; i++) {
+      transmitter.transmit(ENDPOINT_ID, String.valueOf(i));
+    }
+
+    handlers.get(0).onResult(new SendResult(new IllegalStateException("closing")));
+
+    InOrder inOrder = inOrder(reSender);
+    for (int i = 1; i < QUEUE_SIZE + 2; i++) {
+      inOrder.verify(reSender).add(ENDPOINT_ID, String.valueOf(i));
+    }
+    inOrder.verify(reSender).addFirst(ENDPOINT_ID, "0");
+    verify(reSender, never()).add(ENDPOINT_ID, "0");
+  }
+
+  @Test
+  public void shouldPassQueuedMessagesToPendingWhenSessionIsClosedDuringSend() throws Exception {
+    List<SendHandler> handlers = stallSends(remote);
+    transmitter.transmit(ENDPOINT_ID, "1");
+    transmitter.transmit(ENDPOINT_ID, "2");
+
+    when(session.isOpen()).thenReturn(false);
+    handlers.get(0).onResult(new SendResult(new IllegalStateException("closed")));
+
+    verify(reSender).add(ENDPOINT_ID, "1");
+    verify(reSender).add(ENDPOINT_ID, "2");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldReleaseQueueAndPassQueuedMessagesToPendingWhenSessionIsRemoved()
+      throws Exception {
+    ArgumentCaptor<BiConsumer> listener = ArgumentCaptor.forClass(BiConsumer.class);
+    verify(registry).addRemovalListener(listener.capture());
+    stallSends(remote);
+    transmitter.transmit(ENDPOINT_ID, "1");
+    transmitter.transmit(ENDPOINT_ID, "2");
+    assertTrue(transmitter.hasQueue(ENDPOINT_ID));
+
+    when(session.isOpen()).thenReturn(false);
+    listener.getValue().accept(ENDPOINT_ID, session);
+
+    verify(reSender).add(ENDPOINT_ID, "2");
+    assertFalse(transmitter.hasQueue(ENDPOINT_ID));
+  }
+
+  @Test
+  public void stalledClientDoesNotDelayMessagesToOtherClients() throws Exception {
+    final int threads = 4;
+    final int messagesPerThread =
+        Integer.getInteger("che.test.websocket.messages", 20_000) / threads;
+    final int messages = messagesPerThread * threads;
+    transmitter = new BasicWebSocketMessageTransmitter(registry, reSender, 1000, "drop_oldest");
+
+    Session stalledSession = mock(Session.class);
+    RemoteEndpoint.Async stalledRemote = mock(RemoteEndpoint.Async.class);
+    when(stalledSession.isOpen()).thenReturn(true);
+    when(stalledSession.getAsyncRemote()).thenReturn(stalledRemote);
+    stallSends(stalledRemote);
+    when(registry.get("stalled")).thenReturn(Optional.of(stalledSession));
+
+    AtomicInteger received = new AtomicInteger();
+    CountDownLatch allReceived = new CountDownLatch(messages);
+    doAnswer(
+            invocation -> {
+              received.incrementAndGet();
+              allReceived.countDown();
+              ((SendHandler) invocation.getArguments()[1]).onResult(new SendResult());
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    try {
+      for (int t = 0; t < threads; t++) {
+        executor.execute(
+            () -> {
+              for (int i = 0; i < messagesPerThread; i++) {
+                transmitter.transmit("stalled", notification("progress", i));
+                transmitter.transmit(ENDPOINT_ID, MESSAGE);
+              }
+            });
+      }
+      assertTrue(allReceived.await(30, TimeUnit.SECONDS), "received " + received.get());
+    } finally {
+      executor.shutdownNow();
+    }
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    LOG.info(
+        "Transmitted {} messages to a healthy client next to a stalled one in {} ms, "
+            + "average send latency of healthy client {} us, stalled client queue depth {}",
+        messages,
+        elapsed,
+        transmitter.getAverageSendLatency(ENDPOINT_ID, TimeUnit.MICROSECONDS),
+        transmitter.getQueueDepth("stalled"));
+
+    assertEquals(received.get(), messages);
+    assertEquals(transmitter.getQueueDepth("stalled"), 1000);
+    assertEquals(transmitter.getDroppedMessages("stalled"), messages - 1000 - 1);
+  }
+
+  private BasicWebSocketMessageTransmitter transmitter(String overflowPolicy) {
+    return new BasicWebSocketMessageTransmitter(registry, reSender, QUEUE_SIZE, overflowPolicy);
+  }
+
+  private static String notification(String method, int param) {
+    return "{\"jsonrpc\":\"2.0\",\"method\":\"" + method + "\",\"params\":" + param + "}";
+  }
+
+  private static String response(int id) {
+    return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":" + id + "}";
+  }
+
+  private static void completeSendsImmediately(RemoteEndpoint.Async remote) {
+    doAnswer(
+            invocation -> {
+              ((SendHandler) invocation.getArguments()[1]).onResult(new SendResult());
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+  }
+
+  private static List<SendHandler> stallSends(RemoteEndpoint.Async remote) {
+    return stallSends(remote, new ArrayList<>());
+  }
+
+  /** Remembers handlers of sends without completing them, like a client that does not read. */
+  private static List<SendHandler> stallSends(RemoteEndpoint.Async remote, List<String> sent) {
+    List<SendHandler> handlers = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              sent.add((String) invocation.getArguments()[0]);
+              handlers.add((SendHandler) invocation.getArguments()[1]);
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+    return handlers;
+  }
 }
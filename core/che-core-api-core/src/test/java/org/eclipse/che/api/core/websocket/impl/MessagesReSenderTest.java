@@ -10,17 +10,35 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.websocket.CloseReason;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
@@ -37,7 +55,7 @@ public class MessagesReSenderTest {
   private static final String ENDPOINT_ID = "id";
 
   @Mock private WebSocketSessionRegistry sessionRegistry;
-  @InjectMocks private MessagesReSender reSender;
+  private MessagesReSender reSender;
 
   @Mock private Session session;
   @Mock private RemoteEndpoint.Async endpoint;
@@ -47,6 +65,7 @@ public class MessagesReSenderTest {
     when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
     when(session.getAsyncRemote()).thenReturn(endpoint);
     when(session.isOpen()).thenReturn(true);
+    doAnswer(sendSucceeds()).when(endpoint).sendText(anyString(), any(SendHandler.class));
   }
 
   @BeforeMethod
@@ -64,7 +83,7 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session, never()).getAsyncRemote();
-    verify(endpoint, never()).sendText(MESSAGE);
+    verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -75,13 +94,13 @@ public class MessagesReSenderTest {
     reSender.resend(ENDPOINT_ID);
 
     verify(session, never()).getAsyncRemote();
-    verify(endpoint, never()).sendText(MESSAGE);
+    verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
 
     when(session.isOpen()).thenReturn(true);
     reSender.resend(ENDPOINT_ID);
 
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -92,7 +111,7 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -106,7 +125,7 @@ public class MessagesReSenderTest {
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
     verify(session, times(2)).getAsyncRemote();
-    verify(endpoint, times(2)).sendText(MESSAGE);
+    verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -116,12 +135,12 @@ public class MessagesReSenderTest {
     reSender.resend(ENDPOINT_ID);
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
 
     reSender.resend(ENDPOINT_ID);
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(session).getAsyncRemote();
-    verify(endpoint).sendText(MESSAGE);
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
   }
 
   @Test
@@ -135,7 +154,7 @@ public class MessagesReSenderTest {
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
     verify(session, times(2)).getAsyncRemote();
-    verify(endpoint, times(2)).sendText(MESSAGE);
+    verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
 
     reSender.resend(ENDPOINT_ID);
     reSender.resend("1");
@@ -143,6 +162,266 @@ public class MessagesReSenderTest {
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
     verify(session, times(2)).getAsyncRemote();
-    verify(endpoint, times(2)).sendText(MESSAGE);
+    verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldResendMessagesInOrder() {
+    List<String> sent = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              sent.add((String) invocation.getArguments()[0]);
+              return sendSucceeds().answer(invocation);
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    for (int i = 0; i < 500; i++) {
+      reSender.add(ENDPOINT_ID, String.valueOf(i));
+    }
+
+    reSender.resend(ENDPOINT_ID);
+
+    assertEquals(sent.size(), 500);
+    for (int i = 0; i < 500; i++) {
+      assertEquals(sent.get(i), String.valueOf(i));
+    }
+  }
+
+  @Test
+  public void shouldDropOldestMessagesWhenSizeLimitIsExceeded() {
+    reSender = new MessagesReSender(sessionRegistry, 2 * 2 * MESSAGE.length(), 60_000, null, 0);
+    reSender.add(ENDPOINT_ID, "1" + MESSAGE);
+    reSender.add(ENDPOINT_ID, "2" + MESSAGE);
+    reSender.add(ENDPOINT_ID, "3" + MESSAGE);
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText(eq("1" + MESSAGE), any(SendHandler.class));
+    verify(endpoint, never()).sendText(eq("2" + MESSAGE), any(SendHandler.class));
+    verify(endpoint).sendText(eq("3" + MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldNotResendExpiredMessages() throws Exception {
+    reSender = new MessagesReSender(sessionRegistry, 1024, 1, null, 0);
+    reSender.add(ENDPOINT_ID, MESSAGE);
+    Thread.sleep(10);
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldRemoveEndpointsWithExpiredMessages() throws Exception {
+    reSender = new MessagesReSender(sessionRegistry, 1024, 1, null, 0);
+    reSender.add(ENDPOINT_ID, MESSAGE);
+    Thread.sleep(10);
+
+    reSender.add("1", MESSAGE);
+
+    assertEquals(reSender.getEndpointsCount(), 1);
+  }
+
+  @Test
+  public void shouldSpillMessagesToFileAndResendThemInOrder() throws Exception {
+    Path spillDirectory = Files.createTempDirectory("resend");
+    List<String> sent = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              sent.add((String) invocation.getArguments()[0]);
+              return sendSucceeds().answer(invocation);
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    reSender =
+        new MessagesReSender(sessionRegistry, 100, 60_000, spillDirectory.toString(), 1024 * 1024);
+    for (int i = 0; i < 1000; i++) {
+      reSender.add(ENDPOINT_ID, "message " + i);
+    }
+
+    reSender.resend(ENDPOINT_ID);
+
+    assertEquals(sent.size(), 1000);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(sent.get(i), "message " + i);
+    }
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      assertEquals(files.count(), 0);
+    }
+    Files.delete(spillDirectory);
+  }
+
+  @Test
+  public void shouldPutBackMessagesWhichWereNotResent() {
+    doAnswer(sendFails()).when(endpoint).sendText(eq("2"), any(SendHandler.class));
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add(ENDPOINT_ID, "3");
+
+    reSender.resend(ENDPOINT_ID);
+    doAnswer(sendSucceeds()).when(endpoint).sendText(eq("2"), any(SendHandler.class));
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint).sendText(eq("1"), any(SendHandler.class));
+    verify(endpoint, times(2)).sendText(eq("2"), any(SendHandler.class));
+    verify(endpoint).sendText(eq("3"), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldResendMessageAddedFirstAheadOfOtherMessages() {
+    List<String> sent = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              sent.add((String) invocation.getArguments()[0]);
+              return sendSucceeds().answer(invocation);
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add(ENDPOINT_ID, "3");
+
+    reSender.addFirst(ENDPOINT_ID, "1");
+    reSender.resend(ENDPOINT_ID);
+
+    assertEquals(sent, asList("1", "2", "3"));
+  }
+
+  @Test
+  public void shouldKeepMessagesAddedConcurrently() throws Exception {
+    int threads = 8;
+    int messagesPerThread = 1000;
+    reSender = new MessagesReSender(sessionRegistry, Long.MAX_VALUE, 60_000, null, 0);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch done = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(
+          () -> {
+            for (int i = 0; i < messagesPerThread; i++) {
+              reSender.add(ENDPOINT_ID, MESSAGE);
+            }
+            done.countDown();
+          });
+    }
+    done.await(10, TimeUnit.SECONDS);
+    executor.shutdownNow();
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, times(threads * messagesPerThread))
+        .sendText(eq(MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldKeepTimeOfMessagesWhichWereNotResent() throws Exception {
+    reSender = new MessagesReSender(sessionRegistry, 1024, 500, null, 0);
+    doAnswer(sendFails()).when(endpoint).sendText(anyString(), any(SendHandler.class));
+    reSender.add(ENDPOINT_ID, MESSAGE);
+    Thread.sleep(300);
+    reSender.resend(ENDPOINT_ID);
+    Thread.sleep(300);
+
+    doAnswer(sendSucceeds()).when(endpoint).sendText(anyString(), any(SendHandler.class));
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldSendNextMessageWhenPreviousOneIsSent() {
+    List<SendHandler> handlers = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              handlers.add((SendHandler) invocation.getArguments()[1]);
+              return null;
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    Runnable onResent = mock(Runnable.class);
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+
+    reSender.resend(ENDPOINT_ID, session, onResent);
+
+    verify(endpoint).sendText(eq("1"), any(SendHandler.class));
+    verify(endpoint, never()).sendText(eq("2"), any(SendHandler.class));
+
+    reSender.add(ENDPOINT_ID, "3");
+    handlers.get(0).onResult(new SendResult());
+    verify(endpoint).sendText(eq("2"), any(SendHandler.class));
+    handlers.get(1).onResult(new SendResult());
+    verify(endpoint).sendText(eq("3"), any(SendHandler.class));
+    verify(onResent, never()).run();
+
+    handlers.get(2).onResult(new SendResult());
+    verify(onResent).run();
+    assertEquals(reSender.getEndpointsCount(), 0);
+  }
+
+  @Test
+  public void shouldNotCompleteResendingWhenSendingFails() {
+    doAnswer(sendFails()).when(endpoint).sendText(anyString(), any(SendHandler.class));
+    Runnable onResent = mock(Runnable.class);
+    reSender.add(ENDPOINT_ID, MESSAGE);
+
+    reSender.resend(ENDPOINT_ID, session, onResent);
+
+    verify(onResent, never()).run();
+    assertEquals(reSender.getEndpointsCount(), 1);
+  }
+
+  @Test
+  public void shouldCloseOpenSessionWhenSendingFails() throws Exception {
+    doAnswer(sendFails()).when(endpoint).sendText(anyString(), any(SendHandler.class));
+    Runnable onResent = mock(Runnable.class);
+    reSender.add(ENDPOINT_ID, MESSAGE);
+
+    reSender.resend(ENDPOINT_ID, session, onResent);
+
+    verify(session).close(any(CloseReason.class));
+    verify(onResent, never()).run();
+    assertEquals(reSender.getEndpointsCount(), 1);
+  }
+
+  @Test
+  public void shouldNotCloseClosedSessionWhenSendingFails() throws Exception {
+    doAnswer(
+            invocation -> {
+              when(session.isOpen()).thenReturn(false);
+              return sendFails().answer(invocation);
+            })
+        .when(endpoint)
+        .sendText(anyString(), any(SendHandler.class));
+    reSender.add(ENDPOINT_ID, MESSAGE);
+
+    reSender.resend(ENDPOINT_ID, session, () -> {});
+
+    verify(session, never()).close(any(CloseReason.class));
+    assertEquals(reSender.getEndpointsCount(), 1);
+  }
+
+  @Test
+  public void shouldCompleteResendingWhenThereAreNoMessages() {
+    Runnable onResent = mock(Runnable.class);
+
+    reSender.resend(ENDPOINT_ID, session, onResent);
+
+    verify(onResent).run();
+    verify(session, never()).getAsyncRemote();
+  }
+
+  private static Answer<Void> sendSucceeds() {
+    return invocation -> {
+      ((SendHandler) invocation.getArguments()[1]).onResult(new SendResult());
+      return null;
+    };
+  }
+
+  private static Answer<Void> sendFails() {
+    return invocation -> {
+      ((SendHandler) invocation.getArguments()[1])
+          .onResult(new SendResult(new IllegalStateException("closed")));
+      return null;
+    };
   }
 }
@@ -11,9 +11,12 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.*;
 
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import javax.websocket.Session;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -32,6 +35,7 @@ public class WebSocketSessionRegistryTest {
   private WebSocketSessionRegistry registry;
 
   @Mock private Session session;
+  @Mock private BiConsumer<String, Session> removalListener;
 
   @BeforeMethod
   public void setUp() throws Exception {
@@ -70,6 +74,26 @@ public class WebSocketSessionRegistryTest {
     assertTrue(registry.getSessions().isEmpty());
   }
 
+  @Test
+  public void shouldNotifyRemovalListenerWhenSessionIsRemoved() {
+    registry.addRemovalListener(removalListener);
+    registry.add("0", session);
+
+    registry.remove(session);
+    registry.remove("0");
+
+    verify(removalListener).accept("0", session);
+  }
+
+  @Test
+  public void shouldNotNotifyRemovalListenerWhenSessionIsNotRegistered() {
+    registry.addRemovalListener(removalListener);
+
+    registry.remove("0");
+
+    verify(removalListener, never()).accept("0", session);
+  }
+
   @Test
   public void shouldGetAllSessions() {
     registry.add("0", session);
@@ -10,6 +10,9 @@
 package org.eclipse.che.dto.generator;
 
 import com.google.common.primitives.Primitives;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -21,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
+import org.eclipse.che.dto.server.JsonStreamUtil;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
 import org.eclipse.che.dto.shared.DTOImpl;
 import org.eclipse.che.dto.shared.DelegateRule;
@@ -32,13 +36,32 @@ import org.eclipse.che.dto.shared.JsonStringMap;
 public class DtoImplServerTemplate extends DtoImpl {
   private static final String JSON_ARRAY_IMPL = JsonArrayImpl.class.getCanonicalName();
   private static final String JSON_MAP_IMPL = JsonStringMapImpl.class.getCanonicalName();
+  private static final String JSON_STREAM_UTIL = JsonStreamUtil.class.getCanonicalName();
+  private static final String GSON = Gson.class.getCanonicalName();
+  private static final String JSON_READER = JsonReader.class.getCanonicalName();
+  private static final String JSON_WRITER = JsonWriter.class.getCanonicalName();
+  private static final String IO_EXCEPTION = java.io.IOException.class.getCanonicalName();
   private static final String SERVER_DTO_MARKER =
       "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
 
+  private Boolean hasTypeAdapter;
+
   DtoImplServerTemplate(DtoTemplate template, Class<?> superInterface) {
     super(template, superInterface);
   }
 
+  /**
+   * Returns {@code true} if the implementation reads and writes JSON streams without reflection.
+   * Not possible if DTO has fields of types unknown to the generator, e.g. generic types other than
+   * lists and maps with string keys, or if super DTO implementation can't do it.
+   */
+  boolean hasTypeAdapter() {
+    if (hasTypeAdapter == null) {
+      hasTypeAdapter = canHaveTypeAdapter();
+    }
+    return hasTypeAdapter;
+  }
+
   @Override
   String serialize() {
     StringBuilder builder = new StringBuilder();
@@ -68,6 +91,9 @@ public class DtoImplServerTemplate extends DtoImpl {
     emitSerializer(methods, builder);
     emitDeserializer(methods, builder);
     emitDeserializerShortcut(builder);
+    if (hasTypeAdapter()) {
+      emitJsonStreaming(getFieldGetters(getters, superGetterNames), builder);
+    }
     emitCopyConstructor(methods, builder);
     // Delegation DTO methods.
     emitDelegateMethods(builder);
@@ -373,6 +399,353 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("    }\n\n");
   }
 
+  /**
+   * Generates methods that read and write fields of DTO implementation from/to JSON streams. Fields
+   * declared in super implementation are read and written with methods of super implementation.
+   * Fields are written in the same order as Gson writes them with reflection.
+   */
+  private void emitJsonStreaming(List<Method> fieldGetters, StringBuilder builder) {
+    final String implClassName = getImplClassName();
+    final String superImplClassName = getSuperImplClassName();
+
+    builder
+        .append("    public static ")
+        .append(implClassName)
+        .append(" readJson(")
+        .append(GSON)
+        .append(" gson, ")
+        .append(JSON_READER)
+        .append(" in) throws ")
+        .append(IO_EXCEPTION)
+        .append(" {\n");
+    builder.append("      if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n");
+    builder.append("        in.nextNull();\n");
+    builder.append("        return null;\n");
+    builder.append("      }\n");
+    builder
+        .append("      ")
+        .append(implClassName)
+        .append(" value = new ")
+        .append(implClassName)
+        .append("();\n");
+    builder.append("      in.beginObject();\n");
+    builder.append("      while (in.hasNext()) {\n");
+    builder
+        .append("        if (!")
+        .append(implClassName)
+        .append(".readJsonField(gson, in, in.nextName(), value)) {\n");
+    builder.append("          in.skipValue();\n");
+    builder.append("        }\n");
+    builder.append("      }\n");
+    builder.append("      in.endObject();\n");
+    builder.append("      return value;\n");
+    builder.append("    }\n\n");
+
+    builder
+        .append("    public static boolean readJsonField(")
+        .append(GSON)
+        .append(" gson, ")
+        .append(JSON_READER)
+        .append(" in, String name, ")
+        .append(implClassName)
+        .append(" value) throws ")
+        .append(IO_EXCEPTION)
+        .append(" {\n");
+    builder.append("      switch (name) {\n");
+    for (Method getter : fieldGetters) {
+      final String fieldName = getJavaFieldName(getter.getName());
+      final Type type = getter.getGenericReturnType();
+      builder.append("        case ").append(quoteStringLiteral(getJsonFieldName(getter)));
+      if (getter.getReturnType().isPrimitive()) {
+        // keep default value if JSON value is null
+        builder.append(": {\n");
+        builder
+            .append("          ")
+            .append(Primitives.wrap(getter.getReturnType()).getCanonicalName())
+            .append(" v = ")
+            .append(getReadExpression(type, "in", 1))
+            .append(";\n");
+        builder.append("          if (v != null) {\n");
+        builder.append("            value.").append(fieldName).append(" = v;\n");
+        builder.append("          }\n");
+        builder.append("          return true;\n");
+        builder.append("        }\n");
+      } else {
+        builder.append(":\n");
+        builder
+            .append("          value.")
+            .append(fieldName)
+            .append(" = ")
+            .append(getReadExpression(type, "in", 1))
+            .append(";\n");
+        builder.append("          return true;\n");
+      }
+    }
+    builder.append("        default:\n");
+    if (superImplClassName == null) {
+      builder.append("          return false;\n");
+    } else {
+      builder
+          .append("          return ")
+          .append(superImplClassName)
+          .append(".readJsonField(gson, in, name, value);\n");
+    }
+    builder.append("      }\n");
+    builder.append("    }\n\n");
+
+    builder
+        .append("    public static void writeJson(")
+        .append(GSON)
+        .append(" gson, ")
+        .append(JSON_WRITER)
+        .append(" out, ")
+        .append(getDtoInterface().getCanonicalName())
+        .append(" value) throws ")
+        .append(IO_EXCEPTION)
+        .append(" {\n");
+    builder.append("      if (value == null) {\n");
+    builder.append("        out.nullValue();\n");
+    builder
+        .append("      } else if (value.getClass() == ")
+        .append(implClassName)
+        .append(".class) {\n");
+    builder.append("        out.beginObject();\n");
+    builder
+        .append("        ")
+        .append(implClassName)
+        .append(".writeJsonFields(gson, out, (")
+        .append(implClassName)
+        .append(") value);\n");
+    builder.append("        out.endObject();\n");
+    builder.append("      } else {\n");
+    builder.append("        // other implementation, let Gson find adapter for runtime type\n");
+    builder.append("        gson.getAdapter(Object.class).write(out, value);\n");
+    builder.append("      }\n");
+    builder.append("    }\n\n");
+
+    builder
+        .append("    public static void writeJsonFields(")
+        .append(GSON)
+        .append(" gson, ")
+        .append(JSON_WRITER)
+        .append(" out, ")
+        .append(implClassName)
+        .append(" value) throws ")
+        .append(IO_EXCEPTION)
+        .append(" {\n");
+    for (Method getter : fieldGetters) {
+      builder
+          .append("      out.name(")
+          .append(quoteStringLiteral(getJsonFieldName(getter)))
+          .append(");\n");
+      builder
+          .append("      ")
+          .append(
+              getWriteExpression(
+                  getter.getGenericReturnType(),
+                  "out",
+                  "value." + getJavaFieldName(getter.getName()),
+                  1))
+          .append(";\n");
+    }
+    if (superImplClassName != null) {
+      builder
+          .append("      ")
+          .append(superImplClassName)
+          .append(".writeJsonFields(gson, out, value);\n");
+    }
+    builder.append("    }\n\n");
+  }
+
+  /** Returns expression that reads value of the given type from JSON reader. */
+  private String getReadExpression(Type type, String in, int depth) {
+    final Class<?> rawClass = getRawClass(type);
+    if (type instanceof ParameterizedType) {
+      final String lambdaIn = "in" + depth;
+      final String reader =
+          lambdaIn + " -> " + getReadExpression(getElementType(type), lambdaIn, depth + 1);
+      if (isListType(rawClass)) {
+        return JSON_STREAM_UTIL + ".readList(" + in + ", " + reader + ")";
+      }
+      return JSON_STREAM_UTIL + ".readMap(" + in + ", " + reader + ")";
+    }
+    if (rawClass == String.class) {
+      return JSON_STREAM_UTIL + ".readString(" + in + ")";
+    }
+    if (rawClass.isPrimitive() || Primitives.isWrapperType(rawClass)) {
+      return JSON_STREAM_UTIL
+          + ".read"
+          + Primitives.wrap(rawClass).getSimpleName()
+          + "("
+          + in
+          + ")";
+    }
+    if (hasGeneratedTypeAdapter(rawClass)) {
+      return getImplNameForDto(rawClass) + ".readJson(gson, " + in + ")";
+    }
+    return "gson.getAdapter(" + rawClass.getCanonicalName() + ".class).read(" + in + ")";
+  }
+
+  /** Returns expression that writes value of the given type to JSON writer. */
+  private String getWriteExpression(Type type, String out, String value, int depth) {
+    final Class<?> rawClass = getRawClass(type);
+    if (type instanceof ParameterizedType) {
+      final String lambdaOut = "out" + depth;
+      final String lambdaValue = "v" + depth;
+      final String writer =
+          "("
+              + lambdaOut
+              + ", "
+              + lambdaValue
+              + ") -> "
+              + getWriteExpression(getElementType(type), lambdaOut, lambdaValue, depth + 1);
+      if (isListType(rawClass)) {
+        return JSON_STREAM_UTIL + ".writeList(" + out + ", " + value + ", " + writer + ")";
+      }
+      return JSON_STREAM_UTIL + ".writeMap(" + out + ", " + value + ", " + writer + ")";
+    }
+    if (rawClass == float.class) {
+      // written as number to get the same output as for Float
+      return out + ".value(Float.valueOf(" + value + "))";
+    }
+    if (rawClass == char.class) {
+      return out + ".value(String.valueOf(" + value + "))";
+    }
+    if (rawClass == Boolean.class || rawClass == Character.class) {
+      return JSON_STREAM_UTIL
+          + ".write"
+          + rawClass.getSimpleName()
+          + "("
+          + out
+          + ", "
+          + value
+          + ")";
+    }
+    if (rawClass == String.class
+        || rawClass.isPrimitive()
+        || (Number.class.isAssignableFrom(rawClass) && Primitives.isWrapperType(rawClass))) {
+      return out + ".value(" + value + ")";
+    }
+    if (hasGeneratedTypeAdapter(rawClass)) {
+      return getImplNameForDto(rawClass) + ".writeJson(gson, " + out + ", " + value + ")";
+    }
+    if (rawClass.isEnum()) {
+      return "gson.getAdapter("
+          + rawClass.getCanonicalName()
+          + ".class).write("
+          + out
+          + ", "
+          + value
+          + ")";
+    }
+    // use adapter of runtime type as Gson does for fields
+    return "gson.getAdapter(Object.class).write(" + out + ", " + value + ")";
+  }
+
+  private boolean canHaveTypeAdapter() {
+    final Class<?> superType = getSuperDtoInterface(getDtoInterface());
+    if (superType != null && superType != JsonSerializable.class) {
+      final Class<?> superTypeImpl = getEnclosingTemplate().getDtoImplementation(superType);
+      if (superTypeImpl == null) {
+        final DtoImplServerTemplate superTemplate = getTemplate(superType);
+        if (superTemplate == null || !superTemplate.hasTypeAdapter()) {
+          return false;
+        }
+      } else if (!hasJsonStreamingMethods(superTypeImpl)) {
+        return false;
+      }
+    }
+    final List<Method> fieldGetters =
+        getFieldGetters(getDtoGetters(getDtoInterface()), getSuperGetterNames(getDtoInterface()));
+    final Set<String> jsonFieldNames = new HashSet<>();
+    for (Method getter : fieldGetters) {
+      if (!jsonFieldNames.add(getJsonFieldName(getter))
+          || !isStreamable(getter.getGenericReturnType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Checks whether the type is a class or list or map with string keys of such types. */
+  private boolean isStreamable(Type type) {
+    if (type instanceof Class<?>) {
+      final Class<?> rawClass = (Class<?>) type;
+      return !isListType(rawClass) && !isMapType(rawClass);
+    }
+    if (type instanceof ParameterizedType) {
+      final Class<?> rawClass = getRawClass(type);
+      final Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
+      if (isMap(rawClass) && typeArguments[0] != String.class) {
+        return false;
+      }
+      return (isListType(rawClass) || isMapType(rawClass)) && isStreamable(getElementType(type));
+    }
+    return false;
+  }
+
+  private static boolean hasJsonStreamingMethods(Class<?> impl) {
+    try {
+      impl.getMethod("readJsonField", Gson.class, JsonReader.class, String.class, impl);
+      impl.getMethod("writeJsonFields", Gson.class, JsonWriter.class, impl);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static boolean isListType(Class<?> rawClass) {
+    return isList(rawClass) || rawClass == JsonArray.class;
+  }
+
+  private static boolean isMapType(Class<?> rawClass) {
+    return isMap(rawClass) || rawClass == JsonStringMap.class;
+  }
+
+  /** Returns type of elements of list or type of values of map. */
+  private static Type getElementType(Type type) {
+    final Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
+    return isMap(getRawClass(type)) ? typeArguments[1] : typeArguments[0];
+  }
+
+  /** Returns getters of fields declared in the implementation, not in super implementation. */
+  private static List<Method> getFieldGetters(List<Method> getters, Set<String> superGetterNames) {
+    final List<Method> fieldGetters = new ArrayList<>();
+    for (Method getter : getters) {
+      if (!superGetterNames.contains(getter.getName())) {
+        fieldGetters.add(getter);
+      }
+    }
+    return fieldGetters;
+  }
+
+  /** Returns name of super implementation class or {@code null} if there is no super DTO. */
+  private String getSuperImplClassName() {
+    final Class<?> superType = getSuperDtoInterface(getDtoInterface());
+    if (superType == null || superType == JsonSerializable.class) {
+      return null;
+    }
+    final Class<?> superTypeImpl = getEnclosingTemplate().getDtoImplementation(superType);
+    return superTypeImpl == null
+        ? superType.getSimpleName() + "Impl"
+        : superTypeImpl.getCanonicalName();
+  }
+
+  /** Checks whether DTO is generated in the same template and can read and write JSON streams. */
+  private boolean hasGeneratedTypeAdapter(Class<?> dtoInterface) {
+    final DtoImplServerTemplate template = getTemplate(dtoInterface);
+    return template != null && template.hasTypeAdapter();
+  }
+
+  private DtoImplServerTemplate getTemplate(Class<?> dtoInterface) {
+    for (DtoImpl dto : getEnclosingTemplate().getDtoInterfaces()) {
+      if (dto.getDtoInterface() == dtoInterface && dto instanceof DtoImplServerTemplate) {
+        return (DtoImplServerTemplate) dto;
+      }
+    }
+    return null;
+  }
+
   private static StringBuilder appendNaiveCopyJsonExpression(
       String inValue, StringBuilder builder) {
     builder.append("((");
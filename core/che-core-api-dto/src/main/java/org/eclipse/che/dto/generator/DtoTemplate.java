@@ -178,6 +178,41 @@ public class DtoTemplate {
     builder.append("\n}");
   }
 
+  /** Emits method of DTO provider that creates adapter which reads and writes JSON streams. */
+  private void emitTypeAdapterFactoryMethod(String implClassName, StringBuilder builder) {
+    builder.append("\n");
+    builder
+        .append("        public com.google.gson.TypeAdapter<")
+        .append(implClassName)
+        .append("> createTypeAdapter(final Gson gson) {\n");
+    builder
+        .append("            return new com.google.gson.TypeAdapter<")
+        .append(implClassName)
+        .append(">() {\n");
+    builder.append("                @Override\n");
+    builder
+        .append("                public void write(com.google.gson.stream.JsonWriter out, ")
+        .append(implClassName)
+        .append(" value) throws java.io.IOException {\n");
+    builder
+        .append("                    ")
+        .append(implClassName)
+        .append(".writeJson(gson, out, value);\n");
+    builder.append("                }\n\n");
+    builder.append("                @Override\n");
+    builder
+        .append("                public ")
+        .append(implClassName)
+        .append(" read(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+    builder
+        .append("                    return ")
+        .append(implClassName)
+        .append(".readJson(gson, in);\n");
+    builder.append("                }\n");
+    builder.append("            };\n");
+    builder.append("        }\n");
+  }
+
   private void emitPreamble(StringBuilder builder) {
     builder.append(
         "/*******************************************************************************\n");
@@ -290,6 +325,9 @@ public class DtoTemplate {
             .append(dto.getImplClassName())
             .append("(origin);\n");
         builder.append("        }\n");
+        if (((DtoImplServerTemplate) dto).hasTypeAdapter()) {
+          emitTypeAdapterFactoryMethod(dto.getImplClassName(), builder);
+        }
         builder.append("    });\n");
       }
       builder.append("  }\n\n");
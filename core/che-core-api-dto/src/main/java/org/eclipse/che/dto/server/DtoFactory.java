@@ -106,6 +106,7 @@ public final class DtoFactory {
               new NullAsEmptyTAF<>(Collection.class, Collections.emptyList()))
           .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Map.class, Collections.emptyMap()))
           .registerTypeAdapterFactory(new DtoInterfaceTAF())
+          .registerTypeAdapterFactory(new DtoImplTAF())
           .create();
 
   /**
@@ -447,6 +448,22 @@ public final class DtoFactory {
     }
   }
 
+  /**
+   * Provides adapters that read and write DTO implementations without reflection if they are
+   * available, see {@link DtoProvider#createTypeAdapter(Gson)}.
+   */
+  private class DtoImplTAF implements TypeAdapterFactory {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+      DtoProvider<?> prov = dtoImpl2Providers.get(type.getRawType());
+      if (prov != null) {
+        return (TypeAdapter<T>) prov.createTypeAdapter(gson);
+      }
+      return null;
+    }
+  }
+
   /**
    * Wraps Gson's default List/Map adapter factories serialize null List/Map fields as empty
    * instead.
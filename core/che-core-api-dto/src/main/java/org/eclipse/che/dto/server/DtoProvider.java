@@ -10,7 +10,9 @@
  */
 package org.eclipse.che.dto.server;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 
 /**
  * Provides implementation of DTO interface.
@@ -27,4 +29,15 @@ public interface DtoProvider<DTO> {
   DTO newInstance();
 
   DTO clone(DTO origin);
+
+  /**
+   * Creates adapter that reads and writes implementation of DTO directly from/to JSON streams.
+   * Returns {@code null} if implementation should be serialized by Gson with reflection.
+   *
+   * @param gson Gson that is used for (de)serialization of values which types are not known to the
+   *     adapter
+   */
+  default TypeAdapter<? extends DTO> createTypeAdapter(Gson gson) {
+    return null;
+  }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.dto.server;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes values of DTO fields from/to JSON streams. Used by type adapters generated for
+ * DTO implementations, values are read and written the same way as Gson does it for fields of DTO
+ * implementations, e.g. {@code null} lists and maps are written as empty ones.
+ */
+public final class JsonStreamUtil {
+
+  /** Reads single value from JSON stream. */
+  public interface ValueReader<T> {
+    T read(JsonReader in) throws IOException;
+  }
+
+  /** Writes single value to JSON stream. */
+  public interface ValueWriter<T> {
+    void write(JsonWriter out, T value) throws IOException;
+  }
+
+  public static String readString(JsonReader in) throws IOException {
+    final JsonToken token = in.peek();
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (token == JsonToken.BOOLEAN) {
+      return Boolean.toString(in.nextBoolean());
+    }
+    return in.nextString();
+  }
+
+  public static Boolean readBoolean(JsonReader in) throws IOException {
+    final JsonToken token = in.peek();
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (token == JsonToken.STRING) {
+      return Boolean.parseBoolean(in.nextString());
+    }
+    return in.nextBoolean();
+  }
+
+  public static Integer readInteger(JsonReader in) throws IOException {
+    if (nextNull(in)) {
+      return null;
+    }
+    try {
+      return in.nextInt();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  public static Long readLong(JsonReader in) throws IOException {
+    if (nextNull(in)) {
+      return null;
+    }
+    try {
+      return in.nextLong();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  public static Short readShort(JsonReader in) throws IOException {
+    final Integer value = readInteger(in);
+    return value == null ? null : value.shortValue();
+  }
+
+  public static Byte readByte(JsonReader in) throws IOException {
+    final Integer value = readInteger(in);
+    return value == null ? null : value.byteValue();
+  }
+
+  public static Double readDouble(JsonReader in) throws IOException {
+    return nextNull(in) ? null : in.nextDouble();
+  }
+
+  public static Float readFloat(JsonReader in) throws IOException {
+    return nextNull(in) ? null : (float) in.nextDouble();
+  }
+
+  public static Character readCharacter(JsonReader in) throws IOException {
+    if (nextNull(in)) {
+      return null;
+    }
+    final String value = in.nextString();
+    if (value.length() != 1) {
+      throw new JsonSyntaxException("Expecting character, got: " + value);
+    }
+    return value.charAt(0);
+  }
+
+  /** Reads JSON array, returns {@code null} if JSON value is null. */
+  public static <T> ArrayList<T> readList(JsonReader in, ValueReader<? extends T> reader)
+      throws IOException {
+    if (nextNull(in)) {
+      return null;
+    }
+    final ArrayList<T> list = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      list.add(reader.read(in));
+    }
+    in.endArray();
+    return list;
+  }
+
+  /**
+   * Reads JSON object or array of key-value pairs, returns {@code null} if JSON value is null.
+   * Order of entries is preserved.
+   */
+  public static <T> HashMap<String, T> readMap(JsonReader in, ValueReader<? extends T> reader)
+      throws IOException {
+    if (nextNull(in)) {
+      return null;
+    }
+    final HashMap<String, T> map = new LinkedHashMap<>();
+    if (in.peek() == JsonToken.BEGIN_ARRAY) {
+      in.beginArray();
+      while (in.hasNext()) {
+        in.beginArray();
+        put(map, readString(in), reader.read(in));
+        in.endArray();
+      }
+      in.endArray();
+    } else {
+      in.beginObject();
+      while (in.hasNext()) {
+        put(map, in.nextName(), reader.read(in));
+      }
+      in.endObject();
+    }
+    return map;
+  }
+
+  public static void writeBoolean(JsonWriter out, Boolean value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+    } else {
+      out.value(value.booleanValue());
+    }
+  }
+
+  public static void writeCharacter(JsonWriter out, Character value) throws IOException {
+    out.value(value == null ? null : String.valueOf(value));
+  }
+
+  /** Writes collection as JSON array, {@code null} collection is written as empty array. */
+  public static <T> void writeList(
+      JsonWriter out, Collection<T> list, ValueWriter<? super T> writer) throws IOException {
+    out.beginArray();
+    if (list != null) {
+      for (T element : list) {
+        writer.write(out, element);
+      }
+    }
+    out.endArray();
+  }
+
+  /** Writes map as JSON object, {@code null} map is written as empty object. */
+  public static <T> void writeMap(
+      JsonWriter out, Map<String, T> map, ValueWriter<? super T> writer) throws IOException {
+    out.beginObject();
+    if (map != null) {
+      for (Map.Entry<String, T> entry : map.entrySet()) {
+        out.name(String.valueOf(entry.getKey()));
+        writer.write(out, entry.getValue());
+      }
+    }
+    out.endObject();
+  }
+
+  private static boolean nextNull(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return true;
+    }
+    return false;
+  }
+
+  private static <T> void put(Map<String, T> map, String key, T value) {
+    if (map.put(key, value) != null) {
+      throw new JsonSyntaxException("duplicate key: " + key);
+    }
+  }
+
+  private JsonStreamUtil() {}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.dto;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.eclipse.che.dto.definitions.ComplicatedDto;
+import org.eclipse.che.dto.definitions.SimpleDto;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Compares throughput and allocation of (de)serialization of DTOs with generated type adapters
+ * against Gson reflection. The benchmark runs only if system property {@code che.test.benchmarks}
+ * is {@code true}, number of iterations may be changed with system property {@code
+ * che.test.dto.iterations}.
+ */
+public class DtoSerializationBenchmarkTest {
+  private static final Logger LOG = LoggerFactory.getLogger(DtoSerializationBenchmarkTest.class);
+
+  private static final DtoFactory dtoFactory = DtoFactory.getInstance();
+
+  /** Gson that serializes DTO implementations with reflection. */
+  private static final Gson reflectiveGson =
+      new GsonBuilder()
+          .registerTypeAdapterFactory(
+              new TypeAdapterFactory() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                  final Class<?> rawType = type.getRawType();
+                  if (rawType.isInterface() && dtoFactory.hasProvider(rawType)) {
+                    return (TypeAdapter<T>)
+                        gson.getAdapter(dtoFactory.createDto(rawType).getClass());
+                  }
+                  return null;
+                }
+              })
+          .create();
+
+  @Test
+  public void shouldWriteSameJsonAsReflectionAndReadItBack() throws Exception {
+    final ComplicatedDto dto = createDto();
+    final String json = dtoFactory.toJson(dto);
+
+    assertEquals(json, reflectiveGson.toJson(dto));
+    assertEquals(dtoFactory.createDtoFromJson(json, ComplicatedDto.class), dto);
+  }
+
+  @Test
+  public void benchmarkGeneratedTypeAdaptersAgainstReflection() throws Exception {
+    if (!Boolean.getBoolean("che.test.benchmarks")) {
+      throw new SkipException("Benchmarks are enabled with system property che.test.benchmarks");
+    }
+    final int iterations = Integer.getInteger("che.test.dto.iterations", 2000);
+    final ComplicatedDto dto = createDto();
+    final Class<?> implClass = dto.getClass();
+    final String json = dtoFactory.toJson(dto);
+
+    measure("write, reflection", iterations, () -> reflectiveGson.toJson(dto));
+    measure("write, generated", iterations, () -> dtoFactory.toJson(dto));
+    measure("read, reflection", iterations, () -> reflectiveGson.fromJson(json, implClass));
+    measure(
+        "read, generated",
+        iterations,
+        () -> dtoFactory.createDtoFromJson(json, ComplicatedDto.class));
+  }
+
+  private static void measure(String name, int iterations, Supplier<?> operation) {
+    // warm up
+    for (int i = 0; i < iterations; i++) {
+      operation.get();
+    }
+    final long allocatedBefore = getAllocatedBytes();
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      operation.get();
+    }
+    final long nanos = System.nanoTime() - start;
+    final long allocated = getAllocatedBytes() - allocatedBefore;
+    LOG.info(
+        "{}: {} ops/s, {} bytes allocated per op",
+        name,
+        iterations * 1_000_000_000L / Math.max(nanos, 1),
+        allocatedBefore < 0 ? "unknown" : allocated / iterations);
+  }
+
+  /** Returns number of bytes allocated by current thread or -1 if JVM doesn't provide it. */
+  private static long getAllocatedBytes() {
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threadBean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+  private static ComplicatedDto createDto() {
+    final List<SimpleDto> simpleDtos = new ArrayList<>();
+    final Map<String, SimpleDto> map = new HashMap<>();
+    final List<String> strings = new ArrayList<>();
+    final List<List<ComplicatedDto.SimpleEnum>> enums = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      final SimpleDto simpleDto =
+          dtoFactory
+              .createDto(SimpleDto.class)
+              .withId(i)
+              .withName("name-" + i)
+              .withDefault("/projects/project-" + i);
+      simpleDtos.add(simpleDto);
+      map.put("key-" + i, simpleDto);
+      strings.add("value-" + i);
+      enums.add(new ArrayList<>(asList(ComplicatedDto.SimpleEnum.values())));
+    }
+    return dtoFactory
+        .createDto(ComplicatedDto.class)
+        .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+        .withSimpleDtos(simpleDtos)
+        .withMap(map)
+        .withStrings(strings)
+        .withArrayOfArrayOfEnum(enums);
+  }
+}
@@ -12,6 +12,7 @@ package org.eclipse.che.dto;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 import com.google.gson.Gson;
@@ -21,6 +22,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +32,7 @@ import org.eclipse.che.dto.definitions.DTOHierarchy.GrandchildDto;
 import org.eclipse.che.dto.definitions.DtoWithAny;
 import org.eclipse.che.dto.definitions.DtoWithDelegate;
 import org.eclipse.che.dto.definitions.DtoWithFieldNames;
+import org.eclipse.che.dto.definitions.DtoWithPrimitives;
 import org.eclipse.che.dto.definitions.SimpleDto;
 import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
@@ -448,4 +451,59 @@ public class ServerDtoTest {
   public void shouldThrowExceptionWhenInterfaceIsNotAnnotatedAsDto() {
     DtoFactory.newDto(DTOHierarchy.GrandchildWithoutDto.class);
   }
+
+  @Test
+  public void shouldSerializePrimitiveAndBoxedValues() throws Exception {
+    final DtoWithPrimitives dto =
+        dtoFactory
+            .createDto(DtoWithPrimitives.class)
+            .withSize(1L << 40)
+            .withRatio(0.5)
+            .withWeight(1.1F)
+            .withEnabled(true)
+            .withAttributes(Collections.singletonMap("key", asList("a", "b")));
+
+    assertEquals(
+        new JsonParser().parse(dtoFactory.toJson(dto)),
+        new JsonParser()
+            .parse(
+                "{\"size\":1099511627776,\"ratio\":0.5,\"weight\":1.1,\"enabled\":true,"
+                    + "\"attributes\":{\"key\":[\"a\",\"b\"]}}"));
+  }
+
+  @Test
+  public void shouldDeserializePrimitiveAndBoxedValues() throws Exception {
+    final DtoWithPrimitives dto =
+        dtoFactory
+            .createDto(DtoWithPrimitives.class)
+            .withSize(42)
+            .withRatio(2.5)
+            .withWeight(0.25F)
+            .withEnabled(true)
+            .withVisible(false)
+            .withCount(7)
+            .withAttributes(Collections.singletonMap("key", asList("a", "b")));
+
+    assertEquals(
+        dtoFactory.createDtoFromJson(dtoFactory.toJson(dto), DtoWithPrimitives.class), dto);
+  }
+
+  @Test
+  public void shouldReadValuesLenientlyAndSkipUnknownFields() throws Exception {
+    final DtoWithPrimitives dto =
+        dtoFactory.createDtoFromJson(
+            "{\"size\":\"12\",\"enabled\":\"true\",\"unknown\":{\"a\":[1,2]},"
+                + "\"count\":null,\"attributes\":[[\"key\",[\"a\"]]]}",
+            DtoWithPrimitives.class);
+
+    assertEquals(dto.getSize(), 12L);
+    assertTrue(dto.isEnabled());
+    assertNull(dto.getCount());
+    assertEquals(dto.getAttributes(), Collections.singletonMap("key", asList("a")));
+  }
+
+  @Test
+  public void shouldReturnNullWhenJsonIsNull() throws Exception {
+    assertNull(dtoFactory.createDtoFromJson("null", DtoWithPrimitives.class));
+  }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.dto.definitions;
+
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * DTO for testing that the {@link org.eclipse.che.dto.generator.DtoGenerator} correctly generates
+ * reading and writing of primitive, boxed and nested collection values.
+ */
+@DTO
+public interface DtoWithPrimitives {
+  long getSize();
+
+  DtoWithPrimitives withSize(long size);
+
+  double getRatio();
+
+  DtoWithPrimitives withRatio(double ratio);
+
+  float getWeight();
+
+  DtoWithPrimitives withWeight(float weight);
+
+  boolean isEnabled();
+
+  DtoWithPrimitives withEnabled(boolean enabled);
+
+  Boolean getVisible();
+
+  DtoWithPrimitives withVisible(Boolean visible);
+
+  Integer getCount();
+
+  DtoWithPrimitives withCount(Integer count);
+
+  Map<String, List<String>> getAttributes();
+
+  DtoWithPrimitives withAttributes(Map<String, List<String>> attributes);
+}
@@ -94,8 +94,11 @@ public class JsonRpcWebSocketAgentEventListener implements WsAgentStateHandler {
     String wsAgentUrl = wsAgentWebSocketUrl.replaceFirst("api/ws", "wsagent");
     String execAgentUrl = devMachine.getExecAgentUrl();
     String separator = wsAgentUrl.contains("?") ? "&" : "?";
+    // client accepts JSON RPC batches, so server may join frequent messages into a single frame
     String queryParams =
-        appContext.getApplicationWebsocketId().map(id -> separator + "clientId=" + id).orElse("");
+        separator
+            + "batch=true"
+            + appContext.getApplicationWebsocketId().map(id -> "&clientId=" + id).orElse("");
     Set<Runnable> initActions =
         appContext.getApplicationWebsocketId().isPresent()
             ? emptySet()
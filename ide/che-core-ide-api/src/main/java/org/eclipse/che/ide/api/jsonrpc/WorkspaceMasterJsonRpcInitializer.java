@@ -74,8 +74,11 @@ public class WorkspaceMasterJsonRpcInitializer {
     String context = getWebsocketContext();
     String url = protocol + host + context;
     String separator = url.contains("?") ? "&" : "?";
+    // client accepts JSON RPC batches, so server may join frequent messages into a single frame
     String queryParams =
-        appContext.getApplicationWebsocketId().map(id -> separator + "clientId=" + id).orElse("");
+        separator
+            + "batch=true"
+            + appContext.getApplicationWebsocketId().map(id -> "&clientId=" + id).orElse("");
     Set<Runnable> initActions =
         appContext.getApplicationWebsocketId().isPresent()
             ? emptySet()
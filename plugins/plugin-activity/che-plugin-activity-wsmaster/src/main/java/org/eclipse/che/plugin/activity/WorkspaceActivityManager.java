@@ -51,7 +51,7 @@ public class WorkspaceActivityManager {
   private final long timeout;
   private final Map<String, Long> activeWorkspaces;
   private final EventService eventService;
-  private final EventSubscriber<?> workspaceEventsSubscriber;
+  private final EventSubscriber<WorkspaceStatusEvent> workspaceEventsSubscriber;
 
   protected final WorkspaceManager workspaceManager;
 
@@ -145,6 +145,10 @@ public class WorkspaceActivityManager {
   @VisibleForTesting
   @PostConstruct
   public void subscribe() {
-    eventService.subscribe(workspaceEventsSubscriber);
+    // updates workspace, so it must not block publishers of workspace events
+    eventService.subscribeAsync(
+        workspaceEventsSubscriber,
+        WorkspaceStatusEvent.class,
+        WorkspaceStatusEvent::getWorkspaceId);
   }
 }
@@ -10,7 +10,9 @@
  */
 package org.eclipse.che.plugin.activity;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -19,6 +21,7 @@ import static org.testng.Assert.assertTrue;
 
 import java.lang.reflect.Field;
 import java.util.Map;
+import java.util.function.Function;
 import org.eclipse.che.account.api.AccountManager;
 import org.eclipse.che.account.shared.model.Account;
 import org.eclipse.che.api.core.notification.EventService;
@@ -101,7 +104,8 @@ public class WorkspaceActivityManagerTest {
   public void shouldAddWorkspaceForTrackActivityWhenWorkspaceRunning() throws Exception {
     final String wsId = "testWsId";
     activityManager.subscribe();
-    verify(eventService).subscribe(captor.capture());
+    verify(eventService)
+        .subscribeAsync(captor.capture(), eq(WorkspaceStatusEvent.class), any(Function.class));
     final EventSubscriber<WorkspaceStatusEvent> subscriber = captor.getValue();
 
     subscriber.onEvent(
@@ -119,7 +123,8 @@ public class WorkspaceActivityManagerTest {
     final long expiredTime = 1000L;
     activityManager.update(wsId, expiredTime);
     activityManager.subscribe();
-    verify(eventService).subscribe(captor.capture());
+    verify(eventService)
+        .subscribeAsync(captor.capture(), eq(WorkspaceStatusEvent.class), any(Function.class));
     final EventSubscriber<WorkspaceStatusEvent> subscriber = captor.getValue();
 
     final Map<String, Long> activeWorkspaces = getActiveWorkspaces(activityManager);
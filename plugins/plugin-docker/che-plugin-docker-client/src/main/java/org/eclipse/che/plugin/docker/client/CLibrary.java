@@ -11,6 +11,7 @@
 package org.eclipse.che.plugin.docker.client;
 
 import com.sun.jna.Library;
+import com.sun.jna.Platform;
 import com.sun.jna.Structure;
 import com.sun.jna.ptr.LongByReference;
 import java.util.Arrays;
@@ -46,6 +47,22 @@ public interface CLibrary extends Library {
     }
   }
 
+  // Defined in 'sys/epoll.h', see http://man7.org/linux/man-pages/man2/epoll_ctl.2.html
+  // The structure is packed on x86_64, so its 'data' field isn't aligned there.
+  class EpollEvent extends Structure {
+    public int events;
+    public long data;
+
+    public EpollEvent() {
+      super(Platform.isIntel() && Platform.is64Bit() ? ALIGN_NONE : ALIGN_DEFAULT);
+    }
+
+    @Override
+    protected List getFieldOrder() {
+      return Arrays.asList("events", "data");
+    }
+  }
+
   int socket(int domain, int type, int protocol);
 
   int connect(int fd, SockAddrUn sock_addr, int addr_len);
@@ -66,8 +83,21 @@ public interface CLibrary extends Library {
 
   int eventfd_read(int fd, LongByReference val);
 
+  int eventfd_write(int fd, long val);
+
+  int epoll_create1(int flags);
+
+  int epoll_ctl(int epfd, int op, int fd, EpollEvent event);
+
+  int epoll_wait(int epfd, EpollEvent events, int maxevents, int timeout);
+
   int open(String path, int mode);
 
   int O_RDONLY = 0x00;
   int O_WRONLY = 0x01;
+
+  int EPOLLIN = 0x001;
+  int EPOLL_CTL_ADD = 1;
+  int EPOLL_CTL_DEL = 2;
+  int EINTR = 4;
 }
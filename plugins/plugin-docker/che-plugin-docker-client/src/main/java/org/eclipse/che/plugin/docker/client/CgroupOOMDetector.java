@@ -10,9 +10,11 @@
  */
 package org.eclipse.che.plugin.docker.client;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jna.Native;
 import com.sun.jna.ptr.LongByReference;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -20,10 +22,16 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import javax.inject.Inject;
 import org.eclipse.che.api.core.util.SystemInfo;
 import org.eclipse.che.commons.lang.Size;
@@ -32,17 +40,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Docker container OOM detector based on cgroup usage
+ * Docker container OOM detector based on cgroup usage.
+ *
+ * <p>Cgroup OOM event file descriptors of all the containers are registered in a single epoll set
+ * which is watched by one thread, so number of threads doesn't depend on number of containers.
+ * Received events are processed by a separate thread, so slow log processors don't delay detection
+ * for other containers.
  *
  * @author Alexander Garagatyi
  */
 public class CgroupOOMDetector implements DockerOOMDetector {
   private static final Logger LOG = LoggerFactory.getLogger(CgroupOOMDetector.class);
 
+  private static final int MAX_EVENTS = 64;
+
   private final Map<String, OOMDetector> oomDetectors;
+  private final Map<Integer, OOMDetector> eventFdDetectors;
+  private final Queue<OOMDetector> detectorsToClose;
   private final URI dockerDaemonUri;
   private final DockerConnector dockerConnector;
-  private final ExecutorService executor;
+  private final ThreadFactory threadFactory;
+  private final ExecutorService eventExecutor;
+
+  private Thread reactor;
+  private int epollFd = -1;
+  private int wakeUpFd = -1;
 
   @Inject
   public CgroupOOMDetector(
@@ -54,20 +76,27 @@ public class CgroupOOMDetector implements DockerOOMDetector {
     this.dockerDaemonUri = dockerDaemonUri;
     this.dockerConnector = dockerConnectorProvider.get();
     this.oomDetectors = new ConcurrentHashMap<>();
-    this.executor =
-        Executors.newCachedThreadPool(
-            new ThreadFactoryBuilder()
-                .setNameFormat("CgroupOOMDetector-%d")
-                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
-                .setDaemon(true)
-                .build());
+    this.eventFdDetectors = new ConcurrentHashMap<>();
+    this.detectorsToClose = new ConcurrentLinkedQueue<>();
+    this.threadFactory =
+        new ThreadFactoryBuilder()
+            .setNameFormat("CgroupOOMDetector-%d")
+            .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+            .setDaemon(true)
+            .build();
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(1, 1, 60, SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    this.eventExecutor = executor;
   }
 
   @Override
   public void stopDetection(String container) {
     final OOMDetector oomDetector = oomDetectors.remove(container);
     if (oomDetector != null) {
-      oomDetector.stop();
+      // descriptors are closed by reactor thread, so it never reads descriptor reused by others
+      detectorsToClose.add(oomDetector);
+      wakeUpReactor();
     }
   }
 
@@ -81,10 +110,13 @@ public class CgroupOOMDetector implements DockerOOMDetector {
       try {
         final long memory =
             dockerConnector.inspectContainer(container).getConfig().getHostConfig().getMemory();
-        OOMDetector oomDetector = new OOMDetector(container, containerLogProcessor, memory);
-        oomDetectors.putIfAbsent(container, oomDetector);
-        oomDetector = oomDetectors.get(container);
-        oomDetector.start();
+        if (!startReactor()) {
+          return;
+        }
+        final OOMDetector oomDetector = new OOMDetector(container, containerLogProcessor, memory);
+        if (oomDetectors.putIfAbsent(container, oomDetector) == null && !oomDetector.start()) {
+          oomDetectors.remove(container, oomDetector);
+        }
       } catch (IOException e) {
         LOG.error(e.getLocalizedMessage(), e);
       }
@@ -106,6 +138,110 @@ public class CgroupOOMDetector implements DockerOOMDetector {
     return false;
   }
 
+  /** Creates epoll set and starts thread which watches it, if it isn't started yet. */
+  private synchronized boolean startReactor() {
+    if (reactor != null) {
+      return true;
+    }
+    final CLibrary cLib = getCLibrary();
+    if ((epollFd = cLib.epoll_create1(0)) == -1) {
+      LOG.error("Unable create epoll instance: {}", cLib.strerror(Native.getLastError()));
+      return false;
+    }
+    if ((wakeUpFd = cLib.eventfd(0, 0)) == -1 || !register(cLib, wakeUpFd)) {
+      LOG.error("Unable create a file descriptor for wake up of OOM detector");
+      if (wakeUpFd != -1) {
+        cLib.close(wakeUpFd);
+      }
+      cLib.close(epollFd);
+      return false;
+    }
+    reactor = threadFactory.newThread(this::react);
+    reactor.start();
+    return true;
+  }
+
+  private boolean register(CLibrary cLib, int fd) {
+    final CLibrary.EpollEvent event = new CLibrary.EpollEvent();
+    event.events = CLibrary.EPOLLIN;
+    event.data = fd;
+    return cLib.epoll_ctl(epollFd, CLibrary.EPOLL_CTL_ADD, fd, event) == 0;
+  }
+
+  private void wakeUpReactor() {
+    final int fd;
+    synchronized (this) {
+      fd = wakeUpFd;
+    }
+    if (fd != -1) {
+      getCLibrary().eventfd_write(fd, 1);
+    }
+  }
+
+  /** Waits for OOM events of all the containers and dispatches them to the detectors. */
+  private void react() {
+    final CLibrary cLib = getCLibrary();
+    final CLibrary.EpollEvent[] events =
+        (CLibrary.EpollEvent[]) new CLibrary.EpollEvent().toArray(MAX_EVENTS);
+    final LongByReference eventHolder = new LongByReference();
+    while (true) {
+      final int count = cLib.epoll_wait(epollFd, events[0], events.length, -1);
+      if (count == -1) {
+        final int errno = Native.getLastError();
+        if (errno == CLibrary.EINTR) {
+          continue;
+        }
+        LOG.error("Waiting of OOM events failed: {}", cLib.strerror(errno));
+        stopReactor();
+        return;
+      }
+      for (int i = 0; i < count; i++) {
+        events[i].read();
+        final int fd = (int) events[i].data;
+        cLib.eventfd_read(fd, eventHolder);
+        if (fd != wakeUpFd) {
+          final OOMDetector oomDetector = eventFdDetectors.remove(fd);
+          if (oomDetector != null && oomDetectors.remove(oomDetector.container, oomDetector)) {
+            oomDetector.close();
+            eventExecutor.execute(oomDetector::onEvent);
+          }
+        }
+      }
+      OOMDetector oomDetector;
+      while ((oomDetector = detectorsToClose.poll()) != null) {
+        oomDetector.close();
+      }
+    }
+  }
+
+  /**
+   * Closes epoll set after failure of the reactor thread, so the next start of detection creates a
+   * new one. Detectors registered in the closed set can't receive events, so they are stopped.
+   */
+  private void stopReactor() {
+    final CLibrary cLib = getCLibrary();
+    final List<OOMDetector> stopped;
+    synchronized (this) {
+      // detectors started after reset belong to the next reactor
+      stopped = new ArrayList<>(oomDetectors.values());
+      cLib.close(wakeUpFd);
+      cLib.close(epollFd);
+      wakeUpFd = -1;
+      epollFd = -1;
+      reactor = null;
+    }
+    for (OOMDetector oomDetector : stopped) {
+      if (oomDetectors.remove(oomDetector.container, oomDetector)) {
+        LOG.warn("OOM detection for container '{}' is stopped", oomDetector.container);
+        oomDetector.close();
+      }
+    }
+    OOMDetector oomDetector;
+    while ((oomDetector = detectorsToClose.poll()) != null) {
+      oomDetector.close();
+    }
+  }
+
   /*
    * Need detect OOM errors and notify users about them. Without such notification if application is killed by oom-killer client often can
    * see message "Killed" and there is no any why to see why. Unfortunately for now docker doesn't provide clear mechanism how to control
@@ -172,15 +308,16 @@ public class CgroupOOMDetector implements DockerOOMDetector {
    *
    * <p>https://access.redhat.com/documentation/en-US/Red_Hat_Enterprise_Linux/6/html/Resource_Management_Guide/sec-Using_the_Notification_API.html
    */
-  private class OOMDetector implements Runnable {
+  private class OOMDetector {
     private final String container;
     private final MessageProcessor<LogMessage> containerLogProcessor;
     private final long memory;
     private final CLibrary cLib;
     private final String containerCgroup;
 
-    private volatile boolean stopped = false;
-    private boolean started = false;
+    private int efd = -1;
+    private int oomfd = -1;
+    private boolean closed;
 
     OOMDetector(String container, MessageProcessor<LogMessage> containerLogProcessor, long memory) {
       this.container = container;
@@ -195,67 +332,85 @@ public class CgroupOOMDetector implements DockerOOMDetector {
       }
     }
 
-    @Override
-    public void run() {
+    /**
+     * Registers event file descriptor for OOM events of the container in epoll set.
+     *
+     * @return {@code true} if the detector is started, {@code false} otherwise
+     */
+    synchronized boolean start() {
+      if (closed) {
+        return false;
+      }
       final String cf = containerCgroup + "cgroup.event_control";
       final String oomf = containerCgroup + "memory.oom_control";
-      int efd = -1;
-      int oomfd = -1;
-      try {
-        if ((efd = cLib.eventfd(0, 1)) == -1) {
-          LOG.error("Unable create a file descriptor for event notification");
-          return;
-        }
-        int cfd;
-        if ((cfd = cLib.open(cf, CLibrary.O_WRONLY)) == -1) {
-          LOG.error("Unable open event control file '{}' for write", cf);
-          return;
-        }
-        if ((oomfd = cLib.open(oomf, CLibrary.O_RDONLY)) == -1) {
-          LOG.error("Unable open OOM event file '{}' for read", oomf);
-          return;
-        }
-        final byte[] data = String.format("%d %d", efd, oomfd).getBytes();
-        if (cLib.write(cfd, data, data.length) != data.length) {
-          LOG.error("Unable write event control data to file '{}'", cf);
-          return;
-        }
-        if (cLib.close(cfd) == -1) {
-          LOG.error("Error closing of event control file '{}'", cf);
-          return;
-        }
-        final LongByReference eventHolder = new LongByReference();
-        if (cLib.eventfd_read(efd, eventHolder) == 0) {
-          if (stopped) {
-            return;
-          }
-          LOG.warn("OOM event received for container '{}'", container);
-          if (readCgroupValue("memory.failcnt") > 0) {
-            try {
-              containerLogProcessor.process(
-                  new LogMessage(
-                      LogMessage.Type.DOCKER,
-                      "[ERROR] The processes in this machine need more RAM. This machine started with "
-                          + Size.toHumanSize(memory)));
-              containerLogProcessor.process(
-                  new LogMessage(
-                      LogMessage.Type.DOCKER,
-                      "[ERROR] Create a new machine configuration that allocates additional RAM or increase"
-                          + " the workspace RAM limit in the user dashboard."));
-            } catch (/*IOException*/ Exception e) {
-              LOG.warn(e.getMessage(), e);
-            }
-          }
-        }
-      } finally {
-        if (!stopped) {
-          stopDetection(container);
+      if ((efd = cLib.eventfd(0, 1)) == -1) {
+        LOG.error("Unable create a file descriptor for event notification");
+        return false;
+      }
+      int cfd;
+      if ((cfd = cLib.open(cf, CLibrary.O_WRONLY)) == -1) {
+        LOG.error("Unable open event control file '{}' for write", cf);
+        close();
+        return false;
+      }
+      if ((oomfd = cLib.open(oomf, CLibrary.O_RDONLY)) == -1) {
+        LOG.error("Unable open OOM event file '{}' for read", oomf);
+        cLib.close(cfd);
+        close();
+        return false;
+      }
+      final byte[] data = String.format("%d %d", efd, oomfd).getBytes();
+      if (cLib.write(cfd, data, data.length) != data.length) {
+        LOG.error("Unable write event control data to file '{}'", cf);
+        cLib.close(cfd);
+        close();
+        return false;
+      }
+      if (cLib.close(cfd) == -1) {
+        LOG.error("Error closing of event control file '{}'", cf);
+        close();
+        return false;
+      }
+      eventFdDetectors.put(efd, this);
+      if (!register(cLib, efd)) {
+        LOG.error("Unable register OOM event file descriptor of container '{}'", container);
+        close();
+        return false;
+      }
+      return true;
+    }
+
+    /** Called when OOM event of the container is received or its cgroup is removed. */
+    void onEvent() {
+      LOG.warn("OOM event received for container '{}'", container);
+      if (readCgroupValue("memory.failcnt") > 0) {
+        try {
+          containerLogProcessor.process(
+              new LogMessage(
+                  LogMessage.Type.DOCKER,
+                  "[ERROR] The processes in this machine need more RAM. This machine started with "
+                      + Size.toHumanSize(memory)));
+          containerLogProcessor.process(
+              new LogMessage(
+                  LogMessage.Type.DOCKER,
+                  "[ERROR] Create a new machine configuration that allocates additional RAM or increase"
+                      + " the workspace RAM limit in the user dashboard."));
+        } catch (/*IOException*/ Exception e) {
+          LOG.warn(e.getMessage(), e);
         }
-        close(oomfd);
-        close(efd);
       }
     }
 
+    /** Closes descriptors of the detector, closed event descriptor is removed from epoll set. */
+    synchronized void close() {
+      closed = true;
+      eventFdDetectors.remove(efd, this);
+      close(oomfd);
+      close(efd);
+      oomfd = -1;
+      efd = -1;
+    }
+
     private void close(int fd) {
       if (fd != -1) {
         cLib.close(fd);
@@ -274,16 +429,5 @@ public class CgroupOOMDetector implements DockerOOMDetector {
       }
       return 0;
     }
-
-    synchronized void start() {
-      if (!started) {
-        started = true;
-        executor.execute(this);
-      }
-    }
-
-    void stop() {
-      stopped = true;
-    }
   }
 }
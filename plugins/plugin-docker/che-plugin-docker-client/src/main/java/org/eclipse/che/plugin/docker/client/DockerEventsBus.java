@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.Filters;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams containers events of docker daemon over a single connection and dispatches them to
+ * processors subscribed to events of particular containers.
+ *
+ * <p>Only {@code die} and {@code oom} events and events declared by subscribers are requested from
+ * the daemon. When a subscriber declares a new event, the stream is requested again with it after
+ * the next received event.
+ *
+ * <p>When the connection is broken events stream is requested again since the time of the last
+ * received event, events of that second which were already dispatched are skipped.
+ */
+@Singleton
+public class DockerEventsBus {
+  private static final Logger LOG = LoggerFactory.getLogger(DockerEventsBus.class);
+
+  private static final long RECONNECT_DELAY_MS = 1000;
+  private static final String[] DEFAULT_EVENTS = {"die", "oom"};
+
+  private final DockerConnector dockerConnector;
+  private final ConcurrentMap<String, List<MessageProcessor<Event>>> subscribers;
+  private final ExecutorService executor;
+  private final Set<String> events;
+
+  private volatile boolean eventsChanged;
+
+  /** Time of the last dispatched event, in seconds. */
+  private volatile long lastEventTime;
+  /** Events of the second {@link #lastEventTime} which are already dispatched. */
+  private final Set<String> lastSecondEvents = new HashSet<>();
+
+  @Inject
+  public DockerEventsBus(DockerConnectorProvider dockerConnectorProvider) {
+    this.dockerConnector = dockerConnectorProvider.get();
+    this.subscribers = new ConcurrentHashMap<>();
+    this.events = ConcurrentHashMap.newKeySet();
+    this.events.addAll(Arrays.asList(DEFAULT_EVENTS));
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("DockerEventsBus-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Subscribes processor to events of the container. Processor gets {@code die} and {@code oom}
+   * events, events declared by other subscribers may be passed to it too.
+   *
+   * @param containerId id of the container
+   * @param processor processor of the container events
+   * @param events names of events the processor needs besides {@code die} and {@code oom}, e.g.
+   *     {@code start}
+   */
+  public void subscribe(String containerId, MessageProcessor<Event> processor, String... events) {
+    if (this.events.addAll(Arrays.asList(events))) {
+      eventsChanged = true;
+    }
+    subscribers.computeIfAbsent(containerId, id -> new CopyOnWriteArrayList<>()).add(processor);
+  }
+
+  /**
+   * Unsubscribes processor from events of the container.
+   *
+   * @param containerId id of the container
+   * @param processor processor of the container events
+   */
+  public void unsubscribe(String containerId, MessageProcessor<Event> processor) {
+    subscribers.computeIfPresent(
+        containerId,
+        (id, processors) -> {
+          processors.remove(processor);
+          return processors.isEmpty() ? null : processors;
+        });
+  }
+
+  @PostConstruct
+  void start() {
+    executor.execute(
+        () -> {
+          while (!Thread.currentThread().isInterrupted()) {
+            try {
+              pump();
+            } catch (EventsChangedException e) {
+              LOG.debug("Requesting docker events again with new events filter");
+            } catch (IOException e) {
+              // usually connection timeout
+              LOG.debug(e.getLocalizedMessage(), e);
+              try {
+                TimeUnit.MILLISECONDS.sleep(RECONNECT_DELAY_MS);
+              } catch (InterruptedException ignored) {
+                return;
+              }
+            }
+          }
+        });
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Reads events stream until it ends or events are changed, stream starts from the time of the
+   * last event.
+   *
+   * @throws EventsChangedException if events to stream are changed
+   */
+  void pump() throws IOException {
+    eventsChanged = false;
+    dockerConnector.getEvents(
+        GetEventsParams.create()
+            .withSinceSecond(lastEventTime)
+            .withFilters(new Filters().withFilter("event", events.toArray(new String[0]))),
+        event -> {
+          dispatch(event);
+          if (eventsChanged) {
+            throw new EventsChangedException();
+          }
+        });
+  }
+
+  void dispatch(Event event) {
+    if (event.getType() != null && !"container".equals(event.getType())) {
+      // this check is added because of bug in the docker swarm which do not filter events
+      return;
+    }
+    String containerId = event.getId();
+    if (containerId == null && event.getActor() != null) {
+      containerId = event.getActor().getId();
+    }
+    if (containerId == null || !markDispatched(containerId, event)) {
+      return;
+    }
+    final List<MessageProcessor<Event>> processors = subscribers.get(containerId);
+    if (processors != null) {
+      for (MessageProcessor<Event> processor : processors) {
+        try {
+          processor.process(event);
+        } catch (RuntimeException e) {
+          LOG.error(e.getLocalizedMessage(), e);
+        }
+      }
+    }
+  }
+
+  long getLastEventTime() {
+    return lastEventTime;
+  }
+
+  /**
+   * Returns {@code false} if the event is already dispatched, e.g. before reconnection. Events
+   * without time in nanoseconds can't be told apart within a second, so they are not de-duplicated.
+   */
+  private boolean markDispatched(String containerId, Event event) {
+    final long time = event.getTime();
+    final String key =
+        containerId + '#' + event.getStatus() + '#' + event.getAction() + '#' + event.getTimeNano();
+    if (time < lastEventTime) {
+      return false;
+    }
+    if (time > lastEventTime) {
+      lastEventTime = time;
+      lastSecondEvents.clear();
+    }
+    return event.getTimeNano() == 0 || lastSecondEvents.add(key);
+  }
+
+  /** Ends events stream when it has to be requested with new events filter. */
+  static class EventsChangedException extends RuntimeException {}
+}
@@ -63,6 +63,11 @@ public class ChunkedInputStream extends InputStream {
     return (chunkSize - chunkPos);
   }
 
+  /** Returns {@code true} if the last chunk is read. */
+  synchronized boolean isEof() {
+    return eof;
+  }
+
   private int doRead(byte[] b, int off, int len) throws IOException {
     if (eof) {
       return -1;
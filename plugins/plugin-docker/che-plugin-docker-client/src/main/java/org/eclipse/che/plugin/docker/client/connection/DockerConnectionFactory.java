@@ -19,7 +19,8 @@ import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
 /**
  * Factory for connections to docker API.
  *
- * <p>Detects connection implementation by checking docker daemon URI.
+ * <p>Detects connection implementation by checking docker daemon URI. If {@link
+ * DockerConnectionPool} is enabled connections reuse sockets to docker daemon.
  *
  * @author Alexander Garagatyi
  */
@@ -38,18 +39,50 @@ public class DockerConnectionFactory {
   private int connectionReadTimeoutMs = 60000;
 
   private final DockerCertificates dockerCertificates;
+  private final DockerConnectionPool connectionPool;
 
   @Inject
-  public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
+  public DockerConnectionFactory(
+      DockerConnectorConfiguration connectorConfiguration, DockerConnectionPool connectionPool) {
     this.dockerCertificates = connectorConfiguration.getDockerCertificates();
+    this.connectionPool = connectionPool;
   }
 
   public DockerConnection openConnection(URI dockerDaemonUri) {
-    if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
+    final boolean unixSocket = DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri);
+    if (connectionPool.isEnabled()) {
+      if (!unixSocket) {
+        checkTcpUri(dockerDaemonUri);
+      }
+      return new PooledDockerConnection(
+          dockerDaemonUri,
+          connectionPool,
+          unixSocket
+              ? () -> DockerSocket.unix(dockerDaemonUri)
+              : () ->
+                  DockerSocket.tcp(
+                      dockerDaemonUri,
+                      dockerCertificates,
+                      connectionTimeoutMs,
+                      connectionReadTimeoutMs));
+    }
+    if (unixSocket) {
       return new UnixSocketConnection(dockerDaemonUri.getPath());
     } else {
       return new TcpConnection(
           dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs);
     }
   }
+
+  private void checkTcpUri(URI dockerDaemonUri) {
+    if ("https".equals(dockerDaemonUri.getScheme())) {
+      if (dockerCertificates == null) {
+        throw new IllegalArgumentException("Certificates are required for https connection.");
+      }
+    } else if (!("http".equals(dockerDaemonUri.getScheme()))) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid URL '%s', only http and https protocols are supported.", dockerDaemonUri));
+    }
+  }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client.connection;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.inject.Inject;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps sockets to docker daemons open between requests, so a request may reuse socket of a
+ * previous one instead of connecting again. Number of sockets in use by requests to a single
+ * daemon is limited, when the limit is reached requests wait for a socket to be released. Socket
+ * of a response which may be a stream, e.g. attach, logs or events, stops counting towards the
+ * limit as soon as it is {@link #detach(DockerSocket) detached}, so long living streams never
+ * block other requests. Idle sockets are closed after idle timeout and checked to be still open
+ * before reuse.
+ *
+ * <p>Pooling is disabled if max number of idle sockets is not positive.
+ */
+@Singleton
+public class DockerConnectionPool {
+  private static final Logger LOG = LoggerFactory.getLogger(DockerConnectionPool.class);
+
+  public static final String MAX_PER_DAEMON_PROPERTY = "che.docker.connection_pool.max_per_daemon";
+  public static final String MAX_IDLE_PER_DAEMON_PROPERTY =
+      "che.docker.connection_pool.max_idle_per_daemon";
+  public static final String IDLE_TIMEOUT_MS_PROPERTY =
+      "che.docker.connection_pool.idle_timeout_ms";
+  public static final String ACQUIRE_TIMEOUT_MS_PROPERTY =
+      "che.docker.connection_pool.acquire_timeout_ms";
+
+  /** Opens a new socket to docker daemon. */
+  interface SocketOpener {
+    DockerSocket open() throws IOException;
+  }
+
+  @Inject(optional = true)
+  @Named(MAX_PER_DAEMON_PROPERTY)
+  private int maxPerDaemon = 200;
+
+  @Inject(optional = true)
+  @Named(MAX_IDLE_PER_DAEMON_PROPERTY)
+  private int maxIdlePerDaemon = 16;
+
+  @Inject(optional = true)
+  @Named(IDLE_TIMEOUT_MS_PROPERTY)
+  private long idleTimeoutMs = 30_000;
+
+  @Inject(optional = true)
+  @Named(ACQUIRE_TIMEOUT_MS_PROPERTY)
+  private long acquireTimeoutMs = 60_000;
+
+  private final ConcurrentMap<URI, DaemonSockets> daemons = new ConcurrentHashMap<>();
+
+  private final AtomicLong opened = new AtomicLong();
+  private final AtomicLong reused = new AtomicLong();
+  private final AtomicLong evicted = new AtomicLong();
+
+  public DockerConnectionPool() {}
+
+  DockerConnectionPool(
+      int maxPerDaemon, int maxIdlePerDaemon, long idleTimeoutMs, long acquireTimeoutMs) {
+    this.maxPerDaemon = maxPerDaemon;
+    this.maxIdlePerDaemon = maxIdlePerDaemon;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.acquireTimeoutMs = acquireTimeoutMs;
+  }
+
+  /** Returns {@code true} if sockets are kept open between requests. */
+  public boolean isEnabled() {
+    return maxIdlePerDaemon > 0;
+  }
+
+  /** Returns number of sockets opened to daemons. */
+  public long getOpenedSockets() {
+    return opened.get();
+  }
+
+  /** Returns number of requests that reused socket of a previous request. */
+  public long getReusedSockets() {
+    return reused.get();
+  }
+
+  /** Returns number of idle sockets closed because they expired or were closed by daemon. */
+  public long getEvictedSockets() {
+    return evicted.get();
+  }
+
+  /** Returns number of idle sockets to the daemon. */
+  public int getIdleSockets(URI daemonUri) {
+    final DaemonSockets sockets = daemons.get(daemonUri);
+    if (sockets == null) {
+      return 0;
+    }
+    synchronized (sockets) {
+      return sockets.idle.size();
+    }
+  }
+
+  /**
+   * Takes idle socket to the daemon or opens a new one. Socket must be given back with {@link
+   * #release(DockerSocket, boolean)}.
+   *
+   * @throws IOException if socket can't be opened or the limit of sockets to the daemon is reached
+   *     and no socket is released during acquire timeout
+   */
+  DockerSocket acquire(URI daemonUri, SocketOpener opener) throws IOException {
+    return acquire(daemonUri, opener, true);
+  }
+
+  /**
+   * Same as {@link #acquire(URI, SocketOpener)} but a new socket is opened if {@code allowIdle} is
+   * {@code false}, e.g. when idle socket turned out to be closed by daemon.
+   */
+  DockerSocket acquire(URI daemonUri, SocketOpener opener, boolean allowIdle) throws IOException {
+    final DaemonSockets sockets =
+        daemons.computeIfAbsent(daemonUri, uri -> new DaemonSockets(maxPerDaemon));
+    try {
+      if (!sockets.permits.tryAcquire(acquireTimeoutMs, MILLISECONDS)) {
+        throw new IOException(
+            String.format(
+                "Unable to get connection to docker daemon '%s', %d connections are in use",
+                daemonUri, maxPerDaemon));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for connection to docker daemon", e);
+    }
+
+    try {
+      final DockerSocket idle = allowIdle ? takeIdle(sockets) : null;
+      if (idle != null) {
+        reused.incrementAndGet();
+        idle.setReused(true);
+        return idle;
+      }
+      final DockerSocket socket = opener.open();
+      opened.incrementAndGet();
+      return socket;
+    } catch (IOException | RuntimeException e) {
+      sockets.permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Gives socket back to the pool.
+   *
+   * @param socket socket taken with {@link #acquire(URI, SocketOpener)}
+   * @param reusable whether socket may be used for the next request, it is closed otherwise
+   */
+  void release(DockerSocket socket, boolean reusable) {
+    final DaemonSockets sockets = daemons.get(socket.getDaemonUri());
+    final long now = System.currentTimeMillis();
+    final boolean detached = socket.isDetached();
+    boolean close = true;
+    synchronized (sockets) {
+      evictExpired(sockets, now);
+      if (reusable && sockets.idle.size() < maxIdlePerDaemon) {
+        socket.setLastUsed(now);
+        socket.setReused(false);
+        socket.setDetached(false);
+        sockets.idle.addLast(socket);
+        close = false;
+      }
+    }
+    if (close) {
+      socket.close();
+    }
+    if (!detached) {
+      sockets.permits.release();
+    }
+  }
+
+  /**
+   * Stops counting socket towards the limit of sockets to its daemon while it stays in use, e.g.
+   * socket of a stream which may never end. Detached socket is still given back with {@link
+   * #release(DockerSocket, boolean)}.
+   *
+   * @param socket socket taken with {@link #acquire(URI, SocketOpener)}
+   */
+  void detach(DockerSocket socket) {
+    if (!socket.isDetached()) {
+      socket.setDetached(true);
+      daemons.get(socket.getDaemonUri()).permits.release();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (DaemonSockets sockets : daemons.values()) {
+      synchronized (sockets) {
+        sockets.idle.forEach(DockerSocket::close);
+        sockets.idle.clear();
+      }
+    }
+    LOG.debug(
+        "Docker sockets opened: {}, reused: {}, evicted: {}",
+        opened.get(),
+        reused.get(),
+        evicted.get());
+  }
+
+  /** Returns the most recently used idle socket which is still usable. */
+  private DockerSocket takeIdle(DaemonSockets sockets) {
+    final long now = System.currentTimeMillis();
+    while (true) {
+      final DockerSocket socket;
+      synchronized (sockets) {
+        evictExpired(sockets, now);
+        socket = sockets.idle.pollLast();
+      }
+      if (socket == null) {
+        return null;
+      }
+      if (socket.isReusable()) {
+        return socket;
+      }
+      LOG.debug("Idle connection to docker daemon '{}' is closed", socket.getDaemonUri());
+      evicted.incrementAndGet();
+      socket.close();
+    }
+  }
+
+  /** Closes sockets idle longer than idle timeout, the oldest are at the head of deque. */
+  private void evictExpired(DaemonSockets sockets, long now) {
+    DockerSocket oldest;
+    while ((oldest = sockets.idle.peekFirst()) != null
+        && now - oldest.getLastUsed() > idleTimeoutMs) {
+      sockets.idle.pollFirst().close();
+      evicted.incrementAndGet();
+    }
+  }
+
+  private static class DaemonSockets {
+    private final Semaphore permits;
+    private final ArrayDeque<DockerSocket> idle = new ArrayDeque<>();
+
+    private DaemonSockets(int maxSockets) {
+      this.permits = new Semaphore(maxSockets, true);
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client.connection;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.AF_UNIX;
+import static org.eclipse.che.plugin.docker.client.CLibrary.SOCK_STREAM;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import org.eclipse.che.plugin.docker.client.CLibrary;
+import org.eclipse.che.plugin.docker.client.CLibrary.SockAddrUn;
+import org.eclipse.che.plugin.docker.client.DockerCertificates;
+
+/** Open socket to docker daemon which may be used for several HTTP requests one after another. */
+abstract class DockerSocket {
+  private final URI daemonUri;
+  private final InputStream input;
+  private final OutputStream output;
+
+  private long lastUsed;
+  private boolean reused;
+  private boolean detached;
+
+  DockerSocket(URI daemonUri, InputStream input, OutputStream output) {
+    this.daemonUri = daemonUri;
+    this.input = new BufferedInputStream(input);
+    this.output = new BufferedOutputStream(output);
+  }
+
+  /** Opens socket to docker daemon listening on unix socket. */
+  static DockerSocket unix(URI daemonUri) throws IOException {
+    final String path = daemonUri.getPath();
+    final CLibrary cLib = getCLibrary();
+    final int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
+    if (fd == -1) {
+      throw new ConnectException(String.format("Unable connect to unix socket: '%s'", path));
+    }
+    final SockAddrUn sockAddr = new SockAddrUn(path);
+    if (cLib.connect(fd, sockAddr, sockAddr.size()) == -1) {
+      cLib.close(fd);
+      throw new ConnectException(String.format("Unable connect to unix socket: '%s'", path));
+    }
+    return new UnixSocket(daemonUri, fd);
+  }
+
+  /** Opens socket to docker daemon listening on TCP, uses TLS if daemon URI scheme is https. */
+  static DockerSocket tcp(
+      URI daemonUri, DockerCertificates certificates, int connectionTimeoutMs, int readTimeoutMs)
+      throws IOException {
+    final boolean https = "https".equals(daemonUri.getScheme());
+    if (https && certificates == null) {
+      throw new IllegalArgumentException("Certificates are required for https connection.");
+    }
+    final String host = daemonUri.getHost();
+    final int port = daemonUri.getPort() != -1 ? daemonUri.getPort() : https ? 443 : 80;
+
+    Socket socket = new Socket();
+    try {
+      socket.connect(new InetSocketAddress(host, port), connectionTimeoutMs);
+      socket.setSoTimeout(readTimeoutMs);
+      socket.setTcpNoDelay(true);
+      if (https) {
+        final SSLSocket sslSocket =
+            (SSLSocket)
+                certificates
+                    .getSslContext()
+                    .getSocketFactory()
+                    .createSocket(socket, host, port, true);
+        socket = sslSocket;
+        final SSLParameters parameters = sslSocket.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        sslSocket.setSSLParameters(parameters);
+        sslSocket.startHandshake();
+      }
+      return new TcpSocket(daemonUri, socket);
+    } catch (IOException | RuntimeException e) {
+      socket.close();
+      throw e;
+    }
+  }
+
+  URI getDaemonUri() {
+    return daemonUri;
+  }
+
+  InputStream getInputStream() {
+    return input;
+  }
+
+  OutputStream getOutputStream() {
+    return output;
+  }
+
+  /** Returns {@code true} if socket was taken from pool, rather than opened for the request. */
+  boolean isReused() {
+    return reused;
+  }
+
+  void setReused(boolean reused) {
+    this.reused = reused;
+  }
+
+  /** Returns {@code true} if socket doesn't count towards the limit of sockets to its daemon. */
+  boolean isDetached() {
+    return detached;
+  }
+
+  void setDetached(boolean detached) {
+    this.detached = detached;
+  }
+
+  long getLastUsed() {
+    return lastUsed;
+  }
+
+  void setLastUsed(long lastUsed) {
+    this.lastUsed = lastUsed;
+  }
+
+  /**
+   * Checks whether idle socket may be used for the next request, i.e. it is not closed by the
+   * daemon and there is no unexpected data to read.
+   */
+  boolean isReusable() {
+    try {
+      return input.available() == 0 && isOpen();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  abstract boolean isOpen();
+
+  abstract void close();
+
+  private static class UnixSocket extends DockerSocket {
+    // defined in 'sys/socket.h' of linux
+    private static final int MSG_PEEK = 0x02;
+    private static final int MSG_DONTWAIT = 0x40;
+
+    private final int fd;
+
+    private UnixSocket(URI daemonUri, int fd) {
+      super(daemonUri, new UnixSocketInputStream(fd), new UnixSocketOutputStream(fd));
+      this.fd = fd;
+    }
+
+    /** Peeks without blocking, daemon closed socket if end of stream is reached. */
+    @Override
+    boolean isOpen() {
+      try {
+        return getCLibrary().recv(fd, new byte[1], 1, MSG_PEEK | MSG_DONTWAIT) == -1;
+      } catch (RuntimeException e) {
+        return false;
+      }
+    }
+
+    @Override
+    void close() {
+      getCLibrary().close(fd);
+    }
+  }
+
+  private static class TcpSocket extends DockerSocket {
+    private final Socket socket;
+
+    private TcpSocket(URI daemonUri, Socket socket) throws IOException {
+      super(daemonUri, socket.getInputStream(), socket.getOutputStream());
+      this.socket = socket;
+    }
+
+    @Override
+    boolean isOpen() {
+      return !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+    }
+
+    @Override
+    void close() {
+      try {
+        socket.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.List;
+import org.eclipse.che.commons.lang.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP/1.1 connection to docker daemon over a socket of {@link DockerConnectionPool}. When
+ * connection is closed, its socket goes back to the pool if response body has known length and is
+ * read or can be skipped, otherwise the socket is closed. E.g. sockets of attach, logs and events
+ * streams are never reused.
+ *
+ * <p>Socket of response which body length is not known from headers, e.g. chunked or a stream, or
+ * which connection is closed by daemon is detached from the pool as soon as headers are read, so streams don't hold sockets of the pool
+ * for their whole lifetime. Such socket is reused only if its body is read to the end before the
+ * connection is closed, since the rest of a stream can't be skipped.
+ *
+ * <p>If daemon closed reused socket while it was idle, the request is sent once again over a new
+ * socket, unless its entity is a stream that can't be sent twice.
+ */
+class PooledDockerConnection extends DockerConnection {
+  private static final Logger LOG = LoggerFactory.getLogger(PooledDockerConnection.class);
+
+  /** Max size of unread body which is skipped to keep socket open. */
+  private static final int MAX_SKIPPED_BODY_BYTES = 64 * 1024;
+
+  private final URI daemonUri;
+  private final DockerConnectionPool pool;
+  private final DockerConnectionPool.SocketOpener opener;
+  private final String host;
+
+  private DockerSocket socket;
+  private UnixSocketDockerResponse response;
+
+  PooledDockerConnection(
+      URI daemonUri, DockerConnectionPool pool, DockerConnectionPool.SocketOpener opener) {
+    this.daemonUri = daemonUri;
+    this.pool = pool;
+    this.opener = opener;
+    if (daemonUri.getHost() == null) {
+      this.host = "";
+    } else {
+      this.host =
+          daemonUri.getPort() == -1
+              ? daemonUri.getHost()
+              : daemonUri.getHost() + ':' + daemonUri.getPort();
+    }
+  }
+
+  @Override
+  protected DockerResponse request(
+      String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
+      throws IOException {
+    socket = pool.acquire(daemonUri, opener);
+    try {
+      response = send(method, path, query, headers, entity);
+    } catch (IOException e) {
+      final boolean retry = socket.isReused() && !(entity instanceof StreamEntity);
+      pool.release(socket, false);
+      socket = null;
+      if (!retry) {
+        throw e;
+      }
+      LOG.debug("Reused connection to docker daemon '{}' is broken, retrying", daemonUri);
+      socket = pool.acquire(daemonUri, opener, false);
+      try {
+        response = send(method, path, query, headers, entity);
+      } catch (IOException | RuntimeException e2) {
+        pool.release(socket, false);
+        socket = null;
+        throw e2;
+      }
+    } catch (RuntimeException e) {
+      pool.release(socket, false);
+      socket = null;
+      throw e;
+    }
+    if (!response.hasFixedLength() || !response.isKeepAlive()) {
+      pool.detach(socket);
+    }
+    return response;
+  }
+
+  @Override
+  public void close() {
+    if (socket == null) {
+      return;
+    }
+    boolean reusable = false;
+    try {
+      reusable =
+          response != null
+              && response.isKeepAlive()
+              && (socket.isDetached()
+                  ? response.isBodyRead()
+                  : response.skipBody(MAX_SKIPPED_BODY_BYTES));
+    } catch (IOException ignored) {
+    }
+    pool.release(socket, reusable);
+    socket = null;
+  }
+
+  private UnixSocketDockerResponse send(
+      String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
+      throws IOException {
+    final OutputStream output = socket.getOutputStream();
+    writeHttpHeaders(output, method, path, query, headers);
+    if (entity != null) {
+      entity.writeTo(output);
+    }
+    output.flush();
+    final UnixSocketDockerResponse response =
+        new UnixSocketDockerResponse(socket.getInputStream());
+    // read headers to find out whether daemon closed reused connection while it was idle and
+    // whether response may be reused
+    response.getStatus();
+    return response;
+  }
+
+  private void writeHttpHeaders(
+      OutputStream output, String method, String path, String query, List<Pair<String, ?>> headers)
+      throws IOException {
+    final Writer writer = new OutputStreamWriter(output);
+    writer.write(method);
+    writer.write(' ');
+    writer.write(path);
+    if (!Strings.isNullOrEmpty(query)) {
+      writer.write("?");
+      writer.write(query);
+    }
+    writer.write(" HTTP/1.1\r\n");
+    for (Pair<String, ?> header : headers) {
+      writer.write(header.first);
+      writer.write(": ");
+      writer.write(String.valueOf(header.second));
+      writer.write("\r\n");
+    }
+    // Host header is mandatory in HTTP 1.1
+    writer.write("Host: ");
+    writer.write(host);
+    writer.write("\r\n\r\n");
+    writer.flush();
+  }
+}
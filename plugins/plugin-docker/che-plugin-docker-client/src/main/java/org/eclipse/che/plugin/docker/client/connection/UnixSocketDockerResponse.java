@@ -142,6 +142,11 @@ public class UnixSocketDockerResponse implements DockerResponse {
       }
     }
     this.headersFields = headerFields.toArray(new String[headerFields.size()]);
+    final int status = getStatus();
+    if (status / 100 == 1 || status == 204 || status == 304) {
+      // responses without body
+      return data = EMPTY;
+    }
     final int contentLength = getContentLength();
     if (contentLength == 0) {
       return data = EMPTY;
@@ -154,4 +159,60 @@ public class UnixSocketDockerResponse implements DockerResponse {
             ? new ChunkedInputStream(rawData)
             : rawData;
   }
+
+  /**
+   * Returns {@code true} if connection may be used for the next request after body of this
+   * response is read, i.e. length of body is known and server does not close connection.
+   */
+  boolean isKeepAlive() throws IOException {
+    if (headersFields == null) {
+      return false;
+    }
+    final boolean knownLength =
+        data == EMPTY || data instanceof LimitedInputStream || data instanceof ChunkedInputStream;
+    return knownLength
+        && headersFields[0].startsWith("HTTP/1.1")
+        && !"close".equalsIgnoreCase(getHeader("Connection"));
+  }
+
+  /**
+   * Returns {@code true} if length of body is known from headers, unlike chunked body or body read
+   * until the end of connection which may be a stream that never ends.
+   */
+  boolean hasFixedLength() {
+    return data == EMPTY || data instanceof LimitedInputStream;
+  }
+
+  /** Returns {@code true} if the whole body is already read. */
+  boolean isBodyRead() {
+    if (data == EMPTY) {
+      return true;
+    }
+    if (data instanceof LimitedInputStream) {
+      return ((LimitedInputStream) data).isEof();
+    }
+    return data instanceof ChunkedInputStream && ((ChunkedInputStream) data).isEof();
+  }
+
+  /**
+   * Reads the rest of body unless it is longer than {@code maxBytes}.
+   *
+   * @return {@code true} if the whole body is read
+   */
+  boolean skipBody(int maxBytes) {
+    if (data == EMPTY) {
+      return true;
+    }
+    final byte[] buffer = new byte[8192];
+    int skipped = 0;
+    try {
+      int n;
+      while (skipped <= maxBytes && (n = data.read(buffer)) > 0) {
+        skipped += n;
+      }
+    } catch (IOException e) {
+      return false;
+    }
+    return isBodyRead();
+  }
 }
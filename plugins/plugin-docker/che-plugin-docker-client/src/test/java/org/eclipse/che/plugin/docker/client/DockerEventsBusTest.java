@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.eclipse.che.plugin.docker.client.json.Actor;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link DockerEventsBus}. */
+public class DockerEventsBusTest {
+  private DockerConnector dockerConnector;
+  private DockerEventsBus eventsBus;
+  private List<Event> first;
+  private List<Event> second;
+
+  @BeforeMethod
+  public void setUp() {
+    dockerConnector = mock(DockerConnector.class);
+    DockerConnectorProvider dockerConnectorProvider = mock(DockerConnectorProvider.class);
+    when(dockerConnectorProvider.get()).thenReturn(dockerConnector);
+    eventsBus = new DockerEventsBus(dockerConnectorProvider);
+    first = new ArrayList<>();
+    second = new ArrayList<>();
+  }
+
+  @Test
+  public void shouldDispatchEventsToSubscribersOfContainer() {
+    eventsBus.subscribe("first", first::add);
+    eventsBus.subscribe("second", second::add);
+
+    Event firstDie = event("first", "die", 10);
+    Event secondStart =
+        new Event().withActor(new Actor().withId("second")).withAction("start").withTime(10);
+    eventsBus.dispatch(firstDie);
+    eventsBus.dispatch(secondStart);
+    eventsBus.dispatch(event("third", "die", 10));
+
+    assertEquals(first, singletonList(firstDie));
+    assertEquals(second, singletonList(secondStart));
+  }
+
+  @Test
+  public void shouldNotDispatchEventsAfterUnsubscription() {
+    MessageProcessor<Event> processor = first::add;
+    eventsBus.subscribe("first", processor);
+    eventsBus.unsubscribe("first", processor);
+    eventsBus.dispatch(event("first", "die", 10));
+
+    assertEquals(first.size(), 0);
+  }
+
+  @Test
+  public void shouldSkipEventsOfOtherTypes() {
+    eventsBus.subscribe("first", first::add);
+
+    eventsBus.dispatch(event("first", "create", 10).withType("network"));
+
+    assertEquals(first.size(), 0);
+  }
+
+  @Test
+  public void shouldResumeFromTimeOfLastEventWithoutDuplicates() throws Exception {
+    eventsBus.subscribe("first", first::add);
+    Event oom = event("first", "oom", 20);
+    Event die = event("first", "die", 20);
+    doAnswer(
+            invocation -> {
+              @SuppressWarnings("unchecked")
+              MessageProcessor<Event> processor =
+                  (MessageProcessor<Event>) invocation.getArguments()[1];
+              processor.process(oom);
+              processor.process(die);
+              return null;
+            })
+        .when(dockerConnector)
+        .getEvents(any(GetEventsParams.class), any());
+
+    eventsBus.pump();
+    eventsBus.pump();
+
+    ArgumentCaptor<GetEventsParams> params = ArgumentCaptor.forClass(GetEventsParams.class);
+    verify(dockerConnector, times(2)).getEvents(params.capture(), any());
+    assertEquals(params.getAllValues().get(0).getSinceSecond(), Long.valueOf(0));
+    assertEquals(params.getAllValues().get(1).getSinceSecond(), Long.valueOf(20));
+    assertEquals(
+        new HashSet<>(params.getAllValues().get(0).getFilters().getFilter("event")),
+        new HashSet<>(asList("die", "oom")));
+    assertEquals(first.size(), 2);
+    assertEquals(eventsBus.getLastEventTime(), 20);
+  }
+
+  @Test
+  public void shouldRequestEventsAgainWhenSubscriberDeclaresNewEvent() throws Exception {
+    eventsBus.subscribe("first", first::add);
+    Event die = event("first", "die", 20);
+    doAnswer(
+            invocation -> {
+              @SuppressWarnings("unchecked")
+              MessageProcessor<Event> processor =
+                  (MessageProcessor<Event>) invocation.getArguments()[1];
+              eventsBus.subscribe("second", second::add, "start");
+              processor.process(die);
+              return null;
+            })
+        .when(dockerConnector)
+        .getEvents(any(GetEventsParams.class), any());
+
+    try {
+      eventsBus.pump();
+      fail("Events stream must be ended");
+    } catch (DockerEventsBus.EventsChangedException expected) {
+      // stream is requested again by the caller
+    }
+    eventsBus.pump();
+
+    ArgumentCaptor<GetEventsParams> params = ArgumentCaptor.forClass(GetEventsParams.class);
+    verify(dockerConnector, times(2)).getEvents(params.capture(), any());
+    assertEquals(
+        new HashSet<>(params.getAllValues().get(1).getFilters().getFilter("event")),
+        new HashSet<>(asList("die", "oom", "start")));
+    assertEquals(first, singletonList(die));
+  }
+
+  @Test
+  public void shouldNotSkipEventsWithoutNanosecondTime() {
+    eventsBus.subscribe("first", first::add);
+
+    eventsBus.dispatch(event("first", "oom", 10).withTimeNano(0));
+    eventsBus.dispatch(event("first", "oom", 10).withTimeNano(0));
+
+    assertEquals(first.size(), 2);
+  }
+
+  private static Event event(String id, String status, long time) {
+    return new Event()
+        .withId(id)
+        .withStatus(status)
+        .withTime(time)
+        .withTimeNano(SECONDS.toNanos(time))
+        .withType("container");
+  }
+}
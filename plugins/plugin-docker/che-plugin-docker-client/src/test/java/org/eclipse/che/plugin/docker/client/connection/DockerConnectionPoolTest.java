@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client.connection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link DockerConnectionPool} and {@link PooledDockerConnection} against a stub daemon
+ * listening on TCP.
+ */
+public class DockerConnectionPoolTest {
+  private static final Logger LOG = LoggerFactory.getLogger(DockerConnectionPoolTest.class);
+
+  private static final String BODY = "{\"Id\":\"abc\"}";
+
+  private StubDaemon daemon;
+  private URI daemonUri;
+  private DockerConnectionPool pool;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    daemon = new StubDaemon();
+    daemonUri = URI.create("http://127.0.0.1:" + daemon.getPort());
+    pool = new DockerConnectionPool(4, 4, 30_000, 1_000);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    pool.shutdown();
+    daemon.close();
+  }
+
+  @Test
+  public void shouldReuseSocketForSequentialRequests() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      assertEquals(request("/json"), BODY);
+    }
+
+    assertEquals(daemon.getAcceptedConnections(), 1);
+    assertEquals(pool.getOpenedSockets(), 1);
+    assertEquals(pool.getReusedSockets(), 9);
+    assertEquals(pool.getIdleSockets(daemonUri), 1);
+  }
+
+  @Test
+  public void shouldReuseSocketAfterChunkedAndNoContentResponses() throws Exception {
+    assertEquals(request("/chunked"), BODY);
+    assertEquals(request("/no-content"), "");
+    assertEquals(request("/json"), BODY);
+
+    assertEquals(daemon.getAcceptedConnections(), 1);
+  }
+
+  @Test
+  public void shouldReuseSocketWhenBodyIsNotRead() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      try (DockerConnection connection = connection()) {
+        assertEquals(connection.method("GET").path("/json").request().getStatus(), 200);
+      }
+    }
+
+    assertEquals(daemon.getAcceptedConnections(), 1);
+  }
+
+  @Test
+  public void shouldNotReuseSocketWhenDaemonClosesConnection() throws Exception {
+    assertEquals(request("/close"), BODY);
+    assertEquals(request("/json"), BODY);
+
+    assertEquals(daemon.getAcceptedConnections(), 2);
+  }
+
+  @Test
+  public void shouldNotReuseSocketWhenBodyLengthIsUnknown() throws Exception {
+    assertEquals(request("/stream"), BODY);
+    assertEquals(request("/json"), BODY);
+
+    assertEquals(daemon.getAcceptedConnections(), 2);
+    assertEquals(pool.getReusedSockets(), 0);
+  }
+
+  @Test
+  public void shouldRetryRequestWhenIdleSocketWasClosedByDaemon() throws Exception {
+    daemon.closeAfterResponse = true;
+
+    assertEquals(request("/json"), BODY);
+    assertEquals(request("/json"), BODY);
+
+    assertEquals(daemon.getAcceptedConnections(), 2);
+  }
+
+  @Test
+  public void shouldCloseIdleSocketsAfterIdleTimeout() throws Exception {
+    pool = new DockerConnectionPool(4, 4, 50, 1_000);
+
+    assertEquals(request("/json"), BODY);
+    Thread.sleep(100);
+    assertEquals(request("/json"), BODY);
+
+    assertEquals(daemon.getAcceptedConnections(), 2);
+    assertEquals(pool.getEvictedSockets(), 1);
+  }
+
+  @Test
+  public void shouldFailWhenAllSocketsToDaemonAreInUse() throws Exception {
+    pool = new DockerConnectionPool(1, 1, 30_000, 100);
+
+    try (DockerConnection first = connection()) {
+      first.method("GET").path("/json").request();
+      try (DockerConnection second = connection()) {
+        second.method("GET").path("/json").request();
+        fail("Request must fail when all sockets are in use");
+      } catch (IOException expected) {
+      }
+    }
+    assertEquals(request("/json"), BODY);
+  }
+
+  @Test(timeOut = 30_000)
+  public void shouldNotBlockRequestsWhenManyStreamsAreOpen() throws Exception {
+    final List<DockerConnection> streams = new ArrayList<>();
+    try {
+      for (int i = 0; i < 200; i++) {
+        final DockerConnection stream = connection();
+        streams.add(stream);
+        final DockerResponse response =
+            stream.method("GET").path(i % 2 == 0 ? "/events" : "/attach").request();
+        assertEquals(response.getStatus(), 200);
+      }
+
+      assertEquals(request("/json"), BODY);
+    } finally {
+      streams.forEach(DockerConnection::close);
+    }
+    assertEquals(request("/json"), BODY);
+    assertEquals(pool.getReusedSockets(), 1);
+  }
+
+  /**
+   * Compares latency of requests that open a new connection each time, as {@link TcpConnection}
+   * does, with latency of requests over pooled connections. Number of requests may be changed with
+   * system property {@code che.test.docker.requests}.
+   */
+  @Test
+  public void benchmarkPooledConnectionsAgainstNewConnectionPerRequest() throws Exception {
+    final int requests = Integer.getInteger("che.test.docker.requests", 500);
+    // warm up
+    for (int i = 0; i < 50; i++) {
+      read(new TcpConnection(daemonUri, null, 1_000, 5_000), "/json");
+      request("/json");
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      read(new TcpConnection(daemonUri, null, 1_000, 5_000), "/json");
+    }
+    final long newConnectionNanos = (System.nanoTime() - start) / requests;
+    final int acceptedBefore = daemon.getAcceptedConnections();
+
+    start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      request("/json");
+    }
+    final long pooledNanos = (System.nanoTime() - start) / requests;
+
+    LOG.info(
+        "Average latency of {} requests, new connection per request: {} us, pooled: {} us",
+        requests,
+        TimeUnit.NANOSECONDS.toMicros(newConnectionNanos),
+        TimeUnit.NANOSECONDS.toMicros(pooledNanos));
+    assertEquals(daemon.getAcceptedConnections(), acceptedBefore);
+  }
+
+  private DockerConnection connection() {
+    return new PooledDockerConnection(
+        daemonUri, pool, () -> DockerSocket.tcp(daemonUri, null, 1_000, 5_000));
+  }
+
+  private String request(String path) throws IOException {
+    return read(connection(), path);
+  }
+
+  private static String read(DockerConnection connection, String path) throws IOException {
+    try (DockerConnection ignored = connection) {
+      final DockerResponse response = connection.method("GET").path(path).request();
+      assertTrue(response.getStatus() / 100 == 2);
+      try (InputStream body = response.getInputStream()) {
+        return new String(ByteStreams.toByteArray(body), UTF_8);
+      }
+    }
+  }
+
+  /**
+   * Answers HTTP/1.1 requests, path of request defines the kind of response. Keeps connections
+   * open unless client or response asks to close them.
+   */
+  private static class StubDaemon implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    /** Closes connection after response without telling client, as if connection became idle. */
+    private volatile boolean closeAfterResponse;
+
+    private StubDaemon() throws IOException {
+      serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+      executor.execute(this::accept);
+    }
+
+    private int getPort() {
+      return serverSocket.getLocalPort();
+    }
+
+    private int getAcceptedConnections() {
+      return accepted.get();
+    }
+
+    private void accept() {
+      while (!serverSocket.isClosed()) {
+        try {
+          final Socket socket = serverSocket.accept();
+          accepted.incrementAndGet();
+          executor.execute(() -> serve(socket));
+        } catch (IOException ignored) {
+        }
+      }
+    }
+
+    private void serve(Socket socket) {
+      try (Socket ignored = socket) {
+        final InputStream input = socket.getInputStream();
+        final OutputStream output = socket.getOutputStream();
+        String head;
+        while ((head = readHead(input)) != null) {
+          final String path = head.substring(head.indexOf(' ') + 1, head.indexOf(" HTTP/"));
+          final boolean clientCloses = head.toLowerCase().contains("connection: close");
+          if (!respond(path, clientCloses, input, output) || clientCloses || closeAfterResponse) {
+            return;
+          }
+        }
+      } catch (IOException ignored) {
+      }
+    }
+
+    /** Writes response, returns {@code false} if connection must be closed after it. */
+    private boolean respond(
+        String path, boolean clientCloses, InputStream input, OutputStream output)
+        throws IOException {
+      final String connectionHeader = clientCloses ? "Connection: close\r\n" : "";
+      switch (path) {
+        case "/json":
+          write(
+              output,
+              "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n"
+                  + connectionHeader
+                  + "Content-Length: "
+                  + BODY.length()
+                  + "\r\n\r\n"
+                  + BODY);
+          return true;
+        case "/chunked":
+          write(
+              output,
+              "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                  + Integer.toHexString(BODY.length())
+                  + "\r\n"
+                  + BODY
+                  + "\r\n0\r\n\r\n");
+          return true;
+        case "/no-content":
+          write(output, "HTTP/1.1 204 No Content\r\n\r\n");
+          return true;
+        case "/close":
+          write(
+              output,
+              "HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: "
+                  + BODY.length()
+                  + "\r\n\r\n"
+                  + BODY);
+          return false;
+        case "/stream":
+          write(output, "HTTP/1.1 200 OK\r\n\r\n" + BODY);
+          return false;
+        case "/events":
+          write(
+              output,
+              "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                  + Integer.toHexString(BODY.length())
+                  + "\r\n"
+                  + BODY
+                  + "\r\n");
+          waitUntilClosed(input);
+          return false;
+        case "/attach":
+          write(
+              output,
+              "HTTP/1.1 200 OK\r\nContent-Type: application/vnd.docker.raw-stream\r\n\r\n");
+          waitUntilClosed(input);
+          return false;
+        default:
+          write(output, "HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n");
+          return true;
+      }
+    }
+
+    private static void write(OutputStream output, String response) throws IOException {
+      output.write(response.getBytes(UTF_8));
+      output.flush();
+    }
+
+    /** Keeps stream open until client closes connection. */
+    private static void waitUntilClosed(InputStream input) throws IOException {
+      while (input.read() != -1) {}
+    }
+
+    /** Reads request line and headers, requests of tests have no body. */
+    private static String readHead(InputStream input) throws IOException {
+      final ByteArrayOutputStream head = new ByteArrayOutputStream();
+      int matched = 0;
+      int b;
+      while ((b = input.read()) != -1) {
+        head.write(b);
+        final boolean expected = matched % 2 == 0 ? b == '\r' : b == '\n';
+        matched = expected ? matched + 1 : 0;
+        if (matched == 4) {
+          return new String(head.toByteArray(), UTF_8);
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.docker.client.connection;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import org.testng.annotations.Test;
+
+/** Tests for {@link LimitedInputStream}. */
+public class LimitedInputStreamTest {
+  private static final byte[] CONTENT = {1, 2, 3, 4, 5, 6, 7, 8};
+
+  @Test
+  public void readsToOffsetOfBuffer() throws Exception {
+    LimitedInputStream input = new LimitedInputStream(new ByteArrayInputStream(CONTENT), 6);
+    byte[] buffer = new byte[10];
+
+    assertEquals(input.read(buffer, 2, 4), 4);
+    assertEquals(input.read(buffer, 6, 4), 2);
+
+    assertEquals(buffer, new byte[] {0, 0, 1, 2, 3, 4, 5, 6, 0, 0});
+    assertEquals(input.read(buffer, 0, 4), -1);
+    assertTrue(input.isEof());
+  }
+
+  @Test
+  public void doesNotReadBeyondLimit() throws Exception {
+    LimitedInputStream input = new LimitedInputStream(new ByteArrayInputStream(CONTENT), 3);
+    byte[] buffer = new byte[8];
+
+    assertEquals(input.read(buffer), 3);
+    assertEquals(input.read(buffer), -1);
+  }
+
+  @Test
+  public void readsSingleByteAsUnsigned() throws Exception {
+    LimitedInputStream input =
+        new LimitedInputStream(new ByteArrayInputStream(new byte[] {(byte) 0xFF, 0}), 2);
+
+    assertEquals(input.read(), 0xFF);
+    assertFalse(input.isEof());
+    assertEquals(input.read(), 0);
+    assertEquals(input.read(), -1);
+  }
+}
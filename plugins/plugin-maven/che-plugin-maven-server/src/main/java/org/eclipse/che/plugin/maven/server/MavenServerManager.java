@@ -41,7 +41,12 @@ import org.eclipse.che.rmi.RmiObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** @author Evgen Vidolob */
+/**
+ * Manages processes of maven server. Besides the main process there may be additional processes
+ * which resolve projects concurrently with the main one, see {@link #createMavenServer(int)}.
+ *
+ * @author Evgen Vidolob
+ */
 @Singleton
 public class MavenServerManager extends RmiObjectWrapper<MavenRemoteServer> {
   private static final Logger LOG = LoggerFactory.getLogger(MavenServerManager.class);
@@ -54,10 +59,24 @@ public class MavenServerManager extends RmiObjectWrapper<MavenRemoteServer> {
   private boolean listenerExported;
   private String mavenServerPath;
   private File localRepository;
+  private final List<ResolveProcess> resolveProcesses = new ArrayList<>();
+
+  public MavenServerManager(String mavenServerPath) {
+    this(mavenServerPath, 1);
+  }
 
+  /**
+   * @param mavenServerPath path to the directory with maven server libraries
+   * @param resolvePoolSize number of maven server processes which resolve projects concurrently
+   */
   @Inject
-  public MavenServerManager(@Named("che.maven.server.path") String mavenServerPath) {
+  public MavenServerManager(
+      @Named("che.maven.server.path") String mavenServerPath,
+      @Named("che.maven.server.resolve_pool_size") int resolvePoolSize) {
     this.mavenServerPath = mavenServerPath;
+    for (int i = 1; i < resolvePoolSize; i++) {
+      resolveProcesses.add(new ResolveProcess("resolve-" + i));
+    }
 
     client =
         new RmiClient<MavenRemoteServer>(MavenRemoteServer.class) {
@@ -93,6 +112,30 @@ public class MavenServerManager extends RmiObjectWrapper<MavenRemoteServer> {
   }
 
   public MavenServerWrapper createMavenServer() {
+    return createMavenServer(this::getOrCreateWrappedObject);
+  }
+
+  /**
+   * Creates maven server in the process of the given resolve lane, lanes are served by different
+   * processes, so projects of different lanes may be resolved concurrently.
+   *
+   * @param lane index of the lane, from 0 to {@link #getResolvePoolSize()} exclusive, the lane 0 is
+   *     served by the main process
+   */
+  public MavenServerWrapper createMavenServer(int lane) {
+    int index = lane % getResolvePoolSize();
+    if (index == 0) {
+      return createMavenServer();
+    }
+    return createMavenServer(resolveProcesses.get(index - 1)::getOrCreateServer);
+  }
+
+  /** Returns number of maven server processes which resolve projects concurrently. */
+  public int getResolvePoolSize() {
+    return resolveProcesses.size() + 1;
+  }
+
+  private MavenServerWrapper createMavenServer(RemoteServerSupplier remoteServer) {
     return new MavenServerWrapper() {
       @Override
       protected MavenServer create() throws RemoteException {
@@ -108,7 +151,7 @@ public class MavenServerManager extends RmiObjectWrapper<MavenRemoteServer> {
         if (localRepository != null) {
           mavenSettings.setLocalRepository(localRepository);
         }
-        return MavenServerManager.this.getOrCreateWrappedObject().createServer(mavenSettings);
+        return remoteServer.get().createServer(mavenSettings);
       }
     };
   }
@@ -140,14 +183,19 @@ public class MavenServerManager extends RmiObjectWrapper<MavenRemoteServer> {
   @PreDestroy
   public void shutdown() {
     client.stopAll(false);
+    resolveProcesses.forEach(ResolveProcess::reset);
     cleanUp();
   }
 
   @Override
   protected MavenRemoteServer create() throws RemoteException {
+    return acquireServer("");
+  }
+
+  private synchronized MavenRemoteServer acquireServer(String processKey) throws RemoteException {
     MavenRemoteServer server;
     try {
-      server = client.acquire(this, "");
+      server = client.acquire(this, processKey);
     } catch (Exception e) {
       throw new RemoteException("Can't start maven server", e);
     }
@@ -238,6 +286,32 @@ public class MavenServerManager extends RmiObjectWrapper<MavenRemoteServer> {
     T perform() throws RemoteException;
   }
 
+  private interface RemoteServerSupplier {
+    MavenRemoteServer get() throws RemoteException;
+  }
+
+  /** Additional maven server process which resolves projects of one of the lanes. */
+  private class ResolveProcess extends RmiObjectWrapper<MavenRemoteServer> {
+    private final String processKey;
+
+    ResolveProcess(String processKey) {
+      this.processKey = processKey;
+    }
+
+    MavenRemoteServer getOrCreateServer() throws RemoteException {
+      return getOrCreateWrappedObject();
+    }
+
+    void reset() {
+      cleanUp();
+    }
+
+    @Override
+    protected MavenRemoteServer create() throws RemoteException {
+      return acquireServer(processKey);
+    }
+  }
+
   private class RmiLogger extends RmiObject implements MavenServerLogger {
 
     @Override
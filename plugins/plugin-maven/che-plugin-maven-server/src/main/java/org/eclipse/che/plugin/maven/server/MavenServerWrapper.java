@@ -106,6 +106,12 @@ public abstract class MavenServerWrapper extends RmiObjectWrapper<MavenServer> {
         () -> getOrCreateWrappedObject().resolveProject(pom, activeProfiles, inactiveProfile));
   }
 
+  public List<MavenServerResult> resolveProjects(
+      List<File> poms, List<String> activeProfiles, List<String> inactiveProfile) {
+    return perform(
+        () -> getOrCreateWrappedObject().resolveProjects(poms, activeProfiles, inactiveProfile));
+  }
+
   public String getEffectivePom(
       File pom, List<String> activeProfiles, List<String> inactiveProfile) {
     return perform(
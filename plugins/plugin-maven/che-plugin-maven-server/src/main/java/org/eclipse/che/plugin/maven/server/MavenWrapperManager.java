@@ -27,6 +27,7 @@ public class MavenWrapperManager {
 
   private final MavenServerManager serverManager;
   private final Map<ServerType, MavenServerWrapper> cache = new HashMap<>();
+  private final Map<Integer, MavenServerWrapper> resolveCache = new HashMap<>();
   private final Set<MavenServerWrapper> usedServers = new HashSet<>();
 
   @Inject
@@ -50,6 +51,29 @@ public class MavenWrapperManager {
     return wrapper;
   }
 
+  /**
+   * Returns server which resolves projects of the given lane, see {@link
+   * MavenServerManager#createMavenServer(int)}.
+   */
+  public synchronized MavenServerWrapper getResolveServer(int lane) {
+    int index = lane % serverManager.getResolvePoolSize();
+    if (index == 0) {
+      return getMavenServer(ServerType.RESOLVE);
+    }
+    MavenServerWrapper wrapper = resolveCache.get(index);
+    if (wrapper == null) {
+      wrapper = serverManager.createMavenServer(index);
+      resolveCache.put(index, wrapper);
+    }
+
+    if (usedServers.contains(wrapper)) {
+      return serverManager.createMavenServer(index);
+    }
+
+    usedServers.add(wrapper);
+    return wrapper;
+  }
+
   public synchronized void release(MavenServerWrapper wrapper) {
     if (usedServers.contains(wrapper)) {
       wrapper.reset();
@@ -20,19 +20,25 @@ import javax.annotation.PreDestroy;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.project.shared.dto.event.PomModifiedEventDto;
 import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
+import org.eclipse.che.plugin.maven.server.core.MavenResolutionCache;
 
 public class PomModificationDetector {
   private static final String POM_XML = "pom.xml";
 
   private final FileWatcherManager manager;
   private final EventService eventService;
+  private final MavenResolutionCache resolutionCache;
 
   private int id;
 
   @Inject
-  public PomModificationDetector(EventService eventService, FileWatcherManager manager) {
+  public PomModificationDetector(
+      EventService eventService,
+      FileWatcherManager manager,
+      MavenResolutionCache resolutionCache) {
     this.eventService = eventService;
     this.manager = manager;
+    this.resolutionCache = resolutionCache;
   }
 
   @PostConstruct
@@ -41,8 +47,11 @@ public class PomModificationDetector {
         manager.registerByMatcher(
             it -> !isDirectory(it) && POM_XML.equals(it.getFileName().toString()),
             EMPTY_CONSUMER,
-            it -> eventService.publish(newDto(PomModifiedEventDto.class).withPath(it)),
-            EMPTY_CONSUMER);
+            it -> {
+              resolutionCache.invalidate(it);
+              eventService.publish(newDto(PomModifiedEventDto.class).withPath(it));
+            },
+            resolutionCache::invalidate);
   }
 
   @PreDestroy
@@ -11,7 +11,9 @@
 package org.eclipse.che.plugin.maven.server.core;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -28,20 +30,33 @@ public class MavenExecutorService {
   private static final Logger LOG = LoggerFactory.getLogger(MavenExecutorService.class);
 
   private final ExecutorService service;
+  private final int poolSize;
 
   public MavenExecutorService() {
+    this(1);
+  }
+
+  /** @param poolSize number of maven tasks, e.g. resolution of projects, executed concurrently */
+  @Inject
+  public MavenExecutorService(@Named("che.maven.server.resolve_pool_size") int poolSize) {
+    this.poolSize = Math.max(poolSize, 1);
     ThreadFactory threadFactory =
         new ThreadFactoryBuilder()
             .setNameFormat("Maven Executor - %d")
             .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
             .build();
-    service = Executors.newFixedThreadPool(1, threadFactory);
+    service = Executors.newFixedThreadPool(this.poolSize, threadFactory);
   }
 
   public void submit(Runnable task) {
     service.execute(task);
   }
 
+  /** Returns number of maven tasks executed concurrently. */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
   @PreDestroy
   public void shutdown() throws InterruptedException {
     // Tell threads to finish off.
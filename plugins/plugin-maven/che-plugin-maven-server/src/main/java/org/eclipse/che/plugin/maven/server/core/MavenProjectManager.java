@@ -13,12 +13,18 @@ package org.eclipse.che.plugin.maven.server.core;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import java.io.File;
 import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -35,10 +41,14 @@ import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.che.plugin.maven.server.MavenServerManager;
 import org.eclipse.che.plugin.maven.server.MavenServerWrapper;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReader;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProjectModifications;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Holds all maven projects in workspace
@@ -47,6 +57,7 @@ import org.eclipse.core.resources.IWorkspace;
  */
 @Singleton
 public class MavenProjectManager {
+  private static final Logger LOG = LoggerFactory.getLogger(MavenProjectManager.class);
 
   private final MavenWorkspaceCache mavenWorkspaceCache;
   private final Map<MavenKey, MavenProject> keyToProjectMap;
@@ -64,6 +75,7 @@ public class MavenProjectManager {
   private final MavenTerminal terminal;
   private final MavenProgressNotifier mavenNotifier;
   private final Provider<IWorkspace> workspaceProvider;
+  private final MavenResolutionCache resolutionCache;
 
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
   private final Lock readLock = readWriteLock.readLock();
@@ -77,12 +89,14 @@ public class MavenProjectManager {
       MavenServerManager serverManager,
       MavenTerminal terminal,
       MavenProgressNotifier mavenNotifier,
-      EclipseWorkspaceProvider workspaceProvider) {
+      EclipseWorkspaceProvider workspaceProvider,
+      MavenResolutionCache resolutionCache) {
     this.wrapperManager = wrapperManager;
     this.serverManager = serverManager;
     this.terminal = terminal;
     this.mavenNotifier = mavenNotifier;
     this.workspaceProvider = workspaceProvider;
+    this.resolutionCache = resolutionCache;
     mavenWorkspaceCache = new MavenWorkspaceCache();
     keyToProjectMap = new HashMap<>();
     projectToMavenProjectMap = new HashMap<>();
@@ -129,6 +143,167 @@ public class MavenProjectManager {
     }
   }
 
+  /**
+   * Resolves the given projects with maven server of the given lane. Projects which have the same
+   * profiles are resolved in one call of the server. Projects which poms, poms of their parents and
+   * of their resolved dependencies from workspace weren't changed since the previous resolution get
+   * result from {@link MavenResolutionCache} without call of the server.
+   *
+   * @param mavenProjects projects to resolve
+   * @param lane index of the lane, see {@link MavenServerManager#createMavenServer(int)}
+   * @return resolved projects
+   */
+  public List<MavenProject> resolveMavenProjects(List<MavenProject> mavenProjects, int lane) {
+    List<MavenProject> resolved = new ArrayList<>();
+    Map<MavenProject, String> keys = new HashMap<>();
+    Map<List<List<String>>, List<MavenProject>> byProfiles = new LinkedHashMap<>();
+    for (MavenProject mavenProject : mavenProjects) {
+      if (!mavenProject.getProject().exists()) {
+        continue;
+      }
+      String key = resolutionKey(mavenProject);
+      MavenModelReaderResult cached =
+          key == null ? null : resolutionCache.get(mavenProject.getPomPath(), key);
+      if (cached != null) {
+        MavenProjectModifications modifications = mavenProject.setResolveResult(cached);
+        dispatcher.projectResolved(mavenProject, modifications);
+        resolved.add(mavenProject);
+        continue;
+      }
+      if (key != null) {
+        keys.put(mavenProject, key);
+      }
+      byProfiles
+          .computeIfAbsent(
+              Arrays.asList(mavenProject.getActiveProfiles(), mavenProject.getInactiveProfiles()),
+              profiles -> new ArrayList<>())
+          .add(mavenProject);
+    }
+    if (!resolved.isEmpty()) {
+      LOG.info("{} maven projects are up to date, resolution results are reused", resolved.size());
+    }
+    if (byProfiles.isEmpty()) {
+      return resolved;
+    }
+
+    MavenServerWrapper mavenServer = wrapperManager.getResolveServer(lane);
+    try {
+      mavenServer.customize(copyWorkspaceCache(), terminal, mavenNotifier, false, true);
+      MavenModelReader reader = new MavenModelReader();
+      for (List<MavenProject> group : byProfiles.values()) {
+        MavenProject first = group.get(0);
+        mavenNotifier.setText("Resolving projects: " + group.size());
+        long start = System.currentTimeMillis();
+        List<File> poms = group.stream().map(MavenProject::getPomFile).collect(Collectors.toList());
+        List<MavenModelReaderResult> results =
+            reader.resolveMavenProjects(
+                poms,
+                mavenServer,
+                first.getActiveProfiles(),
+                first.getInactiveProfiles(),
+                serverManager);
+        LOG.info(
+            "{} maven projects resolved in {} ms",
+            group.size(),
+            System.currentTimeMillis() - start);
+
+        for (int i = 0; i < group.size(); i++) {
+          MavenProject mavenProject = group.get(i);
+          MavenProjectModifications modifications = mavenProject.setResolveResult(results.get(i));
+          String key = keys.get(mavenProject);
+          if (key != null) {
+            resolutionCache.put(
+                mavenProject.getPomPath(), key, results.get(i), workspacePoms(mavenProject));
+          }
+          dispatcher.projectResolved(mavenProject, modifications);
+          resolved.add(mavenProject);
+        }
+      }
+    } finally {
+      wrapperManager.release(mavenServer);
+    }
+    return resolved;
+  }
+
+  /**
+   * Computes key of resolution of the project from its pom and poms of its parents which are
+   * projects of the workspace.
+   */
+  private String resolutionKey(MavenProject mavenProject) {
+    File pom = mavenProject.getPomFile();
+    if (pom == null) {
+      return null;
+    }
+    List<File> poms = new ArrayList<>();
+    poms.add(pom);
+    Set<MavenProject> visited = new HashSet<>();
+    visited.add(mavenProject);
+    readLock.lock();
+    try {
+      MavenProject current = mavenProject;
+      while (current.getParentKey() != null) {
+        current = keyToProjectMap.get(current.getParentKey());
+        if (current == null || !visited.add(current)) {
+          break;
+        }
+        if (current.getPomFile() != null) {
+          poms.add(current.getPomFile());
+        }
+      }
+    } finally {
+      readLock.unlock();
+    }
+    return MavenResolutionCache.key(
+        poms, mavenProject.getActiveProfiles(), mavenProject.getInactiveProfiles());
+  }
+
+  /**
+   * Returns poms of projects of the workspace which result of resolution of the given project
+   * depends on, i.e. its parents and resolved dependencies, transitively. Must be called after the
+   * result is set to the project, dependencies of unresolved model may miss inherited versions.
+   */
+  private List<File> workspacePoms(MavenProject mavenProject) {
+    Set<MavenProject> related = new LinkedHashSet<>();
+    Deque<MavenProject> queue = new ArrayDeque<>();
+    queue.add(mavenProject);
+    readLock.lock();
+    try {
+      while (!queue.isEmpty()) {
+        MavenProject current = queue.poll();
+        if (!related.add(current)) {
+          continue;
+        }
+        if (current.getParentKey() != null) {
+          MavenProject parent = keyToProjectMap.get(current.getParentKey());
+          if (parent != null) {
+            queue.add(parent);
+          }
+        }
+        if (current.getDependencies() != null) {
+          for (MavenArtifact artifact : current.getDependencies()) {
+            MavenProject dependency =
+                keyToProjectMap.get(
+                    new MavenKey(
+                        artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion()));
+            if (dependency != null) {
+              queue.add(dependency);
+            }
+          }
+        }
+      }
+    } finally {
+      readLock.unlock();
+    }
+
+    return related
+        .stream()
+        .filter(project -> project != mavenProject)
+        .map(MavenProject::getPomFile)
+        .filter(Objects::nonNull)
+        .sorted(Comparator.comparing(File::getAbsolutePath))
+        .collect(Collectors.toList());
+  }
+
   public void update(List<IProject> projects, boolean recursive) {
     if (projects.isEmpty()) {
       return;
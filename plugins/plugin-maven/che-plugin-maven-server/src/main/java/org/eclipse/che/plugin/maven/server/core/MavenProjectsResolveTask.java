@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.maven.server.core;
+
+import java.util.List;
+import java.util.function.Consumer;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves several projects with maven server of a lane, see {@link
+ * MavenProjectManager#resolveMavenProjects(List, int)}.
+ */
+public class MavenProjectsResolveTask implements MavenProjectTask {
+  private static final Logger LOG = LoggerFactory.getLogger(MavenProjectsResolveTask.class);
+
+  private final List<MavenProject> mavenProjects;
+  private final int lane;
+  private final MavenProjectManager projectManager;
+  private final Consumer<MavenProject> afterResolve;
+
+  public MavenProjectsResolveTask(
+      List<MavenProject> mavenProjects,
+      int lane,
+      MavenProjectManager projectManager,
+      Consumer<MavenProject> afterResolve) {
+    this.mavenProjects = mavenProjects;
+    this.lane = lane;
+    this.projectManager = projectManager;
+    this.afterResolve = afterResolve;
+  }
+
+  @Override
+  public void perform() {
+    for (MavenProject resolved : projectManager.resolveMavenProjects(mavenProjects, lane)) {
+      try {
+        afterResolve.accept(resolved);
+      } catch (RuntimeException e) {
+        LOG.error(e.getMessage(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.maven.server.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenProjectProblem;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps results of resolution of maven projects on disk, so projects which poms weren't changed
+ * aren't resolved again after restart of workspace agent.
+ *
+ * <p>Result of a project is stored under its workspace relative pom path together with key of the
+ * resolution, see {@link #key(List, List, List)}, and hashes of poms of workspace projects the
+ * result depends on, e.g. parents and dependencies which are known only after resolution. Result is
+ * valid only while the key is the same and none of those poms is changed, entries of modified and
+ * removed poms are also dropped as soon as they are reported by {@link
+ * org.eclipse.che.plugin.maven.server.PomModificationDetector}.
+ */
+@Singleton
+public class MavenResolutionCache {
+  private static final Logger LOG = LoggerFactory.getLogger(MavenResolutionCache.class);
+
+  /** Part of every key, changed on incompatible changes of stored data. */
+  private static final int VERSION = 2;
+
+  private final Path directory;
+
+  @Inject
+  public MavenResolutionCache(@Named("che.maven.server.resolution_cache_dir") String directory) {
+    this.directory = Paths.get(directory);
+  }
+
+  /**
+   * Computes key of resolution of a project from content of its pom and poms of its parents and
+   * from explicitly (de)activated profiles.
+   *
+   * @param poms pom of the project followed by poms of its parents
+   * @return key of resolution or {@code null} if any of poms can't be read
+   */
+  public static String key(
+      List<File> poms, List<String> activeProfiles, List<String> inactiveProfiles) {
+    Hasher hasher = Hashing.sha256().newHasher().putInt(VERSION);
+    for (File pom : poms) {
+      String hash = hash(pom);
+      if (hash == null) {
+        return null;
+      }
+      hasher.putString(pom.getAbsolutePath(), UTF_8).putString(hash, UTF_8);
+    }
+    hasher.putString(String.valueOf(activeProfiles), UTF_8);
+    hasher.putString(String.valueOf(inactiveProfiles), UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /** Returns hash of content of the pom or {@code null} if it can't be read. */
+  private static String hash(File pom) {
+    try {
+      return Hashing.sha256().hashBytes(Files.readAllBytes(pom.toPath())).toString();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns stored result of resolution of the project.
+   *
+   * @param pomPath workspace relative path of pom of the project
+   * @param key key of resolution of the project
+   * @return stored result or {@code null} if there is no result stored with the given key or any
+   *     of workspace poms it depends on is changed
+   */
+  public MavenModelReaderResult get(String pomPath, String key) {
+    Path file = entryFile(pomPath);
+    try (InputStream in = Files.newInputStream(file);
+        ObjectInputStream objects = new ObjectInputStream(in)) {
+      Entry entry = (Entry) objects.readObject();
+      if (!entry.pomPath.equals(pomPath) || !entry.key.equals(key)) {
+        return null;
+      }
+      for (Map.Entry<String, String> pom : entry.workspacePoms.entrySet()) {
+        if (!pom.getValue().equals(hash(new File(pom.getKey())))) {
+          return null;
+        }
+      }
+      return new MavenModelReaderResult(
+          entry.model,
+          entry.activeProfiles,
+          entry.inactiveProfiles,
+          entry.problems,
+          entry.unresolvedArtifacts);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      LOG.warn("Can't read resolution of maven project {}: {}", pomPath, e.getMessage());
+      invalidate(pomPath);
+      return null;
+    }
+  }
+
+  /**
+   * Stores result of resolution of the project. Results with problems aren't stored, since they
+   * may be caused by temporary failures, e.g. unavailable remote repository.
+   *
+   * @param pomPath workspace relative path of pom of the project
+   * @param key key of resolution of the project
+   * @param result result of resolution
+   * @param workspacePoms poms of workspace projects the result depends on
+   */
+  public void put(
+      String pomPath, String key, MavenModelReaderResult result, List<File> workspacePoms) {
+    if (!result.getProblems().isEmpty() || !result.getUnresolvedArtifacts().isEmpty()) {
+      invalidate(pomPath);
+      return;
+    }
+    LinkedHashMap<String, String> hashes = new LinkedHashMap<>();
+    for (File pom : workspacePoms) {
+      String hash = hash(pom);
+      if (hash == null) {
+        invalidate(pomPath);
+        return;
+      }
+      hashes.put(pom.getAbsolutePath(), hash);
+    }
+    Path file = entryFile(pomPath);
+    try {
+      Files.createDirectories(directory);
+      Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try {
+        try (OutputStream out = Files.newOutputStream(tmp);
+            ObjectOutputStream objects = new ObjectOutputStream(out)) {
+          objects.writeObject(new Entry(pomPath, key, result, hashes));
+        }
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      LOG.warn("Can't store resolution of maven project {}: {}", pomPath, e.getMessage());
+    }
+  }
+
+  /**
+   * Drops stored result of resolution of the project.
+   *
+   * @param pomPath workspace relative path of pom of the project
+   */
+  public void invalidate(String pomPath) {
+    try {
+      Files.deleteIfExists(entryFile(pomPath));
+    } catch (IOException e) {
+      LOG.warn("Can't invalidate resolution of maven project {}: {}", pomPath, e.getMessage());
+    }
+  }
+
+  private Path entryFile(String pomPath) {
+    return directory.resolve(Hashing.md5().hashString(pomPath, UTF_8).toString());
+  }
+
+  private static class Entry implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    private final String pomPath;
+    private final String key;
+    private final LinkedHashMap<String, String> workspacePoms;
+    private final MavenModel model;
+    private final ArrayList<String> activeProfiles;
+    private final ArrayList<String> inactiveProfiles;
+    private final ArrayList<MavenProjectProblem> problems;
+    private final HashSet<MavenKey> unresolvedArtifacts;
+
+    private Entry(
+        String pomPath,
+        String key,
+        MavenModelReaderResult result,
+        LinkedHashMap<String, String> workspacePoms) {
+      this.pomPath = pomPath;
+      this.key = key;
+      this.workspacePoms = workspacePoms;
+      this.model = result.getMavenModel();
+      this.activeProfiles = copy(result.getActiveProfiles());
+      this.inactiveProfiles = copy(result.getInactiveProfiles());
+      this.problems = copy(result.getProblems());
+      this.unresolvedArtifacts = new HashSet<>(result.getUnresolvedArtifacts());
+    }
+
+    private static <T> ArrayList<T> copy(List<T> list) {
+      return list == null ? new ArrayList<>() : new ArrayList<>(list);
+    }
+  }
+}
@@ -10,6 +10,7 @@
  */
 package org.eclipse.che.plugin.maven.server.core;
 
+import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.plugin.maven.shared.MavenAttributes.MAVEN_ID;
 
@@ -23,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Function;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -64,8 +66,7 @@ public class MavenWorkspace {
   private final Provider<ProjectRegistry> projectRegistryProvider;
   private final ClasspathManager classpathManager;
 
-  private MavenTaskExecutor resolveExecutor;
-  private MavenTaskExecutor classPathExecutor;
+  private final List<MavenTaskExecutor> resolveExecutors = new ArrayList<>();
 
   private Set<MavenProject> projectsToResolve = new CopyOnWriteArraySet<>();
 
@@ -81,7 +82,9 @@ public class MavenWorkspace {
     this.projectRegistryProvider = projectRegistryProvider;
     this.classpathManager = classpathManager;
     this.manager = manager;
-    resolveExecutor = new MavenTaskExecutor(executorService, notifier);
+    for (int i = 0; i < executorService.getPoolSize(); i++) {
+      resolveExecutors.add(new MavenTaskExecutor(executorService, notifier));
+    }
     eventService.subscribe(
         new EventSubscriber<ProjectDeletedEvent>() {
           @Override
@@ -177,17 +180,49 @@ public class MavenWorkspace {
     Set<MavenProject> needResolve = new HashSet<>(projectsToResolve);
     projectsToResolve.clear();
 
-    for (MavenProject mavenProject : needResolve) {
+    // modules of a project are resolved against models of each other from the workspace cache,
+    // so they don't wait for each other and are resolved by all lanes at once
+    List<MavenProject> sorted =
+        needResolve.stream().sorted(comparing(MavenWorkspace::pathOf)).collect(toList());
+    List<List<MavenProject>> lanes =
+        splitIntoLanes(sorted, MavenWorkspace::pathOf, resolveExecutors.size());
+    for (int lane = 0; lane < lanes.size(); lane++) {
+      if (lanes.get(lane).isEmpty()) {
+        continue;
+      }
+      resolveExecutors
+          .get(lane)
+          .submitTask(
+              new MavenProjectsResolveTask(
+                  lanes.get(lane),
+                  lane,
+                  manager,
+                  mavenProject -> {
+                    addSourcesFromBuildHelperPlugin(mavenProject);
+                    classpathManager.updateClasspath(mavenProject);
+                  }));
+    }
+  }
 
-      resolveExecutor.submitTask(
-          new MavenProjectResolveTask(
-              mavenProject,
-              manager,
-              () -> {
-                addSourcesFromBuildHelperPlugin(mavenProject);
-                classpathManager.updateClasspath(mavenProject);
-              }));
+  private static String pathOf(MavenProject project) {
+    return project.getProject().getFullPath().toOSString();
+  }
+
+  /**
+   * Splits the given items into the given number of lanes keeping their order, the lane of an item
+   * depends only on its key. Lanes run their tasks one by one, so resolving and classpath updates
+   * of the same project requested by overlapping updates never run concurrently.
+   */
+  static <T> List<List<T>> splitIntoLanes(List<T> items, Function<T, String> key, int lanes) {
+    int count = Math.max(lanes, 1);
+    List<List<T>> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(new ArrayList<>());
+    }
+    for (T item : items) {
+      result.get(Math.floorMod(key.apply(item).hashCode(), count)).add(item);
     }
+    return result;
   }
 
   private void updateJavaProject(MavenProject project) {
@@ -284,6 +319,6 @@ public class MavenWorkspace {
 
   /** Waits for resolving tasks ends. For test only. */
   public void waitForUpdate() {
-    resolveExecutor.waitForEndAllTasks();
+    resolveExecutors.forEach(MavenTaskExecutor::waitForEndAllTasks);
   }
 }
@@ -80,38 +80,85 @@ public class MavenModelReader {
     try {
       MavenServerResult resolveProject =
           mavenServer.resolveProject(pom, activeProfiles, inactiveProfiles);
-      MavenProjectInfo projectInfo = resolveProject.getProjectInfo();
-      if (projectInfo != null) {
-        return new MavenModelReaderResult(
-            projectInfo.getMavenModel(),
-            projectInfo.getActiveProfiles(),
-            emptyList(),
-            resolveProject.getProblems(),
-            resolveProject.getUnresolvedArtifacts());
-      } else {
-        MavenModelReaderResult readMavenProject = readMavenProject(pom, serverManager);
-        readMavenProject.getProblems().addAll(resolveProject.getProblems());
-        readMavenProject.getUnresolvedArtifacts().addAll(resolveProject.getUnresolvedArtifacts());
-        return readMavenProject;
-      }
+      return toReaderResult(pom, resolveProject, serverManager);
+    } catch (Throwable t) {
+      return toFailedResult(pom, t, serverManager);
+    }
+  }
 
+  /**
+   * Resolves the given projects, which have the same profiles, in one call of the maven server.
+   *
+   * @return results in order of the given poms
+   */
+  public List<MavenModelReaderResult> resolveMavenProjects(
+      List<File> poms,
+      MavenServerWrapper mavenServer,
+      List<String> activeProfiles,
+      List<String> inactiveProfiles,
+      MavenServerManager serverManager) {
+    List<MavenServerResult> resolveProjects;
+    try {
+      resolveProjects = mavenServer.resolveProjects(poms, activeProfiles, inactiveProfiles);
     } catch (Throwable t) {
-      String message = t.getMessage();
-      LOG.info(message, t);
-      MavenModelReaderResult readMavenProject = readMavenProject(pom, serverManager);
-      if (message != null) {
-        readMavenProject
-            .getProblems()
-            .add(MavenProjectProblem.newStructureProblem(pom.getPath(), message));
-      } else {
-        readMavenProject
-            .getProblems()
-            .add(MavenProjectProblem.newSyntaxProblem(pom.getPath(), MavenProblemType.SYNTAX));
+      return poms
+          .stream()
+          .map(pom -> toFailedResult(pom, t, serverManager))
+          .collect(Collectors.toList());
+    }
+
+    List<MavenModelReaderResult> results = new ArrayList<>(poms.size());
+    for (int i = 0; i < poms.size(); i++) {
+      File pom = poms.get(i);
+      MavenServerResult resolveProject = resolveProjects.get(i);
+      LOG.info(
+          "Maven project {} resolved in {} ms",
+          pom.getParent(),
+          resolveProject.getResolutionTime());
+      try {
+        results.add(toReaderResult(pom, resolveProject, serverManager));
+      } catch (Throwable t) {
+        results.add(toFailedResult(pom, t, serverManager));
       }
+    }
+    return results;
+  }
+
+  private MavenModelReaderResult toReaderResult(
+      File pom, MavenServerResult resolveProject, MavenServerManager serverManager) {
+    MavenProjectInfo projectInfo = resolveProject.getProjectInfo();
+    if (projectInfo != null) {
+      return new MavenModelReaderResult(
+          projectInfo.getMavenModel(),
+          projectInfo.getActiveProfiles(),
+          emptyList(),
+          resolveProject.getProblems(),
+          resolveProject.getUnresolvedArtifacts());
+    } else {
+      MavenModelReaderResult readMavenProject = readMavenProject(pom, serverManager);
+      readMavenProject.getProblems().addAll(resolveProject.getProblems());
+      readMavenProject.getUnresolvedArtifacts().addAll(resolveProject.getUnresolvedArtifacts());
       return readMavenProject;
     }
   }
 
+  private MavenModelReaderResult toFailedResult(
+      File pom, Throwable t, MavenServerManager serverManager) {
+    String message = t.getMessage();
+    LOG.info(message, t);
+    MavenModelReaderResult readMavenProject = readMavenProject(pom, serverManager);
+    if (message != null) {
+      readMavenProject
+          .getProblems()
+          .add(MavenProjectProblem.newStructureProblem(pom.getPath(), message));
+    } else {
+      readMavenProject
+          .getProblems()
+          .add(MavenProjectProblem.newSyntaxProblem(pom.getPath(), MavenProblemType.SYNTAX));
+    }
+    return readMavenProject;
+  }
+
   public MavenModelReaderResult readMavenProject(File pom, MavenServerManager serverManager) {
     Pair<ModelReadingResult, Pair<List<String>, List<String>>> readResult =
         readModel(pom, serverManager);
@@ -79,6 +79,16 @@ public class MavenProject {
     return info.profilesIds;
   }
 
+  /** Returns ids of profiles which are explicitly activated to resolve the project. */
+  public List<String> getActiveProfiles() {
+    return info.activeProfiles;
+  }
+
+  /** Returns ids of profiles which are explicitly deactivated to resolve the project. */
+  public List<String> getInactiveProfiles() {
+    return info.inactiveProfiles;
+  }
+
   public List<MavenResource> getResources() {
     return info.resources;
   }
@@ -194,6 +204,17 @@ public class MavenProject {
             info.inactiveProfiles,
             serverManager);
 
+    return setResolveResult(modelReaderResult);
+  }
+
+  /**
+   * Updates the project with result of its resolution, e.g. when it's resolved together with other
+   * projects.
+   *
+   * @param modelReaderResult result of resolution of the project
+   * @return the modification types that applied to this project
+   */
+  public MavenProjectModifications setResolveResult(MavenModelReaderResult modelReaderResult) {
     return setModel(modelReaderResult, modelReaderResult.getProblems().isEmpty(), false);
   }
 
@@ -40,6 +40,7 @@ import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenResolutionCache;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
@@ -87,7 +88,8 @@ public class WorkspaceTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            mock(MavenResolutionCache.class));
     mavenWorkspace =
         new MavenWorkspace(
             mavenProjectManager,
@@ -28,6 +28,7 @@ import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenResolutionCache;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
 import org.eclipse.che.plugin.maven.server.rmi.MavenServerManagerTest;
@@ -74,7 +75,8 @@ public class ClasspathManagerTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            mock(MavenResolutionCache.class));
     classpathManager =
         new ClasspathManager(
             root.getAbsolutePath(), wrapperManager, mavenProjectManager, terminal, mavenNotifier);
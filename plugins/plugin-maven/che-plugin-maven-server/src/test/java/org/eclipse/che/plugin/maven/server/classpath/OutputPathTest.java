@@ -24,6 +24,7 @@ import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenResolutionCache;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
 import org.eclipse.che.plugin.maven.server.rmi.MavenServerManagerTest;
@@ -65,7 +66,8 @@ public class OutputPathTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            mock(MavenResolutionCache.class));
     mavenWorkspace =
         new MavenWorkspace(
             mavenProjectManager,
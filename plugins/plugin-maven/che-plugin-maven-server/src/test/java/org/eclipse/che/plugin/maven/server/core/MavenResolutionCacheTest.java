@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.maven.server.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenProblemType;
+import org.eclipse.che.maven.data.MavenProjectProblem;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link MavenResolutionCache}. */
+public class MavenResolutionCacheTest {
+  private static final String POM_PATH = "/project/pom.xml";
+
+  private File root;
+  private MavenResolutionCache cache;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    root = Files.createTempDirectory("maven-resolution-cache").toFile();
+    cache = new MavenResolutionCache(new File(root, "cache").getAbsolutePath());
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    IoUtil.deleteRecursive(root);
+  }
+
+  @Test
+  public void shouldReturnStoredResultWithSameKey() {
+    cache.put(POM_PATH, "key", result(), emptyList());
+
+    MavenModelReaderResult cached = cache.get(POM_PATH, "key");
+
+    assertNotNull(cached);
+    assertEquals(cached.getMavenModel().getMavenKey(), new MavenKey("org.acme", "project", "1.0"));
+    assertEquals(cached.getActiveProfiles(), singletonList("dev"));
+  }
+
+  @Test
+  public void shouldNotReturnResultWithOtherKey() {
+    cache.put(POM_PATH, "key", result(), emptyList());
+
+    assertNull(cache.get(POM_PATH, "other"));
+    assertNull(cache.get("/other/pom.xml", "key"));
+  }
+
+  @Test
+  public void shouldNotReturnInvalidatedResult() {
+    cache.put(POM_PATH, "key", result(), emptyList());
+
+    cache.invalidate(POM_PATH);
+
+    assertNull(cache.get(POM_PATH, "key"));
+  }
+
+  @Test
+  public void shouldNotReturnResultWhenWorkspacePomItDependsOnIsChanged() throws Exception {
+    File dependency = new File(root, "pom.xml");
+    Files.write(dependency.toPath(), "<project/>".getBytes(UTF_8));
+    cache.put(POM_PATH, "key", result(), singletonList(dependency));
+    assertNotNull(cache.get(POM_PATH, "key"));
+
+    Files.write(dependency.toPath(), "<project></project>".getBytes(UTF_8));
+
+    assertNull(cache.get(POM_PATH, "key"));
+  }
+
+  @Test
+  public void shouldNotReturnResultWhenWorkspacePomItDependsOnIsRemoved() throws Exception {
+    File dependency = new File(root, "pom.xml");
+    Files.write(dependency.toPath(), "<project/>".getBytes(UTF_8));
+    cache.put(POM_PATH, "key", result(), singletonList(dependency));
+
+    Files.delete(dependency.toPath());
+
+    assertNull(cache.get(POM_PATH, "key"));
+  }
+
+  @Test
+  public void shouldNotStoreResultWithProblems() {
+    MavenModelReaderResult withProblems =
+        new MavenModelReaderResult(
+            model(),
+            emptyList(),
+            emptyList(),
+            singletonList(
+                new MavenProjectProblem(POM_PATH, "error", MavenProblemType.DEPENDENCY)),
+            emptySet());
+
+    cache.put(POM_PATH, "key", withProblems, emptyList());
+
+    assertNull(cache.get(POM_PATH, "key"));
+  }
+
+  @Test
+  public void shouldChangeKeyWhenPomOrProfilesAreChanged() throws Exception {
+    File pom = new File(root, "pom.xml");
+    Files.write(pom.toPath(), "<project/>".getBytes(UTF_8));
+    String key = MavenResolutionCache.key(singletonList(pom), emptyList(), emptyList());
+
+    assertEquals(MavenResolutionCache.key(singletonList(pom), emptyList(), emptyList()), key);
+    assertNotEquals(
+        MavenResolutionCache.key(singletonList(pom), singletonList("dev"), emptyList()), key);
+    Files.write(pom.toPath(), "<project></project>".getBytes(UTF_8));
+    assertNotEquals(MavenResolutionCache.key(singletonList(pom), emptyList(), emptyList()), key);
+    assertNull(
+        MavenResolutionCache.key(
+            singletonList(new File(root, "missing.xml")), emptyList(), emptyList()));
+  }
+
+  private static MavenModelReaderResult result() {
+    return new MavenModelReaderResult(
+        model(), singletonList("dev"), emptyList(), emptyList(), emptySet());
+  }
+
+  private static MavenModel model() {
+    MavenModel model = new MavenModel();
+    model.setMavenKey(new MavenKey("org.acme", "project", "1.0"));
+    return model;
+  }
+}
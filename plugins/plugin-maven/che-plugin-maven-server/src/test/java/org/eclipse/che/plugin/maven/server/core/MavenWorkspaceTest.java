@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.maven.server.core;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.function.Function;
+import org.testng.annotations.Test;
+
+/** Tests for {@link MavenWorkspace#splitIntoLanes}. */
+public class MavenWorkspaceTest {
+
+  @Test
+  public void shouldPutItemIntoLaneByItsKey() {
+    List<List<String>> lanes =
+        MavenWorkspace.splitIntoLanes(asList("/a", "/b", "/c"), Function.identity(), 3);
+
+    assertEquals(lanes.size(), 3);
+    for (String item : asList("/a", "/b", "/c")) {
+      assertTrue(lanes.get(Math.floorMod(item.hashCode(), 3)).contains(item));
+    }
+  }
+
+  @Test
+  public void shouldPutItemIntoTheSameLaneRegardlessOfOtherItems() {
+    List<List<String>> all =
+        MavenWorkspace.splitIntoLanes(asList("/a", "/b", "/c", "/d"), Function.identity(), 2);
+    List<List<String>> single =
+        MavenWorkspace.splitIntoLanes(singletonList("/c"), Function.identity(), 2);
+
+    int lane = single.get(0).isEmpty() ? 1 : 0;
+    assertTrue(all.get(lane).contains("/c"));
+  }
+
+  @Test
+  public void shouldKeepOrderOfItemsInLane() {
+    List<String> lane =
+        MavenWorkspace.splitIntoLanes(asList("/a", "/b", "/c"), it -> "key", 4)
+            .get(Math.floorMod("key".hashCode(), 4));
+
+    assertEquals(lane, asList("/a", "/b", "/c"));
+  }
+
+  @Test
+  public void shouldUseSingleLaneWhenPoolSizeIsNotPositive() {
+    assertEquals(
+        MavenWorkspace.splitIntoLanes(asList("/a", "/b"), Function.identity(), 0),
+        singletonList(asList("/a", "/b")));
+    assertEquals(
+        MavenWorkspace.splitIntoLanes(emptyList(), Function.identity(), 0),
+        singletonList(emptyList()));
+  }
+}
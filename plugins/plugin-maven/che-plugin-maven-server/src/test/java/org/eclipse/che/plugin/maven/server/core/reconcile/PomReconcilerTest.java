@@ -33,6 +33,7 @@ import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenResolutionCache;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
 import org.eclipse.che.plugin.maven.server.rmi.MavenServerManagerTest;
@@ -81,7 +82,8 @@ public class PomReconcilerTest extends BaseTest {
             mavenServerManager,
             terminal,
             mavenNotifier,
-            new EclipseWorkspaceProvider());
+            new EclipseWorkspaceProvider(),
+            mock(MavenResolutionCache.class));
     Provider<ProjectManager> projectManagerProvider =
         (Provider<ProjectManager>) mock(Provider.class);
     when(projectManagerProvider.get()).thenReturn(pm);
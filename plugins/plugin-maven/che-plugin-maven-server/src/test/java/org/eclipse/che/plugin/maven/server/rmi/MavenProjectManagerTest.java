@@ -25,6 +25,7 @@ import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectListener;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenResolutionCache;
 import org.eclipse.che.plugin.maven.server.core.MavenTerminalImpl;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProjectModifications;
@@ -76,7 +77,8 @@ public class MavenProjectManagerTest {
             manager,
             new MavenTerminalImpl(),
             new MavenServerManagerTest.MyMavenServerProgressNotifier(),
-            workspaceProvider);
+            workspaceProvider,
+            mock(MavenResolutionCache.class));
     when(workspaceProvider.get()).thenReturn(workspace);
     when(workspace.getRoot()).thenReturn(workspaceRoot);
   }
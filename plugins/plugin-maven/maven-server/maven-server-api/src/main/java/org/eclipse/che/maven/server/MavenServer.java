@@ -35,6 +35,16 @@ public interface MavenServer extends Remote {
   MavenServerResult resolveProject(
       File pom, List<String> activeProfiles, List<String> inactiveProfiles) throws RemoteException;
 
+  /**
+   * Resolves the given projects in one maven session, so models shared by the projects, e.g. parent
+   * poms, are built once.
+   *
+   * @return results in order of the given poms
+   */
+  List<MavenServerResult> resolveProjects(
+      List<File> poms, List<String> activeProfiles, List<String> inactiveProfiles)
+      throws RemoteException;
+
   MavenArtifact resolveArtifact(
       MavenArtifactKey artifactKey, List<MavenRemoteRepository> remoteRepositories)
       throws RemoteException;
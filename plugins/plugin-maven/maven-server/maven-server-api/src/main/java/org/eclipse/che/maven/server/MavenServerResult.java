@@ -27,14 +27,24 @@ public class MavenServerResult implements Serializable {
   private final MavenProjectInfo projectInfo;
   private final List<MavenProjectProblem> problems;
   private final Set<MavenKey> unresolvedArtifacts;
+  private final long resolutionTime;
 
   public MavenServerResult(
       MavenProjectInfo projectInfo,
       List<MavenProjectProblem> problems,
       Set<MavenKey> unresolvedArtifacts) {
+    this(projectInfo, problems, unresolvedArtifacts, 0);
+  }
+
+  public MavenServerResult(
+      MavenProjectInfo projectInfo,
+      List<MavenProjectProblem> problems,
+      Set<MavenKey> unresolvedArtifacts,
+      long resolutionTime) {
     this.projectInfo = projectInfo;
     this.problems = problems;
     this.unresolvedArtifacts = unresolvedArtifacts;
+    this.resolutionTime = resolutionTime;
   }
 
   public MavenProjectInfo getProjectInfo() {
@@ -48,4 +58,9 @@ public class MavenServerResult implements Serializable {
   public Set<MavenKey> getUnresolvedArtifacts() {
     return unresolvedArtifacts;
   }
+
+  /** Returns time in milliseconds spent by maven server on resolution of the project. */
+  public long getResolutionTime() {
+    return resolutionTime;
+  }
 }
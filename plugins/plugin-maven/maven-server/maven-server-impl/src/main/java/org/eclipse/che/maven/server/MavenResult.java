@@ -23,6 +23,7 @@ public class MavenResult {
   private MavenProject mavenProject;
   private DependencyResolutionResult dependencyResolutionResult;
   private List<Exception> exceptions;
+  private long resolutionTime;
 
   public MavenResult(MavenProject mavenProject, List<Exception> exceptions) {
     this(mavenProject, null, exceptions);
@@ -32,9 +33,18 @@ public class MavenResult {
       MavenProject mavenProject,
       DependencyResolutionResult dependencyResolutionResult,
       List<Exception> exceptions) {
+    this(mavenProject, dependencyResolutionResult, exceptions, 0);
+  }
+
+  public MavenResult(
+      MavenProject mavenProject,
+      DependencyResolutionResult dependencyResolutionResult,
+      List<Exception> exceptions,
+      long resolutionTime) {
     this.mavenProject = mavenProject;
     this.dependencyResolutionResult = dependencyResolutionResult;
     this.exceptions = exceptions;
+    this.resolutionTime = resolutionTime;
   }
 
   public MavenProject getMavenProject() {
@@ -48,4 +58,9 @@ public class MavenResult {
   public List<Exception> getExceptions() {
     return exceptions;
   }
+
+  /** Returns time in milliseconds spent on resolution of dependencies of the project. */
+  public long getResolutionTime() {
+    return resolutionTime;
+  }
 }
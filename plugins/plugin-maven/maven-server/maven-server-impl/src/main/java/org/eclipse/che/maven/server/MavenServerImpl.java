@@ -25,7 +25,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.apache.log4j.BasicConfigurator;
 import org.apache.log4j.Level;
@@ -43,7 +42,6 @@ import org.apache.maven.artifact.repository.ArtifactRepositoryFactory;
 import org.apache.maven.artifact.resolver.ArtifactResolutionRequest;
 import org.apache.maven.artifact.resolver.ArtifactResolutionResult;
 import org.apache.maven.artifact.resolver.ArtifactResolver;
-import org.apache.maven.artifact.resolver.ResolutionListener;
 import org.apache.maven.cli.MavenCli;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.DefaultMavenExecutionResult;
@@ -533,13 +531,21 @@ public class MavenServerImpl extends MavenRmiObject implements MavenServer {
   @Override
   public MavenServerResult resolveProject(
       File pom, List<String> activeProfiles, List<String> inactiveProfiles) throws RemoteException {
-    DependencyTreeResolutionListener listener =
-        new DependencyTreeResolutionListener(terminalLogger);
-    MavenResult mavenResult =
-        internalResolveProject(
-            pom, activeProfiles, inactiveProfiles, Collections.singletonList(listener));
+    return resolveProjects(Collections.singletonList(pom), activeProfiles, inactiveProfiles).get(0);
+  }
+
+  @Override
+  public List<MavenServerResult> resolveProjects(
+      List<File> poms, List<String> activeProfiles, List<String> inactiveProfiles)
+      throws RemoteException {
+    List<MavenResult> mavenResults =
+        internalResolveProjects(poms, activeProfiles, inactiveProfiles);
 
-    return createResult(pom, mavenResult);
+    List<MavenServerResult> results = new ArrayList<>(poms.size());
+    for (int i = 0; i < poms.size(); i++) {
+      results.add(createResult(poms.get(i), mavenResults.get(i)));
+    }
+    return results;
   }
 
   @Override
@@ -634,7 +640,8 @@ public class MavenServerImpl extends MavenRmiObject implements MavenServer {
     validate(pom, mavenResult.getExceptions(), problems);
     MavenProject project = mavenResult.getMavenProject();
     if (project == null) {
-      return new MavenServerResult(null, problems, unresolvedArtifacts);
+      return new MavenServerResult(
+          null, problems, unresolvedArtifacts, mavenResult.getResolutionTime());
     }
 
     MavenModel model = null;
@@ -660,7 +667,8 @@ public class MavenServerImpl extends MavenRmiObject implements MavenServer {
     List<String> activeProfiles = getActiveProfiles(project);
     MavenProjectInfo projectInfo = new MavenProjectInfo(model, null, activeProfiles);
 
-    return new MavenServerResult(projectInfo, problems, unresolvedArtifacts);
+    return new MavenServerResult(
+        projectInfo, problems, unresolvedArtifacts, mavenResult.getResolutionTime());
   }
 
   private List<String> getActiveProfiles(MavenProject project) throws RemoteException {
@@ -720,64 +728,102 @@ public class MavenServerImpl extends MavenRmiObject implements MavenServer {
     }
   }
 
-  private MavenResult internalResolveProject(
-      File pom,
-      List<String> activeProfiles,
-      List<String> inactiveProfiles,
-      List<ResolutionListener> dependencyTreeResolutionListeners) {
+  /**
+   * Builds models of the given projects in one session, so parent models and imported models are
+   * read only once, then resolves dependencies of each project. Results are in order of the poms.
+   */
+  private List<MavenResult> internalResolveProjects(
+      List<File> poms, List<String> activeProfiles, List<String> inactiveProfiles) {
 
     MavenExecutionRequest request =
-        newMavenRequest(pom, activeProfiles, inactiveProfiles, Collections.emptyList());
+        newMavenRequest(poms.get(0), activeProfiles, inactiveProfiles, Collections.emptyList());
     request.setUpdateSnapshots(updateSnapshots);
 
-    AtomicReference<MavenResult> reference = new AtomicReference<>();
+    List<MavenResult> results = new ArrayList<>(poms.size());
     runMavenRequest(
         request,
         () -> {
+          List<ProjectBuildingResult> buildingResults;
+          Exception buildingException = null;
           try {
             ProjectBuilder builder = getMavenComponent(ProjectBuilder.class);
+            buildingResults = builder.build(poms, false, request.getProjectBuildingRequest());
+          } catch (ProjectBuildingException e) {
+            buildingResults = e.getResults() == null ? Collections.emptyList() : e.getResults();
+            buildingException = e;
+          } catch (Exception e) {
+            buildingResults = Collections.emptyList();
+            buildingException = e;
+          }
 
-            List<ProjectBuildingResult> resultList =
-                builder.build(
-                    Collections.singletonList(pom), false, request.getProjectBuildingRequest());
-            ProjectBuildingResult result = resultList.get(0);
-            MavenProject mavenProject = result.getProject();
-            RepositorySystemSession repositorySession =
-                getMavenComponent(LegacySupport.class).getRepositorySession();
-            if (repositorySession instanceof DefaultRepositorySystemSession) {
+          RepositorySystemSession repositorySession =
+              getMavenComponent(LegacySupport.class).getRepositorySession();
+          if (repositorySession instanceof DefaultRepositorySystemSession) {
+            ((DefaultRepositorySystemSession) repositorySession)
+                .setTransferListener(new ArtifactTransferListener(mavenProgressNotifier));
+            if (workspaceCache != null) {
               ((DefaultRepositorySystemSession) repositorySession)
-                  .setTransferListener(new ArtifactTransferListener(mavenProgressNotifier));
-              if (workspaceCache != null) {
-                ((DefaultRepositorySystemSession) repositorySession)
-                    .setWorkspaceReader(new MavenWorkspaceReader(workspaceCache));
-              }
+                  .setWorkspaceReader(new MavenWorkspaceReader(workspaceCache));
             }
+          }
 
-            List<Exception> exceptions = new ArrayList<>();
-
-            loadExtensions(mavenProject, exceptions);
-            mavenProject.setDependencyArtifacts(
-                mavenProject.createArtifacts(getMavenComponent(ArtifactFactory.class), null, null));
-
-            ArtifactResolutionRequest resolutionRequest = new ArtifactResolutionRequest();
-            resolutionRequest.setArtifact(mavenProject.getArtifact());
-            resolutionRequest.setRemoteRepositories(mavenProject.getRemoteArtifactRepositories());
-            resolutionRequest.setArtifactDependencies(mavenProject.getDependencyArtifacts());
-            resolutionRequest.setListeners(dependencyTreeResolutionListeners);
-            resolutionRequest.setLocalRepository(localRepo);
-            resolutionRequest.setManagedVersionMap(mavenProject.getManagedVersionMap());
-            resolutionRequest.setResolveTransitively(true);
-            resolutionRequest.setResolveRoot(false);
-            ArtifactResolver resolver = getMavenComponent(ArtifactResolver.class);
-            ArtifactResolutionResult resolve = resolver.resolve(resolutionRequest);
-            mavenProject.setArtifacts(resolve.getArtifacts());
-            reference.set(new MavenResult(mavenProject, exceptions));
-
-          } catch (Exception e) {
-            reference.set(new MavenResult(null, null, Collections.singletonList(e)));
+          for (int i = 0; i < poms.size(); i++) {
+            ProjectBuildingResult buildingResult =
+                findBuildingResult(poms.get(i), i, buildingResults);
+            if (buildingResult == null || buildingResult.getProject() == null) {
+              Exception e =
+                  buildingException != null
+                      ? buildingException
+                      : new IllegalStateException("Can't build project " + poms.get(i));
+              results.add(new MavenResult(null, null, Collections.singletonList(e)));
+            } else {
+              results.add(resolveDependencies(buildingResult.getProject()));
+            }
           }
         });
-    return reference.get();
+    return results;
+  }
+
+  private static ProjectBuildingResult findBuildingResult(
+      File pom, int index, List<ProjectBuildingResult> buildingResults) {
+    if (index < buildingResults.size() && pom.equals(buildingResults.get(index).getPomFile())) {
+      return buildingResults.get(index);
+    }
+    for (ProjectBuildingResult buildingResult : buildingResults) {
+      if (pom.equals(buildingResult.getPomFile())) {
+        return buildingResult;
+      }
+    }
+    return null;
+  }
+
+  private MavenResult resolveDependencies(MavenProject mavenProject) {
+    long start = System.currentTimeMillis();
+    try {
+      List<Exception> exceptions = new ArrayList<>();
+
+      loadExtensions(mavenProject, exceptions);
+      mavenProject.setDependencyArtifacts(
+          mavenProject.createArtifacts(getMavenComponent(ArtifactFactory.class), null, null));
+
+      ArtifactResolutionRequest resolutionRequest = new ArtifactResolutionRequest();
+      resolutionRequest.setArtifact(mavenProject.getArtifact());
+      resolutionRequest.setRemoteRepositories(mavenProject.getRemoteArtifactRepositories());
+      resolutionRequest.setArtifactDependencies(mavenProject.getDependencyArtifacts());
+      resolutionRequest.setListeners(
+          Collections.singletonList(new DependencyTreeResolutionListener(terminalLogger)));
+      resolutionRequest.setLocalRepository(localRepo);
+      resolutionRequest.setManagedVersionMap(mavenProject.getManagedVersionMap());
+      resolutionRequest.setResolveTransitively(true);
+      resolutionRequest.setResolveRoot(false);
+      ArtifactResolver resolver = getMavenComponent(ArtifactResolver.class);
+      ArtifactResolutionResult resolve = resolver.resolve(resolutionRequest);
+      mavenProject.setArtifacts(resolve.getArtifacts());
+      return new MavenResult(mavenProject, null, exceptions, System.currentTimeMillis() - start);
+    } catch (Exception e) {
+      return new MavenResult(
+          null, null, Collections.singletonList(e), System.currentTimeMillis() - start);
+    }
   }
 
   private void loadExtensions(MavenProject project, List<Exception> exceptions) {
@@ -16,9 +16,11 @@ import java.io.IOException;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import org.eclipse.che.api.testing.server.framework.TestRunner;
 import org.eclipse.che.api.testing.shared.TestDetectionContext;
 import org.eclipse.che.api.testing.shared.TestExecutionContext;
@@ -33,6 +35,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
@@ -70,6 +73,9 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
     try {
       ICompilationUnit compilationUnit =
           findCompilationUnitByPath(javaProject, context.getFilePath());
+      if (!mayContainTests(javaProject, compilationUnit)) {
+        return result;
+      }
       if (context.getOffset() == -1) {
         addAllTestsMethod(result, compilationUnit);
       } else {
@@ -100,6 +106,25 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
     }
   }
 
+  private boolean mayContainTests(IJavaProject javaProject, ICompilationUnit compilationUnit)
+      throws JavaModelException {
+    String testMethodAnnotation = getTestMethodAnnotation();
+    IPackageFragmentRoot root =
+        (IPackageFragmentRoot) compilationUnit.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+    if (testMethodAnnotation == null || root == null) {
+      return true;
+    }
+    IPath outputLocation = root.getResolvedClasspathEntry().getOutputLocation();
+    if (outputLocation == null) {
+      outputLocation = javaProject.getOutputLocation();
+    }
+    return javaTestFinder.mayContainTests(
+        compilationUnit,
+        workspacePath + outputLocation.toOSString(),
+        workspacePath + compilationUnit.getPath().toOSString(),
+        testMethodAnnotation);
+  }
+
   private TestPosition createTestPosition(IMethod method) throws JavaModelException {
     ISourceRange nameRange = method.getNameRange();
     ISourceRange sourceRange = method.getSourceRange();
@@ -121,6 +146,17 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
    */
   protected abstract boolean isTestMethod(IMethod method, ICompilationUnit compilationUnit);
 
+  /**
+   * Returns java annotation which describes test method in the test framework. When it is known,
+   * compilation units which compiled classes have no test methods are skipped by {@link
+   * #detectTests(TestDetectionContext)}.
+   *
+   * @return full qualified name of the annotation or {@code null} if it isn't known
+   */
+  protected String getTestMethodAnnotation() {
+    return null;
+  }
+
   /** Returns {@link IJavaProject} by path */
   protected IJavaProject getJavaProject(String projectPath) {
     IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectPath);
@@ -203,7 +239,8 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
       case SET:
         return convertClassesPathsToFqns(context.getListOfTestClasses(), javaProject);
       case PROJECT:
-        return javaTestFinder.findClassesInProject(javaProject, methodAnnotation, classAnnotation);
+        return javaTestFinder.findClassesInProject(
+            javaProject, getOutputLocations(javaProject), methodAnnotation, classAnnotation);
       case CURSOR_POSITION:
         return javaTestFinder.findTestMethodDeclaration(
             findCompilationUnitByPath(javaProject, context.getFilePath()),
@@ -236,6 +273,22 @@ public abstract class AbstractJavaTestRunner implements TestRunner {
     }
   }
 
+  /** Returns absolute paths of directories with compiled classes of the project. */
+  private Set<String> getOutputLocations(IJavaProject javaProject) {
+    Set<String> result = new LinkedHashSet<>();
+    try {
+      for (IClasspathEntry classpathEntry : javaProject.getResolvedClasspath(true)) {
+        if (classpathEntry.getEntryKind() == IClasspathEntry.CPE_SOURCE
+            && classpathEntry.getOutputLocation() != null) {
+          result.add(workspacePath + classpathEntry.getOutputLocation().toOSString());
+        }
+      }
+    } catch (JavaModelException e) {
+      LOG.debug("Can't read classpath of project.", e);
+    }
+    return result;
+  }
+
   private RuntimeException getRuntimeException(String filePath) {
     return new RuntimeException("Can't find IClasspathEntry for path " + filePath);
   }
@@ -13,11 +13,17 @@ package org.eclipse.che.plugin.java.testing;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.Flags;
@@ -49,6 +55,13 @@ import org.slf4j.LoggerFactory;
 public class JavaTestFinder {
   private static final Logger LOG = LoggerFactory.getLogger(JavaTestFinder.class);
 
+  private final TestClassIndex testClassIndex;
+
+  @Inject
+  public JavaTestFinder(TestClassIndex testClassIndex) {
+    this.testClassIndex = testClassIndex;
+  }
+
   /**
    * Finds test method related to the cursor position.
    *
@@ -122,6 +135,72 @@ public class JavaTestFinder {
     return findClassesInContainer(project, testMethodAnnotation, testClassAnnotation);
   }
 
+  /**
+   * Finds test classes in compiled classes of project, see {@link TestClassIndex}. If there are no
+   * test classes among compiled classes sources of the project are searched.
+   *
+   * @param project java project
+   * @param outputDirectories absolute paths of directories with compiled classes of the project
+   * @param testMethodAnnotation java annotation which describes test method in the test framework
+   * @param testClassAnnotation java annotation which describes test class in the test framework
+   * @return list of test classes which should be ran.
+   */
+  public List<String> findClassesInProject(
+      IJavaProject project,
+      Collection<String> outputDirectories,
+      String testMethodAnnotation,
+      String testClassAnnotation) {
+    List<String> result =
+        testClassIndex.findTestClasses(
+            outputDirectories.stream().map(Paths::get).collect(toList()),
+            testMethodAnnotation,
+            testClassAnnotation);
+    if (result.isEmpty()) {
+      return findClassesInContainer(project, testMethodAnnotation, testClassAnnotation);
+    }
+    return result;
+  }
+
+  /**
+   * Checks compiled classes of the compilation unit for test methods, so compilation units without
+   * tests may be skipped without reading of their annotations.
+   *
+   * @param compilationUnit compilation unit
+   * @param outputDirectory absolute path of directory with compiled classes of the compilation unit
+   * @param sourceFile absolute path of source file of the compilation unit
+   * @param testAnnotation java annotation which describes test method in the test framework
+   * @return {@code false} if all types of the compilation unit are compiled after the last
+   *     modification of its source and none of them has test methods, otherwise {@code true}
+   */
+  public boolean mayContainTests(
+      ICompilationUnit compilationUnit,
+      String outputDirectory,
+      String sourceFile,
+      String testAnnotation) {
+    long sourceModified = new File(sourceFile).lastModified();
+    if (sourceModified == 0) {
+      return true;
+    }
+    try {
+      for (IType type : compilationUnit.getAllTypes()) {
+        File classFile =
+            new File(outputDirectory, type.getFullyQualifiedName().replace('.', '/') + ".class");
+        if (classFile.lastModified() < sourceModified) {
+          return true;
+        }
+        Set<String> testMethods =
+            testClassIndex.findAnnotatedMethods(classFile.toPath(), testAnnotation);
+        if (testMethods == null || !testMethods.isEmpty()) {
+          return true;
+        }
+      }
+    } catch (JavaModelException e) {
+      LOG.debug("Can't read types of compilation unit.", e);
+      return true;
+    }
+    return false;
+  }
+
   /**
    * Check if a method is test method.
    *
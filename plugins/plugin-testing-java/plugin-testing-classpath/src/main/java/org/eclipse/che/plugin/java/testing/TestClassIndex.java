@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.testing;
+
+import static java.util.Collections.emptySet;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of runtime visible annotations of compiled classes. Class files are read directly, without
+ * loading of classes, so static initializers aren't run and test classpath isn't needed to find
+ * tests.
+ *
+ * <p>Annotations of a class file are read once and reused while modification time and size of the
+ * file are the same.
+ */
+@Singleton
+public class TestClassIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(TestClassIndex.class);
+
+  private static final String CLASS_FILE_EXTENSION = ".class";
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_STATIC = 0x0008;
+  private static final int ACC_INTERFACE = 0x0200;
+  private static final int ACC_ABSTRACT = 0x0400;
+
+  private final ConcurrentMap<Path, ClassInfo> classes = new ConcurrentHashMap<>();
+
+  /**
+   * Finds test classes in the directories with compiled classes. Test class is a concrete class
+   * accessible from outside which has a method annotated with the test method annotation or is
+   * annotated with the test class annotation, the same applies to its superclasses from the same
+   * directories.
+   *
+   * @param directories directories with compiled classes
+   * @param methodAnnotation fully qualified name of annotation of test methods
+   * @param classAnnotation fully qualified name of annotation of test classes, may be {@code null}
+   * @return fully qualified names of test classes
+   */
+  public List<String> findTestClasses(
+      Collection<Path> directories, String methodAnnotation, String classAnnotation) {
+    Map<String, ClassInfo> byName = new HashMap<>();
+    for (Path directory : directories) {
+      for (ClassInfo info : readDirectory(directory)) {
+        byName.put(info.name, info);
+      }
+    }
+
+    Map<String, Boolean> annotated = new HashMap<>();
+    List<String> result = new ArrayList<>();
+    for (ClassInfo info : byName.values()) {
+      if (info.isConcreteAccessibleClass()
+          && isAnnotated(info, byName, annotated, methodAnnotation, classAnnotation)) {
+        result.add(info.name);
+      }
+    }
+    result.sort(null);
+    return result;
+  }
+
+  /**
+   * Finds methods of the class annotated with the annotation.
+   *
+   * @param classFile compiled class
+   * @param methodAnnotation fully qualified name of annotation of methods
+   * @return names of annotated methods declared in the class or {@code null} if class file doesn't
+   *     exist or can't be read
+   */
+  public Set<String> findAnnotatedMethods(Path classFile, String methodAnnotation) {
+    ClassInfo info = get(classFile);
+    if (info == null) {
+      return null;
+    }
+    return info.methodAnnotations.getOrDefault(methodAnnotation, emptySet());
+  }
+
+  private boolean isAnnotated(
+      ClassInfo info,
+      Map<String, ClassInfo> byName,
+      Map<String, Boolean> annotated,
+      String methodAnnotation,
+      String classAnnotation) {
+    Boolean known = annotated.get(info.name);
+    if (known != null) {
+      return known;
+    }
+    // guards against cycles in broken class hierarchies
+    annotated.put(info.name, false);
+    boolean result =
+        info.methodAnnotations.containsKey(methodAnnotation)
+            || (classAnnotation != null && info.classAnnotations.contains(classAnnotation));
+    if (!result && info.superName != null) {
+      ClassInfo superInfo = byName.get(info.superName);
+      result =
+          superInfo != null
+              && isAnnotated(superInfo, byName, annotated, methodAnnotation, classAnnotation);
+    }
+    annotated.put(info.name, result);
+    return result;
+  }
+
+  private List<ClassInfo> readDirectory(Path directory) {
+    if (!Files.isDirectory(directory)) {
+      return new ArrayList<>();
+    }
+    List<Path> classFiles;
+    try (Stream<Path> files = Files.walk(directory)) {
+      classFiles =
+          files
+              .filter(file -> file.getFileName().toString().endsWith(CLASS_FILE_EXTENSION))
+              .collect(Collectors.toList());
+    } catch (IOException e) {
+      LOG.debug("Can't list classes in {}: {}", directory, e.getMessage());
+      return new ArrayList<>();
+    }
+
+    Set<Path> existing = new HashSet<>(classFiles);
+    classes.keySet().removeIf(file -> file.startsWith(directory) && !existing.contains(file));
+
+    List<ClassInfo> result = new ArrayList<>(classFiles.size());
+    for (Path classFile : classFiles) {
+      ClassInfo info = get(classFile);
+      if (info != null) {
+        result.add(info);
+      }
+    }
+    return result;
+  }
+
+  private ClassInfo get(Path classFile) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(classFile, BasicFileAttributes.class);
+      long lastModified = attributes.lastModifiedTime().toMillis();
+      long size = attributes.size();
+      ClassInfo info = classes.get(classFile);
+      if (info == null || info.lastModified != lastModified || info.size != size) {
+        info = read(classFile, lastModified, size);
+        classes.put(classFile, info);
+      }
+      return info;
+    } catch (NoSuchFileException e) {
+      classes.remove(classFile);
+      return null;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Can't read class file {}: {}", classFile, e.getMessage());
+      classes.remove(classFile);
+      return null;
+    }
+  }
+
+  private static ClassInfo read(Path classFile, long lastModified, long size) throws IOException {
+    try (InputStream in = Files.newInputStream(classFile)) {
+      ClassInfo info = new ClassFileReader(new BufferedInputStream(in)).read();
+      info.lastModified = lastModified;
+      info.size = size;
+      return info;
+    }
+  }
+
+  /** Annotations and modifiers of a compiled class. */
+  private static class ClassInfo {
+    private String name;
+    private String superName;
+    private int access;
+    private boolean nested;
+    private boolean local;
+    private final Set<String> classAnnotations = new HashSet<>();
+    /** Names of annotated methods by fully qualified name of annotation. */
+    private final Map<String, Set<String>> methodAnnotations = new HashMap<>();
+
+    private long lastModified;
+    private long size;
+
+    private boolean isConcreteAccessibleClass() {
+      if ((access & (ACC_INTERFACE | ACC_ABSTRACT)) != 0 || local) {
+        return false;
+      }
+      return (access & ACC_PUBLIC) != 0 && (!nested || (access & ACC_STATIC) != 0);
+    }
+  }
+
+  /**
+   * Reads the parts of class file format needed by the index: names of the class and its
+   * superclass, modifiers and runtime visible annotations of the class and its methods.
+   */
+  private static class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final DataInputStream in;
+    private String[] utf8;
+    private int[] classNames;
+
+    private ClassFileReader(InputStream in) {
+      this.in = new DataInputStream(in);
+    }
+
+    private ClassInfo read() throws IOException {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a class file");
+      }
+      in.readUnsignedShort(); // minor version
+      in.readUnsignedShort(); // major version
+      readConstantPool();
+
+      ClassInfo info = new ClassInfo();
+      info.access = in.readUnsignedShort();
+      int thisClass = in.readUnsignedShort();
+      info.name = className(thisClass);
+      int superClass = in.readUnsignedShort();
+      info.superName = superClass == 0 ? null : className(superClass);
+      skip(2 * in.readUnsignedShort()); // interfaces
+
+      int fields = in.readUnsignedShort();
+      for (int i = 0; i < fields; i++) {
+        skip(6); // access flags, name and descriptor
+        skipAttributes();
+      }
+
+      int methods = in.readUnsignedShort();
+      for (int i = 0; i < methods; i++) {
+        in.readUnsignedShort(); // access flags
+        String methodName = utf8[in.readUnsignedShort()];
+        in.readUnsignedShort(); // descriptor
+        for (String annotation : readAttributes(null, 0)) {
+          info.methodAnnotations.computeIfAbsent(annotation, a -> new HashSet<>()).add(methodName);
+        }
+      }
+
+      info.classAnnotations.addAll(readAttributes(info, thisClass));
+      return info;
+    }
+
+    private void readConstantPool() throws IOException {
+      int count = in.readUnsignedShort();
+      utf8 = new String[count];
+      classNames = new int[count];
+      for (int i = 1; i < count; i++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case 1: // Utf8
+            utf8[i] = in.readUTF();
+            break;
+          case 7: // Class
+            classNames[i] = in.readUnsignedShort();
+            break;
+          case 8: // String
+          case 16: // MethodType
+          case 19: // Module
+          case 20: // Package
+            skip(2);
+            break;
+          case 15: // MethodHandle
+            skip(3);
+            break;
+          case 3: // Integer
+          case 4: // Float
+          case 9: // Fieldref
+          case 10: // Methodref
+          case 11: // InterfaceMethodref
+          case 12: // NameAndType
+          case 17: // Dynamic
+          case 18: // InvokeDynamic
+            skip(4);
+            break;
+          case 5: // Long
+          case 6: // Double
+            skip(8);
+            i++;
+            break;
+          default:
+            throw new IOException("Unknown constant pool tag " + tag);
+        }
+      }
+    }
+
+    /**
+     * Reads attributes of the class or of its member and returns types of runtime visible
+     * annotations.
+     *
+     * @param classInfo info of the class which attributes are read, {@code null} for attributes of
+     *     class members
+     * @param thisClass constant pool index of the class
+     */
+    private List<String> readAttributes(ClassInfo classInfo, int thisClass) throws IOException {
+      List<String> result = new ArrayList<>();
+      int attributes = in.readUnsignedShort();
+      for (int i = 0; i < attributes; i++) {
+        String attributeName = utf8[in.readUnsignedShort()];
+        int length = in.readInt();
+        if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+          int annotations = in.readUnsignedShort();
+          for (int j = 0; j < annotations; j++) {
+            result.add(typeName(utf8[in.readUnsignedShort()]));
+            skipElementValuePairs();
+          }
+        } else if (classInfo != null && "InnerClasses".equals(attributeName)) {
+          readInnerClasses(classInfo, thisClass);
+        } else {
+          skip(length);
+        }
+      }
+      return result;
+    }
+
+    private void readInnerClasses(ClassInfo info, int thisClass) throws IOException {
+      int classes = in.readUnsignedShort();
+      for (int i = 0; i < classes; i++) {
+        int innerClass = in.readUnsignedShort();
+        int outerClass = in.readUnsignedShort();
+        in.readUnsignedShort(); // inner name
+        int innerAccess = in.readUnsignedShort();
+        if (innerClass == thisClass) {
+          info.nested = true;
+          info.local = outerClass == 0;
+          info.access = innerAccess;
+        }
+      }
+    }
+
+    private void skipAttributes() throws IOException {
+      int attributes = in.readUnsignedShort();
+      for (int i = 0; i < attributes; i++) {
+        in.readUnsignedShort(); // name
+        skip(in.readInt());
+      }
+    }
+
+    private void skipElementValuePairs() throws IOException {
+      int pairs = in.readUnsignedShort();
+      for (int i = 0; i < pairs; i++) {
+        in.readUnsignedShort(); // element name
+        skipElementValue();
+      }
+    }
+
+    private void skipElementValue() throws IOException {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 'e': // enum constant
+          skip(4);
+          break;
+        case '@': // nested annotation
+          in.readUnsignedShort();
+          skipElementValuePairs();
+          break;
+        case '[': // array
+          int values = in.readUnsignedShort();
+          for (int i = 0; i < values; i++) {
+            skipElementValue();
+          }
+          break;
+        default: // constant or class
+          skip(2);
+      }
+    }
+
+    private String className(int index) throws IOException {
+      int nameIndex = classNames[index];
+      if (nameIndex == 0 || utf8[nameIndex] == null) {
+        throw new IOException("Broken constant pool");
+      }
+      return utf8[nameIndex].replace('/', '.');
+    }
+
+    /** Converts type descriptor, e.g. {@code Lorg/junit/Test;}, to name of the type. */
+    private static String typeName(String descriptor) {
+      if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+      }
+      return descriptor;
+    }
+
+    private void skip(int bytes) throws IOException {
+      if (in.skipBytes(bytes) != bytes) {
+        throw new EOFException();
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.plugin.java.testing;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link TestClassIndex}. */
+public class TestClassIndexTest {
+  private static final String TEST_METHOD = TestMethod.class.getName();
+  private static final String TEST_CLASS = TestClass.class.getName();
+
+  private Path classes;
+  private TestClassIndex index;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    classes = Files.createTempDirectory("test-classes");
+    index = new TestClassIndex();
+    for (Class<?> type :
+        Arrays.asList(
+            AbstractTest.class,
+            InheritedTest.class,
+            AnnotatedTest.class,
+            NotTest.class,
+            NotAccessibleTest.class)) {
+      copyClassFile(type, type);
+    }
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    try (Stream<Path> files = Files.walk(classes)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  public void shouldFindConcreteClassesWithTestMethodsOrTestSuperclasses() {
+    List<String> tests = index.findTestClasses(singletonList(classes), TEST_METHOD, null);
+
+    assertEquals(tests, singletonList(InheritedTest.class.getName()));
+  }
+
+  @Test
+  public void shouldFindClassesAnnotatedWithTestClassAnnotation() {
+    List<String> tests = index.findTestClasses(singletonList(classes), TEST_METHOD, TEST_CLASS);
+
+    assertEquals(
+        tests, Arrays.asList(AnnotatedTest.class.getName(), InheritedTest.class.getName()));
+  }
+
+  @Test
+  public void shouldFindAnnotatedMethods() {
+    assertEquals(
+        index.findAnnotatedMethods(classFile(AbstractTest.class), TEST_METHOD),
+        Collections.singleton("test"));
+    assertTrue(index.findAnnotatedMethods(classFile(NotTest.class), TEST_METHOD).isEmpty());
+    assertNull(index.findAnnotatedMethods(classes.resolve("Missing.class"), TEST_METHOD));
+  }
+
+  @Test
+  public void shouldReadClassFileAgainWhenItIsModified() throws Exception {
+    Path classFile = classFile(NotTest.class);
+    assertTrue(index.findAnnotatedMethods(classFile, TEST_METHOD).isEmpty());
+
+    FileTime modified = Files.getLastModifiedTime(classFile);
+    copyClassFile(NotAccessibleTest.class, NotTest.class);
+    Files.setLastModifiedTime(classFile, FileTime.fromMillis(modified.toMillis() + 1000));
+
+    assertEquals(
+        index.findAnnotatedMethods(classFile, TEST_METHOD), Collections.singleton("test"));
+  }
+
+  @Test
+  public void shouldForgetRemovedClassFiles() throws Exception {
+    Files.delete(classFile(InheritedTest.class));
+
+    assertTrue(index.findTestClasses(singletonList(classes), TEST_METHOD, null).isEmpty());
+  }
+
+  private Path classFile(Class<?> type) {
+    return classes.resolve(type.getName().replace('.', '/') + ".class");
+  }
+
+  private void copyClassFile(Class<?> source, Class<?> target) throws IOException {
+    Path classFile = classFile(target);
+    Files.createDirectories(classFile.getParent());
+    String resource = '/' + source.getName().replace('.', '/') + ".class";
+    try (InputStream in = TestClassIndexTest.class.getResourceAsStream(resource)) {
+      Files.copy(in, classFile, REPLACE_EXISTING);
+    }
+  }
+
+  @Retention(RUNTIME)
+  public @interface TestMethod {
+    String[] groups() default {};
+
+    Class<? extends Throwable> expected() default Throwable.class;
+  }
+
+  @Retention(RUNTIME)
+  public @interface TestClass {}
+
+  public abstract static class AbstractTest {
+    @TestMethod(groups = {"a", "b"}, expected = IOException.class)
+    @Deprecated
+    public void test() {}
+  }
+
+  public static class InheritedTest extends AbstractTest {}
+
+  @TestClass
+  public static class AnnotatedTest {
+    public void test() {}
+  }
+
+  public static class NotTest {
+    public void test() {}
+  }
+
+  static class NotAccessibleTest {
+    @TestMethod
+    public void test() {}
+  }
+}
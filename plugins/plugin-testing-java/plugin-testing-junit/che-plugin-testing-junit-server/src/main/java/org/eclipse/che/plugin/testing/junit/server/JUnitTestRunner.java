@@ -11,7 +11,6 @@
 package org.eclipse.che.plugin.testing.junit.server;
 
 import java.io.File;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.net.URLClassLoader;
@@ -42,6 +41,8 @@ import org.eclipse.che.api.testing.shared.dto.TestResultDto;
 import org.eclipse.che.api.testing.shared.dto.TestResultRootDto;
 import org.eclipse.che.commons.lang.execution.ProcessHandler;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.plugin.java.testing.JavaTestAnnotations;
+import org.eclipse.che.plugin.java.testing.TestClassIndex;
 import org.eclipse.che.plugin.java.testing.TestClasspathProvider;
 import org.eclipse.che.plugin.java.testing.TestClasspathRegistry;
 
@@ -69,12 +70,16 @@ public class JUnitTestRunner implements TestRunner {
   private ClassLoader projectClassLoader;
   private Provider<ProjectManager> projectManager;
   private TestClasspathRegistry classpathRegistry;
+  private TestClassIndex testClassIndex;
 
   @Inject
   public JUnitTestRunner(
-      Provider<ProjectManager> projectManager, TestClasspathRegistry classpathRegistry) {
+      Provider<ProjectManager> projectManager,
+      TestClasspathRegistry classpathRegistry,
+      TestClassIndex testClassIndex) {
     this.projectManager = projectManager;
     this.classpathRegistry = classpathRegistry;
+    this.testClassIndex = testClassIndex;
   }
 
   /** {@inheritDoc} */
@@ -177,43 +182,20 @@ public class JUnitTestRunner implements TestRunner {
   }
 
   private TestResult runAll4x(String projectAbsolutePath) throws Exception {
-    List<String> testClassNames = new ArrayList<>();
-    Files.walk(Paths.get(projectAbsolutePath, "target", "test-classes"))
-        .forEach(
-            filePath -> {
-              if (Files.isRegularFile(filePath)
-                  && filePath.toString().toLowerCase().endsWith(".class")) {
-                String path =
-                    Paths.get(projectAbsolutePath, "target", "test-classes")
-                        .relativize(filePath)
-                        .toString();
-                String className = path.replace(File.separatorChar, '.');
-                className = className.substring(0, className.length() - 6);
-                testClassNames.add(className);
-              }
-            });
+    // test classes are found in class files, so only classes which will be ran are loaded
+    List<String> testClassNames =
+        testClassIndex.findTestClasses(
+            Collections.singletonList(Paths.get(projectAbsolutePath, "target", "test-classes")),
+            JavaTestAnnotations.JUNIT4X_TEST.getName(),
+            null);
     @SuppressWarnings("rawtypes")
     List<Class> testableClasses = new ArrayList<>();
     for (String className : testClassNames) {
-      Class<?> clazz = Class.forName(className, false, projectClassLoader);
-      if (isTestable4x(clazz)) {
-        testableClasses.add(clazz);
-      }
+      testableClasses.add(Class.forName(className, false, projectClassLoader));
     }
     return run4xTestClasses(testableClasses.toArray(new Class[testableClasses.size()]));
   }
 
-  private boolean isTestable4x(Class<?> clazz) throws ClassNotFoundException {
-    for (Method method : clazz.getDeclaredMethods()) {
-      for (Annotation annotation : method.getAnnotations()) {
-        if (annotation.annotationType().getName().equals("org.junit.Test")) {
-          return true;
-        }
-      }
-    }
-    return false;
-  }
-
   private Object create4xTestListener(
       ClassLoader loader,
       Class<?> listenerClass,
@@ -10,12 +10,16 @@
  */
 package org.eclipse.che.plugin.testing.junit.server.junit4;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
 import com.google.inject.name.Named;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
+import org.eclipse.che.api.testing.server.framework.TestDurations;
 import org.eclipse.che.api.testing.shared.TestExecutionContext;
 import org.eclipse.che.api.testing.shared.TestResult;
 import org.eclipse.che.api.testing.shared.dto.TestResultDto;
@@ -48,28 +52,61 @@ public class JUnit4TestRunner extends AbstractJavaTestRunner {
   private String workspacePath;
   private JavaTestFinder javaTestFinder;
   private ProjectClasspathProvider classpathProvider;
+  private TestDurations testDurations;
+  private int forks;
 
   @Inject
   public JUnit4TestRunner(
       @Named("che.user.workspaces.storage") String workspacePath,
+      @Named("che.testing.forks") int forks,
       JavaTestFinder javaTestFinder,
-      ProjectClasspathProvider classpathProvider) {
+      ProjectClasspathProvider classpathProvider,
+      TestDurations testDurations) {
     super(workspacePath, javaTestFinder);
     this.workspacePath = workspacePath;
+    this.forks = forks;
     this.javaTestFinder = javaTestFinder;
     this.classpathProvider = classpathProvider;
+    this.testDurations = testDurations;
   }
 
   @Override
   public ProcessHandler execute(TestExecutionContext context) {
     IJavaProject javaProject = getJavaProject(context.getProjectPath());
     if (javaProject.exists()) {
-      return startTestProcess(javaProject, context);
+      return startTestProcess(javaProject, context, createTestSuite(context, javaProject));
     }
 
     return null;
   }
 
+  /**
+   * Splits test classes between {@code che.testing.forks} JVMs, so that according to durations of
+   * the classes in previous runs all JVMs finish at about the same time. Debugged tests and single
+   * test classes are executed in one JVM.
+   */
+  @Override
+  public List<ProcessHandler> executeInParallel(TestExecutionContext context) {
+    IJavaProject javaProject = getJavaProject(context.getProjectPath());
+    if (!javaProject.exists()) {
+      return emptyList();
+    }
+    List<String> suite = createTestSuite(context, javaProject);
+    if (forks < 2 || context.isDebugModeEnable() || suite.size() < 2) {
+      ProcessHandler processHandler = startTestProcess(javaProject, context, suite);
+      return processHandler == null ? emptyList() : singletonList(processHandler);
+    }
+
+    List<ProcessHandler> processHandlers = new ArrayList<>();
+    for (List<String> part : testDurations.split(context.getProjectPath(), suite, forks)) {
+      ProcessHandler processHandler = startTestProcess(javaProject, context, part);
+      if (processHandler != null) {
+        processHandlers.add(processHandler);
+      }
+    }
+    return processHandlers;
+  }
+
   @Override
   public String getName() {
     return JUNIT_TEST_NAME;
@@ -93,7 +130,21 @@ public class JUnit4TestRunner extends AbstractJavaTestRunner {
     }
   }
 
-  private ProcessHandler startTestProcess(IJavaProject javaProject, TestExecutionContext context) {
+  @Override
+  protected String getTestMethodAnnotation() {
+    return JavaTestAnnotations.JUNIT4X_TEST.getName();
+  }
+
+  private List<String> createTestSuite(TestExecutionContext context, IJavaProject javaProject) {
+    return createTestSuite(
+        context,
+        javaProject,
+        JavaTestAnnotations.JUNIT4X_TEST.getName(),
+        JavaTestAnnotations.JUNIT4X_RUN_WITH.getName());
+  }
+
+  private ProcessHandler startTestProcess(
+      IJavaProject javaProject, TestExecutionContext context, List<String> suite) {
     JavaParameters parameters = new JavaParameters();
     parameters.setJavaExecutable(JAVA_EXECUTABLE);
     parameters.setMainClassName(MAIN_CLASS_NAME);
@@ -105,12 +156,6 @@ public class JUnit4TestRunner extends AbstractJavaTestRunner {
     classPath.add(ClasspathUtil.getJarPathForClass(CheJUnitCoreRunner.class));
     parameters.getClassPath().addAll(classPath);
 
-    List<String> suite =
-        createTestSuite(
-            context,
-            javaProject,
-            JavaTestAnnotations.JUNIT4X_TEST.getName(),
-            JavaTestAnnotations.JUNIT4X_RUN_WITH.getName());
     for (String element : suite) {
       parameters.getParametersList().add(element);
     }
@@ -198,4 +198,9 @@ public class TestNGRunner extends AbstractJavaTestRunner {
     return javaTestFinder.isTest(
         method, compilationUnit, JavaTestAnnotations.TESTNG_TEST.getName());
   }
+
+  @Override
+  protected String getTestMethodAnnotation() {
+    return JavaTestAnnotations.TESTNG_TEST.getName();
+  }
 }
@@ -19,6 +19,7 @@ import java.util.List;
 import org.eclipse.che.api.testing.shared.TestDetectionContext;
 import org.eclipse.che.api.testing.shared.TestPosition;
 import org.eclipse.che.plugin.java.testing.JavaTestFinder;
+import org.eclipse.che.plugin.java.testing.TestClassIndex;
 import org.eclipse.che.plugin.testing.testng.server.TestNGRunner;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -38,7 +39,7 @@ public class TestNGTestDiscoveryTest extends BaseTest {
   @BeforeMethod
   public void setUp() throws Exception {
     javaProject = createJavaProject("testDiscovery", "bin");
-    testNGTestFinder = new JavaTestFinder();
+    testNGTestFinder = new JavaTestFinder(new TestClassIndex());
     IPackageFragmentRoot packageFragmentRoot = addSourceContainer(javaProject, "src", "bin");
     javaProject.setRawClasspath(getTestNgClassPath("/testDiscovery/src"), null);
 
@@ -15,7 +15,6 @@ import static java.nio.file.Files.isDirectory;
 import static org.eclipse.che.api.project.shared.dto.event.GitChangeEventDto.Type.ADDED;
 import static org.eclipse.che.api.project.shared.dto.event.GitChangeEventDto.Type.MODIFIED;
 import static org.eclipse.che.api.project.shared.dto.event.GitChangeEventDto.Type.UNTRACKED;
-import static org.eclipse.che.api.vfs.watcher.FileWatcherManager.EMPTY_CONSUMER;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -29,7 +28,6 @@ import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.shared.Status;
-import org.eclipse.che.api.git.shared.StatusFormat;
 import org.eclipse.che.api.project.shared.dto.event.GitChangeEventDto;
 import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
 import org.slf4j.Logger;
@@ -48,7 +46,7 @@ public class GitChangesDetector {
 
   private final RequestTransmitter transmitter;
   private final FileWatcherManager manager;
-  private final GitConnectionFactory gitConnectionFactory;
+  private final GitStatusProvider gitStatusProvider;
 
   private final Set<String> endpointIds = newConcurrentHashSet();
 
@@ -58,10 +56,10 @@ public class GitChangesDetector {
   public GitChangesDetector(
       RequestTransmitter transmitter,
       FileWatcherManager manager,
-      GitConnectionFactory gitConnectionFactory) {
+      GitStatusProvider gitStatusProvider) {
     this.transmitter = transmitter;
     this.manager = manager;
-    this.gitConnectionFactory = gitConnectionFactory;
+    this.gitStatusProvider = gitStatusProvider;
   }
 
   @Inject
@@ -98,11 +96,18 @@ public class GitChangesDetector {
   }
 
   private Consumer<String> deleteConsumer() {
-    return EMPTY_CONSUMER;
+    return this::invalidateStatus;
   }
 
   private Consumer<String> fsEventConsumer() {
-    return it -> endpointIds.forEach(transmitConsumer(it));
+    return it -> {
+      invalidateStatus(it);
+      endpointIds.forEach(transmitConsumer(it));
+    };
+  }
+
+  private void invalidateStatus(String path) {
+    gitStatusProvider.invalidate((path.startsWith("/") ? path.substring(1) : path).split("/")[0]);
   }
 
   private Consumer<String> transmitConsumer(String path) {
@@ -111,7 +116,7 @@ public class GitChangesDetector {
       String project = normalizedPath.split("/")[0];
       String itemPath = normalizedPath.substring(normalizedPath.indexOf("/") + 1);
       try {
-        Status status = gitConnectionFactory.getConnection(project).status(StatusFormat.SHORT);
+        Status status = gitStatusProvider.getProjectStatus(project);
         GitChangeEventDto.Type type;
         if (status.getAdded().contains(itemPath)) {
           type = ADDED;
@@ -16,6 +16,8 @@ import static org.eclipse.che.api.vfs.watcher.FileWatcherManager.EMPTY_CONSUMER;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -26,12 +28,12 @@ import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.shared.Status;
-import org.eclipse.che.api.git.shared.StatusFormat;
 import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
 import org.slf4j.Logger;
 
 /**
- * Detects changes in index file and sends message to client Git handler.
+ * Detects changes in index file, HEAD and refs of repository and sends message to client Git
+ * handler. E.g. commit moves HEAD and refs without rewriting the index.
  *
  * @author Igor Vinokur
  */
@@ -39,15 +41,17 @@ public class GitIndexChangedDetector {
   private static final Logger LOG = getLogger(GitIndexChangedDetector.class);
 
   private static final String GIT_DIR = ".git";
-  private static final String INDEX_FILE = "index";
+  private static final String REFS_DIR = "refs";
+  private static final Set<String> STATUS_FILES = ImmutableSet.of("index", "HEAD", "packed-refs");
   private static final String INCOMING_METHOD = "track/git-index";
   private static final String OUTGOING_METHOD = "event/git-index";
 
   private final RequestTransmitter transmitter;
   private final FileWatcherManager manager;
-  private final GitConnectionFactory gitConnectionFactory;
+  private final GitStatusProvider gitStatusProvider;
 
   private final Set<String> endpointIds = newConcurrentHashSet();
+  private final Runnable invalidateAll;
 
   private int id;
 
@@ -55,10 +59,11 @@ public class GitIndexChangedDetector {
   public GitIndexChangedDetector(
       RequestTransmitter transmitter,
       FileWatcherManager manager,
-      GitConnectionFactory gitConnectionFactory) {
+      GitStatusProvider gitStatusProvider) {
     this.transmitter = transmitter;
     this.manager = manager;
-    this.gitConnectionFactory = gitConnectionFactory;
+    this.gitStatusProvider = gitStatusProvider;
+    this.invalidateAll = gitStatusProvider::invalidateAll;
   }
 
   @Inject
@@ -74,18 +79,34 @@ public class GitIndexChangedDetector {
   @PostConstruct
   public void startWatcher() {
     id = manager.registerByMatcher(matcher(), createConsumer(), modifyConsumer(), deleteConsumer());
+    manager.addResumeListener(invalidateAll);
   }
 
   @PreDestroy
   public void stopWatcher() {
     manager.unRegisterByMatcher(id);
+    manager.removeResumeListener(invalidateAll);
   }
 
   private PathMatcher matcher() {
-    return it ->
-        !isDirectory(it)
-            && INDEX_FILE.equals(it.getFileName().toString())
-            && GIT_DIR.equals(it.getParent().getFileName().toString());
+    return it -> !isDirectory(it) && (isStatusFile(it) || isRef(it));
+  }
+
+  private static boolean isStatusFile(Path path) {
+    return STATUS_FILES.contains(path.getFileName().toString()) && isGitDir(path.getParent());
+  }
+
+  private static boolean isRef(Path path) {
+    for (Path dir = path.getParent(); dir != null; dir = dir.getParent()) {
+      if (REFS_DIR.equals(String.valueOf(dir.getFileName())) && isGitDir(dir.getParent())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isGitDir(Path dir) {
+    return dir != null && GIT_DIR.equals(String.valueOf(dir.getFileName()));
   }
 
   private Consumer<String> createConsumer() {
@@ -101,14 +122,17 @@ public class GitIndexChangedDetector {
   }
 
   private Consumer<String> fsEventConsumer() {
-    return it -> endpointIds.forEach(transmitConsumer(it));
+    return it -> {
+      gitStatusProvider.invalidate((it.startsWith("/") ? it.substring(1) : it).split("/")[0]);
+      endpointIds.forEach(transmitConsumer(it));
+    };
   }
 
   private Consumer<String> transmitConsumer(String path) {
     return id -> {
       String project = (path.startsWith("/") ? path.substring(1) : path).split("/")[0];
       try {
-        Status status = gitConnectionFactory.getConnection(project).status(StatusFormat.SHORT);
+        Status status = gitStatusProvider.getProjectStatus(project);
         Status statusDto = newDto(Status.class);
         statusDto.setAdded(status.getAdded());
         statusDto.setUntracked(status.getUntracked());
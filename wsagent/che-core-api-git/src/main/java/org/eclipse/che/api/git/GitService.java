@@ -100,6 +100,8 @@ public class GitService {
 
   @Inject private ProjectRegistry projectRegistry;
 
+  @Inject private GitStatusProvider gitStatusProvider;
+
   @QueryParam("projectPath")
   private String projectPath;
 
@@ -109,6 +111,8 @@ public class GitService {
   public void add(AddRequest request) throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       gitConnection.add(AddParams.create(request.getFilePattern()).withUpdate(request.isUpdate()));
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -124,6 +128,8 @@ public class GitService {
               .withNoTrack(request.isNoTrack())
               .withTrackBranch(request.getTrackBranch())
               .withStartPoint(request.getStartPoint()));
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -205,6 +211,7 @@ public class GitService {
               + seconds / 60
               + " minutes)");
       gitConnection.close();
+      invalidateStatus();
     }
   }
 
@@ -219,6 +226,8 @@ public class GitService {
               .withFiles(request.getFiles())
               .withAll(request.isAll())
               .withAmend(request.isAmend()));
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -277,6 +286,8 @@ public class GitService {
   public void init(@QueryParam("bare") boolean bare) throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       gitConnection.init(bare);
+    } finally {
+      invalidateStatus();
     }
     projectRegistry.setProjectType(projectPath, GitProjectType.TYPE_ID, true);
   }
@@ -286,7 +297,11 @@ public class GitService {
   public void deleteRepository(@Context UriInfo uriInfo) throws ApiException {
     final RegisteredProject project = projectRegistry.getProject(projectPath);
     final FolderEntry gitFolder = project.getBaseFolder().getChildFolder(".git");
-    gitFolder.getVirtualFile().delete();
+    try {
+      gitFolder.getVirtualFile().delete();
+    } finally {
+      invalidateStatus();
+    }
     projectRegistry.removeProjectType(projectPath, GitProjectType.TYPE_ID);
   }
 
@@ -318,6 +333,8 @@ public class GitService {
   public MergeResult merge(MergeRequest request) throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       return gitConnection.merge(request.getCommit());
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -328,6 +345,8 @@ public class GitService {
   public RebaseResponse rebase(RebaseRequest request) throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       return gitConnection.rebase(request.getOperation(), request.getBranch());
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -337,6 +356,8 @@ public class GitService {
   public void move(MoveRequest request) throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       gitConnection.mv(request.getSource(), request.getTarget());
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -346,6 +367,8 @@ public class GitService {
       throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       gitConnection.rm(RmParams.create(items).withCached(cached));
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -361,6 +384,8 @@ public class GitService {
               .withTimeout(request.getTimeout())
               .withUsername(request.getUsername())
               .withPassword(request.getPassword()));
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -433,6 +458,8 @@ public class GitService {
       gitConnection.reset(
           ResetParams.create(request.getCommit(), request.getType())
               .withFilePattern(request.getFilePattern()));
+    } finally {
+      invalidateStatus();
     }
   }
 
@@ -555,6 +582,12 @@ public class GitService {
     return project.getBaseFolder().getVirtualFile().toIoFile().getAbsolutePath();
   }
 
+  /** Drops cached status of the repository, operation might have changed HEAD, index or files. */
+  private void invalidateStatus() {
+    final String path = projectPath.startsWith("/") ? projectPath.substring(1) : projectPath;
+    gitStatusProvider.invalidate(path.split("/")[0]);
+  }
+
   private GitConnection getGitConnection() throws ApiException {
     return gitConnectionFactory.getConnection(getAbsoluteProjectPath(projectPath));
   }
@@ -10,7 +10,17 @@
  */
 package org.eclipse.che.api.git;
 
+import static java.util.Collections.singletonList;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.shared.Status;
@@ -20,11 +30,23 @@ import org.eclipse.che.api.project.server.VcsStatusProvider;
 /**
  * Git implementation of {@link VcsStatusProvider}.
  *
+ * <p>Status of repository is computed once and cached until {@link #invalidate(String)} is called
+ * for its project, which is done by git operations of {@link GitService} and when watchers detect
+ * changes of files, index, HEAD or refs of repository. All cached statuses are dropped with {@link
+ * #invalidateAll()} when file watching is resumed, since changes made while it was suspended are
+ * not reported.
+ *
  * @author Igor Vinokur
  */
+@Singleton
 public class GitStatusProvider implements VcsStatusProvider {
   private final GitConnectionFactory gitConnectionFactory;
 
+  /** Statuses of repositories mapped by names of projects. */
+  private final ConcurrentMap<String, RepositoryStatus> statuses = new ConcurrentHashMap<>();
+  /** Number of invalidations, allows not to cache status computed before invalidation. */
+  private final AtomicLong invalidations = new AtomicLong();
+
   @Inject
   public GitStatusProvider(GitConnectionFactory gitConnectionFactory) {
     this.gitConnectionFactory = gitConnectionFactory;
@@ -37,25 +59,96 @@ public class GitStatusProvider implements VcsStatusProvider {
 
   @Override
   public VcsStatus getStatus(String path) throws ServerException {
+    return getStatus(singletonList(path)).get(path);
+  }
+
+  @Override
+  public Map<String, VcsStatus> getStatus(Collection<String> paths) throws ServerException {
+    final Map<String, VcsStatus> result = new HashMap<>();
     try {
-      String normalizedPath = path.startsWith("/") ? path.substring(1) : path;
-      Status status =
-          gitConnectionFactory
-              .getConnection(normalizedPath.split("/")[0])
-              .status(StatusFormat.SHORT);
-      String itemPath = normalizedPath.substring(normalizedPath.indexOf("/") + 1);
-      if (status.getUntracked().contains(itemPath)) {
-        return VcsStatus.UNTRACKED;
-      } else if (status.getAdded().contains(itemPath)) {
-        return VcsStatus.ADDED;
-      } else if (status.getModified().contains(itemPath)
-          || status.getChanged().contains(itemPath)) {
-        return VcsStatus.MODIFIED;
-      } else {
-        return VcsStatus.NOT_MODIFIED;
+      for (String path : paths) {
+        String normalizedPath = path.startsWith("/") ? path.substring(1) : path;
+        String itemPath = normalizedPath.substring(normalizedPath.indexOf("/") + 1);
+        result.put(
+            path, getRepositoryStatus(normalizedPath.split("/")[0]).getFileStatus(itemPath));
       }
     } catch (GitException e) {
       throw new ServerException(e.getMessage());
     }
+    return result;
+  }
+
+  /**
+   * Returns status of repository of the given project, status is computed only if there is no
+   * cached one.
+   *
+   * @param project name of the project
+   * @throws GitException if status of repository can't be computed
+   */
+  public Status getProjectStatus(String project) throws GitException {
+    return getRepositoryStatus(project).status;
+  }
+
+  /**
+   * Drops cached status of repository of the given project, so it is computed again on next
+   * request.
+   *
+   * @param project name of the project
+   */
+  public void invalidate(String project) {
+    invalidations.incrementAndGet();
+    statuses.remove(project);
+  }
+
+  /** Drops cached statuses of all repositories. */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    statuses.clear();
+  }
+
+  private RepositoryStatus getRepositoryStatus(String project) throws GitException {
+    RepositoryStatus cached = statuses.get(project);
+    if (cached != null) {
+      return cached;
+    }
+    final long invalidationsBefore = invalidations.get();
+    final RepositoryStatus computed;
+    try (GitConnection connection = gitConnectionFactory.getConnection(project)) {
+      computed = new RepositoryStatus(connection.status(StatusFormat.SHORT));
+    }
+    cached = statuses.putIfAbsent(project, computed);
+    if (cached != null) {
+      return cached;
+    }
+    // repository might be changed while status was computed
+    if (invalidations.get() != invalidationsBefore) {
+      statuses.remove(project, computed);
+    }
+    return computed;
+  }
+
+  /** Status of repository with statuses of its files indexed by paths. */
+  private static class RepositoryStatus {
+    private final Status status;
+    private final Map<String, VcsStatus> files = new HashMap<>();
+
+    private RepositoryStatus(Status status) {
+      this.status = status;
+      // statuses with higher priority override lower ones
+      put(status.getChanged(), VcsStatus.MODIFIED);
+      put(status.getModified(), VcsStatus.MODIFIED);
+      put(status.getAdded(), VcsStatus.ADDED);
+      put(status.getUntracked(), VcsStatus.UNTRACKED);
+    }
+
+    private void put(List<String> paths, VcsStatus vcsStatus) {
+      if (paths != null) {
+        paths.forEach(path -> files.put(path, vcsStatus));
+      }
+    }
+
+    private VcsStatus getFileStatus(String path) {
+      return files.getOrDefault(path, VcsStatus.NOT_MODIFIED);
+    }
   }
 }
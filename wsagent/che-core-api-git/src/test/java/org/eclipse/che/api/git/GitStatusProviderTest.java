@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.git;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.ADDED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.util.Map;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.git.exception.GitException;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GitStatusProvider}. */
+@Listeners(MockitoTestNGListener.class)
+public class GitStatusProviderTest {
+
+  @Mock private GitConnectionFactory gitConnectionFactory;
+  @Mock private GitConnection gitConnection;
+  @Mock private Status status;
+
+  private GitStatusProvider statusProvider;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(gitConnectionFactory.getConnection("project")).thenReturn(gitConnection);
+    when(gitConnection.status(StatusFormat.SHORT)).thenReturn(status);
+    when(status.getAdded()).thenReturn(singletonList("added"));
+    when(status.getUntracked()).thenReturn(singletonList("untracked"));
+    when(status.getModified()).thenReturn(singletonList("modified"));
+    when(status.getChanged()).thenReturn(singletonList("dir/changed"));
+
+    statusProvider = new GitStatusProvider(gitConnectionFactory);
+  }
+
+  @Test
+  public void shouldReturnStatusesOfFilesComputingStatusOfRepositoryOnce() throws Exception {
+    Map<String, VcsStatus> statuses =
+        statusProvider.getStatus(
+            asList(
+                "/project/added",
+                "/project/untracked",
+                "/project/modified",
+                "/project/dir/changed",
+                "/project/file"));
+
+    assertEquals(statuses.get("/project/added"), ADDED);
+    assertEquals(statuses.get("/project/untracked"), UNTRACKED);
+    assertEquals(statuses.get("/project/modified"), MODIFIED);
+    assertEquals(statuses.get("/project/dir/changed"), MODIFIED);
+    assertEquals(statuses.get("/project/file"), NOT_MODIFIED);
+    verify(gitConnection).status(StatusFormat.SHORT);
+  }
+
+  @Test
+  public void shouldReuseStatusOfRepositoryUntilItIsInvalidated() throws Exception {
+    assertEquals(statusProvider.getStatus("/project/added"), ADDED);
+    assertEquals(statusProvider.getStatus("/project/file"), NOT_MODIFIED);
+    verify(gitConnection).status(StatusFormat.SHORT);
+
+    when(status.getAdded()).thenReturn(asList("added", "file"));
+    statusProvider.invalidate("project");
+
+    assertEquals(statusProvider.getStatus("/project/file"), ADDED);
+    verify(gitConnection, times(2)).status(StatusFormat.SHORT);
+  }
+
+  @Test
+  public void shouldComputeStatusOfRepositoryAgainWhenAllStatusesAreInvalidated()
+      throws Exception {
+    assertEquals(statusProvider.getStatus("/project/file"), NOT_MODIFIED);
+
+    when(status.getModified()).thenReturn(asList("modified", "file"));
+    statusProvider.invalidateAll();
+
+    assertEquals(statusProvider.getStatus("/project/file"), MODIFIED);
+    verify(gitConnection, times(2)).status(StatusFormat.SHORT);
+  }
+
+  @Test
+  public void shouldNotCacheStatusWhichFailedToBeComputed() throws Exception {
+    when(gitConnection.status(StatusFormat.SHORT))
+        .thenThrow(new GitException("error"))
+        .thenReturn(status);
+    try {
+      statusProvider.getStatus("/project/file");
+      fail("Status must not be computed");
+    } catch (ServerException expected) {
+    }
+
+    assertEquals(statusProvider.getStatus("/project/added"), ADDED);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.registry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scores how well {@link LanguageServerDescription} matches a file. Language ids and document
+ * filters of the description are prepared once, so matching doesn't compile path patterns.
+ *
+ * <p>Score is 10 when language id of the file is listed by the description or by one of its
+ * document filters, when path of the file starts with scheme of a filter or equals to path pattern
+ * of a filter. Score is 5 when the description or a filter accepts any language ({@code *}) or
+ * path of the file matches path pattern of a filter. Otherwise score is 0, it means that server
+ * isn't applicable to the file.
+ */
+class LanguageServerMatcher {
+  private static final Logger LOG = LoggerFactory.getLogger(LanguageServerMatcher.class);
+
+  private static final String ANY_LANGUAGE = "*";
+
+  private final Set<String> languageIds = new HashSet<>();
+  private final List<String> schemePrefixes = new ArrayList<>();
+  private final Set<String> pathRegexes = new HashSet<>();
+  private final List<Pattern> pathPatterns = new ArrayList<>();
+
+  private boolean anyLanguage;
+
+  LanguageServerMatcher(LanguageServerDescription description) {
+    if (description.getLanguageIds() != null) {
+      description.getLanguageIds().forEach(this::addLanguageId);
+    }
+    if (description.getDocumentFilters() != null) {
+      for (DocumentFilter filter : description.getDocumentFilters()) {
+        if (filter.getLanguageId() != null && filter.getLanguageId().length() > 0) {
+          addLanguageId(filter.getLanguageId());
+        }
+        if (filter.getScheme() != null) {
+          schemePrefixes.add(filter.getScheme() + ":");
+        }
+        final String pathRegex = filter.getPathRegex();
+        if (pathRegex != null) {
+          pathRegexes.add(pathRegex);
+          try {
+            pathPatterns.add(Pattern.compile(pathRegex));
+          } catch (PatternSyntaxException e) {
+            LOG.error(
+                "Invalid path pattern '{}' of language server '{}'",
+                pathRegex,
+                description.getId());
+          }
+        }
+      }
+    }
+  }
+
+  /** Returns score of the file with the given path and language id, 0 if it doesn't match. */
+  int score(String path, String languageId) {
+    if (languageIds.contains(languageId)) {
+      return 10;
+    }
+    for (String schemePrefix : schemePrefixes) {
+      if (path.startsWith(schemePrefix)) {
+        return 10;
+      }
+    }
+    if (pathRegexes.contains(path)) {
+      return 10;
+    }
+    if (anyLanguage) {
+      return 5;
+    }
+    for (Pattern pathPattern : pathPatterns) {
+      if (pathPattern.matcher(path).matches()) {
+        return 5;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns {@code true} if score depends on path of the file, otherwise it depends on language id
+   * only.
+   */
+  boolean dependsOnPath() {
+    return !schemePrefixes.isEmpty() || !pathRegexes.isEmpty();
+  }
+
+  private void addLanguageId(String languageId) {
+    if (ANY_LANGUAGE.equals(languageId)) {
+      anyLanguage = true;
+    } else {
+      languageIds.add(languageId);
+    }
+  }
+}
@@ -10,6 +10,9 @@
  */
 package org.eclipse.che.api.languageserver.registry;
 
+import static java.util.Collections.reverseOrder;
+import static java.util.Collections.unmodifiableList;
+
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
@@ -20,8 +23,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.PreDestroy;
 import org.eclipse.che.api.core.ServerException;
@@ -47,10 +52,25 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
   private final List<LanguageServerLauncher> launchers;
   private final AtomicInteger serverId = new AtomicInteger();
 
+  /** Indexes of languages in {@link #languages} by file names and by file extensions. */
+  private final Map<String, Integer> languagesByFileName;
+
+  private final Map<String, Integer> languagesByExtension;
+
+  /** Matchers of descriptions of language servers by their launchers. */
+  private final ConcurrentMap<LanguageServerLauncher, LanguageServerMatcher> matchers;
+
+  /**
+   * Guards {@link #launchedServers} and modifications of {@link #initializedServers}, is notified
+   * when launched server is initialized or fails. Lookups of initialized servers don't use it.
+   */
+  private final Object initializationLock = new Object();
+
   /** Started {@link LanguageServer} by project. */
   private final Map<String, List<LanguageServerLauncher>> launchedServers;
 
-  private final Map<String, List<InitializedLanguageServer>> initializedServers;
+  private final ConcurrentMap<String, ProjectServers> initializedServers;
+  private final ConcurrentMap<String, InitializedLanguageServer> serversById;
 
   private final Provider<ProjectManager> projectManagerProvider;
   private final ServerInitializer initializer;
@@ -69,10 +89,41 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     this.initializer = initializer;
     this.eventService = eventService;
     this.launchedServers = new HashMap<>();
-    this.initializedServers = new HashMap<>();
+    this.initializedServers = new ConcurrentHashMap<>();
+    this.serversById = new ConcurrentHashMap<>();
+    this.languagesByFileName = new HashMap<>();
+    this.languagesByExtension = new HashMap<>();
+    for (int i = 0; i < this.languages.size(); i++) {
+      final LanguageDescription language = this.languages.get(i);
+      for (String fileName : nullToEmpty(language.getFileNames())) {
+        languagesByFileName.putIfAbsent(fileName, i);
+      }
+      for (String extension : nullToEmpty(language.getFileExtensions())) {
+        languagesByExtension.putIfAbsent(extension, i);
+      }
+    }
+    this.matchers = new ConcurrentHashMap<>();
+    for (LanguageServerLauncher launcher : launchers) {
+      getMatcher(launcher);
+    }
   }
 
+  /**
+   * Finds language of the file by its name or extension using indexes, falls back to matching of
+   * the path against all the languages when index has no language for the file.
+   */
   private LanguageDescription findLanguage(String path) {
+    final String fileName = path.substring(path.lastIndexOf('/') + 1);
+    Integer index = languagesByFileName.get(fileName);
+    for (int dot = fileName.indexOf('.'); dot >= 0; dot = fileName.indexOf('.', dot + 1)) {
+      final Integer extensionIndex = languagesByExtension.get(fileName.substring(dot + 1));
+      if (extensionIndex != null && (index == null || extensionIndex < index)) {
+        index = extensionIndex;
+      }
+    }
+    if (index != null) {
+      return languages.get(index);
+    }
     for (LanguageDescription language : languages) {
       if (matchesFilenames(language, path) || matchesExtensions(language, path)) {
         return language;
@@ -82,11 +133,22 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
   }
 
   private boolean matchesExtensions(LanguageDescription language, String path) {
-    return language.getFileExtensions().stream().anyMatch(extension -> path.endsWith(extension));
+    return nullToEmpty(language.getFileExtensions())
+        .stream()
+        .anyMatch(extension -> path.endsWith(extension));
   }
 
   private boolean matchesFilenames(LanguageDescription language, String path) {
-    return language.getFileNames().stream().anyMatch(name -> path.endsWith(name));
+    return nullToEmpty(language.getFileNames()).stream().anyMatch(name -> path.endsWith(name));
+  }
+
+  private static List<String> nullToEmpty(List<String> list) {
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  private LanguageServerMatcher getMatcher(LanguageServerLauncher launcher) {
+    return matchers.computeIfAbsent(
+        launcher, key -> new LanguageServerMatcher(key.getDescription()));
   }
 
   @Override
@@ -110,7 +172,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     // launchers is the set of things we need to have initialized
 
     for (LanguageServerLauncher launcher : new ArrayList<>(launchers)) {
-      synchronized (initializedServers) {
+      synchronized (initializationLock) {
         List<LanguageServerLauncher> servers =
             launchedServers.computeIfAbsent(projectPath, k -> new ArrayList<>());
 
@@ -121,13 +183,17 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
               .initialize(launcher, new CheLanguageClient(eventService, id), projectPath)
               .thenAccept(
                   pair -> {
-                    synchronized (initializedServers) {
-                      List<InitializedLanguageServer> initialized =
-                          initializedServers.computeIfAbsent(projectPath, k -> new ArrayList<>());
-                      initialized.add(
-                          new InitializedLanguageServer(id, pair.first, pair.second, launcher));
+                    synchronized (initializationLock) {
+                      InitializedLanguageServer initialized =
+                          new InitializedLanguageServer(id, pair.first, pair.second, launcher);
+                      initializedServers.compute(
+                          projectPath,
+                          (k, current) ->
+                              (current == null ? ProjectServers.EMPTY : current)
+                                  .add(initialized, getMatcher(launcher)));
+                      serversById.put(id, initialized);
                       launchers.remove(launcher);
-                      initializedServers.notifyAll();
+                      initializationLock.notifyAll();
                     }
                   })
               .exceptionally(
@@ -140,10 +206,10 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
                                 + ": "
                                 + t.getMessage()));
                     LOG.error("Error launching language server " + launcher, t);
-                    synchronized (initializedServers) {
+                    synchronized (initializationLock) {
                       launchers.remove(launcher);
                       servers.remove(launcher);
-                      initializedServers.notifyAll();
+                      initializationLock.notifyAll();
                     }
                     return null;
                   });
@@ -155,16 +221,16 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     // eventually, all launchers will either fail or succeed, regardless of
     // which request thread started them. Thus the loop below will
     // end.
-    synchronized (initializedServers) {
-      List<InitializedLanguageServer> initForProject = initializedServers.get(projectPath);
+    synchronized (initializationLock) {
+      ProjectServers initForProject = initializedServers.get(projectPath);
       if (initForProject != null) {
-        for (InitializedLanguageServer initialized : initForProject) {
+        for (InitializedLanguageServer initialized : initForProject.servers) {
           launchers.remove(initialized.getLauncher());
         }
       }
       while (!launchers.isEmpty()) {
         try {
-          initializedServers.wait();
+          initializationLock.wait();
         } catch (InterruptedException e) {
           Thread.currentThread().interrupt();
           return null;
@@ -182,7 +248,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     List<LanguageServerLauncher> result = new ArrayList<>();
     for (LanguageServerLauncher launcher : launchers) {
       if (launcher.isAbleToLaunch()) {
-        int score = matchScore(launcher.getDescription(), fileUri, language.getLanguageId());
+        int score = getMatcher(launcher).score(fileUri, language.getLanguageId());
         if (score > 0) {
           result.add(launcher);
         }
@@ -230,105 +296,22 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
       return Collections.emptyList();
     }
 
-    Map<Integer, List<InitializedLanguageServer>> result = new HashMap<>();
-
-    List<InitializedLanguageServer> servers = null;
-    synchronized (initializedServers) {
-      List<InitializedLanguageServer> list = initializedServers.get(projectPath);
-      if (list == null) {
-        return Collections.emptyList();
-      }
-      servers = new ArrayList<InitializedLanguageServer>(list);
-    }
-    for (InitializedLanguageServer server : servers) {
-      int score =
-          matchScore(server.getLauncher().getDescription(), fileUri, language.getLanguageId());
-      if (score > 0) {
-        List<InitializedLanguageServer> list = result.get(score);
-        if (list == null) {
-          list = new ArrayList<>();
-          result.put(score, list);
-        }
-        list.add(server);
-      }
-    }
-    // sort lists highest score first
-    return result
-        .entrySet()
-        .stream()
-        .sorted((left, right) -> right.getKey() - left.getKey())
-        .map(entry -> entry.getValue())
-        .collect(Collectors.toList());
-  }
-
-  private int matchScore(LanguageServerDescription desc, String path, String languageId) {
-    int match = matchLanguageId(desc, languageId);
-    if (match == 10) {
-      return 10;
-    }
-
-    for (DocumentFilter filter : desc.getDocumentFilters()) {
-      if (filter.getLanguageId() != null && filter.getLanguageId().length() > 0) {
-        match = Math.max(match, matchLanguageId(filter.getLanguageId(), languageId));
-        if (match == 10) {
-          return 10;
-        }
-      }
-      if (filter.getScheme() != null && path.startsWith(filter.getScheme() + ":")) {
-        return 10;
-      }
-      String pattern = filter.getPathRegex();
-      if (pattern != null) {
-        if (pattern.equals(path)) {
-          return 10;
-        }
-        Pattern regex = Pattern.compile(pattern);
-        if (regex.matcher(path).matches()) {
-          match = Math.max(match, 5);
-        }
-      }
-    }
-    return match;
-  }
-
-  private int matchLanguageId(String id, String languageId) {
-    if (id.equals(languageId)) {
-      return 10;
-    } else if ("*".equals(id)) {
-      return 5;
-    }
-    return 0;
-  }
-
-  private int matchLanguageId(LanguageServerDescription desc, String languageId) {
-    int match = 0;
-    List<String> languageIds = desc.getLanguageIds();
-    if (languageIds == null) {
-      return 0;
-    }
-    for (String id : languageIds) {
-      if (id.equals(languageId)) {
-        match = 10;
-        break;
-      } else if ("*".equals(id)) {
-        match = 5;
-      }
+    ProjectServers servers = initializedServers.get(projectPath);
+    if (servers == null) {
+      return Collections.emptyList();
     }
-    return match;
+    return servers.getApplicable(fileUri, language.getLanguageId());
   }
 
   @PreDestroy
   protected void shutdown() {
-    List<LanguageServer> allServers;
-    synchronized (initializedServers) {
-      allServers =
-          initializedServers
-              .values()
-              .stream()
-              .flatMap(l -> l.stream())
-              .map(s -> s.getServer())
-              .collect(Collectors.toList());
-    }
+    List<LanguageServer> allServers =
+        initializedServers
+            .values()
+            .stream()
+            .flatMap(l -> l.servers.stream())
+            .map(s -> s.getServer())
+            .collect(Collectors.toList());
     for (LanguageServer server : allServers) {
       server.shutdown();
       server.exit();
@@ -337,13 +320,60 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   @Override
   public InitializedLanguageServer getServer(String id) {
-    for (List<InitializedLanguageServer> list : initializedServers.values()) {
-      for (InitializedLanguageServer initializedLanguageServer : list) {
-        if (initializedLanguageServer.getId().equals(id)) {
-          return initializedLanguageServer;
+    return serversById.get(id);
+  }
+
+  /**
+   * Initialized servers of a project. Instance is replaced on each change of servers of project,
+   * so lookups don't need any locking. Servers applicable to a language are cached when none of the
+   * servers matches files by path.
+   */
+  private static class ProjectServers {
+    private static final ProjectServers EMPTY =
+        new ProjectServers(Collections.emptyList(), Collections.emptyList());
+
+    private final List<InitializedLanguageServer> servers;
+    private final List<LanguageServerMatcher> matchers;
+    private final boolean dependsOnPath;
+    private final ConcurrentMap<String, List<Collection<InitializedLanguageServer>>> byLanguage =
+        new ConcurrentHashMap<>();
+
+    private ProjectServers(
+        List<InitializedLanguageServer> servers, List<LanguageServerMatcher> matchers) {
+      this.servers = servers;
+      this.matchers = matchers;
+      this.dependsOnPath = matchers.stream().anyMatch(LanguageServerMatcher::dependsOnPath);
+    }
+
+    private ProjectServers add(InitializedLanguageServer server, LanguageServerMatcher matcher) {
+      final List<InitializedLanguageServer> newServers = new ArrayList<>(servers);
+      newServers.add(server);
+      final List<LanguageServerMatcher> newMatchers = new ArrayList<>(matchers);
+      newMatchers.add(matcher);
+      return new ProjectServers(unmodifiableList(newServers), unmodifiableList(newMatchers));
+    }
+
+    /** Returns applicable servers grouped by score, highest score first. */
+    private List<Collection<InitializedLanguageServer>> getApplicable(
+        String path, String languageId) {
+      if (dependsOnPath) {
+        return findApplicable(path, languageId);
+      }
+      return byLanguage.computeIfAbsent(languageId, id -> findApplicable(path, id));
+    }
+
+    private List<Collection<InitializedLanguageServer>> findApplicable(
+        String path, String languageId) {
+      final Map<Integer, List<InitializedLanguageServer>> byScore = new TreeMap<>(reverseOrder());
+      for (int i = 0; i < servers.size(); i++) {
+        final int score = matchers.get(i).score(path, languageId);
+        if (score > 0) {
+          byScore.computeIfAbsent(score, k -> new ArrayList<>()).add(servers.get(i));
         }
       }
+      final List<Collection<InitializedLanguageServer>> result = new ArrayList<>(byScore.size());
+      byScore.values().forEach(list -> result.add(unmodifiableList(list)));
+      return unmodifiableList(result);
     }
-    return null;
   }
 }
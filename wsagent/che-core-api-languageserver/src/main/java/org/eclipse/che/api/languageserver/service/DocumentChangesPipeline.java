@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+
+/**
+ * Merges {@code textDocument/didChange} notifications of a document received within a window into
+ * a single notification, so fast typing doesn't flood language servers.
+ *
+ * <p>Pending notifications of a document are sent when the window, started by the first of them,
+ * is over or earlier when {@link #flush(String)} is called, e.g. before any other request for the
+ * document. Merged notification contains content changes of all pending notifications ordered by
+ * document version and has version of the latest one. Change of the whole content discards changes
+ * which precede it. Notifications of a document are sent one at a time and in order.
+ */
+class DocumentChangesPipeline {
+  private static final Comparator<DidChangeTextDocumentParams> BY_VERSION =
+      Comparator.comparing(DocumentChangesPipeline::version, nullsFirst(naturalOrder()));
+
+  private final long windowMillis;
+  private final Consumer<DidChangeTextDocumentParams> sender;
+  private final ConcurrentMap<String, Document> documents = new ConcurrentHashMap<>();
+  private final AtomicLong received = new AtomicLong();
+  private final AtomicLong sent = new AtomicLong();
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * @param windowMillis time in milliseconds during which notifications of a document are merged,
+   *     0 or negative value means that notifications are sent immediately
+   * @param sender sends notification to language servers
+   */
+  DocumentChangesPipeline(long windowMillis, Consumer<DidChangeTextDocumentParams> sender) {
+    this.windowMillis = windowMillis;
+    this.sender = sender;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(DocumentChangesPipeline.class.getSimpleName() + "-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /** Accepts notification with already prefixed document uri. */
+  void onChange(DidChangeTextDocumentParams params) {
+    received.incrementAndGet();
+    if (windowMillis <= 0) {
+      send(params);
+      return;
+    }
+    final String uri = params.getTextDocument().getUri();
+    final Document document = documents.computeIfAbsent(uri, u -> new Document());
+    synchronized (document) {
+      document.pending.add(params);
+      if (document.scheduledFlush == null) {
+        document.scheduledFlush = scheduler.schedule(() -> flush(uri), windowMillis, MILLISECONDS);
+      }
+    }
+  }
+
+  /** Sends pending notifications of the document with the given prefixed uri if there are any. */
+  void flush(String uri) {
+    final Document document = documents.get(uri);
+    if (document == null) {
+      return;
+    }
+    synchronized (document) {
+      if (document.scheduledFlush != null) {
+        document.scheduledFlush.cancel(false);
+        document.scheduledFlush = null;
+      }
+      if (!document.pending.isEmpty()) {
+        final DidChangeTextDocumentParams merged = merge(document.pending);
+        document.pending.clear();
+        send(merged);
+      }
+    }
+  }
+
+  /** Sends pending notifications of the document with the given prefixed uri and forgets it. */
+  void close(String uri) {
+    flush(uri);
+    documents.remove(uri);
+  }
+
+  /** Sends pending notifications of all documents and stops scheduling. */
+  void shutdown() {
+    scheduler.shutdownNow();
+    documents.keySet().forEach(this::flush);
+    documents.clear();
+  }
+
+  /** Returns number of notifications received by the pipeline. */
+  long getReceived() {
+    return received.get();
+  }
+
+  /** Returns number of notifications sent to language servers. */
+  long getSent() {
+    return sent.get();
+  }
+
+  private void send(DidChangeTextDocumentParams params) {
+    sent.incrementAndGet();
+    sender.accept(params);
+  }
+
+  private static DidChangeTextDocumentParams merge(List<DidChangeTextDocumentParams> pending) {
+    if (pending.size() == 1) {
+      return pending.get(0);
+    }
+    pending.sort(BY_VERSION);
+    final List<TextDocumentContentChangeEvent> changes = new ArrayList<>();
+    for (DidChangeTextDocumentParams params : pending) {
+      for (TextDocumentContentChangeEvent change : params.getContentChanges()) {
+        if (change.getRange() == null) {
+          changes.clear();
+        }
+        changes.add(change);
+      }
+    }
+    final DidChangeTextDocumentParams latest = pending.get(pending.size() - 1);
+    latest.setContentChanges(changes);
+    return latest;
+  }
+
+  private static Integer version(DidChangeTextDocumentParams params) {
+    return params.getTextDocument().getVersion();
+  }
+
+  private static class Document {
+    final List<DidChangeTextDocumentParams> pending = new ArrayList<>();
+    ScheduledFuture<?> scheduledFlush;
+  }
+}
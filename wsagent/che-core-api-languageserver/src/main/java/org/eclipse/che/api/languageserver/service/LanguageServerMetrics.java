@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects rate and latency of requests and rate of notifications sent to language servers, per
+ * language server and method.
+ */
+@Singleton
+public class LanguageServerMetrics {
+  private static final Logger LOG = LoggerFactory.getLogger(LanguageServerMetrics.class);
+
+  private final ConcurrentMap<String, MethodState> methods = new ConcurrentHashMap<>();
+
+  /**
+   * Records latency of the request when the given future completes.
+   *
+   * @return the given future
+   */
+  public <T> CompletableFuture<T> timed(
+      String languageServerId, String method, CompletableFuture<T> future) {
+    final MethodState state = methodState(languageServerId, method);
+    final long start = System.nanoTime();
+    future.whenComplete(
+        (result, error) -> {
+          state.latency.add(System.nanoTime() - start);
+          if (future.isCancelled()) {
+            state.cancelled.incrementAndGet();
+          } else if (error != null) {
+            state.failed.incrementAndGet();
+          }
+        });
+    return future;
+  }
+
+  /** Records notification sent to the language server. */
+  public void notified(String languageServerId, String method) {
+    methodState(languageServerId, method).notifications.incrementAndGet();
+  }
+
+  /** Returns statistics of requests and notifications per language server and method. */
+  public List<MethodStatistics> getStatistics() {
+    final List<MethodStatistics> statistics = new ArrayList<>();
+    methods.values().forEach(state -> statistics.add(state.toStatistics()));
+    return statistics;
+  }
+
+  @PreDestroy
+  void preDestroy() {
+    for (MethodStatistics statistics : getStatistics()) {
+      LOG.debug("Language server requests statistics: {}", statistics);
+    }
+  }
+
+  private MethodState methodState(String languageServerId, String method) {
+    return methods.computeIfAbsent(
+        languageServerId + '#' + method, k -> new MethodState(languageServerId, method));
+  }
+
+  private static class MethodState {
+    final String languageServerId;
+    final String method;
+    final long created = System.nanoTime();
+    final Timer latency = new Timer();
+    final AtomicLong notifications = new AtomicLong();
+    final AtomicLong cancelled = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+
+    MethodState(String languageServerId, String method) {
+      this.languageServerId = languageServerId;
+      this.method = method;
+    }
+
+    MethodStatistics toStatistics() {
+      final long requests = latency.count.get();
+      final double seconds = Math.max(System.nanoTime() - created, 1) / 1e9;
+      return new MethodStatistics(
+          languageServerId,
+          method,
+          requests,
+          notifications.get(),
+          cancelled.get(),
+          failed.get(),
+          (requests + notifications.get()) / seconds,
+          latency.average(),
+          latency.max.get());
+    }
+  }
+
+  private static class Timer {
+    final AtomicLong count = new AtomicLong();
+    final AtomicLong total = new AtomicLong();
+    final AtomicLong max = new AtomicLong();
+
+    void add(long nanos) {
+      count.incrementAndGet();
+      total.addAndGet(nanos);
+      max.accumulateAndGet(nanos, Math::max);
+    }
+
+    long average() {
+      final long n = count.get();
+      return n == 0 ? 0 : total.get() / n;
+    }
+  }
+
+  /** Statistics of requests and notifications of a method sent to a language server. */
+  public static final class MethodStatistics {
+    private final String languageServerId;
+    private final String method;
+    private final long requests;
+    private final long notifications;
+    private final long cancelled;
+    private final long failed;
+    private final double ratePerSecond;
+    private final long averageLatencyNanos;
+    private final long maxLatencyNanos;
+
+    MethodStatistics(
+        String languageServerId,
+        String method,
+        long requests,
+        long notifications,
+        long cancelled,
+        long failed,
+        double ratePerSecond,
+        long averageLatencyNanos,
+        long maxLatencyNanos) {
+      this.languageServerId = languageServerId;
+      this.method = method;
+      this.requests = requests;
+      this.notifications = notifications;
+      this.cancelled = cancelled;
+      this.failed = failed;
+      this.ratePerSecond = ratePerSecond;
+      this.averageLatencyNanos = averageLatencyNanos;
+      this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    public String getLanguageServerId() {
+      return languageServerId;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    /** Returns number of completed requests. */
+    public long getRequests() {
+      return requests;
+    }
+
+    public long getNotifications() {
+      return notifications;
+    }
+
+    /** Returns number of requests cancelled because of timeout or because they were superseded. */
+    public long getCancelled() {
+      return cancelled;
+    }
+
+    public long getFailed() {
+      return failed;
+    }
+
+    /** Returns average number of requests and notifications per second since the first one. */
+    public double getRatePerSecond() {
+      return ratePerSecond;
+    }
+
+    public long getAverageLatency(TimeUnit unit) {
+      return unit.convert(averageLatencyNanos, NANOSECONDS);
+    }
+
+    public long getMaxLatency(TimeUnit unit) {
+      return unit.convert(maxLatencyNanos, NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "MethodStatistics{"
+          + "languageServerId='"
+          + languageServerId
+          + '\''
+          + ", method='"
+          + method
+          + '\''
+          + ", requests="
+          + requests
+          + ", notifications="
+          + notifications
+          + ", cancelled="
+          + cancelled
+          + ", failed="
+          + failed
+          + ", ratePerSecond="
+          + String.format("%.2f", ratePerSecond)
+          + ", averageLatencyMs="
+          + NANOSECONDS.toMillis(averageLatencyNanos)
+          + ", maxLatencyMs="
+          + NANOSECONDS.toMillis(maxLatencyNanos)
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks in-flight requests to language servers per method and document. When a new request of the
+ * same method for the same document starts, e.g. completion after the next typed character,
+ * results of the previous one are useless, so its pending language server requests are cancelled.
+ */
+class SupersedingRequests {
+  private final ConcurrentMap<String, Request> requests = new ConcurrentHashMap<>();
+
+  /** Starts new request of the method for the document, cancels the previous one if any. */
+  Request start(String method, String uri) {
+    final String key = method + '#' + uri;
+    final Request request = new Request(key);
+    final Request previous = requests.put(key, request);
+    if (previous != null) {
+      previous.cancel();
+    }
+    return request;
+  }
+
+  /** Finishes the request, its language server requests are not tracked any more. */
+  void finish(Request request) {
+    requests.remove(request.key, request);
+  }
+
+  /** Request of a method for a document, which may be sent to several language servers. */
+  static class Request {
+    private final String key;
+    private final List<CompletableFuture<?>> futures = new ArrayList<>();
+    private boolean cancelled;
+
+    private Request(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Tracks language server request, it is cancelled immediately if this request is already
+     * superseded.
+     *
+     * @return the given future
+     */
+    synchronized <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+      if (cancelled) {
+        future.cancel(true);
+      } else {
+        futures.removeIf(CompletableFuture::isDone);
+        futures.add(future);
+      }
+      return future;
+    }
+
+    synchronized boolean isCancelled() {
+      return cancelled;
+    }
+
+    private synchronized void cancel() {
+      cancelled = true;
+      futures.forEach(future -> future.cancel(true));
+      futures.clear();
+    }
+  }
+}
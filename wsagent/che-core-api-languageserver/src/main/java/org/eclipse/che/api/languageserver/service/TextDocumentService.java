@@ -26,7 +26,9 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.languageserver.exception.LanguageServerException;
@@ -81,12 +83,25 @@ public class TextDocumentService {
 
   private final LanguageServerRegistry languageServerRegistry;
   private final RequestHandlerConfigurator requestHandler;
-
+  private final LanguageServerMetrics metrics;
+  private final DocumentChangesPipeline documentChanges;
+  private final SupersedingRequests supersedingRequests = new SupersedingRequests();
+
+  /**
+   * @param didChangeWindowMillis time in milliseconds during which {@code textDocument/didChange}
+   *     notifications of a document are merged before they are sent to language servers, 0 means
+   *     that notifications are sent immediately
+   */
   @Inject
   public TextDocumentService(
-      LanguageServerRegistry languageServerRegistry, RequestHandlerConfigurator requestHandler) {
+      LanguageServerRegistry languageServerRegistry,
+      RequestHandlerConfigurator requestHandler,
+      LanguageServerMetrics metrics,
+      @Named("che.languageserver.did_change_window_ms") long didChangeWindowMillis) {
     this.languageServerRegistry = languageServerRegistry;
     this.requestHandler = requestHandler;
+    this.metrics = metrics;
+    this.documentChanges = new DocumentChangesPipeline(didChangeWindowMillis, this::sendDidChange);
   }
 
   @PostConstruct
@@ -140,10 +155,16 @@ public class TextDocumentService {
     dtoToNothing("didSave", DidSaveTextDocumentParams.class, this::didSave);
   }
 
+  @PreDestroy
+  public void shutdown() {
+    documentChanges.shutdown();
+  }
+
   private List<CommandDto> codeAction(CodeActionParams params) {
     TextDocumentIdentifier textDocument = params.getTextDocument();
     String uri = prefixURI(textDocument.getUri());
     textDocument.setUri(uri);
+    documentChanges.flush(uri);
     List<CommandDto> result = new ArrayList<>();
     try {
       List<InitializedLanguageServer> servers =
@@ -162,7 +183,10 @@ public class TextDocumentService {
 
             public CompletableFuture<List<? extends Command>> start(
                 InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().codeAction(params);
+              return timed(
+                  element,
+                  "codeAction",
+                  element.getServer().getTextDocumentService().codeAction(params));
             };
 
             @Override
@@ -183,11 +207,13 @@ public class TextDocumentService {
 
   private ExtendedCompletionListDto completion(
       TextDocumentPositionParams textDocumentPositionParams) {
+    TextDocumentIdentifier textDocument = textDocumentPositionParams.getTextDocument();
+    String uri = prefixURI(textDocument.getUri());
+    textDocument.setUri(uri);
+    documentChanges.flush(uri);
+    textDocumentPositionParams.setUri(prefixURI(textDocumentPositionParams.getUri()));
+    SupersedingRequests.Request request = supersedingRequests.start("completion", uri);
     try {
-      TextDocumentIdentifier textDocument = textDocumentPositionParams.getTextDocument();
-      String uri = prefixURI(textDocument.getUri());
-      textDocument.setUri(uri);
-      textDocumentPositionParams.setUri(prefixURI(textDocumentPositionParams.getUri()));
       ExtendedCompletionListDto[] result = new ExtendedCompletionListDto[1];
 
       LSOperation<Collection<InitializedLanguageServer>, ExtendedCompletionListDto> op =
@@ -225,10 +251,14 @@ public class TextDocumentService {
                               @Override
                               public CompletableFuture<Either<List<CompletionItem>, CompletionList>>
                                   start(InitializedLanguageServer element) {
-                                return element
-                                    .getServer()
-                                    .getTextDocumentService()
-                                    .completion(textDocumentPositionParams);
+                                return request.track(
+                                    timed(
+                                        element,
+                                        "completion",
+                                        element
+                                            .getServer()
+                                            .getTextDocumentService()
+                                            .completion(textDocumentPositionParams)));
                               }
 
                               @Override
@@ -272,12 +302,15 @@ public class TextDocumentService {
       return result[0];
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
+    } finally {
+      supersedingRequests.finish(request);
     }
   }
 
   private List<SymbolInformationDto> documentSymbol(DocumentSymbolParams documentSymbolParams) {
     String uri = prefixURI(documentSymbolParams.getTextDocument().getUri());
     documentSymbolParams.getTextDocument().setUri(uri);
+    documentChanges.flush(uri);
     List<SymbolInformationDto> result = new ArrayList<>();
     try {
       List<InitializedLanguageServer> servers =
@@ -299,10 +332,13 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<List<? extends SymbolInformation>> start(
                 InitializedLanguageServer element) {
-              return element
-                  .getServer()
-                  .getTextDocumentService()
-                  .documentSymbol(documentSymbolParams);
+              return timed(
+                  element,
+                  "documentSymbol",
+                  element
+                      .getServer()
+                      .getTextDocumentService()
+                      .documentSymbol(documentSymbolParams));
             }
 
             @Override
@@ -327,6 +363,7 @@ public class TextDocumentService {
   private List<LocationDto> references(ReferenceParams referenceParams) {
     String uri = prefixURI(referenceParams.getTextDocument().getUri());
     referenceParams.getTextDocument().setUri(uri);
+    documentChanges.flush(uri);
     List<LocationDto> result = new ArrayList<>();
     try {
       List<InitializedLanguageServer> servers =
@@ -348,7 +385,10 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<List<? extends Location>> start(
                 InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().references(referenceParams);
+              return timed(
+                  element,
+                  "references",
+                  element.getServer().getTextDocumentService().references(referenceParams));
             }
 
             @Override
@@ -372,6 +412,7 @@ public class TextDocumentService {
   private List<LocationDto> definition(TextDocumentPositionParams textDocumentPositionParams) {
     String uri = prefixURI(textDocumentPositionParams.getTextDocument().getUri());
     textDocumentPositionParams.getTextDocument().setUri(uri);
+    documentChanges.flush(uri);
     try {
       List<InitializedLanguageServer> servers =
           languageServerRegistry
@@ -393,10 +434,13 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<List<? extends Location>> start(
                 InitializedLanguageServer element) {
-              return element
-                  .getServer()
-                  .getTextDocumentService()
-                  .definition(textDocumentPositionParams);
+              return timed(
+                  element,
+                  "definition",
+                  element
+                      .getServer()
+                      .getTextDocumentService()
+                      .definition(textDocumentPositionParams));
             }
 
             @Override
@@ -442,9 +486,11 @@ public class TextDocumentService {
   private HoverDto hover(TextDocumentPositionParams positionParams) {
     String uri = prefixURI(positionParams.getTextDocument().getUri());
     positionParams.getTextDocument().setUri(uri);
+    documentChanges.flush(uri);
     positionParams.setUri(prefixURI(positionParams.getUri()));
     HoverDto result = new HoverDto();
     result.setContents(new ArrayList<>());
+    SupersedingRequests.Request request = supersedingRequests.start("hover", uri);
     try {
 
       List<InitializedLanguageServer> servers =
@@ -464,7 +510,11 @@ public class TextDocumentService {
 
             @Override
             public CompletableFuture<Hover> start(InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().hover(positionParams);
+              return request.track(
+                  timed(
+                      element,
+                      "hover",
+                      element.getServer().getTextDocumentService().hover(positionParams)));
             }
 
             @Override
@@ -480,12 +530,15 @@ public class TextDocumentService {
       return result;
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
+    } finally {
+      supersedingRequests.finish(request);
     }
   }
 
   private SignatureHelpDto signatureHelp(TextDocumentPositionParams positionParams) {
     String uri = prefixURI(positionParams.getTextDocument().getUri());
     positionParams.getTextDocument().setUri(uri);
+    documentChanges.flush(uri);
     positionParams.setUri(prefixURI(positionParams.getUri()));
     SignatureHelpDto[] result = new SignatureHelpDto[1];
     try {
@@ -506,7 +559,10 @@ public class TextDocumentService {
 
             @Override
             public CompletableFuture<SignatureHelp> start(InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().signatureHelp(positionParams);
+              return timed(
+                  element,
+                  "signatureHelp",
+                  element.getServer().getTextDocumentService().signatureHelp(positionParams));
             }
 
             @Override
@@ -529,6 +585,7 @@ public class TextDocumentService {
     try {
       String uri = prefixURI(documentFormattingParams.getTextDocument().getUri());
       documentFormattingParams.getTextDocument().setUri(uri);
+      documentChanges.flush(uri);
       InitializedLanguageServer server =
           languageServerRegistry
               .getApplicableLanguageServers(uri)
@@ -566,6 +623,7 @@ public class TextDocumentService {
     try {
       String uri = prefixURI(documentRangeFormattingParams.getTextDocument().getUri());
       documentRangeFormattingParams.getTextDocument().setUri(uri);
+      documentChanges.flush(uri);
       InitializedLanguageServer server =
           languageServerRegistry
               .getApplicableLanguageServers(uri)
@@ -599,6 +657,7 @@ public class TextDocumentService {
     try {
       String uri = prefixURI(documentOnTypeFormattingParams.getTextDocument().getUri());
       documentOnTypeFormattingParams.getTextDocument().setUri(uri);
+      documentChanges.flush(uri);
       InitializedLanguageServer server =
           languageServerRegistry
               .getApplicableLanguageServers(uri)
@@ -628,18 +687,22 @@ public class TextDocumentService {
   }
 
   private void didChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
+    String uri = prefixURI(didChangeTextDocumentParams.getTextDocument().getUri());
+    didChangeTextDocumentParams.getTextDocument().setUri(uri);
+    didChangeTextDocumentParams.setUri(prefixURI(didChangeTextDocumentParams.getUri()));
+    documentChanges.onChange(didChangeTextDocumentParams);
+  }
+
+  private void sendDidChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
     try {
-      String uri = prefixURI(didChangeTextDocumentParams.getTextDocument().getUri());
-      didChangeTextDocumentParams.getTextDocument().setUri(uri);
-      didChangeTextDocumentParams.setUri(prefixURI(didChangeTextDocumentParams.getUri()));
       languageServerRegistry
-          .getApplicableLanguageServers(uri)
+          .getApplicableLanguageServers(didChangeTextDocumentParams.getTextDocument().getUri())
           .stream()
           .flatMap(Collection::stream)
-          .map(InitializedLanguageServer::getServer)
           .forEach(
               server -> {
-                server.getTextDocumentService().didChange(didChangeTextDocumentParams);
+                metrics.notified(server.getId(), "didChange");
+                server.getServer().getTextDocumentService().didChange(didChangeTextDocumentParams);
               });
     } catch (LanguageServerException e) {
       LOG.error("Error trying to process textDocument/didChange", e);
@@ -668,6 +731,7 @@ public class TextDocumentService {
     try {
       String uri = prefixURI(didCloseTextDocumentParams.getTextDocument().getUri());
       didCloseTextDocumentParams.getTextDocument().setUri(uri);
+      documentChanges.close(uri);
       languageServerRegistry
           .getApplicableLanguageServers(uri)
           .stream()
@@ -686,6 +750,7 @@ public class TextDocumentService {
     try {
       String uri = prefixURI(didSaveTextDocumentParams.getTextDocument().getUri());
       didSaveTextDocumentParams.getTextDocument().setUri(uri);
+      documentChanges.flush(uri);
       languageServerRegistry
           .getApplicableLanguageServers(uri)
           .stream()
@@ -705,6 +770,7 @@ public class TextDocumentService {
     try {
       String uri = prefixURI(textDocumentPositionParams.getTextDocument().getUri());
       textDocumentPositionParams.getTextDocument().setUri(uri);
+      documentChanges.flush(uri);
       @SuppressWarnings("unchecked")
       List<DocumentHighlightDto>[] result = new List[1];
       LSOperation<Collection<InitializedLanguageServer>, List<DocumentHighlightDto>> op =
@@ -737,10 +803,13 @@ public class TextDocumentService {
                           @Override
                           public CompletableFuture<List<? extends DocumentHighlight>> start(
                               InitializedLanguageServer element) {
-                            return element
-                                .getServer()
-                                .getTextDocumentService()
-                                .documentHighlight(textDocumentPositionParams);
+                            return timed(
+                                element,
+                                "documentHighlight",
+                                element
+                                    .getServer()
+                                    .getTextDocumentService()
+                                    .documentHighlight(textDocumentPositionParams));
                           }
 
                           @Override
@@ -805,6 +874,11 @@ public class TextDocumentService {
         .withFunction(function);
   }
 
+  private <T> CompletableFuture<T> timed(
+      InitializedLanguageServer server, String method, CompletableFuture<T> future) {
+    return metrics.timed(server.getId(), method, future);
+  }
+
   private boolean truish(Boolean b) {
     return b != null && b;
   }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.registry;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/** Tests for {@link LanguageServerMatcher}. */
+public class LanguageServerMatcherTest {
+
+  private static final String PATH = "file:///projects/p/src/main.ts";
+
+  @Test(dataProvider = "scores")
+  public void shouldScoreFile(
+      List<String> languageIds, List<DocumentFilter> filters, String languageId, int score) {
+    LanguageServerMatcher matcher =
+        new LanguageServerMatcher(new LanguageServerDescription("ls", languageIds, filters));
+
+    assertEquals(matcher.score(PATH, languageId), score);
+  }
+
+  @DataProvider
+  public static Object[][] scores() {
+    return new Object[][] {
+      {singletonList("ts"), emptyList(), "ts", 10},
+      {singletonList("js"), emptyList(), "ts", 0},
+      {asList("*", "ts"), emptyList(), "ts", 10},
+      {singletonList("*"), emptyList(), "ts", 5},
+      {null, singletonList(new DocumentFilter("ts", null, null)), "ts", 10},
+      {null, singletonList(new DocumentFilter("*", null, null)), "ts", 5},
+      {null, singletonList(new DocumentFilter("", null, null)), "ts", 0},
+      {null, singletonList(new DocumentFilter(null, null, "file")), "ts", 10},
+      {null, singletonList(new DocumentFilter(null, null, "jdt")), "ts", 0},
+      {null, singletonList(new DocumentFilter(null, PATH, null)), "ts", 10},
+      {null, singletonList(new DocumentFilter(null, ".*\\.ts", null)), "ts", 5},
+      {null, singletonList(new DocumentFilter(null, ".*\\.js", null)), "ts", 0},
+      {singletonList("js"), singletonList(new DocumentFilter(null, "[invalid", null)), "ts", 0}
+    };
+  }
+
+  @Test
+  public void shouldTellWhetherScoreDependsOnPath() {
+    assertFalse(
+        new LanguageServerMatcher(
+                new LanguageServerDescription(
+                    "ls", singletonList("ts"), singletonList(new DocumentFilter("*", null, null))))
+            .dependsOnPath());
+    assertTrue(
+        new LanguageServerMatcher(
+                new LanguageServerDescription(
+                    "ls", singletonList("ts"), singletonList(new DocumentFilter(null, ".*", null))))
+            .dependsOnPath());
+  }
+}
@@ -19,9 +19,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 import com.google.inject.Provider;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.eclipse.che.api.languageserver.exception.LanguageServerException;
 import org.eclipse.che.api.languageserver.launcher.LanguageServerLauncher;
@@ -119,4 +122,26 @@ public class LanguageServerRegistryImplTest {
     verify(initializer)
         .initialize(eq(languageServerLauncher), any(LanguageClient.class), eq(PROJECT_PATH));
   }
+
+  @Test
+  public void shouldFindApplicableServersAfterInitialization() throws Exception {
+    assertTrue(registry.getApplicableLanguageServers(PREFIX + FILE_PATH).isEmpty());
+
+    registry.initialize(PREFIX + FILE_PATH);
+
+    List<Collection<InitializedLanguageServer>> servers =
+        registry.getApplicableLanguageServers(PREFIX + FILE_PATH);
+    assertEquals(servers.size(), 1);
+    InitializedLanguageServer server = servers.get(0).iterator().next();
+    assertEquals(server.getServer(), languageServer);
+    assertEquals(registry.getServer(server.getId()), server);
+    assertEquals(registry.getApplicableLanguageServers(PREFIX + "/projects/1/other.txt"), servers);
+  }
+
+  @Test
+  public void shouldNotFindServersForFileOfUnknownLanguage() throws Exception {
+    registry.initialize(PREFIX + FILE_PATH);
+
+    assertTrue(registry.getApplicableLanguageServers(PREFIX + "/projects/1/test.java").isEmpty());
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link DocumentChangesPipeline}. */
+public class DocumentChangesPipelineTest {
+
+  private static final String URI = "file:///projects/p/main.ts";
+
+  private List<DidChangeTextDocumentParams> sent;
+  private DocumentChangesPipeline pipeline;
+
+  @BeforeMethod
+  public void setUp() {
+    sent = new CopyOnWriteArrayList<>();
+    pipeline = new DocumentChangesPipeline(60_000, sent::add);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    pipeline.shutdown();
+  }
+
+  @Test
+  public void shouldMergeChangesUntilFlush() {
+    TextDocumentContentChangeEvent first = change("a", 0);
+    TextDocumentContentChangeEvent second = change("b", 1);
+
+    pipeline.onChange(params(URI, 2, first));
+    pipeline.onChange(params(URI, 3, second));
+    assertTrue(sent.isEmpty());
+    pipeline.flush(URI);
+
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getTextDocument().getVersion(), 3);
+    assertEquals(sent.get(0).getContentChanges(), asList(first, second));
+    assertEquals(pipeline.getReceived(), 2);
+    assertEquals(pipeline.getSent(), 1);
+  }
+
+  @Test
+  public void shouldOrderChangesByVersion() {
+    TextDocumentContentChangeEvent first = change("a", 0);
+    TextDocumentContentChangeEvent second = change("b", 1);
+
+    pipeline.onChange(params(URI, 3, second));
+    pipeline.onChange(params(URI, 2, first));
+    pipeline.flush(URI);
+
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getTextDocument().getVersion(), 3);
+    assertEquals(sent.get(0).getContentChanges(), asList(first, second));
+  }
+
+  @Test
+  public void shouldDiscardChangesPrecedingChangeOfWholeContent() {
+    TextDocumentContentChangeEvent whole = new TextDocumentContentChangeEvent();
+    whole.setText("abc");
+    TextDocumentContentChangeEvent last = change("d", 3);
+
+    pipeline.onChange(params(URI, 2, change("a", 0)));
+    pipeline.onChange(params(URI, 3, whole));
+    pipeline.onChange(params(URI, 4, last));
+    pipeline.flush(URI);
+
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getTextDocument().getVersion(), 4);
+    assertEquals(sent.get(0).getContentChanges(), asList(whole, last));
+  }
+
+  @Test
+  public void shouldNotMergeChangesOfDifferentDocuments() {
+    pipeline.onChange(params(URI, 2, change("a", 0)));
+    pipeline.onChange(params("file:///projects/p/other.ts", 2, change("b", 0)));
+    pipeline.flush(URI);
+
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getTextDocument().getUri(), URI);
+  }
+
+  @Test
+  public void shouldSendChangesOnClose() {
+    pipeline.onChange(params(URI, 2, change("a", 0)));
+    pipeline.close(URI);
+    pipeline.flush(URI);
+
+    assertEquals(sent.size(), 1);
+  }
+
+  @Test
+  public void shouldSendChangesWhenWindowIsOver() throws Exception {
+    pipeline.shutdown();
+    CountDownLatch latch = new CountDownLatch(1);
+    pipeline =
+        new DocumentChangesPipeline(
+            50,
+            params -> {
+              sent.add(params);
+              latch.countDown();
+            });
+
+    pipeline.onChange(params(URI, 2, change("a", 0)));
+    pipeline.onChange(params(URI, 3, change("b", 1)));
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getContentChanges().size(), 2);
+  }
+
+  @Test
+  public void shouldSendChangesImmediatelyWhenWindowIsZero() {
+    pipeline.shutdown();
+    pipeline = new DocumentChangesPipeline(0, sent::add);
+
+    pipeline.onChange(params(URI, 2, change("a", 0)));
+    pipeline.onChange(params(URI, 3, change("b", 1)));
+
+    assertEquals(sent.size(), 2);
+  }
+
+  private static DidChangeTextDocumentParams params(
+      String uri, int version, TextDocumentContentChangeEvent change) {
+    VersionedTextDocumentIdentifier identifier = new VersionedTextDocumentIdentifier();
+    identifier.setUri(uri);
+    identifier.setVersion(version);
+    DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+    params.setTextDocument(identifier);
+    params.setContentChanges(asList(change));
+    return params;
+  }
+
+  private static TextDocumentContentChangeEvent change(String text, int character) {
+    TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent();
+    change.setText(text);
+    change.setRange(new Range(new Position(0, character), new Position(0, character)));
+    return change;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import org.testng.annotations.Test;
+
+/** Tests for {@link SupersedingRequests}. */
+public class SupersedingRequestsTest {
+
+  private final SupersedingRequests requests = new SupersedingRequests();
+
+  @Test
+  public void shouldCancelPreviousRequestOfSameMethodAndDocument() {
+    CompletableFuture<String> previous =
+        requests.start("completion", "a.ts").track(new CompletableFuture<>());
+    CompletableFuture<String> otherDocument =
+        requests.start("completion", "b.ts").track(new CompletableFuture<>());
+    CompletableFuture<String> otherMethod =
+        requests.start("hover", "a.ts").track(new CompletableFuture<>());
+
+    CompletableFuture<String> current =
+        requests.start("completion", "a.ts").track(new CompletableFuture<>());
+
+    assertTrue(previous.isCancelled());
+    assertFalse(otherDocument.isCancelled());
+    assertFalse(otherMethod.isCancelled());
+    assertFalse(current.isCancelled());
+  }
+
+  @Test
+  public void shouldCancelRequestTrackedAfterItIsSuperseded() {
+    SupersedingRequests.Request previous = requests.start("completion", "a.ts");
+    requests.start("completion", "a.ts");
+
+    assertTrue(previous.isCancelled());
+    assertTrue(previous.track(new CompletableFuture<>()).isCancelled());
+  }
+
+  @Test
+  public void shouldNotCancelFinishedRequest() {
+    SupersedingRequests.Request finished = requests.start("completion", "a.ts");
+    CompletableFuture<String> future = finished.track(new CompletableFuture<>());
+    requests.finish(finished);
+
+    requests.start("completion", "a.ts");
+
+    assertFalse(future.isCancelled());
+  }
+}
@@ -38,6 +38,7 @@ public class Constants {
   public static final String EVENT_IMPORT_OUTPUT_SUBSCRIBE = "importProject/subscribe";
   public static final String EVENT_IMPORT_OUTPUT_UN_SUBSCRIBE = "importProject/unSubscribe";
   public static final String EVENT_IMPORT_OUTPUT_PROGRESS = "importProject/progress";
+  public static final String EVENT_SEARCH_RESULT = "project/search/result";
 
   private Constants() {}
 }
@@ -33,4 +33,18 @@ public interface ProjectSearchRequestDto {
   int getSkipCount();
 
   ProjectSearchRequestDto withSkipCount(int skipCount);
+
+  /** Whether text is a regular expression that should be found in content of files. */
+  boolean isRegex();
+
+  ProjectSearchRequestDto withRegex(boolean regex);
+
+  /**
+   * Identifier of the stream of results. When it is set each found item is sent as soon as it is
+   * found to the requesting endpoint with {@code project/search/result/<streamId>} notification
+   * and response contains no item references.
+   */
+  String getStreamId();
+
+  ProjectSearchRequestDto withStreamId(String streamId);
 }
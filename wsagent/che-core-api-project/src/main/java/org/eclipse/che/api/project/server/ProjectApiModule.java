@@ -44,6 +44,7 @@ import org.eclipse.che.api.vfs.impl.file.event.detectors.ProjectTreeTracker;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
 import org.eclipse.che.api.vfs.search.impl.FSLuceneSearcherProvider;
+import org.eclipse.che.api.vfs.watcher.ChildrenCacheInvalidateConsumer;
 import org.eclipse.che.api.vfs.watcher.FileTreeWalker;
 import org.eclipse.che.api.vfs.watcher.FileWatcherByPathMatcher;
 import org.eclipse.che.api.vfs.watcher.FileWatcherIgnoreFileTracker;
@@ -141,6 +142,12 @@ public class ProjectApiModule extends AbstractModule {
     fileUpdateConsumers.addBinding().to(IndexedFileUpdateConsumer.class);
     fileDeleteConsumers.addBinding().to(IndexedFileDeleteConsumer.class);
 
+    fileCreateConsumers.addBinding().to(ChildrenCacheInvalidateConsumer.class);
+    fileDeleteConsumers.addBinding().to(ChildrenCacheInvalidateConsumer.class);
+    directoryCreateConsumers.addBinding().to(ChildrenCacheInvalidateConsumer.class);
+    directoryUpdateConsumers.addBinding().to(ChildrenCacheInvalidateConsumer.class);
+    directoryDeleteConsumers.addBinding().to(ChildrenCacheInvalidateConsumer.class);
+
     fileCreateConsumers.addBinding().to(FileWatcherByPathMatcher.class);
     fileDeleteConsumers.addBinding().to(FileWatcherByPathMatcher.class);
     directoryCreateConsumers.addBinding().to(FileWatcherByPathMatcher.class);
@@ -11,9 +11,12 @@
 package org.eclipse.che.api.project.server;
 
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
+import static org.eclipse.che.api.project.shared.Constants.EVENT_SEARCH_RESULT;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_CREATE_BATCH_PROJECTS;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_CREATE_PROJECT;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_GET_PROJECTS;
+import static org.eclipse.che.api.vfs.VirtualFileFilters.createAndFilter;
+import static org.eclipse.che.api.vfs.VirtualFileFilters.dotGitFilter;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 import io.swagger.annotations.Api;
@@ -21,7 +24,6 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -32,6 +34,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -46,11 +49,13 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.commons.fileupload.FileItem;
 import org.apache.tika.Tika;
@@ -85,11 +90,14 @@ import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
 import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.ZipArchiver;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.impl.LuceneSearcher;
+import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
 import org.eclipse.che.api.workspace.shared.dto.NewProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
@@ -121,6 +129,7 @@ public class ProjectService extends Service {
   private final ProjectServiceVcsStatusInjector vcsStatusInjector;
   private final RequestTransmitter transmitter;
   private final ProjectImportOutputJsonRpcRegistrar projectImportHandlerRegistrar;
+  private final FileWatcherManager fileWatcherManager;
   private final String workspace;
 
   @Inject
@@ -130,13 +139,15 @@ public class ProjectService extends Service {
       ProjectServiceLinksInjector projectServiceLinksInjector,
       ProjectServiceVcsStatusInjector vcsStatusInjector,
       RequestTransmitter transmitter,
-      ProjectImportOutputJsonRpcRegistrar projectImportHandlerRegistrar) {
+      ProjectImportOutputJsonRpcRegistrar projectImportHandlerRegistrar,
+      FileWatcherManager fileWatcherManager) {
     this.projectManager = projectManager;
     this.eventService = eventService;
     this.projectServiceLinksInjector = projectServiceLinksInjector;
     this.vcsStatusInjector = vcsStatusInjector;
     this.transmitter = transmitter;
     this.projectImportHandlerRegistrar = projectImportHandlerRegistrar;
+    this.fileWatcherManager = fileWatcherManager;
     this.workspace = WorkspaceIdProvider.getWorkspaceId();
   }
 
@@ -821,8 +832,12 @@ public class ProjectService extends Service {
     @ApiResponse(code = 404, message = "Not found"),
     @ApiResponse(code = 500, message = "Internal Server Error")
   })
-  public InputStream exportZip(
-      @ApiParam(value = "Path to resource to be exported") @PathParam("path") String path)
+  public Response exportZip(
+      @ApiParam(value = "Path to resource to be exported") @PathParam("path") String path,
+      @ApiParam(value = "Skip files which are excluded from watching, e.g. build output")
+          @DefaultValue("false")
+          @QueryParam("skipExcluded")
+          boolean skipExcluded)
       throws NotFoundException, ForbiddenException, ServerException {
 
     final FolderEntry folder = projectManager.asFolder(path);
@@ -831,7 +846,27 @@ public class ProjectService extends Service {
       throw new NotFoundException("Folder not found " + path);
     }
 
-    return folder.getVirtualFile().zip();
+    VirtualFileFilter filter = dotGitFilter();
+    if (skipExcluded) {
+      filter =
+          createAndFilter(
+              filter,
+              file ->
+                  file.toIoFile() == null
+                      || !fileWatcherManager.isExcluded(file.toIoFile().toPath().toAbsolutePath()));
+    }
+    final VirtualFileFilter exportFilter = filter;
+    final ZipArchiver archiver = new ZipArchiver(folder.getVirtualFile());
+    // entries are written to response while they are compressed, without temporary archive
+    final StreamingOutput zip =
+        output -> {
+          try {
+            archiver.compress(output, exportFilter);
+          } catch (ServerException e) {
+            throw new WebApplicationException(e);
+          }
+        };
+    return Response.ok(zip, ExtMediaType.APPLICATION_ZIP).build();
   }
 
   @GET
@@ -884,13 +919,17 @@ public class ProjectService extends Service {
 
     final List<VirtualFileEntry> children = folder.getChildren();
     final ArrayList<ItemReference> result = new ArrayList<>(children.size());
+    final List<ItemReference> files = new ArrayList<>();
     for (VirtualFileEntry child : children) {
       if (child.isFile()) {
-        result.add(injectFileLinks(vcsStatusInjector.injectVcsStatus(asDto((FileEntry) child))));
+        final ItemReference file = injectFileLinks(asDto((FileEntry) child));
+        files.add(file);
+        result.add(file);
       } else {
         result.add(injectFolderLinks(asDto((FolderEntry) child)));
       }
     }
+    vcsStatusInjector.injectVcsStatus(files);
 
     return result;
   }
@@ -935,9 +974,13 @@ public class ProjectService extends Service {
       throw new NotFoundException("Folder " + path + " was not found");
     }
 
-    return newDto(TreeElement.class)
-        .withNode(injectFolderLinks(asDto(folder)))
-        .withChildren(getTree(folder, depth, includeFiles));
+    final List<ItemReference> files = new ArrayList<>();
+    final TreeElement tree =
+        newDto(TreeElement.class)
+            .withNode(injectFolderLinks(asDto(folder)))
+            .withChildren(getTree(folder, depth, includeFiles, files));
+    vcsStatusInjector.injectVcsStatus(files);
+    return tree;
   }
 
   @GET
@@ -996,7 +1039,9 @@ public class ProjectService extends Service {
           @QueryParam("maxItems")
           @DefaultValue("-1")
           int maxItems,
-      @ApiParam(value = "Skip count") @QueryParam("skipCount") int skipCount)
+      @ApiParam(value = "Skip count") @QueryParam("skipCount") int skipCount,
+      @ApiParam(value = "Whether text is a regular expression") @QueryParam("regex")
+          boolean regex)
       throws NotFoundException, ForbiddenException, ConflictException, ServerException {
     final Searcher searcher;
     try {
@@ -1006,24 +1051,30 @@ public class ProjectService extends Service {
       return Collections.emptyList();
     }
 
-    if (skipCount < 0) {
-      throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
-    }
-
-    final QueryExpression expr =
-        new QueryExpression()
-            .setPath(path.startsWith("/") ? path : ('/' + path))
-            .setName(name)
-            .setText(text)
-            .setMaxItems(maxItems)
-            .setSkipCount(skipCount)
-            .setIncludePositions(true);
+    final QueryExpression expr = createSearchQuery(path, name, text, maxItems, skipCount, regex);
 
     final SearchResult result = searcher.search(expr);
     final List<SearchResultEntry> searchResultEntries = result.getResults();
     return prepareResults(searchResultEntries);
   }
 
+  private static QueryExpression createSearchQuery(
+      String path, String name, String text, int maxItems, int skipCount, boolean regex)
+      throws ConflictException {
+    if (skipCount < 0) {
+      throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+    }
+
+    return new QueryExpression()
+        .setPath(path.startsWith("/") ? path : ('/' + path))
+        .setName(name)
+        .setText(text)
+        .setMaxItems(maxItems)
+        .setSkipCount(skipCount)
+        .setRegex(regex)
+        .setIncludePositions(true);
+  }
+
   /**
    * Prepare result for client, add additional information like line number and line content where
    * found given text
@@ -1038,34 +1089,95 @@ public class ProjectService extends Service {
     FolderEntry root = projectManager.getProjectsRoot();
 
     for (SearchResultEntry searchResultEntry : searchResultEntries) {
-      VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
-      if (child != null && child.isFile()) {
-        ItemReference itemReference = injectFileLinks(asDto((FileEntry) child));
-        File file = child.getVirtualFile().toIoFile();
-        List<LuceneSearcher.OffsetData> datas = searchResultEntry.getData();
-        List<SearchOccurrenceDto> searchOccurrences = new ArrayList<>(datas.size());
-        for (LuceneSearcher.OffsetData data : datas) {
-          SearchOccurrenceDto searchOccurrenceDto =
-              DtoFactory.getInstance()
-                  .createDto(SearchOccurrenceDto.class)
-                  .withPhrase(data.phrase)
-                  .withScore(data.score)
-                  .withStartOffset(data.startOffset)
-                  .withEndOffset(data.endOffset)
-                  .withLineNumber(data.lineNum)
-                  .withLineContent(data.line);
-          searchOccurrences.add(searchOccurrenceDto);
-        }
-        SearchResultDto searchResultDto = DtoFactory.getInstance().createDto(SearchResultDto.class);
-        results.add(
-            searchResultDto
-                .withItemReference(itemReference)
-                .withSearchOccurrences(searchOccurrences));
+      SearchResultDto searchResultDto = prepareResult(root, searchResultEntry);
+      if (searchResultDto != null) {
+        results.add(searchResultDto);
       }
     }
     return results;
   }
 
+  /**
+   * Prepare single result for client.
+   *
+   * @return prepared result or {@code null} if found item is not a file any more
+   */
+  private SearchResultDto prepareResult(FolderEntry root, SearchResultEntry searchResultEntry)
+      throws ServerException {
+    VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
+    if (child == null || !child.isFile()) {
+      return null;
+    }
+    ItemReference itemReference = injectFileLinks(asDto((FileEntry) child));
+    List<LuceneSearcher.OffsetData> datas = searchResultEntry.getData();
+    List<SearchOccurrenceDto> searchOccurrences = new ArrayList<>(datas.size());
+    for (LuceneSearcher.OffsetData data : datas) {
+      SearchOccurrenceDto searchOccurrenceDto =
+          DtoFactory.getInstance()
+              .createDto(SearchOccurrenceDto.class)
+              .withPhrase(data.phrase)
+              .withScore(data.score)
+              .withStartOffset(data.startOffset)
+              .withEndOffset(data.endOffset)
+              .withLineNumber(data.lineNum)
+              .withLineContent(data.line);
+      searchOccurrences.add(searchOccurrenceDto);
+    }
+    SearchResultDto searchResultDto = DtoFactory.getInstance().createDto(SearchResultDto.class);
+    return searchResultDto
+        .withItemReference(itemReference)
+        .withSearchOccurrences(searchOccurrences);
+  }
+
+  /**
+   * Searches the same as {@link #search(String, String, String, int, int, boolean)} but sends each
+   * found item to the endpoint as soon as it is found instead of collecting all of them.
+   */
+  private void streamSearch(
+      String endpointId,
+      String streamId,
+      String path,
+      String name,
+      String text,
+      int maxItems,
+      int skipCount,
+      boolean regex)
+      throws NotFoundException, ForbiddenException, ConflictException, ServerException {
+    final Searcher searcher;
+    try {
+      searcher = projectManager.getSearcher();
+    } catch (NotFoundException e) {
+      LOG.warn(e.getLocalizedMessage());
+      return;
+    }
+
+    final QueryExpression expr = createSearchQuery(path, name, text, maxItems, skipCount, regex);
+
+    final FolderEntry root = projectManager.getProjectsRoot();
+    final String methodName = EVENT_SEARCH_RESULT + "/" + streamId;
+    final Consumer<SearchResultEntry> sender =
+        entry -> {
+          try {
+            SearchResultDto result = prepareResult(root, entry);
+            if (result != null) {
+              transmitter
+                  .newRequest()
+                  .endpointId(endpointId)
+                  .methodName(methodName)
+                  .paramsAsDto(result)
+                  .sendAndSkipResult();
+            }
+          } catch (ServerException e) {
+            LOG.warn(e.getLocalizedMessage());
+          }
+        };
+    if (searcher instanceof LuceneSearcher) {
+      ((LuceneSearcher) searcher).search(expr, sender);
+    } else {
+      searcher.search(expr).getResults().forEach(sender);
+    }
+  }
+
   @Inject
   private void configureProjectSearchRequestHandler(
       RequestHandlerConfigurator requestHandlerConfigurator) {
@@ -1074,19 +1186,29 @@ public class ProjectService extends Service {
         .methodName("project/search")
         .paramsAsDto(ProjectSearchRequestDto.class)
         .resultAsDto(ProjectSearchResponseDto.class)
-        .withFunction(this::search);
+        .withBiFunction(this::search);
   }
 
   public ProjectSearchResponseDto search(ProjectSearchRequestDto request) {
+    return search(null, request);
+  }
+
+  public ProjectSearchResponseDto search(String endpointId, ProjectSearchRequestDto request) {
     String path = request.getPath();
     String name = request.getName();
     String text = request.getText();
     int maxItems = request.getMaxItems();
     int skipCount = request.getSkipCount();
+    String streamId = request.getStreamId();
+    boolean regex = request.isRegex();
 
     try {
+      if (endpointId != null && streamId != null) {
+        streamSearch(endpointId, streamId, path, name, text, maxItems, skipCount, regex);
+        return newDto(ProjectSearchResponseDto.class).withItemReferences(Collections.emptyList());
+      }
       return newDto(ProjectSearchResponseDto.class)
-          .withItemReferences(search(path, name, text, maxItems, skipCount));
+          .withItemReferences(search(path, name, text, maxItems, skipCount, regex));
     } catch (ServerException | ConflictException | NotFoundException | ForbiddenException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
@@ -1120,7 +1242,12 @@ public class ProjectService extends Service {
     return virtualFile;
   }
 
-  private List<TreeElement> getTree(FolderEntry folder, int depth, boolean includeFiles)
+  /**
+   * Returns tree of children of the given folder, adds files of the tree to {@code files}, so VCS
+   * statuses of all of them could be injected at once.
+   */
+  private List<TreeElement> getTree(
+      FolderEntry folder, int depth, boolean includeFiles, List<ItemReference> files)
       throws ServerException, NotFoundException {
     if (depth == 0) {
       return null;
@@ -1140,12 +1267,11 @@ public class ProjectService extends Service {
         nodes.add(
             newDto(TreeElement.class)
                 .withNode(injectFolderLinks(asDto((FolderEntry) child)))
-                .withChildren(getTree((FolderEntry) child, depth - 1, includeFiles)));
+                .withChildren(getTree((FolderEntry) child, depth - 1, includeFiles, files)));
       } else {
-        nodes.add(
-            newDto(TreeElement.class)
-                .withNode(
-                    injectFileLinks(vcsStatusInjector.injectVcsStatus(asDto((FileEntry) child)))));
+        final ItemReference file = injectFileLinks(asDto((FileEntry) child));
+        files.add(file);
+        nodes.add(newDto(TreeElement.class).withNode(file));
       }
     }
 
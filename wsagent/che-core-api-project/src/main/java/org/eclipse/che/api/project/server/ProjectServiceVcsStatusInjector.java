@@ -10,7 +10,12 @@
  */
 package org.eclipse.che.api.project.server;
 
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +24,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 
 /**
@@ -47,25 +53,51 @@ public class ProjectServiceVcsStatusInjector {
    */
   public ItemReference injectVcsStatus(ItemReference itemReference)
       throws ServerException, NotFoundException {
-    List<String> vcsAttributes =
-        projectManager
-            .getProject(itemReference.getProject())
-            .getAttributes()
-            .get("vcs.provider.name");
-    Optional<VcsStatusProvider> optional =
-        vcsStatusProviders
-            .stream()
-            .filter(
-                vcsStatusProvider ->
-                    vcsStatusProvider
-                        .getVcsName()
-                        .equals(vcsAttributes != null ? vcsAttributes.get(0) : null))
-            .findAny();
-    if (optional.isPresent()) {
-      Map<String, String> attributes = new HashMap<>(itemReference.getAttributes());
-      attributes.put("vcs.status", optional.get().getStatus(itemReference.getPath()).toString());
-      itemReference.setAttributes(attributes);
-    }
+    injectVcsStatus(singletonList(itemReference));
     return itemReference;
   }
+
+  /**
+   * Find related VCS providers and set VCS statuses of {@link ItemReference} files to their
+   * attributes. Statuses of files of the same project are requested from VCS provider at once.
+   *
+   * @param itemReferences files to update
+   */
+  public List<ItemReference> injectVcsStatus(List<ItemReference> itemReferences)
+      throws ServerException, NotFoundException {
+    final Map<String, List<ItemReference>> projectItems = new LinkedHashMap<>();
+    for (ItemReference itemReference : itemReferences) {
+      projectItems
+          .computeIfAbsent(itemReference.getProject(), project -> new ArrayList<>())
+          .add(itemReference);
+    }
+    for (Map.Entry<String, List<ItemReference>> entry : projectItems.entrySet()) {
+      Optional<VcsStatusProvider> optional = findVcsStatusProvider(entry.getKey());
+      if (optional.isPresent()) {
+        List<ItemReference> items = entry.getValue();
+        Map<String, VcsStatus> statuses =
+            optional.get().getStatus(items.stream().map(ItemReference::getPath).collect(toList()));
+        for (ItemReference itemReference : items) {
+          Map<String, String> attributes = new HashMap<>(itemReference.getAttributes());
+          attributes.put("vcs.status", String.valueOf(statuses.get(itemReference.getPath())));
+          itemReference.setAttributes(attributes);
+        }
+      }
+    }
+    return itemReferences;
+  }
+
+  private Optional<VcsStatusProvider> findVcsStatusProvider(String projectPath)
+      throws ServerException, NotFoundException {
+    List<String> vcsAttributes =
+        projectManager.getProject(projectPath).getAttributes().get("vcs.provider.name");
+    return vcsStatusProviders
+        .stream()
+        .filter(
+            vcsStatusProvider ->
+                vcsStatusProvider
+                    .getVcsName()
+                    .equals(vcsAttributes != null ? vcsAttributes.get(0) : null))
+        .findAny();
+  }
 }
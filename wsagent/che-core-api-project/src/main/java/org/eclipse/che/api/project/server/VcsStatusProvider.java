@@ -10,6 +10,9 @@
  */
 package org.eclipse.che.api.project.server;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import org.eclipse.che.api.core.ServerException;
 
 /**
@@ -29,6 +32,22 @@ public interface VcsStatusProvider {
    */
   VcsStatus getStatus(String path) throws ServerException;
 
+  /**
+   * Get vcs statuses of the given files. Default implementation gets status of each file one by
+   * one, implementations which are able to get statuses of several files at once should override
+   * it.
+   *
+   * @param paths paths to the given files
+   * @return statuses of the given files mapped by their paths
+   */
+  default Map<String, VcsStatus> getStatus(Collection<String> paths) throws ServerException {
+    final Map<String, VcsStatus> statuses = new HashMap<>();
+    for (String path : paths) {
+      statuses.put(path, getStatus(path));
+    }
+    return statuses;
+  }
+
   enum VcsStatus {
     ADDED,
     MODIFIED,
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+
+/**
+ * Writes content of a folder to archive with a pipeline: the calling thread walks the tree and
+ * writes entries to archive in the order of the walk, while up to {@link #QUEUE_SIZE} files ahead
+ * of the written one are read and, if the format requires it, compressed in parallel by a shared
+ * pool. Prepared content is kept in memory up to {@link #MEMORY_THRESHOLD} bytes per entry and in
+ * temporary files above it, format should not prepare content of larger files in advance.
+ */
+class ParallelArchiveWriter {
+  /** Maximal size of prepared content of entry which is kept in memory. */
+  static final int MEMORY_THRESHOLD = 1024 * 1024;
+
+  private static final int QUEUE_SIZE = 64;
+  private static final int PREPARERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  /** Preparing tasks never wait for each other, so the pool may be bounded. */
+  private static final ExecutorService EXECUTOR = createExecutor();
+
+  /** Archive format specific part of writing. */
+  interface EntryWriter {
+    /** Prepares content of file entry, called by preparers concurrently for different entries. */
+    void prepare(Entry entry) throws IOException, ForbiddenException, ServerException;
+
+    /** Writes entry to archive, called by the calling thread in the order of the tree walk. */
+    void write(Entry entry) throws IOException, ForbiddenException, ServerException;
+  }
+
+  private final VirtualFile folder;
+  private final EntryWriter writer;
+
+  /** Entries which prepared content is not written yet, guarded by itself. */
+  private final Set<Entry> prepared = new HashSet<>();
+
+  private boolean closed;
+
+  /**
+   * @param folder folder which content should be archived
+   * @param writer format specific writer
+   */
+  ParallelArchiveWriter(VirtualFile folder, EntryWriter writer) {
+    this.folder = folder;
+    this.writer = writer;
+  }
+
+  /**
+   * Writes all accepted items of the folder to archive and blocks until all of them are written.
+   * Folder which isn't accepted by filter is skipped with all its content.
+   */
+  void write(VirtualFileFilter filter) throws IOException, ServerException {
+    final Deque<Future<Entry>> entries = new ArrayDeque<>(QUEUE_SIZE);
+    try {
+      final LinkedList<VirtualFile> q = new LinkedList<>();
+      q.push(folder);
+      while (!q.isEmpty()) {
+        final VirtualFile file = q.pop();
+        if (!filter.accept(file)) {
+          continue;
+        }
+        if (file.isFolder()) {
+          if (!file.equals(folder)) {
+            entries.add(Futures.immediateFuture(new Entry(file, getEntryName(file))));
+          }
+          final List<VirtualFile> children = file.getChildren();
+          for (int i = children.size() - 1; i >= 0; i--) {
+            q.push(children.get(i));
+          }
+        } else {
+          final Entry entry = new Entry(file, getEntryName(file));
+          final FutureTask<Entry> task = new FutureTask<>(() -> prepareEntry(entry));
+          entries.add(task);
+          EXECUTOR.execute(task);
+        }
+        if (entries.size() >= QUEUE_SIZE) {
+          writeEntry(entries.poll());
+        }
+      }
+      while (!entries.isEmpty()) {
+        writeEntry(entries.poll());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServerException(
+          String.format("Archiving of '%s' was interrupted", folder.getPath()));
+    } finally {
+      entries.forEach(entry -> entry.cancel(true));
+      synchronized (prepared) {
+        closed = true;
+        prepared.forEach(Entry::release);
+        prepared.clear();
+      }
+    }
+  }
+
+  private void writeEntry(Future<Entry> next)
+      throws IOException, ServerException, InterruptedException {
+    final Entry entry = get(next);
+    try {
+      writer.write(entry);
+    } catch (ForbiddenException e) {
+      throw new ServerException(e.getServiceError());
+    } finally {
+      release(entry);
+    }
+  }
+
+  private Entry prepareEntry(Entry entry) throws Exception {
+    try {
+      writer.prepare(entry);
+    } catch (Exception e) {
+      entry.release();
+      throw e;
+    }
+    synchronized (prepared) {
+      if (closed) {
+        entry.release();
+      } else {
+        prepared.add(entry);
+      }
+    }
+    return entry;
+  }
+
+  private void release(Entry entry) {
+    synchronized (prepared) {
+      prepared.remove(entry);
+    }
+    entry.release();
+  }
+
+  private Entry get(Future<Entry> future)
+      throws IOException, ServerException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof ServerException) {
+        throw (ServerException) cause;
+      } else if (cause instanceof ForbiddenException) {
+        throw new ServerException(((ForbiddenException) cause).getServiceError());
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ServerException(cause.getMessage(), cause);
+    }
+  }
+
+  private static ExecutorService createExecutor() {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            PREPARERS,
+            PREPARERS,
+            60,
+            SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("ParallelArchiveWriter-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private String getEntryName(VirtualFile virtualFile) {
+    Path entryPath = virtualFile.getPath().subPath(folder.getPath());
+    if (virtualFile.isFolder()) {
+      return entryPath.toString() + '/';
+    }
+    return entryPath.toString();
+  }
+
+  /** Item of archive with content prepared for writing. */
+  static class Entry {
+    private final VirtualFile file;
+    private final String name;
+
+    private DeferredFileOutputStream buffer;
+    private long lastModified;
+    private long size;
+    private long crc;
+    private int method;
+
+    Entry(VirtualFile file, String name) {
+      this.file = file;
+      this.name = name;
+    }
+
+    VirtualFile getFile() {
+      return file;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    boolean isFolder() {
+      return file.isFolder();
+    }
+
+    long getLastModified() {
+      return lastModified;
+    }
+
+    void setLastModified(long lastModified) {
+      this.lastModified = lastModified;
+    }
+
+    /** Size of content of file. */
+    long getSize() {
+      return size;
+    }
+
+    void setSize(long size) {
+      this.size = size;
+    }
+
+    /** CRC-32 of content of file. */
+    long getCrc() {
+      return crc;
+    }
+
+    void setCrc(long crc) {
+      this.crc = crc;
+    }
+
+    /** Format specific method of storing content of file in archive. */
+    int getMethod() {
+      return method;
+    }
+
+    void setMethod(int method) {
+      this.method = method;
+    }
+
+    /** Creates buffer for prepared content, it is closed by the caller. */
+    OutputStream openBuffer() {
+      buffer = new DeferredFileOutputStream(MEMORY_THRESHOLD, "archive-", ".entry", null);
+      return buffer;
+    }
+
+    boolean isBuffered() {
+      return buffer != null;
+    }
+
+    /** Size of prepared content. */
+    long getBufferedSize() {
+      return buffer.getByteCount();
+    }
+
+    /** Opens prepared content. */
+    InputStream openBuffered() throws IOException {
+      if (buffer.isInMemory()) {
+        return new ByteArrayInputStream(buffer.getData());
+      }
+      return new FileInputStream(buffer.getFile());
+    }
+
+    void release() {
+      if (buffer != null && !buffer.isInMemory() && buffer.getFile() != null) {
+        if (!buffer.getFile().delete() && buffer.getFile().exists()) {
+          FileCleaner.addFile(buffer.getFile());
+        }
+      }
+      buffer = null;
+    }
+  }
+}
@@ -22,6 +22,11 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.util.NotClosableInputStream;
 
+/**
+ * Archiver for tar format. Content of small files is read in parallel, see {@link
+ * ParallelArchiveWriter}, content of files larger than {@link
+ * ParallelArchiveWriter#MEMORY_THRESHOLD} is copied to archive directly.
+ */
 public class TarArchiver extends Archiver {
   public TarArchiver(VirtualFile folder) {
     super(folder);
@@ -37,54 +42,54 @@ public class TarArchiver extends Archiver {
       throws IOException, ServerException {
     try (TarArchiveOutputStream tarOutputStream = new TarArchiveOutputStream(tarOutput)) {
       tarOutputStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
-      folder.accept(
-          new VirtualFileVisitor() {
-            @Override
-            public void visit(VirtualFile visitedVirtualFile) throws ServerException {
-              if (filter.accept(visitedVirtualFile)) {
-                if (!visitedVirtualFile.equals(folder)) {
-                  addTarEntry(visitedVirtualFile, tarOutputStream);
+      new ParallelArchiveWriter(
+              folder,
+              new ParallelArchiveWriter.EntryWriter() {
+                @Override
+                public void prepare(ParallelArchiveWriter.Entry entry)
+                    throws IOException, ForbiddenException, ServerException {
+                  prepareTarEntry(entry);
                 }
-                if (visitedVirtualFile.isFolder()) {
-                  for (VirtualFile child : visitedVirtualFile.getChildren()) {
-                    child.accept(this);
-                  }
+
+                @Override
+                public void write(ParallelArchiveWriter.Entry entry)
+                    throws IOException, ForbiddenException, ServerException {
+                  addTarEntry(entry, tarOutputStream);
                 }
-              }
-            }
-          });
+              })
+          .write(filter);
     }
   }
 
-  private String getTarEntryName(VirtualFile virtualFile) {
-    Path tarPath = virtualFile.getPath().subPath(folder.getPath());
-    if (virtualFile.isFolder()) {
-      return tarPath.toString() + '/';
+  private void prepareTarEntry(ParallelArchiveWriter.Entry entry)
+      throws IOException, ForbiddenException, ServerException {
+    final VirtualFile file = entry.getFile();
+    entry.setLastModified(file.getLastModificationDate());
+    entry.setSize(file.getLength());
+    if (entry.getSize() <= ParallelArchiveWriter.MEMORY_THRESHOLD) {
+      try (InputStream content = file.getContent();
+          OutputStream buffer = entry.openBuffer()) {
+        entry.setSize(ByteStreams.copy(content, buffer));
+      }
     }
-    return tarPath.toString();
   }
 
-  private void addTarEntry(VirtualFile virtualFile, TarArchiveOutputStream tarOutputStream)
-      throws ServerException {
-    try {
-      TarArchiveEntry tarEntry = new TarArchiveEntry(getTarEntryName(virtualFile));
-      if (virtualFile.isFolder()) {
-        tarEntry.setModTime(0);
-        tarOutputStream.putArchiveEntry(tarEntry);
-      } else {
-        tarEntry.setSize(virtualFile.getLength());
-        tarEntry.setModTime(virtualFile.getLastModificationDate());
-        tarOutputStream.putArchiveEntry(tarEntry);
-        try (InputStream content = virtualFile.getContent()) {
-          ByteStreams.copy(content, tarOutputStream);
-        }
+  private void addTarEntry(ParallelArchiveWriter.Entry entry, TarArchiveOutputStream tarOutput)
+      throws IOException, ForbiddenException, ServerException {
+    final TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getName());
+    if (entry.isFolder()) {
+      tarEntry.setModTime(0);
+      tarOutput.putArchiveEntry(tarEntry);
+    } else {
+      tarEntry.setSize(entry.getSize());
+      tarEntry.setModTime(entry.getLastModified());
+      tarOutput.putArchiveEntry(tarEntry);
+      try (InputStream content =
+          entry.isBuffered() ? entry.openBuffered() : entry.getFile().getContent()) {
+        ByteStreams.copy(content, tarOutput);
       }
-      tarOutputStream.closeArchiveEntry();
-    } catch (ForbiddenException e) {
-      throw new ServerException(e.getServiceError());
-    } catch (IOException e) {
-      throw new ServerException(e.getMessage(), e);
     }
+    tarOutput.closeArchiveEntry();
   }
 
   @Override
@@ -10,22 +10,60 @@
  */
 package org.eclipse.che.api.vfs;
 
+import static java.util.zip.Deflater.BEST_SPEED;
+import static java.util.zip.Deflater.DEFAULT_COMPRESSION;
+import static java.util.zip.Deflater.NO_COMPRESSION;
+
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.util.NotClosableInputStream;
 import org.eclipse.che.api.vfs.util.ZipContent;
 
+/**
+ * Archiver for zip format. Content of files is read and deflated in parallel, see {@link
+ * ParallelArchiveWriter}, except files larger than {@link ParallelArchiveWriter#MEMORY_THRESHOLD}
+ * which are deflated while they are written. Files which content is already compressed, e.g.
+ * archives or images, are added to archive as configured by {@link CompressedFilesMode}, stored
+ * files are copied to archive as is and only their checksum is computed in parallel.
+ */
 public class ZipArchiver extends Archiver {
+  /** How files which content is already compressed are added to archive. */
+  public enum CompressedFilesMode {
+    /** Files are stored without compression. */
+    STORE,
+    /** Files are deflated with the fastest compression level. */
+    FAST_DEFLATE
+  }
+
+  private static final Set<String> COMPRESSED_EXTENSIONS =
+      ImmutableSet.of(
+          "zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz", "7z", "rar", "png", "jpg", "jpeg",
+          "gif", "webp", "ico", "mp3", "mp4", "avi", "mov", "pdf", "woff", "woff2");
+
+  private final CompressedFilesMode compressedFilesMode;
+
   public ZipArchiver(VirtualFile folder) {
+    this(folder, CompressedFilesMode.STORE);
+  }
+
+  public ZipArchiver(VirtualFile folder, CompressedFilesMode compressedFilesMode) {
     super(folder);
+    this.compressedFilesMode = compressedFilesMode;
   }
 
   @Override
@@ -36,55 +74,113 @@ public class ZipArchiver extends Archiver {
   @Override
   public void compress(OutputStream zipOutput, VirtualFileFilter filter)
       throws IOException, ServerException {
-    try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipOutput)) {
-      folder.accept(
-          new VirtualFileVisitor() {
-            @Override
-            public void visit(VirtualFile visitedVirtualFile) throws ServerException {
-              if (filter.accept(visitedVirtualFile)) {
-                if (!visitedVirtualFile.equals(folder)) {
-                  addZipEntry(visitedVirtualFile, zipOutputStream);
+    try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipOutput)) {
+      new ParallelArchiveWriter(
+              folder,
+              new ParallelArchiveWriter.EntryWriter() {
+                @Override
+                public void prepare(ParallelArchiveWriter.Entry entry)
+                    throws IOException, ForbiddenException, ServerException {
+                  prepareZipEntry(entry);
                 }
-                if (visitedVirtualFile.isFolder()) {
-                  for (VirtualFile child : visitedVirtualFile.getChildren()) {
-                    child.accept(this);
-                  }
+
+                @Override
+                public void write(ParallelArchiveWriter.Entry entry)
+                    throws IOException, ForbiddenException, ServerException {
+                  addZipEntry(entry, zipOutputStream);
                 }
-              }
-            }
-          });
+              })
+          .write(filter);
     }
   }
 
-  private String getZipEntryName(VirtualFile virtualFile) {
-    Path zipPath = virtualFile.getPath().subPath(folder.getPath());
-    if (virtualFile.isFolder()) {
-      return zipPath.toString() + '/';
+  private void prepareZipEntry(ParallelArchiveWriter.Entry entry)
+      throws IOException, ForbiddenException, ServerException {
+    final VirtualFile file = entry.getFile();
+    final int level = getLevel(file.getName());
+    entry.setLastModified(file.getLastModificationDate());
+    if (level == NO_COMPRESSION) {
+      // stored content is copied to archive by the writer, only its checksum is needed in advance
+      entry.setMethod(ZipEntry.STORED);
+      final CRC32 crc = new CRC32();
+      try (InputStream content = new CheckedInputStream(file.getContent(), crc)) {
+        entry.setSize(ByteStreams.copy(content, ByteStreams.nullOutputStream()));
+      }
+      entry.setCrc(crc.getValue());
+      return;
+    }
+    entry.setMethod(ZipEntry.DEFLATED);
+    if (file.getLength() > ParallelArchiveWriter.MEMORY_THRESHOLD) {
+      // large file is deflated by the writer instead of copying it to temporary file
+      return;
     }
-    return zipPath.toString();
+    final CRC32 crc = new CRC32();
+    try (InputStream content = new CheckedInputStream(file.getContent(), crc);
+        OutputStream buffer = entry.openBuffer()) {
+      final Deflater deflater = new Deflater(level, true);
+      try {
+        final DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(buffer, deflater);
+        entry.setSize(ByteStreams.copy(content, deflaterOutput));
+        deflaterOutput.finish();
+      } finally {
+        deflater.end();
+      }
+    }
+    entry.setCrc(crc.getValue());
   }
 
-  private void addZipEntry(VirtualFile virtualFile, ZipOutputStream zipOutputStream)
-      throws ServerException {
-    try {
-      ZipEntry zipEntry = new ZipEntry(getZipEntryName(virtualFile));
-      zipOutputStream.putNextEntry(zipEntry);
-      if (virtualFile.isFolder()) {
-        zipEntry.setTime(0);
-      } else {
-        try (InputStream content = virtualFile.getContent()) {
-          ByteStreams.copy(content, zipOutputStream);
-        }
-        zipEntry.setTime(virtualFile.getLastModificationDate());
+  private void addZipEntry(ParallelArchiveWriter.Entry entry, ZipArchiveOutputStream zipOutput)
+      throws IOException, ForbiddenException, ServerException {
+    final ZipArchiveEntry zipEntry = new ZipArchiveEntry(entry.getName());
+    if (entry.isFolder()) {
+      zipEntry.setTime(0);
+      zipEntry.setMethod(ZipEntry.STORED);
+      zipEntry.setSize(0);
+      zipEntry.setCrc(0);
+      zipOutput.putArchiveEntry(zipEntry);
+      zipOutput.closeArchiveEntry();
+    } else if (entry.isBuffered()) {
+      zipEntry.setTime(entry.getLastModified());
+      zipEntry.setMethod(entry.getMethod());
+      zipEntry.setSize(entry.getSize());
+      zipEntry.setCompressedSize(entry.getBufferedSize());
+      zipEntry.setCrc(entry.getCrc());
+      try (InputStream raw = entry.openBuffered()) {
+        zipOutput.addRawArchiveEntry(zipEntry, raw);
+      }
+    } else if (entry.getMethod() == ZipEntry.STORED) {
+      zipEntry.setTime(entry.getLastModified());
+      zipEntry.setMethod(ZipEntry.STORED);
+      zipEntry.setSize(entry.getSize());
+      zipEntry.setCompressedSize(entry.getSize());
+      zipEntry.setCrc(entry.getCrc());
+      try (InputStream content = entry.getFile().getContent()) {
+        zipOutput.addRawArchiveEntry(zipEntry, content);
+      }
+    } else {
+      zipEntry.setTime(entry.getLastModified());
+      zipEntry.setMethod(ZipEntry.DEFLATED);
+      zipOutput.setLevel(getLevel(entry.getFile().getName()));
+      zipOutput.putArchiveEntry(zipEntry);
+      try (InputStream content = entry.getFile().getContent()) {
+        ByteStreams.copy(content, zipOutput);
       }
-      zipOutputStream.closeEntry();
-    } catch (ForbiddenException e) {
-      throw new ServerException(e.getServiceError());
-    } catch (IOException e) {
-      throw new ServerException(e.getMessage(), e);
+      zipOutput.closeArchiveEntry();
     }
   }
 
+  private int getLevel(String fileName) {
+    if (isCompressed(fileName)) {
+      return compressedFilesMode == CompressedFilesMode.STORE ? NO_COMPRESSION : BEST_SPEED;
+    }
+    return DEFAULT_COMPRESSION;
+  }
+
+  private static boolean isCompressed(String fileName) {
+    final int dot = fileName.lastIndexOf('.');
+    return dot > 0 && COMPRESSED_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
+  }
+
   @Override
   public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
       throws IOException, ForbiddenException, ConflictException, ServerException {
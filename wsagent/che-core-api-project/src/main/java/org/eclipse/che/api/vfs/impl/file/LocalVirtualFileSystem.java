@@ -21,9 +21,11 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.eclipse.che.api.vfs.VirtualFileFilters.dotGitFilter;
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
@@ -39,10 +41,13 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -138,6 +143,10 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
   private final FileMetadataSerializer metadataSerializer;
   private final LoadingCache<Path, Map<String, String>> metadataCache;
 
+  private final Cache<String, DirectoryListing> childrenCache;
+  /** Keys of {@link #childrenCache} sorted, so listings of a sub-tree are found by prefix. */
+  private final NavigableSet<String> childrenCacheKeys;
+
   @SuppressWarnings("unchecked")
   public LocalVirtualFileSystem(
       File ioRoot,
@@ -167,6 +176,20 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             .maximumSize(256)
             .expireAfterAccess(10, MINUTES)
             .build(new FilePropertiesCacheLoader());
+
+    childrenCacheKeys = new ConcurrentSkipListSet<>();
+    childrenCache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(8)
+            .maximumSize(1024)
+            .expireAfterAccess(10, MINUTES)
+            .removalListener(
+                (RemovalNotification<String, DirectoryListing> notification) -> {
+                  if (notification.wasEvicted()) {
+                    childrenCacheKeys.remove(notification.getKey());
+                  }
+                })
+            .build();
   }
 
   @Override
@@ -182,6 +205,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
   @Override
   public void close() throws ServerException {
     cleanUpCaches();
+    invalidateChildrenCache(Path.ROOT);
     if (searcherProvider != null) {
       Searcher searcher = searcherProvider.getSearcher(this, false);
       if (searcher != null) {
@@ -215,6 +239,36 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     metadataCache.invalidateAll();
   }
 
+  /**
+   * Drops cached listings of the folder with specified path, of all its sub-folders and of its
+   * parent folder. Must be called when the tree is changed outside of this virtual file system,
+   * e.g. on file watcher events.
+   *
+   * @param path path of created, updated or deleted item
+   */
+  public void invalidateChildrenCache(Path path) {
+    if (path.isRoot()) {
+      childrenCacheKeys.clear();
+      childrenCache.invalidateAll();
+      return;
+    }
+    final String key = path.toString();
+    // all keys which start with "key/", '0' is the next character after '/'
+    final Iterator<String> descendants = childrenCacheKeys.subSet(key + '/', key + '0').iterator();
+    while (descendants.hasNext()) {
+      final String descendant = descendants.next();
+      descendants.remove();
+      childrenCache.invalidate(descendant);
+    }
+    invalidateChildrenCacheEntry(key);
+    invalidateChildrenCacheEntry(path.getParent().toString());
+  }
+
+  private void invalidateChildrenCacheEntry(String key) {
+    childrenCacheKeys.remove(key);
+    childrenCache.invalidate(key);
+  }
+
   /**
    * Used in tests. Need this to check state of PathLockFactory. All locks MUST be released at the
    * end of request lifecycle.
@@ -250,34 +304,30 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     return newArrayList(path.elements()).contains(".vfs");
   }
 
-  synchronized List<VirtualFile> getChildren(LocalVirtualFile parent, VirtualFileFilter filter)
+  List<VirtualFile> getChildren(LocalVirtualFile parent, VirtualFileFilter filter)
       throws ServerException {
     if (parent.isFolder()) {
-      final List<VirtualFile> children = doGetChildren(parent, DOT_VFS_DIR_FILTER, filter);
-      Collections.sort(children);
-      return children;
+      return doGetChildren(parent, filter);
     }
     return emptyList();
   }
 
-  private List<VirtualFile> doGetChildren(
-      LocalVirtualFile parent, FilenameFilter ioFileFilter, VirtualFileFilter vfsFilter)
+  /**
+   * Lists children of folder without any locking. Names of children are read from the cached
+   * listing of folder which is already sorted in the same order as {@link
+   * LocalVirtualFile#compareTo(VirtualFile)} does, so result list does not need to be sorted again.
+   * Cached listing is re-read when modification time of folder is changed.
+   */
+  private List<VirtualFile> doGetChildren(LocalVirtualFile parent, VirtualFileFilter vfsFilter)
       throws ServerException {
-    if (ioFileFilter == null) {
-      ioFileFilter = IoUtil.ANY_FILTER;
-    }
-
-    final String[] names = parent.toIoFile().list(ioFileFilter);
-    if (names == null) {
-      throw new ServerException(String.format("Unable get children of '%s'", parent.getPath()));
-    }
+    final DirectoryListing listing = getDirectoryListing(parent);
 
     if (vfsFilter == null) {
       vfsFilter = VirtualFileFilter.ACCEPT_ALL;
     }
 
-    final List<VirtualFile> children = newArrayListWithCapacity(names.length);
-    for (String name : names) {
+    final List<VirtualFile> children = newArrayListWithCapacity(listing.names.length);
+    for (String name : listing.names) {
       final Path childPath = parent.getPath().newPath(name);
       final LocalVirtualFile child =
           new LocalVirtualFile(new File(ioRoot, toIoPath(childPath)), childPath, this);
@@ -289,6 +339,53 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     return children;
   }
 
+  private DirectoryListing getDirectoryListing(LocalVirtualFile parent) throws ServerException {
+    final File ioFile = parent.toIoFile();
+    final long lastModified = ioFile.lastModified();
+    final String key = parent.getPath().toString();
+    final DirectoryListing cached = childrenCache.getIfPresent(key);
+    if (cached != null && cached.lastModified == lastModified) {
+      return cached;
+    }
+
+    final File[] files = ioFile.listFiles(DOT_VFS_DIR_FILTER);
+    if (files == null) {
+      throw new ServerException(String.format("Unable get children of '%s'", parent.getPath()));
+    }
+    final DirectoryListing listing = new DirectoryListing(lastModified, files);
+    childrenCache.put(key, listing);
+    childrenCacheKeys.add(key);
+    return listing;
+  }
+
+  /** Names of folder's children: folders first, then files, both groups sorted by name. */
+  private static class DirectoryListing {
+    final long lastModified;
+    final String[] names;
+
+    DirectoryListing(long lastModified, File[] files) {
+      this.lastModified = lastModified;
+      final boolean[] folders = new boolean[files.length];
+      final Integer[] order = new Integer[files.length];
+      for (int i = 0; i < files.length; i++) {
+        folders[i] = files[i].isDirectory();
+        order[i] = i;
+      }
+      Arrays.sort(
+          order,
+          (a, b) -> {
+            if (folders[a] != folders[b]) {
+              return folders[a] ? -1 : 1;
+            }
+            return files[a].getName().compareTo(files[b].getName());
+          });
+      names = new String[files.length];
+      for (int i = 0; i < order.length; i++) {
+        names[i] = files[order[i]].getName();
+      }
+    }
+  }
+
   LocalVirtualFile createFile(LocalVirtualFile parent, String name, InputStream content)
       throws ForbiddenException, ConflictException, ServerException {
     checkName(name);
@@ -312,6 +409,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       }
 
       final LocalVirtualFile newVirtualFile = new LocalVirtualFile(newIoFile, newPath, this);
+      invalidateChildrenCache(newPath);
 
       if (content != null) {
         doUpdateContent(newVirtualFile, content);
@@ -338,6 +436,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
           throw new ConflictException(String.format("Item '%s' already exists", newPath));
         }
       }
+      invalidateChildrenCache(newPath);
 
       return new LocalVirtualFile(newIoFile, newPath, this);
     } else {
@@ -369,6 +468,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       }
 
       doCopy(source, destination);
+      invalidateChildrenCache(destination.getPath());
 
       addInSearcher(destination);
 
@@ -433,6 +533,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       }
 
       doCopy(virtualFile, newVirtualFile);
+      invalidateChildrenCache(newPath);
       addInSearcher(newVirtualFile);
 
       final Path path = virtualFile.getPath();
@@ -497,6 +598,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
     doCopy(virtualFile, newVirtualFile);
+    invalidateChildrenCache(newPath);
     addInSearcher(newVirtualFile);
 
     final Path path = virtualFile.getPath();
@@ -618,9 +720,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
       }
     }
 
-    if (!deleteRecursive(virtualFile.toIoFile())) {
-      LOG.error("Unable delete file {}", virtualFile.toIoFile());
-      throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
+    try {
+      if (!deleteRecursive(virtualFile.toIoFile())) {
+        LOG.error("Unable delete file {}", virtualFile.toIoFile());
+        throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
+      }
+    } finally {
+      // after deletion, otherwise concurrent listing may cache deleted items again
+      invalidateChildrenCache(virtualFile.getPath());
     }
   }
 
@@ -645,6 +752,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     if (parent.isFolder()) {
       extract(archiverFactory.createArchiver(parent, "zip"), zipped, overwrite, stripNumber);
+      invalidateChildrenCache(parent.getPath());
       addInSearcher(parent);
     } else {
       throw new ForbiddenException(
@@ -674,6 +782,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     if (parent.isFolder()) {
       extract(archiverFactory.createArchiver(parent, "tar"), tarArchive, overwrite, stripNumber);
+      invalidateChildrenCache(parent.getPath());
       addInSearcher(parent);
     } else {
       throw new ForbiddenException(
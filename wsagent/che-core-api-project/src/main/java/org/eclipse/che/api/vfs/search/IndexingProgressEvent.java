@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search;
+
+/** Published while a file tree is being indexed by {@link Searcher} for the first time. */
+public class IndexingProgressEvent {
+  public enum Status {
+    STARTED,
+    IN_PROGRESS,
+    FINISHED
+  }
+
+  private Status status;
+  private String path;
+  private int indexedFiles;
+  private long elapsedTimeMillis;
+
+  public IndexingProgressEvent(
+      Status status, String path, int indexedFiles, long elapsedTimeMillis) {
+    this.status = status;
+    this.path = path;
+    this.indexedFiles = indexedFiles;
+    this.elapsedTimeMillis = elapsedTimeMillis;
+  }
+
+  public IndexingProgressEvent() {}
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+
+  /** Returns path of the indexed tree root. */
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  /** Returns the number of files that have been indexed so far. */
+  public int getIndexedFiles() {
+    return indexedFiles;
+  }
+
+  public void setIndexedFiles(int indexedFiles) {
+    this.indexedFiles = indexedFiles;
+  }
+
+  public long getElapsedTimeMillis() {
+    return elapsedTimeMillis;
+  }
+
+  public void setElapsedTimeMillis(long elapsedTimeMillis) {
+    this.elapsedTimeMillis = elapsedTimeMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "IndexingProgressEvent{"
+        + "status="
+        + status
+        + ", path='"
+        + path
+        + '\''
+        + ", indexedFiles="
+        + indexedFiles
+        + ", elapsedTimeMillis="
+        + elapsedTimeMillis
+        + '}';
+  }
+}
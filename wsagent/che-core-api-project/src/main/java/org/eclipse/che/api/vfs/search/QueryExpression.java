@@ -18,6 +18,7 @@ public class QueryExpression {
   private int skipCount;
   private int maxItems;
   private boolean includePositions;
+  private boolean regex;
 
   /**
    * Optional file path parameter. Only file with the specified path or children are included in
@@ -88,6 +89,21 @@ public class QueryExpression {
     return this;
   }
 
+  /**
+   * Whether {@link #getText()} is a regular expression in {@link java.util.regex.Pattern} syntax
+   * that should be found in content of files. Unlike default text search, regular expression is
+   * matched against the original text, not against separate words, so it may be used to find any
+   * substring, e.g. {@code getFoo\(}.
+   */
+  public boolean isRegex() {
+    return regex;
+  }
+
+  public QueryExpression setRegex(boolean regex) {
+    this.regex = regex;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "QueryExpression{"
@@ -104,6 +120,8 @@ public class QueryExpression {
         + skipCount
         + ", maxItems="
         + maxItems
+        + ", regex="
+        + regex
         + '}';
   }
 }
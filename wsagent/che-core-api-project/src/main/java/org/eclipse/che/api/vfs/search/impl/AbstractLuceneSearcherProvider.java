@@ -20,6 +20,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.PreDestroy;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
@@ -32,10 +33,23 @@ public abstract class AbstractLuceneSearcherProvider implements SearcherProvider
   protected final VirtualFileFilter excludeFileIndexFilters;
   protected final AtomicReference<Searcher> searcherReference = new AtomicReference<>();
   private final ExecutorService executor;
+  private final ExecutorService indexingExecutor;
+  private final int indexingThreads;
+  private final EventService eventService;
 
   /** @param excludeFileIndexFilters set filter for files that should not be indexed */
   protected AbstractLuceneSearcherProvider(Set<VirtualFileFilter> excludeFileIndexFilters) {
+    this(excludeFileIndexFilters, null);
+  }
+
+  /**
+   * @param excludeFileIndexFilters set filter for files that should not be indexed
+   * @param eventService service for publishing progress of initial indexing, may be {@code null}
+   */
+  protected AbstractLuceneSearcherProvider(
+      Set<VirtualFileFilter> excludeFileIndexFilters, EventService eventService) {
     this.excludeFileIndexFilters = mergeFileIndexFilters(excludeFileIndexFilters);
+    this.eventService = eventService;
     executor =
         Executors.newSingleThreadExecutor(
             new ThreadFactoryBuilder()
@@ -43,6 +57,16 @@ public abstract class AbstractLuceneSearcherProvider implements SearcherProvider
                 .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
                 .setNameFormat("LuceneSearcherInitThread")
                 .build());
+    // one thread walks file tree, others read files and build documents
+    indexingThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    indexingExecutor =
+        Executors.newFixedThreadPool(
+            indexingThreads + 1,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat("LuceneSearcherIndexThread-%d")
+                .build());
   }
 
   private VirtualFileFilter mergeFileIndexFilters(Set<VirtualFileFilter> fileIndexFilters) {
@@ -64,7 +88,10 @@ public abstract class AbstractLuceneSearcherProvider implements SearcherProvider
     if (cachedSearcher == null && create) {
       LuceneSearcher searcher = createLuceneSearcher(() -> searcherReference.set(null));
       if (searcherReference.compareAndSet(null, searcher)) {
-        searcher.initAsynchronously(executor, virtualFileSystem);
+        searcher.initAsynchronously(
+            executor,
+            new ParallelTreeIndexer(searcher, indexingExecutor, indexingThreads, eventService),
+            virtualFileSystem);
       }
       cachedSearcher = searcherReference.get();
     }
@@ -74,6 +101,7 @@ public abstract class AbstractLuceneSearcherProvider implements SearcherProvider
   @PreDestroy
   void stop() {
     executor.shutdownNow();
+    indexingExecutor.shutdownNow();
   }
 
   @Override
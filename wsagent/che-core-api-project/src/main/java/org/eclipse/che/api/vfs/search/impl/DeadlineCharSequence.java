@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search.impl;
+
+/**
+ * Text for matching with a regular expression that fails with {@link DeadlineExceededException}
+ * when the deadline is passed or the current thread is interrupted. {@link java.util.regex.Matcher}
+ * reads text char by char, so an expression with catastrophic backtracking is stopped without
+ * waiting for the end of matching.
+ */
+final class DeadlineCharSequence implements CharSequence {
+  /** Time and interruption are checked once per this number of reads. */
+  private static final int CHECK_INTERVAL = 4096;
+
+  private final String text;
+  private final long deadlineNanos;
+
+  private int reads;
+
+  /**
+   * @param text text to match
+   * @param deadlineNanos deadline in terms of {@link System#nanoTime()}
+   */
+  DeadlineCharSequence(String text, long deadlineNanos) {
+    this.text = text;
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  @Override
+  public int length() {
+    return text.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (++reads % CHECK_INTERVAL == 0) {
+      if (System.nanoTime() - deadlineNanos > 0) {
+        throw new DeadlineExceededException("Matching time limit is exceeded");
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        throw new DeadlineExceededException("Matching is interrupted");
+      }
+    }
+    return text.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return text.subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  /** Thrown when matching takes longer than it is allowed. */
+  static final class DeadlineExceededException extends RuntimeException {
+    DeadlineExceededException(String message) {
+      super(message);
+    }
+  }
+}
@@ -24,7 +24,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Filesystem based LuceneSearcher which cleans index directory after call method {@link #close()}.
+ * Filesystem based LuceneSearcher. Unless searcher is persistent it cleans index directory after
+ * call method {@link #close()}. Persistent searcher keeps index between restarts, on init existing
+ * index is reconciled with the file tree.
  *
  * @author andrew00x
  */
@@ -32,6 +34,7 @@ public class FSLuceneSearcher extends LuceneSearcher {
   private static final Logger LOG = LoggerFactory.getLogger(FSLuceneSearcher.class);
 
   private final File indexDirectory;
+  private final boolean persistent;
 
   FSLuceneSearcher(File indexDirectory, VirtualFileFilter filter) {
     this(indexDirectory, filter, null);
@@ -41,8 +44,26 @@ public class FSLuceneSearcher extends LuceneSearcher {
       File indexDirectory,
       VirtualFileFilter filter,
       AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
-    super(filter, closeCallback);
+    this(indexDirectory, filter, closeCallback, false);
+  }
+
+  FSLuceneSearcher(
+      File indexDirectory,
+      VirtualFileFilter filter,
+      AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+      boolean persistent) {
+    this(indexDirectory, filter, closeCallback, persistent, false);
+  }
+
+  FSLuceneSearcher(
+      File indexDirectory,
+      VirtualFileFilter filter,
+      AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+      boolean persistent,
+      boolean trigramIndex) {
+    super(filter, closeCallback, trigramIndex);
     this.indexDirectory = indexDirectory;
+    this.persistent = persistent;
   }
 
   @Override
@@ -56,7 +77,7 @@ public class FSLuceneSearcher extends LuceneSearcher {
 
   @Override
   protected void afterClose() throws IOException {
-    if (!deleteRecursive(indexDirectory)) {
+    if (!persistent && !deleteRecursive(indexDirectory)) {
       LOG.warn("Unable delete index directory '{}', add it in FileCleaner", indexDirectory);
       FileCleaner.addFile(indexDirectory);
     }
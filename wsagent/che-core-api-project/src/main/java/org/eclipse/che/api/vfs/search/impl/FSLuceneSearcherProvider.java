@@ -21,29 +21,52 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 
 @Singleton
 public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
   private final File indexRootDirectory;
+  private final boolean persistent;
+  private final boolean trigramIndex;
 
   /**
    * @param indexRootDirectory root directory for creation index
    * @param excludePatterns set filter for files that should not be indexed
    * @see LuceneSearcher
    */
+  public FSLuceneSearcherProvider(File indexRootDirectory, Set<PathMatcher> excludePatterns)
+      throws IOException {
+    this(indexRootDirectory, excludePatterns, null, false, false);
+  }
+
+  /**
+   * @param indexRootDirectory root directory for creation index
+   * @param excludePatterns set filter for files that should not be indexed
+   * @param eventService service for publishing progress of initial indexing
+   * @param persistent whether index should be kept between restarts of workspace agent
+   * @param trigramIndex whether content of files should be indexed as trigrams to speed up
+   *     regular expression search
+   * @see LuceneSearcher
+   */
   @Inject
   public FSLuceneSearcherProvider(
       @Named("vfs.local.fs_index_root_dir") File indexRootDirectory,
-      @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns)
+      @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
+      EventService eventService,
+      @Named("vfs.local.fs_index_persistent") boolean persistent,
+      @Named("vfs.local.fs_index_trigrams") boolean trigramIndex)
       throws IOException {
-    super(newHashSet(transform(excludePatterns, VirtualFileFilters::wrap)));
+    super(newHashSet(transform(excludePatterns, VirtualFileFilters::wrap)), eventService);
     this.indexRootDirectory = indexRootDirectory;
+    this.persistent = persistent;
+    this.trigramIndex = trigramIndex;
     Files.createDirectories(indexRootDirectory.toPath());
   }
 
   @Override
   protected LuceneSearcher createLuceneSearcher(CloseCallback closeCallback) {
-    return new FSLuceneSearcher(indexRootDirectory, excludeFileIndexFilters, closeCallback);
+    return new FSLuceneSearcher(
+        indexRootDirectory, excludeFileIndexFilters, closeCallback, persistent, trigramIndex);
   }
 }
@@ -11,48 +11,72 @@
 package org.eclipse.che.api.vfs.search.impl;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.TokenSources;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
@@ -65,6 +89,7 @@ import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.impl.DeadlineCharSequence.DeadlineExceededException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -76,12 +101,39 @@ import org.slf4j.LoggerFactory;
 public abstract class LuceneSearcher implements Searcher {
   private static final Logger LOG = LoggerFactory.getLogger(LuceneSearcher.class);
   private static final int RESULT_LIMIT = 1000;
+  private static final double RAM_BUFFER_SIZE_MB = 48;
   private static final String PATH_FIELD = "path";
   private static final String NAME_FIELD = "name";
   private static final String TEXT_FIELD = "text";
+  private static final String LAST_MODIFIED_FIELD = "lastModified";
+  private static final String LENGTH_FIELD = "length";
+  private static final String TRIGRAM_FIELD = "trigram";
+  private static final int MAX_DOC_CHARS_TO_ANALYZE = 1_000_000;
+  private static final long REGEX_SEARCH_TIMEOUT_SECONDS = 30;
+  /** Maximum number of trigrams used to select candidates of search by regular expression. */
+  private static final int MAX_TRIGRAM_CLAUSES = 64;
+
+  /** Trigrams only select candidate documents, so frequencies and positions are not indexed. */
+  private static final FieldType TRIGRAM_FIELD_TYPE = new FieldType();
+
+  static {
+    TRIGRAM_FIELD_TYPE.setIndexOptions(IndexOptions.DOCS);
+    TRIGRAM_FIELD_TYPE.setTokenized(true);
+    TRIGRAM_FIELD_TYPE.setOmitNorms(true);
+    TRIGRAM_FIELD_TYPE.freeze();
+  }
+
+  /**
+   * Version of documents structure. Must be changed each time when fields of documents are changed
+   * to get rid of index persisted by previous version.
+   */
+  private static final String INDEX_VERSION = "2";
+
+  private static final String INDEX_VERSION_KEY = "che.index.version";
 
   private final List<VirtualFileFilter> excludeFileIndexFilters;
   private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
+  private final boolean trigramIndex;
 
   private IndexWriter luceneIndexWriter;
   private SearcherManager searcherManager;
@@ -104,7 +156,22 @@ public abstract class LuceneSearcher implements Searcher {
   protected LuceneSearcher(
       VirtualFileFilter excludeFileIndexFilter,
       AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
+    this(excludeFileIndexFilter, closeCallback, false);
+  }
+
+  /**
+   * @param excludeFileIndexFilter common filter for files that should not be indexed
+   * @param closeCallback callback that is called when searcher is closed
+   * @param trigramIndex whether content of files should be additionally indexed as trigrams. Such
+   *     index lets regular expression search to check only documents that contain all trigrams
+   *     required by expression instead of all indexed documents
+   */
+  protected LuceneSearcher(
+      VirtualFileFilter excludeFileIndexFilter,
+      AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+      boolean trigramIndex) {
     this.closeCallback = closeCallback;
+    this.trigramIndex = trigramIndex;
     excludeFileIndexFilters = new CopyOnWriteArrayList<>();
     excludeFileIndexFilters.add(excludeFileIndexFilter);
   }
@@ -123,7 +190,10 @@ public abstract class LuceneSearcher implements Searcher {
     return new Analyzer() {
       @Override
       protected TokenStreamComponents createComponents(String fieldName) {
-        Tokenizer tokenizer = new WhitespaceTokenizer();
+        Tokenizer tokenizer =
+            TRIGRAM_FIELD.equals(fieldName)
+                ? new NGramTokenizer(3, 3)
+                : new WhitespaceTokenizer();
         TokenStream filter = new LowerCaseFilter(tokenizer);
         return new TokenStreamComponents(tokenizer, filter);
       }
@@ -159,9 +229,52 @@ public abstract class LuceneSearcher implements Searcher {
     }
   }
 
+  /**
+   * Init lucene index asynchronously. Files are read and converted to lucene documents in parallel
+   * by the given indexer, index is written by a task submitted to the executor.
+   *
+   * @param executor executor for initialization task
+   * @param indexer indexer for initial indexing of all files in virtual filesystem
+   * @param virtualFileSystem VirtualFileSystem
+   * @throws ServerException if index can't be opened
+   */
+  void initAsynchronously(
+      ExecutorService executor, ParallelTreeIndexer indexer, VirtualFileSystem virtualFileSystem)
+      throws ServerException {
+    doInit();
+    if (!executor.isShutdown()) {
+      executor.execute(
+          () -> {
+            try {
+              indexer.index(virtualFileSystem.getRoot(), getIndexedFiles());
+              getIndexWriter().commit();
+            } catch (ServerException | IOException e) {
+              LOG.error(e.getMessage());
+            }
+          });
+    }
+  }
+
+  /**
+   * Opens index. If directory already contains index, e.g. it was persisted before restart, it is
+   * reused unless it is unreadable or was created by another version of searcher.
+   */
   protected final synchronized void doInit() throws ServerException {
     try {
-      luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
+      final Directory directory = makeDirectory();
+      try {
+        luceneIndexWriter = new IndexWriter(directory, makeIndexWriterConfig());
+      } catch (IOException e) {
+        LOG.warn("Unable to open existing index, it is going to be recreated. {}", e.getMessage());
+        luceneIndexWriter =
+            new IndexWriter(
+                directory, makeIndexWriterConfig().setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+      }
+      final String indexVersion = trigramIndex ? INDEX_VERSION + "-trigram" : INDEX_VERSION;
+      if (!indexVersion.equals(luceneIndexWriter.getCommitData().get(INDEX_VERSION_KEY))) {
+        luceneIndexWriter.deleteAll();
+      }
+      luceneIndexWriter.setCommitData(singletonMap(INDEX_VERSION_KEY, indexVersion));
       searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
       closed = false;
     } catch (IOException e) {
@@ -169,6 +282,51 @@ public abstract class LuceneSearcher implements Searcher {
     }
   }
 
+  private IndexWriterConfig makeIndexWriterConfig() {
+    return new IndexWriterConfig(makeAnalyzer()).setRAMBufferSizeMB(RAM_BUFFER_SIZE_MB);
+  }
+
+  /**
+   * Reads paths, modification times and sizes of all files which are already in index. Doc values
+   * are used to avoid reading of stored content of files.
+   *
+   * @return map of indexed files, key is path of file
+   */
+  Map<String, FileStamp> getIndexedFiles() throws ServerException {
+    final Map<String, FileStamp> indexedFiles = new HashMap<>();
+    IndexSearcher luceneSearcher = null;
+    try {
+      searcherManager.maybeRefresh();
+      luceneSearcher = searcherManager.acquire();
+      for (LeafReaderContext context : luceneSearcher.getIndexReader().leaves()) {
+        final LeafReader reader = context.reader();
+        final SortedDocValues paths = reader.getSortedDocValues(PATH_FIELD);
+        final NumericDocValues lastModified = reader.getNumericDocValues(LAST_MODIFIED_FIELD);
+        final NumericDocValues length = reader.getNumericDocValues(LENGTH_FIELD);
+        if (paths == null || lastModified == null || length == null) {
+          continue;
+        }
+        final Bits liveDocs = reader.getLiveDocs();
+        for (int docId = 0; docId < reader.maxDoc(); docId++) {
+          if (liveDocs == null || liveDocs.get(docId)) {
+            indexedFiles.put(
+                paths.get(docId).utf8ToString(),
+                new FileStamp(lastModified.get(docId), length.get(docId)));
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new ServerException(e.getMessage(), e);
+    } finally {
+      try {
+        searcherManager.release(luceneSearcher);
+      } catch (IOException e) {
+        LOG.error(e.getMessage());
+      }
+    }
+    return indexedFiles;
+  }
+
   public final synchronized void close() {
     if (!closed) {
       try {
@@ -198,13 +356,38 @@ public abstract class LuceneSearcher implements Searcher {
 
   @Override
   public SearchResult search(QueryExpression query) throws ServerException {
+    List<SearchResultEntry> results = newArrayList();
+    SearchResult result = search(query, results::add);
+    return SearchResult.aSearchResult()
+        .withResults(results)
+        .withTotalHits(result.getTotalHits())
+        .withNextPageQueryExpression(result.getNextPageQueryExpression().orNull())
+        .withElapsedTimeMillis(result.getElapsedTimeMillis())
+        .build();
+  }
+
+  /**
+   * Searches and passes each found entry to the {@code consumer} as soon as it is ready, so callers
+   * may stream results to the client without waiting for the whole page to be processed.
+   *
+   * @param query query expression
+   * @param consumer consumer of found entries, called in the order of relevance
+   * @return result of search that contains total hits, elapsed time and next page query but no
+   *     entries
+   * @throws ServerException if an error occurs
+   */
+  public SearchResult search(QueryExpression query, Consumer<SearchResultEntry> consumer)
+      throws ServerException {
+    if (query.isRegex() && query.getText() != null) {
+      return searchRegex(query, consumer);
+    }
     IndexSearcher luceneSearcher = null;
     try {
       final long startTime = System.currentTimeMillis();
       searcherManager.maybeRefresh();
       luceneSearcher = searcherManager.acquire();
 
-      Query luceneQuery = createLuceneQuery(query);
+      Query luceneQuery = createLuceneQuery(query, luceneSearcher.getIndexReader());
 
       ScoreDoc after = null;
       final int numSkipDocs = Math.max(0, query.getSkipCount());
@@ -217,7 +400,6 @@ public abstract class LuceneSearcher implements Searcher {
       TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
       final int totalHitsNum = topDocs.totalHits;
 
-      List<SearchResultEntry> results = newArrayList();
       List<OffsetData> offsetData = Collections.emptyList();
       for (int i = 0; i < topDocs.scoreDocs.length; i++) {
         ScoreDoc scoreDoc = topDocs.scoreDocs[i];
@@ -227,6 +409,7 @@ public abstract class LuceneSearcher implements Searcher {
           offsetData = new ArrayList<>();
           String txt = doc.get(TEXT_FIELD);
           if (txt != null) {
+            int[] lineStarts = null;
             IndexReader reader = luceneSearcher.getIndexReader();
 
             TokenStream tokenStream =
@@ -242,7 +425,7 @@ public abstract class LuceneSearcher implements Searcher {
 
             QueryScorer queryScorer = new QueryScorer(luceneQuery);
             //TODO think about this constant
-            queryScorer.setMaxDocCharsToAnalyze(1_000_000);
+            queryScorer.setMaxDocCharsToAnalyze(MAX_DOC_CHARS_TO_ANALYZE);
             TokenStream newStream = queryScorer.init(tokenStream);
             if (newStream != null) {
               tokenStream = newStream;
@@ -254,7 +437,7 @@ public abstract class LuceneSearcher implements Searcher {
             int startOffset, endOffset;
             //TODO think about this constant
             for (boolean next = tokenStream.incrementToken();
-                next && (offsetAtt.startOffset() < 1_000_000);
+                next && (offsetAtt.startOffset() < MAX_DOC_CHARS_TO_ANALYZE);
                 next = tokenStream.incrementToken()) {
               startOffset = offsetAtt.startOffset();
               endOffset = offsetAtt.endOffset();
@@ -270,18 +453,12 @@ public abstract class LuceneSearcher implements Searcher {
               float res = queryScorer.getTokenScore();
               if (res > 0.0F && startOffset <= endOffset) {
                 String tokenText = txt.substring(startOffset, endOffset);
-                Scanner sc = new Scanner(txt);
-                int lineNum = 0;
-                long len = 0;
-                String foundLine = "";
-                while (sc.hasNextLine()) {
-                  foundLine = sc.nextLine();
-                  lineNum++;
-                  len += foundLine.length();
-                  if (len > startOffset) {
-                    break;
-                  }
+                if (lineStarts == null) {
+                  lineStarts = findLineStarts(txt);
                 }
+                int lineIndex = findLineIndex(lineStarts, startOffset);
+                int lineNum = lineIndex + 1;
+                String foundLine = getLine(txt, lineStarts, lineIndex);
                 offsetData.add(
                     new OffsetData(
                         tokenText, startOffset, endOffset, docId, res, lineNum, foundLine));
@@ -290,7 +467,7 @@ public abstract class LuceneSearcher implements Searcher {
           }
         }
         String filePath = doc.getField(PATH_FIELD).stringValue();
-        results.add(new SearchResultEntry(filePath, offsetData));
+        consumer.accept(new SearchResultEntry(filePath, offsetData));
       }
 
       final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
@@ -303,7 +480,7 @@ public abstract class LuceneSearcher implements Searcher {
       }
 
       return SearchResult.aSearchResult()
-          .withResults(results)
+          .withResults(Collections.emptyList())
           .withTotalHits(totalHitsNum)
           .withNextPageQueryExpression(nextPageQueryExpression)
           .withElapsedTimeMillis(elapsedTimeMillis)
@@ -319,7 +496,151 @@ public abstract class LuceneSearcher implements Searcher {
     }
   }
 
-  private Query createLuceneQuery(QueryExpression query) throws ParseException {
+  /**
+   * Searches files which content matches regular expression from {@link QueryExpression#getText()}.
+   * Candidate documents are selected by trigrams required by the expression, when trigram index is
+   * enabled, and then verified with the expression. Since every candidate has to be verified, total
+   * hits are counted only up to the end of the requested page. Search fails if matching takes
+   * longer than {@link #REGEX_SEARCH_TIMEOUT_SECONDS} which protects from expressions with
+   * catastrophic backtracking.
+   */
+  private SearchResult searchRegex(QueryExpression query, Consumer<SearchResultEntry> consumer)
+      throws ServerException {
+    final Pattern pattern;
+    try {
+      pattern = Pattern.compile(query.getText());
+    } catch (PatternSyntaxException e) {
+      throw new ServerException("Invalid regular expression: " + e.getMessage(), e);
+    }
+    IndexSearcher luceneSearcher = null;
+    try {
+      final long startTime = System.currentTimeMillis();
+      final long deadline = System.nanoTime() + SECONDS.toNanos(REGEX_SEARCH_TIMEOUT_SECONDS);
+      searcherManager.maybeRefresh();
+      luceneSearcher = searcherManager.acquire();
+
+      final Query luceneQuery = createLuceneQuery(query, luceneSearcher.getIndexReader());
+      final int numSkipDocs = Math.max(0, query.getSkipCount());
+      final int numDocs =
+          query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+
+      int matched = 0;
+      boolean hasMoreToRetrieve = false;
+      ScoreDoc after = null;
+      TopDocs topDocs;
+      candidates:
+      do {
+        topDocs = luceneSearcher.searchAfter(after, luceneQuery, RESULT_LIMIT);
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+          after = scoreDoc;
+          Document doc = luceneSearcher.doc(scoreDoc.doc);
+          String txt = doc.get(TEXT_FIELD);
+          if (txt == null) {
+            continue;
+          }
+          Matcher matcher = pattern.matcher(new DeadlineCharSequence(txt, deadline));
+          if (!matcher.find()) {
+            continue;
+          }
+          if (matched == numSkipDocs + numDocs) {
+            hasMoreToRetrieve = true;
+            break candidates;
+          }
+          if (++matched <= numSkipDocs) {
+            continue;
+          }
+          List<OffsetData> offsetData = Collections.emptyList();
+          if (query.isIncludePositions()) {
+            offsetData = new ArrayList<>();
+            int[] lineStarts = findLineStarts(txt);
+            do {
+              int startOffset = matcher.start();
+              if (startOffset >= MAX_DOC_CHARS_TO_ANALYZE) {
+                break;
+              }
+              int lineIndex = findLineIndex(lineStarts, startOffset);
+              offsetData.add(
+                  new OffsetData(
+                      matcher.group(),
+                      startOffset,
+                      matcher.end(),
+                      scoreDoc.doc,
+                      scoreDoc.score,
+                      lineIndex + 1,
+                      getLine(txt, lineStarts, lineIndex)));
+            } while (matcher.find());
+          }
+          consumer.accept(new SearchResultEntry(doc.get(PATH_FIELD), offsetData));
+        }
+      } while (topDocs.scoreDocs.length == RESULT_LIMIT);
+
+      final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
+      return SearchResult.aSearchResult()
+          .withResults(Collections.emptyList())
+          .withTotalHits(hasMoreToRetrieve ? matched + 1 : matched)
+          .withNextPageQueryExpression(
+              hasMoreToRetrieve ? createNextPageQuery(query, numSkipDocs + numDocs) : null)
+          .withElapsedTimeMillis(elapsedTimeMillis)
+          .build();
+    } catch (DeadlineExceededException e) {
+      throw new ServerException(
+          String.format(
+              "Search by regular expression '%s' is stopped after %d seconds: %s. "
+                  + "Regular expression is probably too complex, try to simplify it",
+              query.getText(), REGEX_SEARCH_TIMEOUT_SECONDS, e.getMessage()),
+          e);
+    } catch (IOException | ParseException e) {
+      throw new ServerException(e.getMessage(), e);
+    } finally {
+      try {
+        searcherManager.release(luceneSearcher);
+      } catch (IOException e) {
+        LOG.error(e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns offsets of the beginnings of all lines in the text. Lines are terminated with
+   * {@code \n}, {@code \r} or {@code \r\n} the same as {@link java.io.BufferedReader#readLine()}
+   * does. The first line always starts at {@code 0}.
+   */
+  static int[] findLineStarts(String text) {
+    int[] starts = new int[16];
+    int count = 1;
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || c == '\r') {
+        if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count << 1);
+        }
+        starts[count++] = i + 1;
+      }
+    }
+    return Arrays.copyOf(starts, count);
+  }
+
+  /** Returns zero based index of the line that contains character with the specified offset. */
+  static int findLineIndex(int[] lineStarts, int offset) {
+    int index = Arrays.binarySearch(lineStarts, offset);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  private static String getLine(String text, int[] lineStarts, int lineIndex) {
+    int start = lineStarts[lineIndex];
+    int end = lineIndex + 1 < lineStarts.length ? lineStarts[lineIndex + 1] : text.length();
+    while (end > start && (text.charAt(end - 1) == '\n' || text.charAt(end - 1) == '\r')) {
+      end--;
+    }
+    return text.substring(start, end);
+  }
+
+  private Query createLuceneQuery(QueryExpression query, IndexReader reader)
+      throws ParseException, IOException {
     final BooleanQuery luceneQuery = new BooleanQuery();
     final String name = query.getName();
     final String path = query.getPath();
@@ -332,7 +653,16 @@ public abstract class LuceneSearcher implements Searcher {
       qParser.setAllowLeadingWildcard(true);
       luceneQuery.add(qParser.parse(name), BooleanClause.Occur.MUST);
     }
-    if (text != null) {
+    if (text != null && query.isRegex()) {
+      if (trigramIndex) {
+        for (Term trigram : selectTrigrams(RegexTrigrams.extract(text), reader)) {
+          luceneQuery.add(new TermQuery(trigram), BooleanClause.Occur.MUST);
+        }
+      }
+      if (luceneQuery.clauses().isEmpty()) {
+        luceneQuery.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+      }
+    } else if (text != null) {
       QueryParser qParser = new QueryParser(TEXT_FIELD, makeAnalyzer());
       qParser.setAllowLeadingWildcard(true);
       luceneQuery.add(qParser.parse(text), BooleanClause.Occur.MUST);
@@ -340,6 +670,29 @@ public abstract class LuceneSearcher implements Searcher {
     return luceneQuery;
   }
 
+  /**
+   * Returns terms of at most {@link #MAX_TRIGRAM_CLAUSES} trigrams which are the rarest in index.
+   * Any subset of required trigrams selects a superset of the matching documents, so dropping
+   * frequent trigrams only adds candidates that are rejected by the expression later, while one
+   * clause per trigram of a long literal would exceed maximum number of clauses of boolean query.
+   */
+  private static List<Term> selectTrigrams(Set<String> trigrams, IndexReader reader)
+      throws IOException {
+    final List<Term> terms = new ArrayList<>(trigrams.size());
+    for (String trigram : trigrams) {
+      terms.add(new Term(TRIGRAM_FIELD, trigram));
+    }
+    if (terms.size() <= MAX_TRIGRAM_CLAUSES) {
+      return terms;
+    }
+    final Map<Term, Integer> docFreqs = new HashMap<>();
+    for (Term term : terms) {
+      docFreqs.put(term, reader.docFreq(term));
+    }
+    terms.sort(Comparator.comparing(docFreqs::get));
+    return terms.subList(0, MAX_TRIGRAM_CLAUSES);
+  }
+
   private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs)
       throws IOException {
     final int readFrameSize = Math.min(numSkipDocs, RESULT_LIMIT);
@@ -367,6 +720,7 @@ public abstract class LuceneSearcher implements Searcher {
         .setText(originalQuery.getText())
         .setName(originalQuery.getName())
         .setPath(originalQuery.getPath())
+        .setRegex(originalQuery.isRegex())
         .setSkipCount(newSkipCount)
         .setMaxItems(originalQuery.getMaxItems());
   }
@@ -408,25 +762,35 @@ public abstract class LuceneSearcher implements Searcher {
 
   protected void addFile(VirtualFile virtualFile) throws ServerException {
     if (virtualFile.exists()) {
-      try (Reader fContentReader =
-          shouldIndexContent(virtualFile)
-              ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-              : null) {
+      try {
         getIndexWriter()
             .updateDocument(
                 new Term(PATH_FIELD, virtualFile.getPath().toString()),
-                createDocument(virtualFile, fContentReader));
+                buildDocument(virtualFile));
       } catch (OutOfMemoryError oome) {
         close();
         throw oome;
       } catch (IOException e) {
         throw new ServerException(e.getMessage(), e);
-      } catch (ForbiddenException e) {
-        throw new ServerException(e.getServiceError());
       }
     }
   }
 
+  /** Adds or replaces documents in index, each document replaces one with the same path. */
+  void writeDocuments(List<Document> documents) throws ServerException {
+    try {
+      final IndexWriter writer = getIndexWriter();
+      for (Document document : documents) {
+        writer.updateDocument(new Term(PATH_FIELD, document.get(PATH_FIELD)), document);
+      }
+    } catch (OutOfMemoryError oome) {
+      close();
+      throw oome;
+    } catch (IOException e) {
+      throw new ServerException(e.getMessage(), e);
+    }
+  }
+
   @Override
   public final void delete(String path, boolean isFile) throws ServerException {
     try {
@@ -451,30 +815,56 @@ public abstract class LuceneSearcher implements Searcher {
   }
 
   protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
-    try (Reader fContentReader =
-        shouldIndexContent(virtualFile)
-            ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-            : null) {
-      getIndexWriter().updateDocument(deleteTerm, createDocument(virtualFile, fContentReader));
+    try {
+      getIndexWriter().updateDocument(deleteTerm, buildDocument(virtualFile));
     } catch (OutOfMemoryError oome) {
       close();
       throw oome;
     } catch (IOException e) {
       throw new ServerException(e.getMessage(), e);
-    } catch (ForbiddenException e) {
-      throw new ServerException(e.getServiceError());
     }
   }
 
+  /**
+   * Creates document for the file. Content of file is read at once instead of reading it through a
+   * chain of readers, small files are already kept in memory by virtual filesystem.
+   */
+  Document buildDocument(VirtualFile virtualFile) throws ServerException {
+    String content = null;
+    if (shouldIndexContent(virtualFile)) {
+      try (InputStream contentStream = virtualFile.getContent()) {
+        content = new String(ByteStreams.toByteArray(contentStream), Charset.defaultCharset());
+      } catch (IOException e) {
+        throw new ServerException(e.getMessage(), e);
+      } catch (ForbiddenException e) {
+        throw new ServerException(e.getServiceError());
+      }
+    }
+    return createDocument(virtualFile, content);
+  }
+
   protected Document createDocument(VirtualFile virtualFile, Reader reader) throws ServerException {
+    try {
+      return createDocument(virtualFile, reader == null ? null : CharStreams.toString(reader));
+    } catch (IOException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+
+  protected Document createDocument(VirtualFile virtualFile, String content)
+      throws ServerException {
     final Document doc = new Document();
-    doc.add(new StringField(PATH_FIELD, virtualFile.getPath().toString(), Field.Store.YES));
+    final String path = virtualFile.getPath().toString();
+    doc.add(new StringField(PATH_FIELD, path, Field.Store.YES));
+    doc.add(new SortedDocValuesField(PATH_FIELD, new BytesRef(path)));
+    doc.add(
+        new NumericDocValuesField(LAST_MODIFIED_FIELD, virtualFile.getLastModificationDate()));
+    doc.add(new NumericDocValuesField(LENGTH_FIELD, virtualFile.getLength()));
     doc.add(new TextField(NAME_FIELD, virtualFile.getName(), Field.Store.YES));
-    if (reader != null) {
-      try {
-        doc.add(new TextField(TEXT_FIELD, CharStreams.toString(reader), Field.Store.YES));
-      } catch (IOException e) {
-        throw new ServerException(e.getLocalizedMessage(), e);
+    if (content != null) {
+      doc.add(new TextField(TEXT_FIELD, content, Field.Store.YES));
+      if (trigramIndex) {
+        doc.add(new Field(TRIGRAM_FIELD, content, TRIGRAM_FIELD_TYPE));
       }
     }
     return doc;
@@ -489,6 +879,22 @@ public abstract class LuceneSearcher implements Searcher {
     return true;
   }
 
+  /** Modification time and size of file at the moment when it was indexed. */
+  static final class FileStamp {
+    final long lastModified;
+    final long length;
+
+    FileStamp(long lastModified, long length) {
+      this.lastModified = lastModified;
+      this.length = length;
+    }
+
+    boolean matches(VirtualFile virtualFile) throws ServerException {
+      return lastModified == virtualFile.getLastModificationDate()
+          && length == virtualFile.getLength();
+    }
+  }
+
   public static class OffsetData {
 
     public String phrase;
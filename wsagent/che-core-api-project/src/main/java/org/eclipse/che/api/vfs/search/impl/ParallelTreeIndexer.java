@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search.impl;
+
+import static org.eclipse.che.api.vfs.search.IndexingProgressEvent.Status.FINISHED;
+import static org.eclipse.che.api.vfs.search.IndexingProgressEvent.Status.IN_PROGRESS;
+import static org.eclipse.che.api.vfs.search.IndexingProgressEvent.Status.STARTED;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.lucene.document.Document;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.search.IndexingProgressEvent;
+import org.eclipse.che.api.vfs.search.impl.LuceneSearcher.FileStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes a file tree with a pipeline: one producer walks the tree, a number of builders read
+ * content of files and create documents in parallel and the calling thread writes documents to the
+ * index in batches. Executor must be able to run {@code builders + 1} tasks simultaneously.
+ */
+class ParallelTreeIndexer {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelTreeIndexer.class);
+
+  private static final int QUEUE_SIZE = 1024;
+  private static final int BATCH_SIZE = 256;
+  private static final long PROGRESS_PERIOD_MILLIS = 1000;
+
+  private final LuceneSearcher searcher;
+  private final ExecutorService executor;
+  private final int builders;
+  private final EventService eventService;
+
+  /**
+   * @param searcher searcher which index should be filled
+   * @param executor executor for producer and builders
+   * @param builders number of parallel document builders
+   * @param eventService service for publishing of {@link IndexingProgressEvent}, may be {@code
+   *     null}
+   */
+  ParallelTreeIndexer(
+      LuceneSearcher searcher, ExecutorService executor, int builders, EventService eventService) {
+    this.searcher = searcher;
+    this.executor = executor;
+    this.builders = builders;
+    this.eventService = eventService;
+  }
+
+  /**
+   * Indexes all files of the tree and blocks until all of them are written to index.
+   *
+   * @return number of indexed files
+   */
+  int index(VirtualFile tree) throws ServerException {
+    return index(tree, new HashMap<>());
+  }
+
+  /**
+   * Brings index in line with the tree and blocks until all changes are written to index. Files
+   * that are in index and are not changed since they were indexed are skipped. Files that are in
+   * index but are not found in the tree any more are removed from index.
+   *
+   * @param indexedFiles files which are already in index, map is modified by this method
+   * @return number of indexed files
+   */
+  int index(VirtualFile tree, Map<String, FileStamp> indexedFiles) throws ServerException {
+    final long start = System.currentTimeMillis();
+    final String path = tree.getPath().toString();
+    publish(STARTED, path, 0, start);
+
+    final BlockingQueue<Optional<VirtualFile>> files = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    final BlockingQueue<Optional<Document>> documents = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    final AtomicInteger activeBuilders = new AtomicInteger(builders);
+    final AtomicBoolean walked = new AtomicBoolean();
+
+    final List<Future<?>> tasks = new ArrayList<>(builders + 1);
+    tasks.add(executor.submit(() -> produce(tree, indexedFiles, files, walked)));
+    for (int i = 0; i < builders; i++) {
+      tasks.add(executor.submit(() -> build(files, documents, activeBuilders)));
+    }
+
+    int indexedFiles = 0;
+    long lastReport = start;
+    try {
+      final List<Optional<Document>> batch = new ArrayList<>(BATCH_SIZE);
+      final List<Document> toWrite = new ArrayList<>(BATCH_SIZE);
+      boolean finished = false;
+      while (!finished) {
+        batch.add(documents.take());
+        documents.drainTo(batch, BATCH_SIZE - 1);
+        for (Optional<Document> document : batch) {
+          if (document.isPresent()) {
+            toWrite.add(document.get());
+          } else {
+            finished = true;
+          }
+        }
+        searcher.writeDocuments(toWrite);
+        indexedFiles += toWrite.size();
+        batch.clear();
+        toWrite.clear();
+
+        final long now = System.currentTimeMillis();
+        if (now - lastReport >= PROGRESS_PERIOD_MILLIS) {
+          publish(IN_PROGRESS, path, indexedFiles, start);
+          lastReport = now;
+        }
+      }
+      checkFailed(tasks, path);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServerException(String.format("Indexing of '%s' was interrupted", path));
+    } finally {
+      tasks.forEach(task -> task.cancel(true));
+    }
+
+    // tree is walked entirely, the rest of indexed files do not exist any more
+    if (walked.get()) {
+      final String prefix = tree.isRoot() ? "/" : path + '/';
+      for (String indexedPath : indexedFiles.keySet()) {
+        if (indexedPath.startsWith(prefix)) {
+          searcher.delete(indexedPath, true);
+        }
+      }
+    }
+
+    publish(FINISHED, path, indexedFiles, start);
+    LOG.debug(
+        "Indexed {} files from {}, time: {} ms",
+        indexedFiles,
+        path,
+        System.currentTimeMillis() - start);
+    return indexedFiles;
+  }
+
+  /**
+   * Rethrows failure of the producer or any of builders, expected to be called when all builders
+   * are finished.
+   */
+  private void checkFailed(List<Future<?>> tasks, String path)
+      throws ServerException, InterruptedException {
+    for (int i = 0; i < tasks.size(); i++) {
+      final Future<?> task = tasks.get(i);
+      // producer may be blocked if all builders failed
+      if (i > 0 || task.isDone()) {
+        try {
+          task.get();
+        } catch (ExecutionException e) {
+          throw new ServerException(String.format("Indexing of '%s' failed", path), e.getCause());
+        }
+      }
+    }
+  }
+
+  private void produce(
+      VirtualFile tree,
+      Map<String, FileStamp> indexedFiles,
+      BlockingQueue<Optional<VirtualFile>> files,
+      AtomicBoolean walked) {
+    try {
+      final LinkedList<VirtualFile> q = new LinkedList<>();
+      q.add(tree);
+      while (!q.isEmpty()) {
+        final VirtualFile folder = q.pop();
+        if (folder.exists()) {
+          for (VirtualFile child : folder.getChildren()) {
+            if (child.isFolder()) {
+              q.push(child);
+            } else {
+              final FileStamp stamp = indexedFiles.remove(child.getPath().toString());
+              if (stamp == null || !stamp.matches(child)) {
+                files.put(Optional.of(child));
+              }
+            }
+          }
+        }
+      }
+      walked.set(true);
+    } catch (ServerException e) {
+      LOG.error(e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        for (int i = 0; i < builders; i++) {
+          files.put(Optional.empty());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void build(
+      BlockingQueue<Optional<VirtualFile>> files,
+      BlockingQueue<Optional<Document>> documents,
+      AtomicInteger activeBuilders) {
+    try {
+      for (Optional<VirtualFile> file = files.take(); file.isPresent(); file = files.take()) {
+        final VirtualFile virtualFile = file.get();
+        try {
+          if (virtualFile.exists()) {
+            documents.put(Optional.of(searcher.buildDocument(virtualFile)));
+          }
+        } catch (ServerException | RuntimeException e) {
+          LOG.warn("Unable to index file {}: {}", virtualFile.getPath(), e.getMessage());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      // the last finished builder lets writer know there are no more documents even if it failed
+      if (activeBuilders.decrementAndGet() == 0) {
+        try {
+          documents.put(Optional.empty());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private void publish(IndexingProgressEvent.Status status, String path, int files, long start) {
+    if (eventService != null) {
+      eventService.publish(
+          new IndexingProgressEvent(status, path, files, System.currentTimeMillis() - start));
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts trigrams that must be present in any text matched by a regular expression. Analysis is
+ * conservative: only literal runs at the top level of the expression are taken into account,
+ * groups and character classes break runs and their content is ignored, optional characters are
+ * dropped. If the expression has top level alternation then nothing is required. Trigrams are
+ * lowercased in the same way as they are lowercased in index.
+ */
+final class RegexTrigrams {
+  private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z]*x");
+
+  /**
+   * Returns trigrams that must be present in text matched by the regular expression or empty set
+   * if there are no such trigrams and all documents are candidates.
+   */
+  static Set<String> extract(String regex) {
+    if (COMMENTS_FLAG.matcher(regex).find()) {
+      // whitespaces are not literals in this mode
+      return Collections.emptySet();
+    }
+    final List<String> runs = new ArrayList<>();
+    final StringBuilder run = new StringBuilder();
+    // length of the last literal atom in the current run, 0 if the last atom is not a literal
+    int lastLiteral = 0;
+    final int length = regex.length();
+    int i = 0;
+    while (i < length) {
+      final char c = regex.charAt(i);
+      switch (c) {
+        case '\\':
+          if (i + 1 >= length) {
+            i++;
+            break;
+          }
+          final char escaped = regex.charAt(i + 1);
+          if (escaped == 'Q') {
+            int end = regex.indexOf("\\E", i + 2);
+            if (end < 0) {
+              end = length;
+            }
+            final String quoted = regex.substring(i + 2, end);
+            run.append(quoted);
+            lastLiteral = quoted.isEmpty() ? 0 : 1;
+            i = end + 2;
+          } else if (Character.isLetterOrDigit(escaped)) {
+            final char control = toControlCharacter(escaped);
+            if (control == 0) {
+              breakRun(run, runs);
+              lastLiteral = 0;
+              i = skipEscapeArguments(regex, escaped, i + 2);
+            } else {
+              run.append(control);
+              lastLiteral = 1;
+              i += 2;
+            }
+          } else {
+            run.append(escaped);
+            lastLiteral = 1;
+            i += 2;
+          }
+          break;
+        case '[':
+          i = skipCharacterClass(regex, i);
+          breakRun(run, runs);
+          lastLiteral = 0;
+          break;
+        case '(':
+          i = skipGroup(regex, i);
+          breakRun(run, runs);
+          lastLiteral = 0;
+          break;
+        case '|':
+          return Collections.emptySet();
+        case '?':
+        case '*':
+        case '{':
+          if (lastLiteral > 0) {
+            run.setLength(run.length() - lastLiteral);
+          }
+          breakRun(run, runs);
+          lastLiteral = 0;
+          if (c == '{') {
+            final int end = regex.indexOf('}', i);
+            i = end < 0 ? length : end + 1;
+          } else {
+            i++;
+          }
+          break;
+        case '+':
+        case '.':
+        case '^':
+        case '$':
+          breakRun(run, runs);
+          lastLiteral = 0;
+          i++;
+          break;
+        default:
+          run.append(c);
+          lastLiteral = 1;
+          i++;
+      }
+    }
+    breakRun(run, runs);
+
+    final Set<String> trigrams = new LinkedHashSet<>();
+    for (String literal : runs) {
+      final int[] codePoints = literal.codePoints().map(Character::toLowerCase).toArray();
+      for (int j = 0; j + 3 <= codePoints.length; j++) {
+        trigrams.add(new String(codePoints, j, 3));
+      }
+    }
+    return trigrams;
+  }
+
+  private static void breakRun(StringBuilder run, List<String> runs) {
+    if (run.length() >= 3) {
+      runs.add(run.toString());
+    }
+    run.setLength(0);
+  }
+
+  private static char toControlCharacter(char escaped) {
+    switch (escaped) {
+      case 't':
+        return '\t';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 'f':
+        return '\f';
+      case 'a':
+        return '\u0007';
+      case 'e':
+        return '\u001B';
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns position next after arguments of escape sequence e.g. {@code \x41}, {@code \p{Lu}}
+   * or {@code \k<name>}. Arguments start at {@code start}.
+   */
+  private static int skipEscapeArguments(String regex, char escaped, int start) {
+    final int length = regex.length();
+    switch (escaped) {
+      case 'x':
+        return start < length && regex.charAt(start) == '{'
+            ? skipTo(regex, '}', start)
+            : Math.min(length, start + 2);
+      case 'u':
+        return Math.min(length, start + 4);
+      case 'c':
+        return Math.min(length, start + 1);
+      case 'p':
+      case 'P':
+        return start < length && regex.charAt(start) == '{'
+            ? skipTo(regex, '}', start)
+            : Math.min(length, start + 1);
+      case 'k':
+        return start < length && regex.charAt(start) == '<' ? skipTo(regex, '>', start) : start;
+      default:
+        int i = start;
+        if (Character.isDigit(escaped)) {
+          // octal escape or back reference
+          while (i < length && Character.isDigit(regex.charAt(i))) {
+            i++;
+          }
+        }
+        return i;
+    }
+  }
+
+  private static int skipTo(String regex, char c, int start) {
+    final int end = regex.indexOf(c, start);
+    return end < 0 ? regex.length() : end + 1;
+  }
+
+  /** Returns position next after the end of character class that starts at {@code start}. */
+  private static int skipCharacterClass(String regex, int start) {
+    int depth = 0;
+    int i = start;
+    while (i < regex.length()) {
+      final char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      }
+      if (c == '[') {
+        depth++;
+        // ']' right after opening bracket or after negation is a literal
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+          i++;
+        }
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+          i++;
+        }
+      } else if (c == ']' && --depth == 0) {
+        return i + 1;
+      }
+      i++;
+    }
+    return regex.length();
+  }
+
+  /** Returns position next after the end of group that starts at {@code start}. */
+  private static int skipGroup(String regex, int start) {
+    int depth = 0;
+    int i = start;
+    while (i < regex.length()) {
+      final char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      }
+      if (c == '[') {
+        i = skipCharacterClass(regex, i);
+        continue;
+      }
+      if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i + 1;
+      }
+      i++;
+    }
+    return regex.length();
+  }
+
+  private RegexTrigrams() {}
+}
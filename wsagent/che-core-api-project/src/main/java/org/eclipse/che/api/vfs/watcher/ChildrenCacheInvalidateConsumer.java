@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.watcher;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drops cached folder listings of {@link LocalVirtualFileSystem} when items are created, deleted
+ * or updated outside of virtual file system.
+ */
+@Singleton
+public class ChildrenCacheInvalidateConsumer implements Consumer<Path> {
+  private static final Logger LOG = LoggerFactory.getLogger(ChildrenCacheInvalidateConsumer.class);
+
+  private File root;
+  private VirtualFileSystemProvider vfsProvider;
+
+  @Inject
+  public ChildrenCacheInvalidateConsumer(
+      @Named("che.user.workspaces.storage") File root, VirtualFileSystemProvider vfsProvider) {
+    this.root = root;
+    this.vfsProvider = vfsProvider;
+  }
+
+  @Override
+  public void accept(Path path) {
+    try {
+      VirtualFileSystem virtualFileSystem = vfsProvider.getVirtualFileSystem();
+      if (virtualFileSystem instanceof LocalVirtualFileSystem) {
+        Path innerPath = root.toPath().relativize(path);
+        ((LocalVirtualFileSystem) virtualFileSystem)
+            .invalidateChildrenCache(org.eclipse.che.api.vfs.Path.of("/" + innerPath.toString()));
+      }
+    } catch (ServerException e) {
+      LOG.error("Issue happened during invalidating of cached folder listing", e);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.watcher;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Known state of a file system tree kept by {@link FileTreeWalker}. Items are stored in a trie
+ * where each node holds only the name of an item (names are interned as the same names e.g. {@code
+ * src}, {@code main}, {@code pom.xml} are repeated all over a workspace), last modification time
+ * as a primitive and a reference to its parent. Full paths are computed only when they are needed
+ * to notify consumers. Not thread safe, expected to be used by a single walker thread.
+ */
+final class FileTreeState {
+  private static final Interner<String> NAMES = Interners.newWeakInterner();
+
+  private final Path rootPath;
+  private final Node root;
+
+  private int size;
+
+  FileTreeState(Path rootPath) {
+    this.rootPath = rootPath;
+    this.root = new Node("", null, true, 0);
+  }
+
+  /** Returns the node of the tree root. */
+  Node getRoot() {
+    return root;
+  }
+
+  /** Returns the number of tracked files and directories, root directory is not counted. */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Finds the node that corresponds to the path.
+   *
+   * @param path absolute path
+   * @return found node or {@code null} if there is no such node or path is outside of the root
+   */
+  Node find(Path path) {
+    Path base = path.isAbsolute() ? rootPath.toAbsolutePath() : rootPath;
+    if (!path.startsWith(base)) {
+      return null;
+    }
+    Node current = root;
+    for (Path element : base.relativize(path)) {
+      String name = element.toString();
+      if (name.isEmpty()) {
+        continue;
+      }
+      current = current.getChild(name);
+      if (current == null) {
+        return null;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Adds a new child node to the directory node. Existed child with the same name is replaced.
+   *
+   * @return added node
+   */
+  Node add(Node parent, String name, boolean directory, long lastModified) {
+    Node child = new Node(NAMES.intern(name), parent, directory, lastModified);
+    if (parent.children == null) {
+      parent.children = new HashMap<>(4);
+    }
+    Node previous = parent.children.put(child.name, child);
+    size += 1 - (previous == null ? 0 : previous.countSubtree());
+    return child;
+  }
+
+  /** Removes the node together with the whole its subtree. */
+  void remove(Node node) {
+    if (node.parent != null && node.parent.children != null) {
+      if (node.parent.children.remove(node.name) == node) {
+        size -= node.countSubtree();
+      }
+    }
+  }
+
+  /** Returns the absolute path of the node. */
+  Path toPath(Node node) {
+    if (node == root) {
+      return rootPath;
+    }
+    List<String> names = new ArrayList<>();
+    for (Node current = node; current != root; current = current.parent) {
+      names.add(current.name);
+    }
+    Path path = rootPath;
+    for (int i = names.size() - 1; i >= 0; i--) {
+      path = path.resolve(names.get(i));
+    }
+    return path;
+  }
+
+  static final class Node {
+    private final String name;
+    private final Node parent;
+    private final boolean directory;
+
+    private long lastModified;
+    private int generation;
+    private Map<String, Node> children;
+
+    private Node(String name, Node parent, boolean directory, long lastModified) {
+      this.name = name;
+      this.parent = parent;
+      this.directory = directory;
+      this.lastModified = lastModified;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Node getParent() {
+      return parent;
+    }
+
+    boolean isDirectory() {
+      return directory;
+    }
+
+    long getLastModified() {
+      return lastModified;
+    }
+
+    void setLastModified(long lastModified) {
+      this.lastModified = lastModified;
+    }
+
+    int getGeneration() {
+      return generation;
+    }
+
+    void setGeneration(int generation) {
+      this.generation = generation;
+    }
+
+    Node getChild(String name) {
+      return children == null ? null : children.get(name);
+    }
+
+    Collection<Node> getChildren() {
+      return children == null ? Collections.emptyList() : children.values();
+    }
+
+    private int countSubtree() {
+      int count = 1;
+      if (children != null) {
+        for (Node child : children.values()) {
+          count += child.countSubtree();
+        }
+      }
+      return count;
+    }
+  }
+}
@@ -12,25 +12,37 @@ package org.eclipse.che.api.vfs.watcher;
 
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
-import static java.nio.file.Files.exists;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.readAttributes;
 import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.api.vfs.watcher.FileWatcherUtils.isExcluded;
 
 import com.google.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import org.eclipse.che.api.vfs.watcher.FileTreeState.Node;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +50,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Walks a file system tree, register addition, update and removal of file system items. On events
  * runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>The whole tree is walked on the first run and then only once per full walk period to
+ * reconcile the known state with the file system. Walked directories are registered in {@link
+ * FileWatcherService} up to the budget of watched directories, so that the walker doesn't take all
+ * watches of the system which are needed by clients of {@link FileWatcherManager} too. In between
+ * full walks only directories reported as changed by the watch service are re-read, changes of
+ * directories beyond the budget or which could not be registered are found by full walks.
  */
 @Singleton
 public class FileTreeWalker {
@@ -55,8 +74,23 @@ public class FileTreeWalker {
   private final Set<Consumer<Path>> fileDeleteConsumers;
   private final Set<PathMatcher> fileExcludes;
 
-  private final Map<Path, Long> files = new HashMap<>();
-  private final Map<Path, Long> directories = new HashMap<>();
+  private final FileWatcherService fileWatcherService;
+  private final long fullWalkPeriodMillis;
+  private final int maxWatchedDirectories;
+
+  private final FileTreeState state;
+  private final Set<Path> changedDirectories = ConcurrentHashMap.newKeySet();
+  private final Set<Path> unwatchedDirectories = new HashSet<>();
+
+  private boolean rootTracked;
+  private long lastFullWalk;
+  private int generation;
+  private int watchedDirectories;
+  private boolean watchBudgetExhausted;
+
+  private volatile long lastWalkDuration;
+  private volatile long lastFullWalkDuration;
+  private volatile int trackedPathsCount;
 
   @Inject
   public FileTreeWalker(
@@ -68,7 +102,10 @@ public class FileTreeWalker {
       @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
       @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
       @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
+      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+      FileWatcherService fileWatcherService,
+      @Named("che.fs.tree_walker.full_walk_period_s") long fullWalkPeriod,
+      @Named("che.fs.tree_walker.max_watched_directories") int maxWatchedDirectories) {
     this.root = root;
 
     this.directoryUpdateConsumers = directoryUpdateConsumers;
@@ -81,81 +118,315 @@ public class FileTreeWalker {
 
     this.directoryExcludes = directoryExcludes;
     this.fileExcludes = fileExcludes;
+
+    this.fileWatcherService = fileWatcherService;
+    this.fullWalkPeriodMillis = SECONDS.toMillis(fullWalkPeriod);
+    this.maxWatchedDirectories = maxWatchedDirectories;
+
+    this.state = new FileTreeState(root.toPath());
+  }
+
+  @PostConstruct
+  void subscribe() {
+    fileWatcherService.addDirectoryChangeListener(changedDirectories::add);
+  }
+
+  /** Returns duration of the last walk (either full or incremental) in milliseconds. */
+  public long getLastWalkDuration() {
+    return lastWalkDuration;
+  }
+
+  /** Returns duration of the last full walk in milliseconds. */
+  public long getLastFullWalkDuration() {
+    return lastFullWalkDuration;
+  }
+
+  /** Returns the number of files and directories which state is tracked by the walker. */
+  public int getTrackedPathsCount() {
+    return trackedPathsCount;
   }
 
   @ScheduleRate(period = 10)
   void walk() {
+    long start = System.currentTimeMillis();
+    boolean full = !rootTracked || start - lastFullWalk >= fullWalkPeriodMillis;
     try {
-      LOG.debug("Tree walk started");
-
-      Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      fileDeleteConsumers.forEach(deletedFiles::forEach);
-      files.keySet().removeAll(deletedFiles);
-
-      Set<Path> deletedDirectories =
-          directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-      directories.keySet().removeAll(deletedDirectories);
-
-      walkFileTree(
-          root.toPath(),
-          new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                throws IOException {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
-
-              return CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
-
-              return CONTINUE;
-            }
-          });
-      LOG.debug("Tree walk finished");
+      if (full) {
+        LOG.debug("Full tree walk started");
+        changedDirectories.clear();
+        walkAll();
+        lastFullWalk = start;
+      } else {
+        if (!changedDirectories.isEmpty()) {
+          LOG.debug("Incremental tree walk started");
+          walkChanged();
+        }
+      }
     } catch (NoSuchFileException e) {
       LOG.debug(
           "Trying to process a file, however seems like it is already not present: {}",
           e.getMessage());
     } catch (Exception e) {
       LOG.error("Error while walking file tree", e);
+    } finally {
+      lastWalkDuration = System.currentTimeMillis() - start;
+      if (full) {
+        lastFullWalkDuration = lastWalkDuration;
+      }
+      trackedPathsCount = state.size();
+      LOG.debug(
+          "Tree walk finished in {} ms, {} paths are tracked", lastWalkDuration, trackedPathsCount);
     }
   }
 
-  private void updateFsTreeAndAcceptConsumables(
-      Map<Path, Long> items,
-      Set<Consumer<Path>> updateConsumer,
-      Set<Consumer<Path>> createConsumer,
-      Path path,
-      BasicFileAttributes attrs) {
-    Long lastModifiedActual = attrs.lastModifiedTime().toMillis();
+  private void walkAll() throws IOException {
+    watchUnwatched();
+    int current = ++generation;
+    walkFileTree(root.toPath(), new Visitor(current, null));
+    if (rootTracked) {
+      removeStale(state.getRoot(), current);
+    }
+  }
+
+  private void walkChanged() throws IOException {
+    List<Path> directories = new ArrayList<>(changedDirectories);
+    changedDirectories.removeAll(directories);
 
-    if (items.containsKey(path)) {
-      Long lastModifiedStored = items.get(path);
-      if (!lastModifiedActual.equals(lastModifiedStored)) {
-        updateConsumer.forEach(it -> it.accept(path));
-        items.put(path, lastModifiedActual);
+    for (Path dir : directories) {
+      Path known = dir;
+      Node node = state.find(known);
+      while (node == null && known.getParent() != null) {
+        known = known.getParent();
+        node = state.find(known);
+      }
+      if (node == null || !node.isDirectory()) {
+        continue;
       }
+      if (!isDirectory(known, NOFOLLOW_LINKS)) {
+        // will be removed on walk of the closest existing parent
+        changedDirectories.add(known.getParent());
+        continue;
+      }
+      walkDirectory(node, known);
+    }
+  }
+
+  /** Re-reads entries of a single directory. New sub-directories are walked entirely. */
+  private void walkDirectory(Node node, Path dir) throws IOException {
+    int current = ++generation;
+    Visitor visitor = new Visitor(current, node);
+
+    BasicFileAttributes dirAttrs = readAttributes(dir, BasicFileAttributes.class, NOFOLLOW_LINKS);
+    if (node == state.getRoot()) {
+      trackRoot(dir, dirAttrs);
     } else {
-      createConsumer.forEach(it -> it.accept(path));
-      items.put(path, lastModifiedActual);
+      track(node.getParent(), dir, true, dirAttrs);
+    }
+
+    try (DirectoryStream<Path> entries = newDirectoryStream(dir)) {
+      for (Path entry : entries) {
+        BasicFileAttributes attrs;
+        try {
+          attrs = readAttributes(entry, BasicFileAttributes.class, NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+          continue;
+        }
+
+        if (attrs.isDirectory()) {
+          Node child = node.getChild(entry.getFileName().toString());
+          if (child == null || !child.isDirectory()) {
+            walkFileTree(entry, visitor);
+          } else if (!isExcluded(directoryExcludes, entry)) {
+            track(node, entry, true, attrs).setGeneration(current);
+          }
+        } else {
+          visitor.visitFile(entry, attrs);
+        }
+      }
+    }
+
+    List<Node> stale = new ArrayList<>();
+    for (Node child : node.getChildren()) {
+      if (child.getGeneration() != current) {
+        stale.add(child);
+      }
+    }
+    for (Node child : stale) {
+      remove(child);
+    }
+  }
+
+  private Node track(Node parent, Path path, boolean directory, BasicFileAttributes attrs) {
+    long lastModified = attrs.lastModifiedTime().toMillis();
+    Node node = parent.getChild(path.getFileName().toString());
+
+    if (node != null && node.isDirectory() != directory) {
+      remove(node);
+      node = null;
+    }
+
+    if (node == null) {
+      node = state.add(parent, path.getFileName().toString(), directory, lastModified);
+      if (directory) {
+        watch(path);
+      }
+      (directory ? directoryCreateConsumers : fileCreateConsumers).forEach(it -> it.accept(path));
+    } else if (node.getLastModified() != lastModified) {
+      node.setLastModified(lastModified);
+      (directory ? directoryUpdateConsumers : fileUpdateConsumers).forEach(it -> it.accept(path));
+    }
+    return node;
+  }
+
+  private Node trackRoot(Path path, BasicFileAttributes attrs) {
+    Node node = state.getRoot();
+    long lastModified = attrs.lastModifiedTime().toMillis();
+    if (!rootTracked) {
+      rootTracked = true;
+      node.setLastModified(lastModified);
+      watch(path);
+      directoryCreateConsumers.forEach(it -> it.accept(path));
+    } else if (node.getLastModified() != lastModified) {
+      node.setLastModified(lastModified);
+      directoryUpdateConsumers.forEach(it -> it.accept(path));
+    }
+    return node;
+  }
+
+  /** Removes all nodes of the subtree that were not visited during the walk of given generation. */
+  private void removeStale(Node node, int current) {
+    List<Node> stale = new ArrayList<>();
+    for (Node child : node.getChildren()) {
+      if (child.getGeneration() != current) {
+        stale.add(child);
+      } else if (child.isDirectory()) {
+        removeStale(child, current);
+      }
+    }
+    for (Node child : stale) {
+      remove(child);
+    }
+  }
+
+  /** Removes the node with its subtree and notifies delete consumers, files go first. */
+  private void remove(Node node) {
+    Path path = state.toPath(node);
+    notifyRemoved(node, path);
+    state.remove(node);
+  }
+
+  private void notifyRemoved(Node node, Path path) {
+    if (node.isDirectory()) {
+      for (Node child : node.getChildren()) {
+        if (!child.isDirectory()) {
+          notifyRemoved(child, path.resolve(child.getName()));
+        }
+      }
+      for (Node child : node.getChildren()) {
+        if (child.isDirectory()) {
+          notifyRemoved(child, path.resolve(child.getName()));
+        }
+      }
+      unwatch(path);
+      directoryDeleteConsumers.forEach(it -> it.accept(path));
+    } else {
+      fileDeleteConsumers.forEach(it -> it.accept(path));
+    }
+  }
+
+  /**
+   * Registers the directory in watch service if budget of watched directories allows it, otherwise
+   * remembers it as unwatched.
+   */
+  private void watch(Path dir) {
+    Path absolute = dir.toAbsolutePath().normalize();
+    if (!tryWatch(absolute)) {
+      unwatchedDirectories.add(absolute);
+    }
+  }
+
+  /** Retries registration of directories that are not watched, e.g. when budget is freed. */
+  private void watchUnwatched() {
+    Iterator<Path> it = unwatchedDirectories.iterator();
+    while (it.hasNext() && watchedDirectories < maxWatchedDirectories) {
+      if (tryWatch(it.next())) {
+        it.remove();
+      }
+    }
+  }
+
+  private boolean tryWatch(Path dir) {
+    if (watchedDirectories >= maxWatchedDirectories) {
+      if (!watchBudgetExhausted) {
+        watchBudgetExhausted = true;
+        LOG.warn(
+            "Limit of {} watched directories is reached, changes of other directories are found "
+                + "by full walks of the file tree",
+            maxWatchedDirectories);
+      }
+      return false;
+    }
+    if (fileWatcherService.register(dir)) {
+      watchedDirectories++;
+      return true;
+    }
+    return false;
+  }
+
+  private void unwatch(Path dir) {
+    Path absolute = dir.toAbsolutePath().normalize();
+    if (!unwatchedDirectories.remove(absolute)) {
+      fileWatcherService.unRegister(absolute);
+      watchedDirectories--;
+    }
+  }
+
+  private class Visitor extends SimpleFileVisitor<Path> {
+    private final Deque<Node> parents = new ArrayDeque<>();
+    private final int current;
+
+    private Visitor(int current, Node parent) {
+      this.current = current;
+      if (parent != null) {
+        parents.push(parent);
+      }
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+      if (isExcluded(directoryExcludes, dir)) {
+        return SKIP_SUBTREE;
+      }
+
+      Node node =
+          parents.isEmpty() ? trackRoot(dir, attrs) : track(parents.peek(), dir, true, attrs);
+      node.setGeneration(current);
+      parents.push(node);
+
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+      if (isExcluded(fileExcludes, file)) {
+        return CONTINUE;
+      }
+
+      track(parents.peek(), file, false, attrs).setGeneration(current);
+
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException e) {
+      LOG.debug("Unable to visit '{}': {}", file, e.getMessage());
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+      parents.pop();
+      return CONTINUE;
     }
   }
 }
@@ -59,6 +59,19 @@ public class FileWatcherManager {
     service.resume();
   }
 
+  /**
+   * Adds a listener that is called each time file watching system is resumed, changes of files
+   * made while it was suspended are not reported to watchers.
+   */
+  public void addResumeListener(Runnable listener) {
+    service.addResumeListener(listener);
+  }
+
+  /** Removes a listener added with {@link #addResumeListener(Runnable)}. */
+  public void removeResumeListener(Runnable listener) {
+    service.removeResumeListener(listener);
+  }
+
   /**
    * Start watching a file system item by specifying its path. If path points to a file than only
    * file related events are taken into account, if path points to a folder than all folder entries
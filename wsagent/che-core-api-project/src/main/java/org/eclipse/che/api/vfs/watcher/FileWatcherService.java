@@ -34,9 +34,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -60,9 +62,12 @@ public class FileWatcherService {
 
   private final AtomicBoolean suspended = new AtomicBoolean(true);
   private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicBoolean registrationFailureLogged = new AtomicBoolean();
 
   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
   private final Map<Path, Integer> registrations = new ConcurrentHashMap<>();
+  private final List<Consumer<Path>> directoryChangeListeners = new CopyOnWriteArrayList<>();
+  private final List<Runnable> resumeListeners = new CopyOnWriteArrayList<>();
 
   private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
   private final FileWatcherEventHandler handler;
@@ -175,15 +180,17 @@ public class FileWatcherService {
    * registration watch key is canceled and no further directory watching is being performed.
    *
    * @param dir directory
+   * @return {@code true} if directory is watched, {@code false} if it does not exist or can't be
+   *     registered in watch service
    */
-  public void register(Path dir) {
+  public boolean register(Path dir) {
     if (!Files.exists(dir)) {
       LOG.debug("Trying to register directory '{}' but it does not exist", dir);
-      return;
+      return false;
     }
     LOG.debug("Registering directory '{}'", dir);
-    if (keys.values().contains(dir)) {
-      int previous = registrations.get(dir);
+    Integer previous = registrations.get(dir);
+    if (previous != null) {
       LOG.debug(
           "Directory is already being watched, increasing watch counter, previous value: {}",
           previous);
@@ -195,9 +202,19 @@ public class FileWatcherService {
         keys.put(watchKey, dir);
         registrations.put(dir, 1);
       } catch (IOException e) {
-        LOG.error("Can't register dir {} in file watch service", dir, e);
+        if (registrationFailureLogged.compareAndSet(false, true)) {
+          LOG.warn(
+              "Can't register directory '{}' in file watch service, e.g. limit of watches is "
+                  + "reached, further failures are logged at debug level: {}",
+              dir,
+              e.toString());
+        } else {
+          LOG.debug("Can't register directory '{}' in file watch service: {}", dir, e.toString());
+        }
+        return false;
       }
     }
+    return true;
   }
 
   /**
@@ -247,6 +264,32 @@ public class FileWatcherService {
     }
   }
 
+  /**
+   * Adds a listener that is notified with a path of a watched directory each time any of its
+   * entries is created, modified or deleted, or when events related to the directory are lost due
+   * to overflow. Listeners are notified in suspended mode as well. Listeners are called from the
+   * watcher thread so they must be fast.
+   *
+   * @param listener directory change listener
+   */
+  void addDirectoryChangeListener(Consumer<Path> listener) {
+    directoryChangeListeners.add(listener);
+  }
+
+  /**
+   * Adds a listener that is notified each time the service is resumed after it was suspended, so
+   * that state derived from files may be dropped, since events of suspended state are skipped.
+   *
+   * @param listener resume listener
+   */
+  void addResumeListener(Runnable listener) {
+    resumeListeners.add(listener);
+  }
+
+  void removeResumeListener(Runnable listener) {
+    resumeListeners.remove(listener);
+  }
+
   /**
    * Resumes service after it was in suspended state. If method is called when the service is
    * already not in a suspended state nothing happens.
@@ -254,6 +297,7 @@ public class FileWatcherService {
   void resume() {
     if (suspended.compareAndSet(true, false)) {
       LOG.debug("Resuming service.");
+      resumeListeners.forEach(Runnable::run);
     }
   }
 
@@ -280,17 +324,22 @@ public class FileWatcherService {
         List<WatchEvent<?>> watchEvents = watchKey.pollEvents();
 
         if (suspended.get()) {
+          if (!watchEvents.isEmpty() && dir != null) {
+            directoryChangeListeners.forEach(it -> it.accept(dir));
+          }
           resetAndRemove(watchKey, dir);
 
           LOG.debug("File watchers are running in suspended mode - skipping.");
           continue;
         }
 
+        boolean directoryChanged = false;
         for (WatchEvent<?> event : watchEvents) {
           Kind<?> kind = event.kind();
 
           if (kind == OVERFLOW) {
             LOG.warn("Detected file system events overflowing");
+            directoryChanged = true;
             continue;
           }
 
@@ -304,6 +353,11 @@ public class FileWatcherService {
           }
 
           handler.handle(path, kind);
+          directoryChanged = true;
+        }
+
+        if (directoryChanged && dir != null) {
+          directoryChangeListeners.forEach(it -> it.accept(dir));
         }
 
         resetAndRemove(watchKey, dir);
@@ -58,6 +58,7 @@ import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 import javax.ws.rs.core.Application;
 import org.eclipse.che.api.core.ConflictException;
@@ -295,6 +296,7 @@ public class ProjectServiceTest {
     dependencies.addInstance(RequestTransmitter.class, mock(RequestTransmitter.class));
     dependencies.addInstance(
         ProjectImportOutputJsonRpcRegistrar.class, new ProjectImportOutputJsonRpcRegistrar());
+    dependencies.addInstance(FileWatcherManager.class, fileWatcherManager);
 
     ResourceBinder resources = new ResourceBinderImpl();
     ProviderBinder providers = ProviderBinder.getInstance();
@@ -1813,6 +1815,43 @@ public class ProjectServiceTest {
     assertEquals(response.getContentType().toString(), ExtMediaType.APPLICATION_ZIP);
   }
 
+  @Test
+  public void testExportZipSkipsExcludedFiles() throws Exception {
+    RegisteredProject myProject = pm.getProject("my_project");
+    myProject
+        .getBaseFolder()
+        .createFolder("a/b")
+        .createFile("test.txt", "hello".getBytes(Charset.defaultCharset()));
+    myProject
+        .getBaseFolder()
+        .createFolder("target")
+        .createFile("test.class", "hello".getBytes(Charset.defaultCharset()));
+    when(fileWatcherManager.isExcluded(any(java.nio.file.Path.class)))
+        .thenAnswer(
+            invocation ->
+                ((java.nio.file.Path) invocation.getArguments()[0]).endsWith("target"));
+    ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+    ContainerResponse response =
+        launcher.service(
+            GET,
+            "http://localhost:8080/api/project/export/my_project?skipExcluded=true",
+            "http://localhost:8080/api",
+            null,
+            null,
+            writer,
+            null);
+    assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+    Set<String> entries = new HashSet<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(writer.getBody()))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        entries.add(entry.getName());
+      }
+    }
+    Assert.assertTrue(entries.contains("a/b/test.txt"));
+    Assert.assertFalse(entries.contains("target/"));
+    Assert.assertFalse(entries.contains("target/test.class"));
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void testGetChildren() throws Exception {
@@ -13,12 +13,14 @@ package org.eclipse.che.api.vfs;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static java.util.stream.Collectors.toMap;
+import static org.eclipse.che.api.vfs.ParallelArchiveWriter.MEMORY_THRESHOLD;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Strings;
 import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -111,6 +113,23 @@ public class TarArchiverTest {
         new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
   }
 
+  @Test
+  public void compressesFilesLargerThanMemoryThreshold() throws Exception {
+    VirtualFile folder = createFileTreeForArchiving();
+    folder
+        .getChild(Path.of("a"))
+        .createFile("large.txt", Strings.repeat(TEST_CONTENT, MEMORY_THRESHOLD / 4));
+    ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+    Map<String, String> entries =
+        getFileTreeAsList(folder)
+            .stream()
+            .collect(toMap(f -> getTarEntryName(folder, f), this::readContentUnchecked));
+
+    new TarArchiver(folder).compress(compressedFolder);
+    assertThatTarArchiveContainsAllEntries(
+        new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
+  }
+
   @Test
   public void extractsArchiveToFolder() throws Exception {
     byte[] archive = createTestTarArchive();
@@ -214,9 +233,9 @@ public class TarArchiverTest {
     if (virtualFile.isFolder()) {
       return "<none>";
     }
-    try {
-      return virtualFile.getContentAsString();
-    } catch (ForbiddenException | ServerException e) {
+    try (InputStream content = virtualFile.getContent()) {
+      return new String(ByteStreams.toByteArray(content));
+    } catch (ForbiddenException | ServerException | IOException e) {
       throw new RuntimeException(e);
     }
   }
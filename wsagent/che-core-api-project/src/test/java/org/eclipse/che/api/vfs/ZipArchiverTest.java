@@ -12,19 +12,23 @@ package org.eclipse.che.api.vfs;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
+import static org.eclipse.che.api.vfs.ParallelArchiveWriter.MEMORY_THRESHOLD;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Strings;
 import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
@@ -111,6 +115,58 @@ public class ZipArchiverTest {
         new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
   }
 
+  @Test
+  public void compressesFilesLargerThanMemoryThreshold() throws Exception {
+    VirtualFile folder = createFileTreeForArchiving();
+    folder
+        .getChild(Path.of("a"))
+        .createFile("large.txt", Strings.repeat(TEST_CONTENT, MEMORY_THRESHOLD / 4));
+    folder
+        .getChild(Path.of("b"))
+        .createFile("large.jar", Strings.repeat(TEST_CONTENT, MEMORY_THRESHOLD / 4));
+    ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+    Map<String, String> entries =
+        getFileTreeAsList(folder)
+            .stream()
+            .collect(toMap(f -> getZipEntryName(folder, f), this::readContentUnchecked));
+
+    new ZipArchiver(folder).compress(compressedFolder);
+    assertThatZipArchiveContainsAllEntries(
+        new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
+    Map<String, Integer> methods = readArchiveEntryMethods(compressedFolder.toByteArray());
+    assertEquals(ZipEntry.DEFLATED, (int) methods.get("a/large.txt"));
+    assertEquals(ZipEntry.STORED, (int) methods.get("b/large.jar"));
+  }
+
+  @Test
+  public void storesAlreadyCompressedFilesWithoutCompression() throws Exception {
+    VirtualFile folder = createFileTreeForArchiving();
+    folder.getChild(Path.of("a")).createFile("lib.jar", TEST_CONTENT);
+    ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+    new ZipArchiver(folder).compress(compressedFolder);
+    Map<String, Integer> methods = readArchiveEntryMethods(compressedFolder.toByteArray());
+    assertEquals(ZipEntry.STORED, (int) methods.get("a/lib.jar"));
+    assertEquals(ZipEntry.DEFLATED, (int) methods.get("a/_a.txt"));
+
+    compressedFolder.reset();
+    new ZipArchiver(folder, ZipArchiver.CompressedFilesMode.FAST_DEFLATE)
+        .compress(compressedFolder);
+    methods = readArchiveEntryMethods(compressedFolder.toByteArray());
+    assertEquals(ZipEntry.DEFLATED, (int) methods.get("a/lib.jar"));
+  }
+
+  @Test
+  public void writesEntriesInOrderOfTreeWalk() throws Exception {
+    VirtualFile folder = createFileTreeForArchiving();
+    ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+    new ZipArchiver(folder).compress(compressedFolder);
+    assertEquals(
+        getFileTreeAsList(folder).stream().map(f -> getZipEntryName(folder, f)).collect(toList()),
+        newArrayList(readArchiveEntryMethods(compressedFolder.toByteArray()).keySet()));
+  }
+
   @Test
   public void extractsArchiveToFolder() throws Exception {
     byte[] archive = createTestZipArchive();
@@ -211,13 +267,25 @@ public class ZipArchiverTest {
     return entries;
   }
 
+  private Map<String, Integer> readArchiveEntryMethods(byte[] archive) throws Exception {
+    Map<String, Integer> methods = new LinkedHashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+      ZipEntry zipEntry;
+      while ((zipEntry = zip.getNextEntry()) != null) {
+        methods.put(zipEntry.getName(), zipEntry.getMethod());
+        zip.closeEntry();
+      }
+    }
+    return methods;
+  }
+
   private String readContentUnchecked(VirtualFile virtualFile) {
     if (virtualFile.isFolder()) {
       return "<none>";
     }
-    try {
-      return virtualFile.getContentAsString();
-    } catch (ForbiddenException | ServerException e) {
+    try (InputStream content = virtualFile.getContent()) {
+      return new String(ByteStreams.toByteArray(content));
+    } catch (ForbiddenException | ServerException | IOException e) {
       throw new RuntimeException(e);
     }
   }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.impl.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that folder listings of {@link LocalVirtualFileSystem} are cached and dropped on changes.
+ * Items are created behind the back of the file system and modification time of their folder is
+ * restored, so only an invalidated listing can contain them.
+ */
+public class LocalVirtualFileSystemChildrenCacheTest {
+  private static final int FOLDERS = 20;
+  private static final int FILES_PER_FOLDER = 50;
+
+  private LocalVirtualFileSystem fileSystem;
+  private File testDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    File targetDir =
+        new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath())
+            .getParentFile();
+    testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+    assertTrue(testDirectory.mkdir());
+    for (int i = 0; i < FOLDERS; i++) {
+      File folder = new File(testDirectory, "folder" + i);
+      assertTrue(folder.mkdir());
+      for (int j = 0; j < FILES_PER_FOLDER; j++) {
+        assertTrue(new File(folder, "file" + j).createNewFile());
+      }
+      assertTrue(new File(folder, "sub").mkdir());
+    }
+    fileSystem =
+        new LocalVirtualFileSystem(
+            testDirectory,
+            mock(ArchiverFactory.class),
+            mock(SearcherProvider.class),
+            mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    IoUtil.deleteRecursive(testDirectory);
+    FileCleaner.stop();
+  }
+
+  @Test
+  public void listsFoldersFirstThenFilesSortedByName() throws Exception {
+    List<String> names = getChildrenNames("folder0");
+
+    assertEquals(FILES_PER_FOLDER + 1, names.size());
+    assertEquals("sub", names.get(0));
+    assertEquals("file0", names.get(1));
+    assertEquals("file1", names.get(2));
+    assertEquals("file10", names.get(3));
+  }
+
+  @Test
+  public void usesCachedListingWhileFolderIsNotModified() throws Exception {
+    getChildrenNames("folder0");
+
+    createBehindTheBack("folder0/a-new-file");
+
+    assertFalse(getChildrenNames("folder0").contains("a-new-file"));
+  }
+
+  @Test
+  public void readsFolderAgainWhenItsModificationTimeIsChanged() throws Exception {
+    getChildrenNames("folder0");
+
+    File folder = new File(testDirectory, "folder0");
+    assertTrue(new File(folder, "a-new-file").createNewFile());
+    assertTrue(folder.setLastModified(folder.lastModified() + 2000));
+
+    assertTrue(getChildrenNames("folder0").contains("a-new-file"));
+  }
+
+  @Test
+  public void dropsListingOfParentOnInvalidation() throws Exception {
+    getChildrenNames("folder0");
+
+    createBehindTheBack("folder0/a-new-file");
+    fileSystem.invalidateChildrenCache(Path.of("/folder0/a-new-file"));
+
+    assertTrue(getChildrenNames("folder0").contains("a-new-file"));
+  }
+
+  @Test
+  public void dropsListingsOfSubTreeButNotOfFoldersWithSamePrefixOnInvalidation()
+      throws Exception {
+    getChildrenNames("folder1/sub");
+    getChildrenNames("folder10");
+
+    createBehindTheBack("folder1/sub/a-new-file");
+    createBehindTheBack("folder10/a-new-file");
+    fileSystem.invalidateChildrenCache(Path.of("/folder1"));
+
+    assertTrue(getChildrenNames("folder1/sub").contains("a-new-file"));
+    assertFalse(getChildrenNames("folder10").contains("a-new-file"));
+  }
+
+  @Test
+  public void seesItemCreatedThroughVirtualFileSystem() throws Exception {
+    VirtualFile folder = fileSystem.getRoot().getChild(Path.of("folder0"));
+    folder.getChildren();
+
+    folder.createFolder("a-new-folder");
+
+    assertEquals("a-new-folder", getChildrenNames("folder0").get(0));
+  }
+
+  @Test
+  public void doesNotSeeItemDeletedThroughVirtualFileSystem() throws Exception {
+    getChildrenNames("folder0");
+
+    fileSystem.getRoot().getChild(Path.of("folder0/sub")).delete();
+
+    assertFalse(getChildrenNames("folder0").contains("sub"));
+  }
+
+  /** Creates file and restores modification time of its folder. */
+  private void createBehindTheBack(String path) throws Exception {
+    File file = new File(testDirectory, path);
+    File folder = file.getParentFile();
+    long lastModified = folder.lastModified();
+    assertTrue(file.createNewFile());
+    assertTrue(folder.setLastModified(lastModified));
+  }
+
+  private List<String> getChildrenNames(String folder) throws Exception {
+    return fileSystem
+        .getRoot()
+        .getChild(Path.of(folder))
+        .getChildren()
+        .stream()
+        .map(VirtualFile::getName)
+        .collect(Collectors.toList());
+  }
+}
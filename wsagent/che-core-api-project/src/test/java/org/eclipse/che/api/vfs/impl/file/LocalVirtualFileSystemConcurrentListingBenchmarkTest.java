@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.impl.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports throughput of folder listing of {@link LocalVirtualFileSystem} with 1, 8 and 32
+ * concurrent listers and checks that every listing is consistent. The benchmark runs only if system
+ * property {@code che.test.benchmarks} is {@code true}. Number of listings done by each lister may
+ * be changed with system property {@code che.test.vfs.listings}.
+ */
+public class LocalVirtualFileSystemConcurrentListingBenchmarkTest {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(LocalVirtualFileSystemConcurrentListingBenchmarkTest.class);
+
+  private static final int FOLDERS = 20;
+  private static final int FILES_PER_FOLDER = 50;
+
+  private LocalVirtualFileSystem fileSystem;
+  private File testDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    assumeTrue(
+        "Benchmarks are enabled with system property che.test.benchmarks",
+        Boolean.getBoolean("che.test.benchmarks"));
+
+    File targetDir =
+        new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath())
+            .getParentFile();
+    testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+    assertTrue(testDirectory.mkdir());
+    for (int i = 0; i < FOLDERS; i++) {
+      File folder = new File(testDirectory, "folder" + i);
+      assertTrue(folder.mkdir());
+      for (int j = 0; j < FILES_PER_FOLDER; j++) {
+        assertTrue(new File(folder, "file" + j).createNewFile());
+      }
+      assertTrue(new File(folder, "sub").mkdir());
+    }
+    fileSystem =
+        new LocalVirtualFileSystem(
+            testDirectory,
+            mock(ArchiverFactory.class),
+            mock(SearcherProvider.class),
+            mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (testDirectory != null) {
+      IoUtil.deleteRecursive(testDirectory);
+      FileCleaner.stop();
+    }
+  }
+
+  @Test
+  public void listsConcurrently() throws Exception {
+    int listings = Integer.getInteger("che.test.vfs.listings", 2000);
+    List<String> expected =
+        getChildrenNames(fileSystem.getRoot().getChild(Path.of("folder0")).getChildren());
+
+    for (int threads : new int[] {1, 8, 32}) {
+      long throughput = runListers(threads, listings, expected);
+      LOG.info("{} concurrent listers: {} listings per second", threads, throughput);
+    }
+  }
+
+  private long runListers(int threads, int listings, List<String> expected) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Void>> futures = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(lister(start, listings, expected)));
+      }
+      long startTime = System.nanoTime();
+      start.countDown();
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+      long elapsed = Math.max(1, System.nanoTime() - startTime);
+      return (long) threads * listings * 1_000_000_000L / elapsed;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Callable<Void> lister(CountDownLatch start, int listings, List<String> expected) {
+    return () -> {
+      start.await();
+      for (int i = 0; i < listings; i++) {
+        VirtualFile folder = fileSystem.getRoot().getChild(Path.of("folder" + (i % FOLDERS)));
+        assertEquals(expected, getChildrenNames(folder.getChildren()));
+      }
+      return null;
+    };
+  }
+
+  private List<String> getChildrenNames(List<VirtualFile> children) {
+    return children.stream().map(VirtualFile::getName).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.base.Strings;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.eclipse.che.api.vfs.search.impl.DeadlineCharSequence.DeadlineExceededException;
+import org.testng.annotations.Test;
+
+public class DeadlineCharSequenceTest {
+  private static final Pattern CATASTROPHIC = Pattern.compile("(.*a){12}b");
+
+  @Test
+  public void matchesBeforeDeadline() {
+    Matcher matcher =
+        Pattern.compile("getFoo\\(\\d")
+            .matcher(new DeadlineCharSequence("int x = getFoo(1);", deadlineAfter(60)));
+
+    assertTrue(matcher.find());
+    assertEquals(matcher.group(), "getFoo(1");
+    assertEquals(matcher.start(), 8);
+  }
+
+  @Test(expectedExceptions = DeadlineExceededException.class, timeOut = 60_000)
+  public void stopsMatchingWithCatastrophicBacktrackingAfterDeadline() {
+    CATASTROPHIC
+        .matcher(new DeadlineCharSequence(Strings.repeat("a", 64), deadlineAfter(1)))
+        .find();
+  }
+
+  @Test(expectedExceptions = DeadlineExceededException.class, timeOut = 60_000)
+  public void stopsMatchingWhenThreadIsInterrupted() {
+    Thread.currentThread().interrupt();
+    try {
+      CATASTROPHIC
+          .matcher(new DeadlineCharSequence(Strings.repeat("a", 64), deadlineAfter(60)))
+          .find();
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  private static long deadlineAfter(long seconds) {
+    return System.nanoTime() + SECONDS.toNanos(seconds);
+  }
+}
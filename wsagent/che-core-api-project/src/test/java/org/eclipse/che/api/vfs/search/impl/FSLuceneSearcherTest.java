@@ -11,6 +11,7 @@
 package org.eclipse.che.api.vfs.search.impl;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.mock;
@@ -24,6 +25,8 @@ import com.google.common.base.Optional;
 import java.io.File;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
@@ -31,6 +34,7 @@ import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
+import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.mockito.ArgumentMatcher;
@@ -226,6 +230,122 @@ public class FSLuceneSearcherTest {
     assertEquals(result.getResults().get(0).getData().size(), 2);
   }
 
+  @Test
+  public void findsLineNumberAndContentOfOccurrences() throws Exception {
+    VirtualFileSystem virtualFileSystem = virtualFileSystem();
+    VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+    folder.createFile("xxx.txt", "first line\r\nsecond line\n\nfourth think line\rlast think");
+    searcher.init(virtualFileSystem);
+
+    SearchResult result =
+        searcher.search(new QueryExpression().setText("think").setIncludePositions(true));
+    List<LuceneSearcher.OffsetData> data = result.getResults().get(0).getData();
+
+    assertEquals(data.size(), 2);
+    assertEquals(data.get(0).lineNum, 4);
+    assertEquals(data.get(0).line, "fourth think line");
+    assertEquals(data.get(1).lineNum, 5);
+    assertEquals(data.get(1).line, "last think");
+  }
+
+  @Test
+  public void streamsFoundEntriesToConsumer() throws Exception {
+    VirtualFileSystem virtualFileSystem = virtualFileSystem();
+    VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+    folder.createFile("xxx.txt", TEST_CONTENT[2]);
+    folder.createFile("zzz.txt", TEST_CONTENT[4]);
+    searcher.init(virtualFileSystem);
+
+    List<SearchResultEntry> streamed = newArrayList();
+    SearchResult result =
+        searcher.search(
+            new QueryExpression().setText("*to*").setIncludePositions(true), streamed::add);
+
+    assertEquals(result.getTotalHits(), 2);
+    assertTrue(result.getResults().isEmpty());
+    assertEquals(streamed.size(), 2);
+  }
+
+  @DataProvider
+  public Object[][] trigramIndex() {
+    return new Object[][] {{true}, {false}};
+  }
+
+  @Test(dataProvider = "trigramIndex")
+  public void searchesByRegularExpression(boolean trigramIndex) throws Exception {
+    searcher = new FSLuceneSearcher(indexDirectory, filter, null, false, trigramIndex);
+    VirtualFileSystem virtualFileSystem = virtualFileSystem();
+    VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+    folder.createFile("xxx.java", "class X {\n  int x = getFoo(1);\n}");
+    folder.createFile("yyy.java", "class Y {\n  int y = getFoo (2);\n}");
+    folder.createFile("zzz.java", "class Z {\n  int z = getBar(3);\n}");
+    searcher.init(virtualFileSystem);
+
+    SearchResult result =
+        searcher.search(
+            new QueryExpression().setText("getFoo\\(\\d").setRegex(true).setIncludePositions(true));
+
+    assertEquals(result.getFilePaths(), newArrayList("/folder/xxx.java"));
+    List<LuceneSearcher.OffsetData> data = result.getResults().get(0).getData();
+    assertEquals(data.size(), 1);
+    assertEquals(data.get(0).phrase, "getFoo(1");
+    assertEquals(data.get(0).lineNum, 2);
+    assertEquals(data.get(0).line, "  int x = getFoo(1);");
+  }
+
+  @Test
+  public void searchesByRegularExpressionWithLongLiteral() throws Exception {
+    searcher = new FSLuceneSearcher(indexDirectory, filter, null, false, true);
+    StringBuilder literal = new StringBuilder();
+    for (int i = 1296; i < 3000; i++) {
+      literal.append(Integer.toString(i, 36)).append('_');
+    }
+    VirtualFileSystem virtualFileSystem = virtualFileSystem();
+    VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+    folder.createFile("xxx.txt", "prefix " + literal + " suffix");
+    folder.createFile("yyy.txt", literal.substring(0, literal.length() / 2));
+    searcher.init(virtualFileSystem);
+
+    SearchResult result =
+        searcher.search(new QueryExpression().setText(literal.toString()).setRegex(true));
+
+    assertEquals(result.getFilePaths(), newArrayList("/folder/xxx.txt"));
+  }
+
+  @Test
+  public void pagesThroughRegularExpressionResults() throws Exception {
+    searcher = new FSLuceneSearcher(indexDirectory, filter, null, false, true);
+    VirtualFileSystem virtualFileSystem = virtualFileSystem();
+    VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+    folder.createFile("xxx.txt", TEST_CONTENT[1]);
+    folder.createFile("yyy.txt", TEST_CONTENT[4]);
+    folder.createFile("zzz.txt", TEST_CONTENT[2]);
+    searcher.init(virtualFileSystem);
+
+    QueryExpression query = new QueryExpression().setText("th.nk").setRegex(true).setMaxItems(1);
+    SearchResult firstPage = searcher.search(query);
+    SearchResult secondPage = searcher.search(firstPage.getNextPageQueryExpression().get());
+
+    assertEquals(firstPage.getFilePaths().size(), 1);
+    assertEquals(secondPage.getFilePaths().size(), 1);
+    assertFalse(secondPage.getNextPageQueryExpression().isPresent());
+    assertEquals(
+        newHashSet(firstPage.getFilePaths().get(0), secondPage.getFilePaths().get(0)),
+        newHashSet("/folder/xxx.txt", "/folder/yyy.txt"));
+  }
+
+  @Test
+  public void findsLineIndexesByOffsets() {
+    int[] lineStarts = LuceneSearcher.findLineStarts("a\r\nbc\n\nd");
+
+    assertEquals(lineStarts, new int[] {0, 3, 6, 7});
+    assertEquals(LuceneSearcher.findLineIndex(lineStarts, 0), 0);
+    assertEquals(LuceneSearcher.findLineIndex(lineStarts, 1), 0);
+    assertEquals(LuceneSearcher.findLineIndex(lineStarts, 4), 1);
+    assertEquals(LuceneSearcher.findLineIndex(lineStarts, 6), 2);
+    assertEquals(LuceneSearcher.findLineIndex(lineStarts, 7), 3);
+  }
+
   @DataProvider
   public Object[][] searchByName() {
     return new Object[][] {
@@ -297,6 +417,43 @@ public class FSLuceneSearcherTest {
     assertFalse(searcher.getIndexWriter().isOpen());
   }
 
+  @Test
+  public void reindexesOnlyChangedFilesWhenPersistedIndexIsReopened() throws Exception {
+    VirtualFileSystem virtualFileSystem = virtualFileSystem();
+    VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+    VirtualFile deleted = folder.createFile("xxx.txt", TEST_CONTENT[2]);
+    folder.createFile("yyy.txt", TEST_CONTENT[1]);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      FSLuceneSearcher persistentSearcher =
+          new FSLuceneSearcher(indexDirectory, filter, null, true);
+      persistentSearcher.doInit();
+      new ParallelTreeIndexer(persistentSearcher, executor, 1, null)
+          .index(virtualFileSystem.getRoot(), persistentSearcher.getIndexedFiles());
+      persistentSearcher.close();
+
+      deleted.delete();
+      folder.createFile("zzz.txt", TEST_CONTENT[4]);
+
+      persistentSearcher = new FSLuceneSearcher(indexDirectory, filter, null, true);
+      persistentSearcher.doInit();
+      assertEquals(persistentSearcher.getIndexedFiles().size(), 2);
+      int indexed =
+          new ParallelTreeIndexer(persistentSearcher, executor, 1, null)
+              .index(virtualFileSystem.getRoot(), persistentSearcher.getIndexedFiles());
+
+      assertEquals(indexed, 1);
+      assertEquals(
+          persistentSearcher.search(new QueryExpression().setText("think")).getFilePaths(),
+          newArrayList("/folder/yyy.txt", "/folder/zzz.txt"));
+      assertTrue(
+          persistentSearcher.search(new QueryExpression().setText("be")).getFilePaths().isEmpty());
+      persistentSearcher.close();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void notifiesCallbackWhenSearcherClosed() throws Exception {
     VirtualFileSystem virtualFileSystem = virtualFileSystem();
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search.impl;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.api.vfs.search.IndexingProgressEvent.Status.FINISHED;
+import static org.eclipse.che.api.vfs.search.IndexingProgressEvent.Status.STARTED;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.lucene.document.Document;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.IndexingProgressEvent;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ParallelTreeIndexer}. Also reports indexing throughput, size of generated tree
+ * may be changed with {@code -Dche.test.indexing.files=100000}.
+ */
+public class ParallelTreeIndexerTest {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelTreeIndexerTest.class);
+
+  private static final int FILES = Integer.getInteger("che.test.indexing.files", 2000);
+  private static final int FILES_PER_FOLDER = 100;
+  private static final int BUILDERS = 4;
+
+  private File root;
+  private VirtualFileSystem virtualFileSystem;
+  private MemoryLuceneSearcher searcher;
+  private ExecutorService executor;
+  private EventService eventService;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    File targetDir =
+        new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath())
+            .getParentFile();
+    root = new File(targetDir, NameGenerator.generate("index-tree-", 4));
+    for (int i = 0; i < FILES; i++) {
+      File folder = new File(root, "folder" + (i / FILES_PER_FOLDER));
+      folder.mkdirs();
+      Files.write(
+          new File(folder, "file" + i + ".txt").toPath(),
+          ("public class File" + i + " { String content = \"text\"; }").getBytes(UTF_8));
+    }
+    virtualFileSystem = new LocalVirtualFileSystem(root, mock(ArchiverFactory.class), null, null);
+
+    VirtualFileFilter filter = mock(VirtualFileFilter.class);
+    when(filter.accept(any(VirtualFile.class))).thenReturn(false);
+    searcher = new MemoryLuceneSearcher(filter, null);
+    searcher.doInit();
+
+    executor = Executors.newFixedThreadPool(BUILDERS + 1);
+    eventService = mock(EventService.class);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    searcher.close();
+    IoUtil.deleteRecursive(root);
+  }
+
+  @Test
+  public void indexesAllFilesOfTree() throws Exception {
+    ParallelTreeIndexer indexer = new ParallelTreeIndexer(searcher, executor, BUILDERS, null);
+
+    long start = System.nanoTime();
+    int indexed = indexer.index(virtualFileSystem.getRoot());
+    long elapsed = Math.max(1, System.nanoTime() - start);
+
+    LOG.info("Indexed {} files, {} files per second", indexed, indexed * 1_000_000_000L / elapsed);
+    assertEquals(indexed, FILES);
+    assertEquals(
+        searcher.search(new QueryExpression().setText("file1")).getFilePaths(),
+        newArrayList("/folder0/file1.txt"));
+    assertEquals(
+        searcher.search(new QueryExpression().setText("content").setMaxItems(1)).getTotalHits(),
+        FILES);
+  }
+
+  @Test
+  public void publishesIndexingProgress() throws Exception {
+    ParallelTreeIndexer indexer =
+        new ParallelTreeIndexer(searcher, executor, BUILDERS, eventService);
+
+    indexer.index(virtualFileSystem.getRoot());
+
+    ArgumentCaptor<IndexingProgressEvent> events =
+        ArgumentCaptor.forClass(IndexingProgressEvent.class);
+    verify(eventService, atLeast(2)).publish(events.capture());
+    List<IndexingProgressEvent> published = events.getAllValues();
+    assertEquals(published.get(0).getStatus(), STARTED);
+    IndexingProgressEvent last = published.get(published.size() - 1);
+    assertEquals(last.getStatus(), FINISHED);
+    assertEquals(last.getIndexedFiles(), FILES);
+    assertTrue(last.getElapsedTimeMillis() >= 0);
+  }
+
+  @Test(expectedExceptions = ServerException.class, timeOut = 60_000)
+  public void failsWhenBuilderFails() throws Exception {
+    VirtualFileFilter filter = mock(VirtualFileFilter.class);
+    when(filter.accept(any(VirtualFile.class))).thenReturn(false);
+    MemoryLuceneSearcher failingSearcher =
+        new MemoryLuceneSearcher(filter, null) {
+          @Override
+          Document buildDocument(VirtualFile virtualFile) throws ServerException {
+            throw new StackOverflowError();
+          }
+        };
+    failingSearcher.doInit();
+    ParallelTreeIndexer indexer =
+        new ParallelTreeIndexer(failingSearcher, executor, BUILDERS, null);
+
+    try {
+      indexer.index(virtualFileSystem.getRoot());
+    } finally {
+      failingSearcher.close();
+    }
+  }
+}
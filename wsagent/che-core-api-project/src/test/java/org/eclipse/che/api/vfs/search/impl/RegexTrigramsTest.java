@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.vfs.search.impl;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Set;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class RegexTrigramsTest {
+
+  @DataProvider
+  public Object[][] expressions() {
+    return new Object[][] {
+      {"getFoo\\(", newHashSet("get", "etf", "tfo", "foo", "oo(")},
+      {"Foo", newHashSet("foo")},
+      {"fo", newHashSet()},
+      {"abc.def", newHashSet("abc", "def")},
+      {"abcd?", newHashSet("abc")},
+      {"abcd*e", newHashSet("abc")},
+      {"abcd+e", newHashSet("abc", "bcd")},
+      {"abcd{2}", newHashSet("abc")},
+      {"abc(def)?ghi", newHashSet("abc", "ghi")},
+      {"abc[def]ghi", newHashSet("abc", "ghi")},
+      {"abc[]x]ghi", newHashSet("abc", "ghi")},
+      {"abc|def", newHashSet()},
+      {"(?i)abc", newHashSet("abc")},
+      {"(?x)a b c", newHashSet()},
+      {"\\Qa.b\\E", newHashSet("a.b")},
+      {"ab\\x41cd", newHashSet()},
+      {"ab\\p{Lu}cde", newHashSet("cde")},
+      {"ab\\tc", newHashSet("ab\t", "b\tc")},
+      {"\\bword\\b", newHashSet("wor", "ord")},
+    };
+  }
+
+  @Test(dataProvider = "expressions")
+  public void extractsRequiredTrigrams(String regex, Set<String> expected) {
+    assertEquals(RegexTrigrams.extract(regex), expected);
+  }
+}
@@ -13,8 +13,12 @@ package org.eclipse.che.api.vfs.watcher;
 import static java.io.File.createTempFile;
 import static java.lang.Thread.sleep;
 import static org.apache.commons.io.FileUtils.write;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -28,6 +32,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -62,6 +67,8 @@ public class FileTreeWalkerTest {
 
   @Mock Consumer<Path> directoryDeleteConsumerMock;
 
+  @Mock FileWatcherService fileWatcherService;
+
   @Before
   public void setUp() throws Exception {
     fileTreeWalker =
@@ -74,7 +81,10 @@ public class FileTreeWalkerTest {
             fileUpdateConsumers,
             fileCreateConsumers,
             fileDeleteConsumers,
-            fileExcludes);
+            fileExcludes,
+            fileWatcherService,
+            0,
+            Integer.MAX_VALUE);
   }
 
   @After
@@ -190,4 +200,167 @@ public class FileTreeWalkerTest {
     fileTreeWalker.walk();
     verify(directoryCreatedConsumerMock, never()).accept(file.toPath());
   }
+
+  @Test
+  public void shouldRunFileCreatedConsumerOnlyForChangedDirectoriesBetweenFullWalks()
+      throws Exception {
+    fileTreeWalker = anIncrementalFileTreeWalker();
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    File watched = rootFolder.newFolder(TEST_FOLDER_NAME);
+    File notWatched = rootFolder.newFolder(TEST_FOLDER_NAME + "-not-watched");
+    fileTreeWalker.walk();
+
+    File watchedFile = new File(watched, TEST_FILE_NAME);
+    watchedFile.createNewFile();
+    File notWatchedFile = new File(notWatched, TEST_FILE_NAME);
+    notWatchedFile.createNewFile();
+    directoryChangeListener().accept(watched.toPath());
+    fileTreeWalker.walk();
+
+    verify(fileCreatedConsumerMock).accept(watchedFile.toPath());
+    verify(fileCreatedConsumerMock, never()).accept(notWatchedFile.toPath());
+  }
+
+  @Test
+  public void shouldRunDeleteConsumersForSubtreeOfDeletedDirectoryOnIncrementalWalk()
+      throws Exception {
+    fileTreeWalker = anIncrementalFileTreeWalker();
+    fileDeleteConsumers.add(fileDeleteConsumerMock);
+    directoryDeleteConsumers.add(directoryDeleteConsumerMock);
+    File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+    File file = new File(folder, TEST_FILE_NAME);
+    file.createNewFile();
+    fileTreeWalker.walk();
+
+    file.delete();
+    folder.delete();
+    directoryChangeListener().accept(folder.toPath());
+    fileTreeWalker.walk();
+    fileTreeWalker.walk();
+
+    verify(fileDeleteConsumerMock).accept(file.toPath());
+    verify(directoryDeleteConsumerMock).accept(folder.toPath());
+    assertEquals(0, fileTreeWalker.getTrackedPathsCount());
+  }
+
+  @Test
+  public void shouldWatchDirectoryThatContainsOnlyDirectories() throws Exception {
+    fileTreeWalker = anIncrementalFileTreeWalker();
+    File parent = rootFolder.newFolder(TEST_FOLDER_NAME);
+    File child = rootFolder.newFolder(TEST_FOLDER_NAME, TEST_FOLDER_NAME);
+
+    fileTreeWalker.walk();
+
+    verify(fileWatcherService).register(rootFolder.getRoot().toPath());
+    verify(fileWatcherService).register(parent.toPath());
+    verify(fileWatcherService).register(child.toPath());
+  }
+
+  @Test
+  public void shouldNotReadDirectoryThatCouldNotBeWatchedBetweenFullWalks() throws Exception {
+    fileTreeWalker = anIncrementalFileTreeWalker();
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    File parent = rootFolder.newFolder(TEST_FOLDER_NAME);
+    rootFolder.newFolder(TEST_FOLDER_NAME, TEST_FOLDER_NAME);
+    when(fileWatcherService.register(parent.toPath())).thenReturn(false);
+    fileTreeWalker.walk();
+
+    File file = new File(parent, TEST_FILE_NAME);
+    file.createNewFile();
+    fileTreeWalker.walk();
+
+    verify(fileCreatedConsumerMock, never()).accept(file.toPath());
+  }
+
+  @Test
+  public void shouldNotWatchMoreDirectoriesThanBudgetAllows() throws Exception {
+    fileTreeWalker = aWatchingFileTreeWalker(Long.MAX_VALUE / 1000, 2);
+    File parent = rootFolder.newFolder(TEST_FOLDER_NAME);
+    File child = rootFolder.newFolder(TEST_FOLDER_NAME, TEST_FOLDER_NAME);
+
+    fileTreeWalker.walk();
+
+    verify(fileWatcherService).register(rootFolder.getRoot().toPath());
+    verify(fileWatcherService).register(parent.toPath());
+    verify(fileWatcherService, never()).register(child.toPath());
+  }
+
+  @Test
+  public void shouldWatchUnwatchedDirectoryOnFullWalkWhenBudgetIsFreed() throws Exception {
+    fileTreeWalker = aWatchingFileTreeWalker(0, 2);
+    File first = rootFolder.newFolder(TEST_FOLDER_NAME);
+    File second = rootFolder.newFolder(TEST_FOLDER_NAME + 2);
+    fileTreeWalker.walk();
+    File unwatched = first.toPath().equals(watchedChild()) ? second : first;
+    File watched = unwatched == first ? second : first;
+
+    watched.delete();
+    fileTreeWalker.walk();
+    fileTreeWalker.walk();
+
+    verify(fileWatcherService).unRegister(watched.toPath());
+    verify(fileWatcherService).register(unwatched.toPath());
+  }
+
+  @Test
+  public void shouldStopWatchingDeletedDirectory() throws Exception {
+    fileTreeWalker = anIncrementalFileTreeWalker();
+    File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+    fileTreeWalker.walk();
+
+    folder.delete();
+    directoryChangeListener().accept(rootFolder.getRoot().toPath());
+    fileTreeWalker.walk();
+
+    verify(fileWatcherService).unRegister(folder.toPath());
+  }
+
+  @Test
+  public void shouldCountTrackedPaths() throws Exception {
+    File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+    new File(folder, TEST_FILE_NAME).createNewFile();
+    rootFolder.newFile(TEST_FILE_NAME);
+
+    fileTreeWalker.walk();
+
+    assertEquals(3, fileTreeWalker.getTrackedPathsCount());
+  }
+
+  private FileTreeWalker anIncrementalFileTreeWalker() {
+    return aWatchingFileTreeWalker(Long.MAX_VALUE / 1000, Integer.MAX_VALUE);
+  }
+
+  private FileTreeWalker aWatchingFileTreeWalker(long fullWalkPeriod, int maxWatchedDirectories) {
+    FileTreeWalker walker =
+        new FileTreeWalker(
+            rootFolder.getRoot(),
+            directoryUpdateConsumers,
+            directoryCreateConsumers,
+            directoryDeleteConsumers,
+            directoryExcludes,
+            fileUpdateConsumers,
+            fileCreateConsumers,
+            fileDeleteConsumers,
+            fileExcludes,
+            fileWatcherService,
+            fullWalkPeriod,
+            maxWatchedDirectories);
+    when(fileWatcherService.register(any(Path.class))).thenReturn(true);
+    walker.subscribe();
+    return walker;
+  }
+
+  /** Returns the only child of root folder registered in watch service. */
+  private Path watchedChild() {
+    ArgumentCaptor<Path> captor = ArgumentCaptor.forClass(Path.class);
+    verify(fileWatcherService, times(2)).register(captor.capture());
+    return captor.getAllValues().get(1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Consumer<Path> directoryChangeListener() {
+    ArgumentCaptor<Consumer> captor = ArgumentCaptor.forClass(Consumer.class);
+    verify(fileWatcherService).addDirectoryChangeListener(captor.capture());
+    return captor.getValue();
+  }
 }
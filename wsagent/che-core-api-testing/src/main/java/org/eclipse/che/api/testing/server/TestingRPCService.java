@@ -16,6 +16,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.testing.server.framework.TestDurations;
 import org.eclipse.che.api.testing.server.framework.TestFrameworkRegistry;
 import org.eclipse.che.api.testing.server.framework.TestMessagesOutputTransmitter;
 import org.eclipse.che.api.testing.server.framework.TestRunner;
@@ -34,15 +35,19 @@ public class TestingRPCService {
 
   private final RequestTransmitter requestTransmitter;
   private final TestFrameworkRegistry frameworkRegistry;
+  private final TestDurations testDurations;
 
   private String endpoint;
   private TestMessagesOutputTransmitter outputTransmitter;
 
   @Inject
   public TestingRPCService(
-      RequestTransmitter requestTransmitter, TestFrameworkRegistry frameworkRegistry) {
+      RequestTransmitter requestTransmitter,
+      TestFrameworkRegistry frameworkRegistry,
+      TestDurations testDurations) {
     this.requestTransmitter = requestTransmitter;
     this.frameworkRegistry = frameworkRegistry;
+    this.testDurations = testDurations;
   }
 
   @Inject
@@ -74,9 +79,17 @@ public class TestingRPCService {
       if (outputTransmitter != null) {
         outputTransmitter.stop();
       }
-      ProcessHandler processHandler = testRunner.execute(context);
+      List<ProcessHandler> processHandlers = testRunner.executeInParallel(context);
+      if (processHandlers.isEmpty()) {
+        return testLaunchResult.withSuccess(false);
+      }
+      String projectPath = context.getProjectPath();
       outputTransmitter =
-          new TestMessagesOutputTransmitter(processHandler, requestTransmitter, endpoint);
+          new TestMessagesOutputTransmitter(
+              processHandlers,
+              requestTransmitter,
+              endpoint,
+              durations -> testDurations.record(projectPath, durations));
       if (context.isDebugModeEnable()) {
         testLaunchResult.withDebugPort(testRunner.getDebugPort());
       }
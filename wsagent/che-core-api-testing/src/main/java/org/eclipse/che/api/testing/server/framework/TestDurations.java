@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.testing.server.framework;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps durations of test classes of projects measured in previous runs, so test classes may be
+ * split between parallel test processes in parts which take about the same time.
+ */
+@Singleton
+public class TestDurations {
+  private static final Logger LOG = LoggerFactory.getLogger(TestDurations.class);
+
+  private static final Gson GSON = new Gson();
+  private static final Type DURATIONS_TYPE = new TypeToken<Map<String, Long>>() {}.getType();
+
+  /** Duration of test class which hasn't run yet when there are no other durations known. */
+  private static final long DEFAULT_DURATION = 1;
+
+  private final Path directory;
+  private final ConcurrentMap<String, Map<String, Long>> projects = new ConcurrentHashMap<>();
+
+  @Inject
+  public TestDurations(@Named("che.testing.durations_dir") String directory) {
+    this.directory = Paths.get(directory);
+  }
+
+  /**
+   * Returns durations of test classes of the project.
+   *
+   * @param projectPath path of the project
+   * @return durations in milliseconds by names of test classes
+   */
+  public Map<String, Long> get(String projectPath) {
+    return new HashMap<>(projects.computeIfAbsent(projectPath, this::read));
+  }
+
+  /**
+   * Stores durations of test classes of the project, durations of other test classes of the
+   * project remain unchanged.
+   *
+   * @param projectPath path of the project
+   * @param durations durations in milliseconds by names of test classes
+   */
+  public void record(String projectPath, Map<String, Long> durations) {
+    if (durations.isEmpty()) {
+      return;
+    }
+    synchronized (this) {
+      Map<String, Long> updated = new HashMap<>(projects.computeIfAbsent(projectPath, this::read));
+      updated.putAll(durations);
+      projects.put(projectPath, updated);
+      write(projectPath, updated);
+    }
+  }
+
+  /**
+   * Splits test classes of the project in parts which should take about the same time to run. The
+   * longest classes are placed first, each into the part with the least total duration. Classes
+   * without known duration are considered as long as the average known class.
+   *
+   * @param projectPath path of the project
+   * @param testClasses names of test classes
+   * @param parts maximum number of parts
+   * @return non empty parts of test classes
+   */
+  public List<List<String>> split(String projectPath, List<String> testClasses, int parts) {
+    Map<String, Long> durations = get(projectPath);
+    long unknown =
+        (long)
+            durations
+                .values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .average()
+                .orElse(DEFAULT_DURATION);
+
+    List<String> sorted = new ArrayList<>(testClasses);
+    sorted.sort(
+        Comparator.<String>comparingLong(testClass -> durations.getOrDefault(testClass, unknown))
+            .reversed()
+            .thenComparing(Comparator.naturalOrder()));
+
+    int count = Math.max(1, Math.min(parts, sorted.size()));
+    List<List<String>> result = new ArrayList<>(count);
+    long[] totals = new long[count];
+    for (int i = 0; i < count; i++) {
+      result.add(new ArrayList<>());
+    }
+    for (String testClass : sorted) {
+      int lightest = 0;
+      for (int i = 1; i < count; i++) {
+        if (totals[i] < totals[lightest]) {
+          lightest = i;
+        }
+      }
+      result.get(lightest).add(testClass);
+      totals[lightest] += Math.max(DEFAULT_DURATION, durations.getOrDefault(testClass, unknown));
+    }
+    result.removeIf(List::isEmpty);
+    return result;
+  }
+
+  private Map<String, Long> read(String projectPath) {
+    try (Reader reader = Files.newBufferedReader(file(projectPath), UTF_8)) {
+      Map<String, Long> durations = GSON.fromJson(reader, DURATIONS_TYPE);
+      return durations == null ? new HashMap<>() : durations;
+    } catch (NoSuchFileException e) {
+      return new HashMap<>();
+    } catch (IOException | JsonParseException e) {
+      LOG.warn("Can't read durations of tests of project {}: {}", projectPath, e.getMessage());
+      return new HashMap<>();
+    }
+  }
+
+  private void write(String projectPath, Map<String, Long> durations) {
+    Path file = file(projectPath);
+    try {
+      Files.createDirectories(directory);
+      Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try {
+        try (Writer writer = Files.newBufferedWriter(tmp, UTF_8)) {
+          GSON.toJson(durations, DURATIONS_TYPE, writer);
+        }
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      LOG.warn("Can't store durations of tests of project {}: {}", projectPath, e.getMessage());
+    }
+  }
+
+  private Path file(String projectPath) {
+    try {
+      return directory.resolve(URLEncoder.encode(projectPath, "UTF-8") + ".json");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
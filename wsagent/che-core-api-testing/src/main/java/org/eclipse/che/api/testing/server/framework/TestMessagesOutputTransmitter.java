@@ -10,113 +10,224 @@
  */
 package org.eclipse.che.api.testing.server.framework;
 
+import static java.util.Collections.singletonList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.testing.server.messages.ServerTestingMessage;
 import org.eclipse.che.api.testing.server.messages.UncapturedOutputMessage;
 import org.eclipse.che.api.testing.shared.Constants;
+import org.eclipse.che.api.testing.shared.messages.TestingMessageNames;
 import org.eclipse.che.commons.lang.execution.ProcessEvent;
 import org.eclipse.che.commons.lang.execution.ProcessHandler;
 import org.eclipse.che.commons.lang.execution.ProcessListener;
 import org.eclipse.che.commons.lang.execution.ProcessOutputType;
 
-/** Process and send testing messages to the client */
+/**
+ * Process and send testing messages to the client.
+ *
+ * <p>Tests may run in several processes at once. Then messages of a test suite are sent together
+ * when the suite is finished, so messages of different processes aren't mixed, and messages which
+ * describe the whole run are sent only once.
+ */
 public class TestMessagesOutputTransmitter {
+  private static final Set<String> SUITE_STARTED =
+      new HashSet<>(
+          Arrays.asList(
+              TestingMessageNames.TEST_SUITE_STARTED, TestingMessageNames.SUITE_TREE_STARTED));
+  private static final Set<String> SUITE_FINISHED =
+      new HashSet<>(
+          Arrays.asList(
+              TestingMessageNames.TEST_SUITE_FINISHED, TestingMessageNames.SUITE_TREE_ENDED));
+  private static final Set<String> ONCE_PER_RUN =
+      new HashSet<>(
+          Arrays.asList(
+              TestingMessageNames.ROOT_PRESENTATION, TestingMessageNames.TEST_REPORTER_ATTACHED));
+  private static final String DURATION = "duration";
+  private static final String NAME = "name";
 
   private final RequestTransmitter requestTransmitter;
   private final String endpoint;
-  private final LineSplitter lineSplitter;
-  private ProcessHandler processHandler;
+  private final List<ProcessHandler> processHandlers;
+  private final Consumer<Map<String, Long>> durationsConsumer;
+  private final AtomicInteger runningProcesses;
+  private final Set<String> sentOncePerRun = new HashSet<>();
+  private final Map<String, Long> suiteDurations = new HashMap<>();
 
   public TestMessagesOutputTransmitter(
       ProcessHandler processHandler, RequestTransmitter requestTransmitter, String endpoint) {
-    this.processHandler = processHandler;
-    this.requestTransmitter = requestTransmitter;
-    this.endpoint = endpoint;
-
-    lineSplitter = new LineSplitter(this::processLine);
-
-    processHandler.addProcessListener(
-        new ProcessListener() {
-          @Override
-          public void onStart(ProcessEvent event) {
-            processStartTesting();
-          }
-
-          @Override
-          public void onText(ProcessEvent event, ProcessOutputType outputType) {
-            process(event.getText(), outputType);
-          }
-
-          @Override
-          public void onProcessTerminated(ProcessEvent event) {
-            processTestingStopped();
-          }
-
-          @Override
-          public void onProcessWillTerminate(ProcessEvent event) {
-            //ignore
-          }
-        });
-
-    processHandler.startNotify();
+    this(singletonList(processHandler), requestTransmitter, endpoint, durations -> {});
   }
 
-  private void processLine(String line, ProcessOutputType outputType) {
-    if (!processTestingMessage(line)) {
-      sendOutput(line, outputType);
+  /**
+   * Creates transmitter of messages of several test processes.
+   *
+   * @param processHandlers test processes
+   * @param requestTransmitter transmitter of messages to the client
+   * @param endpoint endpoint of the client
+   * @param durationsConsumer consumer of durations of test suites by their names, it is called
+   *     when all processes are terminated
+   */
+  public TestMessagesOutputTransmitter(
+      List<ProcessHandler> processHandlers,
+      RequestTransmitter requestTransmitter,
+      String endpoint,
+      Consumer<Map<String, Long>> durationsConsumer) {
+    this.processHandlers = processHandlers;
+    this.requestTransmitter = requestTransmitter;
+    this.endpoint = endpoint;
+    this.durationsConsumer = durationsConsumer;
+    this.runningProcesses = new AtomicInteger(processHandlers.size());
+
+    processStartTesting();
+    for (ProcessHandler processHandler : processHandlers) {
+      ProcessOutput output = new ProcessOutput(processHandlers.size() > 1);
+      processHandler.addProcessListener(
+          new ProcessListener() {
+            @Override
+            public void onStart(ProcessEvent event) {
+              //ignore
+            }
+
+            @Override
+            public void onText(ProcessEvent event, ProcessOutputType outputType) {
+              output.process(event.getText(), outputType);
+            }
+
+            @Override
+            public void onProcessTerminated(ProcessEvent event) {
+              output.flush();
+              if (runningProcesses.decrementAndGet() == 0) {
+                processTestingStopped();
+              }
+            }
+
+            @Override
+            public void onProcessWillTerminate(ProcessEvent event) {
+              //ignore
+            }
+          });
+    }
+    for (ProcessHandler processHandler : processHandlers) {
+      processHandler.startNotify();
     }
   }
 
-  private void sendOutput(String text, ProcessOutputType outputType) {
-    UncapturedOutputMessage message = new UncapturedOutputMessage(text, outputType);
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpoint)
-        .methodName(Constants.TESTING_RPC_METHOD_NAME)
-        .paramsAsString(message.asJsonString())
-        .sendAndSkipResult();
-  }
-
-  private boolean processTestingMessage(String line) {
-    ServerTestingMessage message = ServerTestingMessage.parse(line.trim());
-    if (message != null) {
+  private synchronized void send(List<String> messages) {
+    for (String message : messages) {
       requestTransmitter
           .newRequest()
           .endpointId(endpoint)
           .methodName(Constants.TESTING_RPC_METHOD_NAME)
-          .paramsAsString(message.asJsonString())
+          .paramsAsString(message)
           .sendAndSkipResult();
-      return true;
     }
-    return false;
   }
 
-  private void processTestingStopped() {
-    lineSplitter.flush();
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpoint)
-        .methodName(Constants.TESTING_RPC_METHOD_NAME)
-        .paramsAsString(ServerTestingMessage.FINISH_TESTING.asJsonString())
-        .sendAndSkipResult();
+  private synchronized boolean isSentOncePerRun(String messageName) {
+    return !sentOncePerRun.add(messageName);
   }
 
-  private void process(String text, ProcessOutputType outputType) {
-    lineSplitter.process(text, outputType);
+  private synchronized void addDuration(String suite, long duration) {
+    suiteDurations.merge(suite, duration, Long::sum);
+  }
+
+  private void processTestingStopped() {
+    send(singletonList(ServerTestingMessage.FINISH_TESTING.asJsonString()));
+    Map<String, Long> durations;
+    synchronized (this) {
+      durations = new HashMap<>(suiteDurations);
+    }
+    durationsConsumer.accept(durations);
   }
 
   private void processStartTesting() {
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpoint)
-        .methodName(Constants.TESTING_RPC_METHOD_NAME)
-        .paramsAsString(ServerTestingMessage.TESTING_STARTED.asJsonString())
-        .sendAndSkipResult();
+    send(singletonList(ServerTestingMessage.TESTING_STARTED.asJsonString()));
   }
 
   public void stop() {
-    if (!processHandler.isProcessTerminated()) {
-      processHandler.destroyProcess();
+    for (ProcessHandler processHandler : processHandlers) {
+      if (!processHandler.isProcessTerminated()) {
+        processHandler.destroyProcess();
+      }
+    }
+  }
+
+  /** Output of one of test processes. */
+  private class ProcessOutput {
+    private final boolean keepSuitesTogether;
+    private final LineSplitter lineSplitter;
+    /** Names of started suites, the outermost is the last. */
+    private final Deque<String> suites = new ArrayDeque<>();
+
+    private List<String> suiteMessages = new ArrayList<>();
+
+    private ProcessOutput(boolean keepSuitesTogether) {
+      this.keepSuitesTogether = keepSuitesTogether;
+      this.lineSplitter = new LineSplitter(this::processLine);
+    }
+
+    private synchronized void process(String text, ProcessOutputType outputType) {
+      lineSplitter.process(text, outputType);
+    }
+
+    private synchronized void flush() {
+      lineSplitter.flush();
+      if (!suiteMessages.isEmpty()) {
+        send(suiteMessages);
+        suiteMessages = new ArrayList<>();
+      }
+    }
+
+    private void processLine(String line, ProcessOutputType outputType) {
+      ServerTestingMessage message = ServerTestingMessage.parse(line.trim());
+      if (message == null) {
+        processMessage(new UncapturedOutputMessage(line, outputType).asJsonString());
+        return;
+      }
+
+      String name = message.getName();
+      Map<String, String> attributes = message.getAttributes();
+      if (keepSuitesTogether && ONCE_PER_RUN.contains(name) && isSentOncePerRun(name)) {
+        return;
+      }
+      if (SUITE_STARTED.contains(name)) {
+        suites.push(String.valueOf(attributes.get(NAME)));
+      } else if (TestingMessageNames.TEST_FINISHED.equals(name) && !suites.isEmpty()) {
+        try {
+          addDuration(suites.peekLast(), Long.parseLong(attributes.get(DURATION)));
+        } catch (NumberFormatException ignored) {
+          // duration isn't reported
+        }
+      }
+
+      processMessage(message.asJsonString());
+
+      if (SUITE_FINISHED.contains(name) && !suites.isEmpty()) {
+        suites.pop();
+        if (suites.isEmpty() && !suiteMessages.isEmpty()) {
+          send(suiteMessages);
+          suiteMessages = new ArrayList<>();
+        }
+      }
+    }
+
+    private void processMessage(String message) {
+      if (keepSuitesTogether && !suites.isEmpty()) {
+        suiteMessages.add(message);
+      } else {
+        send(singletonList(message));
+      }
     }
   }
 }
@@ -10,6 +10,9 @@
  */
 package org.eclipse.che.api.testing.server.framework;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
 import java.util.List;
 import java.util.Map;
 import javax.validation.constraints.NotNull;
@@ -68,6 +71,20 @@ public interface TestRunner {
   @Nullable
   ProcessHandler execute(TestExecutionContext context);
 
+  /**
+   * Executes tests in one or several processes which run at the same time. Test frameworks which
+   * can split tests between processes should override this method, by default tests are executed
+   * by the only process started by {@link #execute(TestExecutionContext)}.
+   *
+   * @param context the context of tests execution
+   * @return handlers of started processes, empty list if tests can't be executed
+   */
+  @NotNull
+  default List<ProcessHandler> executeInParallel(TestExecutionContext context) {
+    ProcessHandler processHandler = execute(context);
+    return processHandler == null ? emptyList() : singletonList(processHandler);
+  }
+
   /**
    * The test runner framework will call this method to get the framework name for registration.
    *
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.testing.server.framework;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link TestDurations}. */
+public class TestDurationsTest {
+  private static final String PROJECT = "/project";
+
+  private File directory;
+  private TestDurations durations;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("test-durations").toFile();
+    durations = new TestDurations(directory.getPath());
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void shouldKeepDurationsBetweenRestarts() {
+    durations.record(PROJECT, durations("a.ATest", 100, "a.BTest", 200));
+    durations.record(PROJECT, durations("a.BTest", 300, "a.CTest", 50));
+
+    Map<String, Long> restored = new TestDurations(directory.getPath()).get(PROJECT);
+
+    assertEquals(restored, durations("a.ATest", 100, "a.BTest", 300, "a.CTest", 50));
+    assertTrue(new TestDurations(directory.getPath()).get("/other").isEmpty());
+  }
+
+  @Test
+  public void shouldSplitClassesInPartsWithEqualDurations() {
+    durations.record(
+        PROJECT, durations("ATest", 400, "BTest", 300, "CTest", 200, "DTest", 100, "ETest", 100));
+
+    List<List<String>> parts =
+        durations.split(PROJECT, asList("ETest", "DTest", "CTest", "BTest", "ATest"), 2);
+
+    assertEquals(parts, asList(asList("ATest", "DTest", "ETest"), asList("BTest", "CTest")));
+  }
+
+  @Test
+  public void shouldSplitClassesWithUnknownDurationsEvenly() {
+    List<List<String>> parts =
+        durations.split(PROJECT, asList("ATest", "BTest", "CTest", "DTest", "ETest"), 3);
+
+    assertEquals(
+        parts, asList(asList("ATest", "DTest"), asList("BTest", "ETest"), asList("CTest")));
+  }
+
+  @Test
+  public void shouldNotCreateMorePartsThanClasses() {
+    assertEquals(durations.split(PROJECT, singletonList("ATest"), 4), asList(asList("ATest")));
+  }
+
+  private static Map<String, Long> durations(Object... classesAndDurations) {
+    Map<String, Long> result = new HashMap<>();
+    for (int i = 0; i < classesAndDurations.length; i += 2) {
+      result.put(
+          (String) classesAndDurations[i], ((Integer) classesAndDurations[i + 1]).longValue());
+    }
+    return result;
+  }
+}
@@ -11,11 +11,14 @@
  */
 package org.eclipse.che.git.impl.jgit;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import java.io.File;
 import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -27,32 +30,68 @@ import org.eclipse.che.api.git.GitUserResolver;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
 import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.WindowCacheConfig;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.lib.RepositoryCache.FileKey;
+import org.eclipse.jgit.lib.RepositoryCacheConfig;
 import org.eclipse.jgit.transport.UserAgent;
+import org.eclipse.jgit.util.FS;
 
 /**
  * JGit implementation for GitConnectionFactory
  *
+ * <p>Existing repositories are shared between connections through {@link RepositoryCache}, so
+ * configuration, references and pack indexes of a repository are not re-read for each connection.
+ * Repository is released when connection is closed and evicted from the cache after it hasn't been
+ * used for {@code che.git.jgit.repository_cache.expire_after_s} seconds. Sizes of JGit caches of
+ * pack files and delta bases are configured as well.
+ *
  * @author Tareq Sharafy (tareq.sha@gmail.com)
  */
 public class JGitConnectionFactory extends GitConnectionFactory {
 
   private static final String USER_AGENT = "git/2.1.0";
 
+  private static final int MB = 1024 * 1024;
+
   private final CredentialsLoader credentialsLoader;
   private final SshKeyProvider sshKeyProvider;
   private final GitUserResolver userResolver;
+  private final boolean repositoryCacheEnabled;
 
+  /**
+   * Creates factory of JGit connections.
+   *
+   * @param repositoryExpireAfterSeconds time in seconds after which unused repository is evicted
+   *     from the cache of opened repositories, 0 disables the cache
+   * @param packedGitLimitMb max size in megabytes of pack files data cached in memory
+   * @param deltaBaseCacheLimitMb max size in megabytes of cache of delta bases
+   */
   @Inject
   public JGitConnectionFactory(
       CredentialsLoader credentialsLoader,
       SshKeyProvider sshKeyProvider,
-      GitUserResolver userResolver)
+      GitUserResolver userResolver,
+      @Named("che.git.jgit.repository_cache.expire_after_s") long repositoryExpireAfterSeconds,
+      @Named("che.git.jgit.packed_git_limit_mb") int packedGitLimitMb,
+      @Named("che.git.jgit.delta_base_cache_limit_mb") int deltaBaseCacheLimitMb)
       throws GitException {
     this.credentialsLoader = credentialsLoader;
     this.sshKeyProvider = sshKeyProvider;
     this.userResolver = userResolver;
+    this.repositoryCacheEnabled = repositoryExpireAfterSeconds > 0;
+
+    if (repositoryCacheEnabled) {
+      RepositoryCacheConfig repositoryCacheConfig = new RepositoryCacheConfig();
+      repositoryCacheConfig.setExpireAfter(SECONDS.toMillis(repositoryExpireAfterSeconds));
+      repositoryCacheConfig.install();
+    }
+    WindowCacheConfig windowCacheConfig = new WindowCacheConfig();
+    windowCacheConfig.setPackedGitLimit((long) packedGitLimitMb * MB);
+    windowCacheConfig.setDeltaBaseCacheLimit(deltaBaseCacheLimitMb * MB);
+    windowCacheConfig.install();
 
     UserAgent.set(USER_AGENT);
     // Install the all-trusting trust manager
@@ -83,15 +122,29 @@ public class JGitConnectionFactory extends GitConnectionFactory {
   @Override
   public JGitConnection getConnection(File workDir, LineConsumerFactory outputPublisherFactory)
       throws GitException {
-    Repository gitRepo = createRepository(workDir);
+    Repository gitRepo = openRepository(workDir);
     JGitConnection conn =
         new JGitConnection(gitRepo, credentialsLoader, sshKeyProvider, userResolver);
     conn.setOutputLineConsumerFactory(outputPublisherFactory);
     return conn;
   }
 
-  private static Repository createRepository(File workDir) throws GitException {
+  /**
+   * Opens repository of the given working directory. Existing repository is taken from {@link
+   * RepositoryCache} if cache is enabled, connection releases it on close. Repository which doesn't
+   * exist yet, e.g. one that is going to be cloned or initialized, is not cached.
+   */
+  private Repository openRepository(File workDir) throws GitException {
     try {
+      if (repositoryCacheEnabled) {
+        final FileKey key =
+            FileKey.exact(new File(workDir, Constants.DOT_GIT).getCanonicalFile(), FS.DETECTED);
+        if (FileKey.isGitRepository(key.getFile(), FS.DETECTED)) {
+          return RepositoryCache.open(key);
+        }
+        // drop repository which was cached before it has been removed
+        RepositoryCache.unregister(key);
+      }
       return new FileRepository(new File(workDir, Constants.DOT_GIT));
     } catch (IOException e) {
       throw new GitException(e.getMessage(), e);
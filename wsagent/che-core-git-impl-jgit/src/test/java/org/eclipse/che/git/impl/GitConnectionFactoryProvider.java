@@ -32,7 +32,7 @@ public class GitConnectionFactoryProvider {
     return new Object[][] {
       new Object[] {
         new JGitConnectionFactory(
-            mock(CredentialsLoader.class), mock(SshKeyProvider.class), resolver)
+            mock(CredentialsLoader.class), mock(SshKeyProvider.class), resolver, 600, 10, 10)
       }
     };
   }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.git.CredentialsLoader;
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitUserResolver;
+import org.eclipse.che.api.git.params.LogParams;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares latency of git operations done over new connection each time, as git service does it,
+ * with and without cache of opened repositories in {@link JGitConnectionFactory}. The benchmark
+ * runs only if system property {@code che.test.benchmarks} is {@code true}. Number of commits in
+ * the repository and number of operations may be changed with system properties {@code
+ * che.test.git.commits} and {@code che.test.git.operations}.
+ */
+public class JGitConnectionFactoryBenchmarkTest {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(JGitConnectionFactoryBenchmarkTest.class);
+
+  private static final String FILE = "README.txt";
+  private static final String CONTENT = "benchmark\n";
+
+  private File repository;
+  private JGitConnectionFactory cachingFactory;
+  private JGitConnectionFactory nonCachingFactory;
+
+  @BeforeClass
+  public void setUp() throws Exception {
+    if (!Boolean.getBoolean("che.test.benchmarks")) {
+      throw new SkipException("Benchmarks are enabled with system property che.test.benchmarks");
+    }
+    repository = Files.createTempDir();
+    createRepository(repository, Integer.getInteger("che.test.git.commits", 50_000));
+    cachingFactory = createFactory(600);
+    nonCachingFactory = createFactory(0);
+  }
+
+  @AfterClass
+  public void cleanUp() {
+    if (repository != null) {
+      IoUtil.deleteRecursive(repository);
+    }
+  }
+
+  @Test
+  public void benchmarkOperationsWithAndWithoutRepositoryCache() throws Exception {
+    final int operations = Integer.getInteger("che.test.git.operations", 200);
+    checkOperations(cachingFactory);
+    checkOperations(nonCachingFactory);
+
+    measureOperations("not cached", operations, nonCachingFactory);
+    measureOperations("cached", operations, cachingFactory);
+  }
+
+  private void checkOperations(JGitConnectionFactory factory) throws Exception {
+    try (GitConnection connection = factory.getConnection(repository)) {
+      assertEquals(connection.log(LogParams.create().withMaxCount(30)).getCommits().size(), 30);
+      assertEquals(connection.showFileContent(FILE, Constants.HEAD).getContent(), CONTENT);
+      assertTrue(connection.status(StatusFormat.SHORT).isClean());
+    }
+  }
+
+  private void measureOperations(String name, int operations, JGitConnectionFactory factory)
+      throws Exception {
+    measure(
+        "log, " + name,
+        operations,
+        factory,
+        connection -> connection.log(LogParams.create().withMaxCount(30)));
+    measure(
+        "status, " + name,
+        operations,
+        factory,
+        connection -> connection.status(StatusFormat.SHORT));
+    measure(
+        "showFileContent, " + name,
+        operations,
+        factory,
+        connection -> connection.showFileContent(FILE, Constants.HEAD));
+  }
+
+  private void measure(
+      String name, int operations, JGitConnectionFactory factory, Operation operation)
+      throws Exception {
+    // warm up
+    for (int i = 0; i < operations / 10; i++) {
+      try (GitConnection connection = factory.getConnection(repository)) {
+        operation.execute(connection);
+      }
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < operations; i++) {
+      try (GitConnection connection = factory.getConnection(repository)) {
+        operation.execute(connection);
+      }
+    }
+    LOG.info(
+        "{}: {} us average latency of {} operations",
+        name,
+        TimeUnit.NANOSECONDS.toMicros((System.nanoTime() - start) / operations),
+        operations);
+  }
+
+  private static JGitConnectionFactory createFactory(long repositoryExpireAfterSeconds)
+      throws Exception {
+    return new JGitConnectionFactory(
+        mock(CredentialsLoader.class),
+        mock(SshKeyProvider.class),
+        mock(GitUserResolver.class),
+        repositoryExpireAfterSeconds,
+        10,
+        10);
+  }
+
+  /**
+   * Creates repository with the given number of commits, all commits after the first one have the
+   * same tree, so work tree stays clean. Objects are packed as in a cloned repository.
+   */
+  private static void createRepository(File workDir, int commits) throws Exception {
+    Files.write(CONTENT, new File(workDir, FILE), UTF_8);
+    try (Git git = Git.init().setDirectory(workDir).call()) {
+      final Repository repository = git.getRepository();
+      final PersonIdent ident = new PersonIdent("che", "che@eclipse.org");
+      git.add().addFilepattern(FILE).call();
+      final RevCommit initial =
+          git.commit().setMessage("Initial commit").setAuthor(ident).setCommitter(ident).call();
+
+      ObjectId head = initial;
+      try (ObjectInserter inserter = repository.newObjectInserter()) {
+        for (int i = 1; i < commits; i++) {
+          final CommitBuilder commit = new CommitBuilder();
+          commit.setTreeId(initial.getTree());
+          commit.setParentId(head);
+          commit.setAuthor(ident);
+          commit.setCommitter(ident);
+          commit.setMessage("Commit " + i);
+          head = inserter.insert(commit);
+        }
+        inserter.flush();
+      }
+      final RefUpdate headUpdate = repository.updateRef(Constants.HEAD);
+      headUpdate.setNewObjectId(head);
+      headUpdate.forceUpdate();
+      git.gc().call();
+    }
+  }
+
+  private interface Operation {
+    void execute(GitConnection connection) throws Exception;
+  }
+}
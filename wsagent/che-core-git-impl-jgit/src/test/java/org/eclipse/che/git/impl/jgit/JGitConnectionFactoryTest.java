@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.git.CredentialsLoader;
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitUserResolver;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for cache of opened repositories of {@link JGitConnectionFactory}. */
+public class JGitConnectionFactoryTest {
+  private File workDir;
+  private JGitConnectionFactory factory;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    workDir = Files.createTempDir();
+    Files.write("content\n", new File(workDir, "README.txt"), UTF_8);
+    try (Git git = Git.init().setDirectory(workDir).call()) {
+      git.add().addFilepattern("README.txt").call();
+      git.commit().setMessage("Initial commit").call();
+    }
+    factory =
+        new JGitConnectionFactory(
+            mock(CredentialsLoader.class),
+            mock(SshKeyProvider.class),
+            mock(GitUserResolver.class),
+            1,
+            10,
+            10);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    IoUtil.deleteRecursive(workDir);
+  }
+
+  @Test
+  public void shouldShareRepositoryBetweenConnections() throws Exception {
+    try (GitConnection first = factory.getConnection(workDir);
+        GitConnection second = factory.getConnection(workDir)) {
+      assertSame(getRepository(first), getRepository(second));
+      assertTrue(RepositoryCache.isCached(getRepository(first)));
+    }
+  }
+
+  @Test
+  public void shouldEvictRepositoryOnlyWhenAllConnectionsAreClosed() throws Exception {
+    final Repository repository;
+    try (GitConnection first = factory.getConnection(workDir)) {
+      repository = getRepository(first);
+      factory.getConnection(workDir).close();
+
+      Thread.sleep(TimeUnit.SECONDS.toMillis(3));
+      assertTrue(RepositoryCache.isCached(repository));
+    }
+
+    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    while (RepositoryCache.isCached(repository) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    assertFalse(RepositoryCache.isCached(repository));
+  }
+
+  private static Repository getRepository(GitConnection connection) throws Exception {
+    final Field field = JGitConnection.class.getDeclaredField("repository");
+    field.setAccessible(true);
+    return (Repository) field.get(connection);
+  }
+}
@@ -22,14 +22,20 @@ import static org.slf4j.LoggerFactory.getLogger;
 import com.google.common.annotations.VisibleForTesting;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -122,6 +128,7 @@ public class CheEnvironmentEngine {
   private final ContainerNameGenerator containerNameGenerator;
   private final AgentRegistry agentRegistry;
   private final WorkspaceSharedPool sharedPool;
+  private final int machineStartParallelism;
 
   private volatile boolean isPreDestroyInvoked;
 
@@ -140,7 +147,8 @@ public class CheEnvironmentEngine {
       RecipeDownloader recipeDownloader,
       ContainerNameGenerator containerNameGenerator,
       AgentRegistry agentRegistry,
-      WorkspaceSharedPool sharedPool) {
+      WorkspaceSharedPool sharedPool,
+      @Named("che.workspace.machine_start_parallelism") int machineStartParallelism) {
     this.snapshotDao = snapshotDao;
     this.eventService = eventService;
     this.environmentParser = environmentParser;
@@ -150,6 +158,7 @@ public class CheEnvironmentEngine {
     this.recipeDownloader = recipeDownloader;
     this.agentRegistry = agentRegistry;
     this.sharedPool = sharedPool;
+    this.machineStartParallelism = machineStartParallelism;
     this.environments = new ConcurrentHashMap<>();
     this.machineInstanceProviders = machineInstanceProviders;
     this.machineLogsDir = new File(machineLogsDir);
@@ -548,13 +557,13 @@ public class CheEnvironmentEngine {
 
     normalize(ownerName, workspaceId, internalEnv);
 
-    List<String> servicesOrder = startStrategy.order(internalEnv);
+    Map<String, Set<String>> startGraph = startStrategy.dependencies(internalEnv);
 
     normalizeNames(internalEnv);
 
     EnvironmentHolder environmentHolder =
         new EnvironmentHolder(
-            servicesOrder,
+            startGraph,
             internalEnv,
             envConfig,
             messageConsumer,
@@ -697,7 +706,10 @@ public class CheEnvironmentEngine {
             workspaceId, service.getId(), ownerName, machineName));
   }
 
-  /** Starts all machine from machine queue of environment. */
+  /**
+   * Starts all machines of environment. Machines which do not depend on each other are started
+   * concurrently, at most {@code machineStartParallelism} at once.
+   */
   private void startEnvironmentQueue(
       String ownerName,
       String workspaceId,
@@ -706,11 +718,9 @@ public class CheEnvironmentEngine {
       boolean recover,
       MachineStartedHandler startedHandler)
       throws ServerException, AgentException, EnvironmentException {
-    // Starting all machines in environment one by one by getting configs
-    // from the corresponding starting queue.
-    // Config will be null only if there are no machines left in the queue
     String envName;
     MessageConsumer<MachineLogMessage> envLogger;
+    Map<String, Set<String>> startGraph;
     String creator = EnvironmentContext.getCurrent().getSubject().getUserId();
     try (@SuppressWarnings("unused")
         Unlocker u = stripedLocks.readLock(workspaceId)) {
@@ -720,136 +730,37 @@ public class CheEnvironmentEngine {
       }
       envName = environmentHolder.name;
       envLogger = environmentHolder.logger;
+      startGraph = new LinkedHashMap<>(environmentHolder.startGraph);
     }
 
     try {
       machineProvider.createNetwork(networkId);
 
-      String machineName = queuePeekOrFail(workspaceId);
-      while (machineName != null) {
-        boolean isDev = devMachineName.equals(machineName);
-        // Environment start is failed when any machine start is failed, so if any error
-        // occurs during machine creation then environment start fail is reported and
-        // start resources such as queue and descriptor must be cleaned up
-
-        CheServiceImpl service;
-        @Nullable ExtendedMachine extendedMachine;
-        try (@SuppressWarnings("unused")
-            Unlocker u = stripedLocks.readLock(workspaceId)) {
-          EnvironmentHolder environmentHolder = environments.get(workspaceId);
-          if (environmentHolder == null) {
-            throw new EnvironmentStartInterruptedException(workspaceId, envName);
-          }
-          service = environmentHolder.environment.getServices().get(machineName);
-          extendedMachine = environmentHolder.environmentConfig.getMachines().get(machineName);
-        }
-        // should not happen
-        if (service == null) {
-          LOG.error(
-              "Start of machine with name {} in workspace {} failed. Machine not found in start queue",
-              machineName,
-              workspaceId);
-          throw new ServerException(
-              format(
-                  "Environment of workspace with ID '%s' failed due to internal error",
-                  workspaceId));
-        }
-
-        final String finalMachineName = machineName;
-        // needed to reuse startInstance method and
-        // create machine instances by different implementation-specific providers
-        MachineStarter machineStarter =
-            (machineLogger, machineSource) -> {
-              CheServiceImpl serviceWithNormalizedSource =
-                  normalizeServiceSource(service, machineSource);
-              return machineProvider.startService(
+      EnvironmentMachineStarter machineStarter =
+          machineName ->
+              startEnvironmentMachine(
                   ownerName,
                   workspaceId,
                   envName,
-                  finalMachineName,
-                  isDev,
+                  devMachineName,
                   networkId,
-                  serviceWithNormalizedSource,
-                  machineLogger);
-            };
-
-        MachineImpl machine =
-            MachineImpl.builder()
-                .setConfig(
-                    MachineConfigImpl.builder()
-                        .setDev(isDev)
-                        .setLimits(new MachineLimitsImpl(bytesToMB(service.getMemLimit())))
-                        .setType("docker")
-                        .setName(machineName)
-                        .setEnvVariables(service.getEnvironment())
-                        .build())
-                .setId(service.getId())
-                .setWorkspaceId(workspaceId)
-                .setStatus(MachineStatus.CREATING)
-                .setEnvName(envName)
-                .setOwner(creator)
-                .build();
-
-        checkInterruption(workspaceId, envName);
-        Instance instance = startInstance(recover, envLogger, machine, machineStarter);
-        checkInterruption(workspaceId, envName);
-
-        startedHandler.started(instance, extendedMachine);
-        checkInterruption(workspaceId, envName);
-
-        // Machine destroying is an expensive operation which must be
-        // performed outside of the lock, this section checks if
-        // the environment wasn't stopped while it is starting and sets
-        // polled flag to true if the environment wasn't stopped.
-        // Also polls the proceeded machine configuration from the queue
-        boolean queuePolled = false;
-        try (@SuppressWarnings("unused")
-            Unlocker u = stripedLocks.writeLock(workspaceId)) {
-          ensurePreDestroyIsNotExecuted();
-          EnvironmentHolder environmentHolder = environments.get(workspaceId);
-          if (environmentHolder != null) {
-            final Queue<String> queue = environmentHolder.startQueue;
-            if (queue != null) {
-              queue.poll();
-              queuePolled = true;
-            }
-          }
-        }
-
-        // If machine config is not polled from the queue
-        // then environment was stopped and newly created machine
-        // must be destroyed
-        if (!queuePolled) {
-          try {
-            eventService.publish(
-                newDto(MachineStatusEvent.class)
-                    .withEventType(MachineStatusEvent.EventType.DESTROYING)
-                    .withDev(isDev)
-                    .withMachineName(machineName)
-                    .withMachineId(instance.getId())
-                    .withWorkspaceId(workspaceId));
-
-            instance.destroy();
-
-            removeMachine(workspaceId, instance.getId());
-
-            eventService.publish(
-                newDto(MachineStatusEvent.class)
-                    .withEventType(MachineStatusEvent.EventType.DESTROYED)
-                    .withDev(isDev)
-                    .withMachineName(machineName)
-                    .withMachineId(instance.getId())
-                    .withWorkspaceId(workspaceId));
-          } catch (MachineException e) {
-            LOG.error(e.getLocalizedMessage(), e);
-          }
-          throw new ServerException(
-              "Workspace '"
-                  + workspaceId
-                  + "' start interrupted. Workspace stopped before all its machines started");
+                  recover,
+                  creator,
+                  envLogger,
+                  startedHandler,
+                  machineName);
+
+      if (machineStartParallelism > 1 && startGraph.size() > 1) {
+        startMachinesConcurrently(workspaceId, envName, startGraph, machineStarter);
+      } else {
+        // Starting all machines in environment one by one by getting names
+        // from the corresponding start graph.
+        // Name will be null only if there are no machines left in the graph
+        String machineName = queuePeekOrFail(workspaceId);
+        while (machineName != null) {
+          machineStarter.start(machineName);
+          machineName = queuePeekOrFail(workspaceId);
         }
-
-        machineName = queuePeekOrFail(workspaceId);
       }
     } catch (Exception e) {
       boolean interrupted = Thread.interrupted();
@@ -878,6 +789,227 @@ public class CheEnvironmentEngine {
     }
   }
 
+  /**
+   * Starts machines on the shared pool as soon as all machines they depend on are started. While
+   * waiting for started machines the calling thread starts machines which are not taken by the
+   * pool yet, so the start proceeds even if all threads of the pool are busy. When start of a
+   * machine fails starts of other machines are interrupted.
+   */
+  private void startMachinesConcurrently(
+      String workspaceId,
+      String envName,
+      Map<String, Set<String>> startGraph,
+      EnvironmentMachineStarter machineStarter)
+      throws Exception {
+    final Map<String, Set<String>> pending = new LinkedHashMap<>(startGraph);
+    final Set<String> started = new HashSet<>();
+    final List<MachineStartTask> running = new ArrayList<>();
+    final BlockingQueue<MachineStartTask> completed = new LinkedBlockingQueue<>();
+    Throwable failure = null;
+    try {
+      while (failure == null && (!pending.isEmpty() || !running.isEmpty())) {
+        for (Iterator<Map.Entry<String, Set<String>>> it = pending.entrySet().iterator();
+            it.hasNext() && running.size() < machineStartParallelism;
+            ) {
+          Map.Entry<String, Set<String>> entry = it.next();
+          if (started.containsAll(entry.getValue())) {
+            it.remove();
+            MachineStartTask task = new MachineStartTask(entry.getKey(), machineStarter, completed);
+            running.add(task);
+            try {
+              sharedPool.execute(task);
+            } catch (RejectedExecutionException ignored) {
+              // task is started by this thread
+            }
+          }
+        }
+        if (running.isEmpty()) {
+          // should not happen, dependencies are validated by start strategy
+          throw new ServerException(
+              format(
+                  "Start of machines '%s' of workspace '%s' can't be ordered",
+                  pending.keySet(), workspaceId));
+        }
+
+        MachineStartTask done = completed.poll();
+        if (done == null) {
+          MachineStartTask notTaken =
+              running.stream().filter(MachineStartTask::take).findFirst().orElse(null);
+          if (notTaken != null) {
+            notTaken.startTaken();
+          }
+          done = completed.take();
+        }
+        running.remove(done);
+        if (done.error != null) {
+          failure = done.error;
+        } else {
+          started.add(done.machineName);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new EnvironmentStartInterruptedException(workspaceId, envName);
+    } finally {
+      awaitCancelled(running, completed);
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw (Exception) failure;
+    }
+  }
+
+  /** Interrupts starts of machines and waits until they end. */
+  private void awaitCancelled(
+      List<MachineStartTask> running, BlockingQueue<MachineStartTask> completed) {
+    running.forEach(MachineStartTask::cancel);
+    boolean interrupted = false;
+    int remaining = running.size();
+    while (remaining > 0) {
+      try {
+        completed.take();
+        remaining--;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Starts machine of starting environment and removes it from the start graph. */
+  private void startEnvironmentMachine(
+      String ownerName,
+      String workspaceId,
+      String envName,
+      String devMachineName,
+      String networkId,
+      boolean recover,
+      String creator,
+      MessageConsumer<MachineLogMessage> envLogger,
+      MachineStartedHandler startedHandler,
+      String machineName)
+      throws ServerException, AgentException, EnvironmentException {
+    boolean isDev = devMachineName.equals(machineName);
+    // Environment start is failed when any machine start is failed, so if any error
+    // occurs during machine creation then environment start fail is reported and
+    // start resources such as queue and descriptor must be cleaned up
+
+    CheServiceImpl service;
+    @Nullable ExtendedMachine extendedMachine;
+    try (@SuppressWarnings("unused")
+        Unlocker u = stripedLocks.readLock(workspaceId)) {
+      EnvironmentHolder environmentHolder = environments.get(workspaceId);
+      if (environmentHolder == null) {
+        throw new EnvironmentStartInterruptedException(workspaceId, envName);
+      }
+      service = environmentHolder.environment.getServices().get(machineName);
+      extendedMachine = environmentHolder.environmentConfig.getMachines().get(machineName);
+    }
+    // should not happen
+    if (service == null) {
+      LOG.error(
+          "Start of machine with name {} in workspace {} failed. Machine not found in start queue",
+          machineName,
+          workspaceId);
+      throw new ServerException(
+          format(
+              "Environment of workspace with ID '%s' failed due to internal error", workspaceId));
+    }
+
+    // needed to reuse startInstance method and
+    // create machine instances by different implementation-specific providers
+    MachineStarter machineStarter =
+        (machineLogger, machineSource) -> {
+          CheServiceImpl serviceWithNormalizedSource =
+              normalizeServiceSource(service, machineSource);
+          return machineProvider.startService(
+              ownerName,
+              workspaceId,
+              envName,
+              machineName,
+              isDev,
+              networkId,
+              serviceWithNormalizedSource,
+              machineLogger);
+        };
+
+    MachineImpl machine =
+        MachineImpl.builder()
+            .setConfig(
+                MachineConfigImpl.builder()
+                    .setDev(isDev)
+                    .setLimits(new MachineLimitsImpl(bytesToMB(service.getMemLimit())))
+                    .setType("docker")
+                    .setName(machineName)
+                    .setEnvVariables(service.getEnvironment())
+                    .build())
+            .setId(service.getId())
+            .setWorkspaceId(workspaceId)
+            .setStatus(MachineStatus.CREATING)
+            .setEnvName(envName)
+            .setOwner(creator)
+            .build();
+
+    checkInterruption(workspaceId, envName);
+    Instance instance = startInstance(recover, envLogger, machine, machineStarter);
+    checkInterruption(workspaceId, envName);
+
+    startedHandler.started(instance, extendedMachine);
+    checkInterruption(workspaceId, envName);
+
+    // Machine destroying is an expensive operation which must be
+    // performed outside of the lock, this section checks if
+    // the environment wasn't stopped while it is starting and sets
+    // polled flag to true if the environment wasn't stopped.
+    // Also removes the proceeded machine from the start graph
+    boolean queuePolled = false;
+    try (@SuppressWarnings("unused")
+        Unlocker u = stripedLocks.writeLock(workspaceId)) {
+      ensurePreDestroyIsNotExecuted();
+      EnvironmentHolder environmentHolder = environments.get(workspaceId);
+      if (environmentHolder != null) {
+        environmentHolder.startGraph.remove(machineName);
+        queuePolled = true;
+      }
+    }
+
+    // If machine is not removed from the start graph
+    // then environment was stopped and newly created machine
+    // must be destroyed
+    if (!queuePolled) {
+      try {
+        eventService.publish(
+            newDto(MachineStatusEvent.class)
+                .withEventType(MachineStatusEvent.EventType.DESTROYING)
+                .withDev(isDev)
+                .withMachineName(machineName)
+                .withMachineId(instance.getId())
+                .withWorkspaceId(workspaceId));
+
+        instance.destroy();
+
+        removeMachine(workspaceId, instance.getId());
+
+        eventService.publish(
+            newDto(MachineStatusEvent.class)
+                .withEventType(MachineStatusEvent.EventType.DESTROYED)
+                .withDev(isDev)
+                .withMachineName(machineName)
+                .withMachineId(instance.getId())
+                .withWorkspaceId(workspaceId));
+      } catch (MachineException e) {
+        LOG.error(e.getLocalizedMessage(), e);
+      }
+      throw new ServerException(
+          "Workspace '"
+              + workspaceId
+              + "' start interrupted. Workspace stopped before all its machines started");
+    }
+  }
+
   private void checkInterruption(String workspaceId, String envName)
       throws EnvironmentStartInterruptedException {
     if (Thread.interrupted()) {
@@ -1007,6 +1139,82 @@ public class CheEnvironmentEngine {
         throws ServerException, NotFoundException, EnvironmentException;
   }
 
+  private interface EnvironmentMachineStarter {
+    void start(String machineName) throws ServerException, AgentException, EnvironmentException;
+  }
+
+  /**
+   * Start of a single machine which is run either by the shared pool or by the thread which starts
+   * environment, whichever takes it first.
+   */
+  private static final class MachineStartTask implements Runnable {
+    private final String machineName;
+    private final EnvironmentMachineStarter starter;
+    private final BlockingQueue<MachineStartTask> completed;
+    private final AtomicBoolean taken = new AtomicBoolean();
+
+    private Thread thread;
+    private boolean cancelled;
+    private volatile Throwable error;
+
+    private MachineStartTask(
+        String machineName,
+        EnvironmentMachineStarter starter,
+        BlockingQueue<MachineStartTask> completed) {
+      this.machineName = machineName;
+      this.starter = starter;
+      this.completed = completed;
+    }
+
+    @Override
+    public void run() {
+      if (take()) {
+        startTaken();
+      }
+    }
+
+    /** Returns {@code true} if the task is taken for start by the calling thread. */
+    private boolean take() {
+      return taken.compareAndSet(false, true);
+    }
+
+    private void startTaken() {
+      try {
+        synchronized (this) {
+          if (cancelled) {
+            throw new InterruptedException("Start of machine " + machineName + " is cancelled");
+          }
+          thread = Thread.currentThread();
+        }
+        starter.start(machineName);
+      } catch (Throwable x) {
+        error = x;
+      } finally {
+        synchronized (this) {
+          thread = null;
+        }
+        completed.add(this);
+      }
+    }
+
+    /** Interrupts start of machine, or prevents it if it's not started yet. */
+    private void cancel() {
+      if (take()) {
+        synchronized (this) {
+          cancelled = true;
+        }
+        completed.add(this);
+        return;
+      }
+      synchronized (this) {
+        cancelled = true;
+        if (thread != null) {
+          thread.interrupt();
+        }
+      }
+    }
+  }
+
   private CheServiceImpl normalizeServiceSource(CheServiceImpl service, MachineSource machineSource)
       throws ServerException {
     CheServiceImpl serviceWithNormalizedSource = service;
@@ -1126,13 +1334,14 @@ public class CheEnvironmentEngine {
         Unlocker u = stripedLocks.readLock(workspaceId)) {
       ensurePreDestroyIsNotExecuted();
       EnvironmentHolder environmentHolder = environments.get(workspaceId);
-      if (environmentHolder == null || environmentHolder.startQueue == null) {
+      if (environmentHolder == null) {
         throw new ServerException(
             "Workspace "
                 + workspaceId
                 + " start interrupted. Workspace was stopped before all its machines were started");
       }
-      return environmentHolder.startQueue.peek();
+      Iterator<String> pending = environmentHolder.startGraph.keySet().iterator();
+      return pending.hasNext() ? pending.next() : null;
     }
   }
 
@@ -1310,7 +1519,8 @@ public class CheEnvironmentEngine {
   }
 
   private static class EnvironmentHolder {
-    final Queue<String> startQueue;
+    /** Machines which are not started yet mapped to machines they depend on, in order of start. */
+    final Map<String, Set<String>> startGraph;
     final CheServicesEnvironmentImpl environment;
     final MessageConsumer<MachineLogMessage> logger;
     final String name;
@@ -1321,14 +1531,14 @@ public class CheEnvironmentEngine {
     EnvStatus status;
 
     EnvironmentHolder(
-        List<String> startQueue,
+        Map<String, Set<String>> startGraph,
         CheServicesEnvironmentImpl environment,
         Environment environmentConfig,
         MessageConsumer<MachineLogMessage> envLogger,
         EnvStatus envStatus,
         String name,
         String networkId) {
-      this.startQueue = new ArrayDeque<>(startQueue);
+      this.startGraph = new LinkedHashMap<>(startGraph);
       this.machines = new CopyOnWriteArrayList<>();
       this.logger = envLogger;
       this.status = envStatus;
@@ -1343,7 +1553,7 @@ public class CheEnvironmentEngine {
       if (this == o) return true;
       if (!(o instanceof EnvironmentHolder)) return false;
       EnvironmentHolder that = (EnvironmentHolder) o;
-      return Objects.equals(startQueue, that.startQueue)
+      return Objects.equals(startGraph, that.startGraph)
           && Objects.equals(machines, that.machines)
           && status == that.status
           && Objects.equals(logger, that.logger)
@@ -1355,7 +1565,7 @@ public class CheEnvironmentEngine {
     @Override
     public int hashCode() {
       return Objects.hash(
-          startQueue, machines, status, logger, name, environmentConfig, environment);
+          startGraph, machines, status, logger, name, environmentConfig, environment);
     }
   }
 
@@ -16,6 +16,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,20 +40,37 @@ public class DefaultServicesStartStrategy {
   public List<String> order(CheServicesEnvironmentImpl composeEnvironment)
       throws IllegalArgumentException {
 
-    Map<String, Integer> weights = weightMachines(composeEnvironment.getServices());
+    Map<String, Set<String>> dependencies = findDependencies(composeEnvironment.getServices());
 
-    return sortByWeight(weights);
+    return sortByWeight(weightMachines(dependencies));
   }
 
   /**
-   * Returns mapping of names of machines to its weights in dependency graph.
+   * Resolves dependency graph of machines in an environment. Keys of the returned map are names of
+   * machines in order of start, values are names of machines each machine depends on. Machines that
+   * do not depend on each other, directly or through other machines, may be started concurrently.
    *
-   * @throws IllegalArgumentException if weights of machines can not be calculated
+   * @throws IllegalArgumentException if order of machines can not be calculated
    */
-  private Map<String, Integer> weightMachines(Map<String, CheServiceImpl> services)
+  public Map<String, Set<String>> dependencies(CheServicesEnvironmentImpl composeEnvironment)
       throws IllegalArgumentException {
 
-    HashMap<String, Integer> weights = new HashMap<>();
+    Map<String, Set<String>> dependencies = findDependencies(composeEnvironment.getServices());
+
+    Map<String, Set<String>> graph = new LinkedHashMap<>();
+    for (String machine : sortByWeight(weightMachines(dependencies))) {
+      graph.put(machine, dependencies.get(machine));
+    }
+    return graph;
+  }
+
+  /**
+   * Returns mapping of names of machines to names of machines they depend on.
+   *
+   * @throws IllegalArgumentException if dependency points to unknown machine
+   */
+  private Map<String, Set<String>> findDependencies(Map<String, CheServiceImpl> services)
+      throws IllegalArgumentException {
 
     // create machines dependency graph
     Map<String, Set<String>> dependencies = new HashMap<>(services.size());
@@ -90,6 +108,19 @@ public class DefaultServicesStartStrategy {
       }
       dependencies.put(serviceEntry.getKey(), machineDependencies);
     }
+    return dependencies;
+  }
+
+  /**
+   * Returns mapping of names of machines to its weights in dependency graph.
+   *
+   * @throws IllegalArgumentException if weights of machines can not be calculated
+   */
+  private Map<String, Integer> weightMachines(Map<String, Set<String>> machinesDependencies)
+      throws IllegalArgumentException {
+
+    HashMap<String, Integer> weights = new HashMap<>();
+    Map<String, Set<String>> dependencies = new HashMap<>(machinesDependencies);
 
     // Find weight of each machine in graph.
     // Weight of machine is calculated as sum of all weights of machines it depends on.
@@ -16,6 +16,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
@@ -45,6 +46,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import org.eclipse.che.api.agent.server.AgentRegistry;
 import org.eclipse.che.api.agent.server.exception.AgentException;
 import org.eclipse.che.api.agent.shared.model.Agent;
@@ -145,7 +148,8 @@ public class CheEnvironmentEngineTest {
                 recipeDownloader,
                 containerNameGenerator,
                 agentRegistry,
-                sharedPool));
+                sharedPool,
+                1));
 
     when(machineInstanceProviders.getProvider("docker")).thenReturn(instanceProvider);
     when(instanceProvider.getRecipeTypes()).thenReturn(Collections.singleton("dockerfile"));
@@ -1492,6 +1496,149 @@ public class CheEnvironmentEngineTest {
     engine.start(workspaceId, envName, env, false, messageConsumer, startedHandler);
   }
 
+  @Test
+  public void shouldStartMachinesWhichDoNotDependOnEachOtherConcurrently() throws Exception {
+    // given
+    WorkspaceSharedPool pool = new WorkspaceSharedPool("cached", null, null);
+    engine =
+        spy(
+            new CheEnvironmentEngine(
+                snapshotDao,
+                machineInstanceProviders,
+                System.getProperty("java.io.tmpdir"),
+                DEFAULT_MACHINE_MEM_LIMIT_MB,
+                eventService,
+                environmentParser,
+                new DefaultServicesStartStrategy(),
+                machineProvider,
+                infrastructureProvisioner,
+                API_ENDPOINT,
+                recipeDownloader,
+                containerNameGenerator,
+                agentRegistry,
+                pool,
+                4));
+    EnvironmentImpl env = createEnv();
+    env.getMachines().put("machine3", new ExtendedMachineImpl(emptyList(), null, emptyMap()));
+    CheServicesEnvironmentImpl cheServicesEnv = createCheServicesEnv();
+    cheServicesEnv
+        .getServices()
+        .put(
+            "machine3",
+            new CheServiceImpl()
+                .withBuild(new CheServiceBuildContextImpl().withContext("image"))
+                .withDependsOn(asList("dev-machine", "machine2")));
+    when(environmentParser.parse(env)).thenReturn(cheServicesEnv);
+    String envName = "env-1";
+    String workspaceId = "wsId";
+    CountDownLatch independentMachinesStarting = new CountDownLatch(2);
+    List<String> startedMachines = new CopyOnWriteArrayList<>();
+    when(machineProvider.startService(
+            anyString(),
+            eq(workspaceId),
+            eq(envName),
+            anyString(),
+            anyBoolean(),
+            anyString(),
+            any(CheServiceImpl.class),
+            any(LineConsumer.class)))
+        .thenAnswer(
+            invocationOnMock -> {
+              Object[] arguments = invocationOnMock.getArguments();
+              String machineName = (String) arguments[3];
+              boolean isDev = (boolean) arguments[4];
+              CheServiceImpl service = (CheServiceImpl) arguments[6];
+              if (!"machine3".equals(machineName)) {
+                // returns only when both independent machines are starting
+                independentMachinesStarting.countDown();
+                assertTrue(independentMachinesStarting.await(10, SECONDS));
+              }
+              startedMachines.add(machineName);
+              Machine machine = createMachine(workspaceId, envName, service, machineName, isDev);
+              return new NoOpMachineInstance(machine);
+            });
+
+    try {
+      // when
+      List<Instance> machines =
+          engine.start(workspaceId, envName, env, false, messageConsumer, startedHandler);
+
+      // then
+      assertEquals(machines.size(), 3);
+      assertEquals(startedMachines.size(), 3);
+      assertEquals(startedMachines.get(2), "machine3");
+    } finally {
+      pool.getExecutor().shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldInterruptStartsOfOtherMachinesWhenStartOfMachineFails() throws Exception {
+    // given
+    WorkspaceSharedPool pool = new WorkspaceSharedPool("cached", null, null);
+    engine =
+        spy(
+            new CheEnvironmentEngine(
+                snapshotDao,
+                machineInstanceProviders,
+                System.getProperty("java.io.tmpdir"),
+                DEFAULT_MACHINE_MEM_LIMIT_MB,
+                eventService,
+                environmentParser,
+                new DefaultServicesStartStrategy(),
+                machineProvider,
+                infrastructureProvisioner,
+                API_ENDPOINT,
+                recipeDownloader,
+                containerNameGenerator,
+                agentRegistry,
+                pool,
+                4));
+    EnvironmentImpl env = createEnv();
+    when(environmentParser.parse(env)).thenReturn(createCheServicesEnv());
+    String envName = "env-1";
+    String workspaceId = "wsId";
+    CountDownLatch devMachineStarting = new CountDownLatch(1);
+    when(machineProvider.startService(
+            anyString(),
+            eq(workspaceId),
+            eq(envName),
+            anyString(),
+            anyBoolean(),
+            anyString(),
+            any(CheServiceImpl.class),
+            any(LineConsumer.class)))
+        .thenAnswer(
+            invocationOnMock -> {
+              String machineName = (String) invocationOnMock.getArguments()[3];
+              if ("dev-machine".equals(machineName)) {
+                devMachineStarting.countDown();
+                // blocks until start is interrupted
+                try {
+                  Thread.sleep(SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  throw new ServerException("dev-machine start is interrupted");
+                }
+                throw new ServerException("dev-machine start is not interrupted");
+              }
+              assertTrue(devMachineStarting.await(10, SECONDS));
+              throw new ServerException("machine2 start failed");
+            });
+
+    try {
+      // when
+      engine.start(workspaceId, envName, env, false, messageConsumer, startedHandler);
+      fail("Environment start must fail");
+    } catch (ServerException e) {
+      // then
+      assertEquals(e.getMessage(), "machine2 start failed");
+    } finally {
+      pool.getExecutor().shutdownNow();
+    }
+    verify(startedHandler, never()).started(any(Instance.class), any(ExtendedMachine.class));
+  }
+
   private List<Instance> startEnv() throws Exception {
     EnvironmentImpl env = createEnv();
     CheServicesEnvironmentImpl cheServicesEnv = createCheServicesEnv();
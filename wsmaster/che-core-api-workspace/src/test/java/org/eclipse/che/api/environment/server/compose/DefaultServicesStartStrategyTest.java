@@ -12,12 +12,18 @@ package org.eclipse.che.api.environment.server.compose;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertEqualsNoOrder;
 import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.eclipse.che.api.environment.server.DefaultServicesStartStrategy;
 import org.eclipse.che.api.environment.server.model.CheServiceImpl;
 import org.eclipse.che.api.environment.server.model.CheServicesEnvironmentImpl;
@@ -82,6 +88,30 @@ public class DefaultServicesStartStrategyTest {
     assertEquals(actual, expected);
   }
 
+  @Test
+  public void shouldReturnDependenciesOfServicesInOrderOfStart() throws Exception {
+    // given
+    CheServicesEnvironmentImpl composeEnvironment = new CheServicesEnvironmentImpl();
+    composeEnvironment
+        .getServices()
+        .put("web", new CheServiceImpl().withLinks(asList("db:database", "cache")));
+    composeEnvironment.getServices().put("db", new CheServiceImpl());
+    composeEnvironment.getServices().put("cache", new CheServiceImpl());
+    composeEnvironment
+        .getServices()
+        .put("dev-machine", new CheServiceImpl().withVolumesFrom(singletonList("web:ro")));
+
+    // when
+    Map<String, Set<String>> actual = strategy.dependencies(composeEnvironment);
+
+    // then
+    assertEquals(new ArrayList<>(actual.keySet()).subList(2, 4), asList("web", "dev-machine"));
+    assertEquals(actual.get("db"), emptySet());
+    assertEquals(actual.get("cache"), emptySet());
+    assertEquals(actual.get("web"), new HashSet<>(asList("db", "cache")));
+    assertEquals(actual.get("dev-machine"), singleton("web"));
+  }
+
   @Test
   public void testOrderingOfServicesWithoutDependencies() throws Exception {
     // given
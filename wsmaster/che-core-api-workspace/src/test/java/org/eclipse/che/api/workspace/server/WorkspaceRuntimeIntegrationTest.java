@@ -107,7 +107,8 @@ public class WorkspaceRuntimeIntegrationTest {
             recipeDownloader,
             containerNameGenerator,
             agentRegistry,
-            sharedPool);
+            sharedPool,
+            1);
 
     runtimes =
         new WorkspaceRuntimes(